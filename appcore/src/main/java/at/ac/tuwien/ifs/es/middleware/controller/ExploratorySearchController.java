@@ -10,6 +10,7 @@ import at.ac.tuwien.ifs.es.middleware.service.exploration.status.OperatorInfo;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.status.OperatorStatusService;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.status.SimpleOperatorStatusService;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.factory.DynamicExplorationFlowFactory;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendUnavailableException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -24,6 +25,7 @@ import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -124,4 +126,14 @@ public class ExploratorySearchController {
         HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(BackendUnavailableException.class)
+  public ResponseEntity<EFExceptionDTO> handleBackendUnavailableException(
+      BackendUnavailableException ex, HttpServletRequest request) {
+    logger.warn("Request '{}' has been rejected, because the backend is unavailable. {}",
+        request.getRequestURI(), ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterInSeconds()))
+        .body(new EFExceptionDTO("The backend is unavailable. " + ex.getMessage()));
+  }
+
 }
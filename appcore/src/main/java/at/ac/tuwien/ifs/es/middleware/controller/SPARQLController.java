@@ -1,15 +1,22 @@
 package at.ac.tuwien.ifs.es.middleware.controller;
 
-import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceIllegalArgumentException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.MaterializedStreamingQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.StreamingQueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultSerializationException;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceExecutionException;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceIllegalArgumentException;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendUnavailableException;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
@@ -27,6 +34,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * This {@link RestController} handles incoming SPARQL queries and delegates them to the SPARQL
@@ -43,6 +51,9 @@ public class SPARQLController {
 
   private static final Logger logger = LoggerFactory.getLogger(SPARQLService.class);
 
+  static final int RESULT_BUFFER_SIZE = 64 * 1024;
+  static final String INCOMPLETE_RESULT_MARKER = "#ERROR: The result is incomplete.";
+
   private SPARQLService sparqlService;
 
   /**
@@ -68,14 +79,53 @@ public class SPARQLController {
   }
 
   /**
-   * Helper method for SPARQL query requests.
+   * Helper method for SPARQL query requests. The query is validated and the mime type negotiated
+   * before the response is committed, the result is then served from the cache or, if it is too
+   * large to be cached, streamed straight from the knowledge graph into the response body (see
+   * {@link SPARQLService#stream(String, boolean)}). If the knowledge graph isn't able to stream
+   * results, the result is materialized by the cached {@link SPARQLService#query(String, boolean)}
+   * instead.
+   * <p/>
+   * The first {@link #RESULT_BUFFER_SIZE} bytes of the result are buffered, such that a query
+   * failing early is answered with an error status. If the query fails after the response has been
+   * committed, the {@link #INCOMPLETE_RESULT_MARKER} followed by the failure is appended to the
+   * body and the response is aborted, such that the truncated result can't be mistaken for a
+   * complete one.
    */
-  private ResponseEntity<byte[]> issueSPARQLQuery(String query, List<String> mimeTypes,
-      boolean inference) {
-    byte[] response = sparqlService.query(query, inference).transform(mimeTypes);
+  private ResponseEntity<StreamingResponseBody> issueSPARQLQuery(String query,
+      List<String> mimeTypes, boolean inference) {
+    StreamingQueryResult result = sparqlService.isStreamingSupported() ? sparqlService
+        .stream(query, inference)
+        : new MaterializedStreamingQueryResult(sparqlService.query(query, inference));
+    String mimeType;
+    try {
+      mimeType = result.matchMimeType(mimeTypes)
+          .orElseThrow(result.getMimeTypeException(mimeTypes));
+    } catch (KGSPARQLResultFormatException e) {
+      result.close();
+      throw e;
+    }
     HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.valueOf(mimeTypes.get(0)));
-    return new ResponseEntity<>(response, headers, HttpStatus.OK);
+    headers.setContentType(MediaType.valueOf(mimeType));
+    StreamingResponseBody body = out -> {
+      DeferredCommitOutputStream resultOut = new DeferredCommitOutputStream(out,
+          RESULT_BUFFER_SIZE);
+      try {
+        result.writeTo(mimeType, resultOut);
+        resultOut.commit();
+      } catch (RuntimeException e) {
+        logger.error("Streaming the result of query '{}' failed. {}", query, e.getMessage());
+        if (resultOut.isCommitted()) {
+          out.write(String.format("%n%s %s%n", INCOMPLETE_RESULT_MARKER, e.getMessage())
+              .getBytes(StandardCharsets.UTF_8));
+          out.flush();
+        }
+        throw e;
+      } finally {
+        result.close();
+      }
+    };
+    return new ResponseEntity<>(body, headers, HttpStatus.OK);
   }
 
   @GetMapping(value = "")
@@ -86,7 +136,7 @@ public class SPARQLController {
       @ApiResponse(code = 406, message = "None get the given MIME Types is supported."),
       @ApiResponse(code = 500, message = "This response indicates that the query execution failed. Reason can be found in the response body."),
   })
-  public ResponseEntity<byte[]> queryGet(
+  public ResponseEntity<StreamingResponseBody> queryGet(
       @ApiParam(value = "SELECT, ASK, DESCRIBE or CONSTRUCT query that shall be executed.", required = true) @RequestParam String query,
       @ApiParam(value = "Accepted MIME type for query response.", required = true) @RequestHeader(value = "Accept") String mimeTypes,
       @ApiParam("Whether inferred statements should be considered/returned, or not.")
@@ -105,7 +155,7 @@ public class SPARQLController {
       @ApiResponse(code = 406, message = "None get the given MIME Types is supported."),
       @ApiResponse(code = 500, message = "This response indicates that the query execution failed. Reason can be found in the response body."),
   })
-  public ResponseEntity<byte[]> queryPost(
+  public ResponseEntity<StreamingResponseBody> queryPost(
       @ApiParam(value = "SELECT, ASK, DESCRIBE or CONSTRUCT query that shall be executed.", required = true) @RequestParam String query,
       @ApiParam(value = "Accepted MIME type for query response.") @RequestHeader(value = "Accept") String mimeTypes,
       @ApiParam("Whether inferred statements should be considered/returned, or not.")
@@ -165,4 +215,71 @@ public class SPARQLController {
     return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(BackendUnavailableException.class)
+  public ResponseEntity<String> handleBackendUnavailableException(
+      BackendUnavailableException ex, HttpServletRequest request) {
+    logger.warn("Request '{}' has been rejected, because the backend is unavailable. {}",
+        request.getRequestURI(), ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterInSeconds()))
+        .body(ex.getMessage());
+  }
+
+  /**
+   * An {@link OutputStream}, which buffers the written bytes, until the given number of bytes has
+   * been exceeded or it is committed explicitly. Afterwards, the bytes are passed on to the given
+   * {@link OutputStream}.
+   */
+  static class DeferredCommitOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final int bufferSize;
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    DeferredCommitOutputStream(OutputStream out, int bufferSize) {
+      this.out = out;
+      this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (buffer == null) {
+        out.write(b, off, len);
+        return;
+      }
+      buffer.write(b, off, len);
+      if (buffer.size() > bufferSize) {
+        commit();
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (buffer == null) {
+        out.flush();
+      }
+    }
+
+    /**
+     * Passes on the buffered bytes to the underlying {@link OutputStream}, and all further bytes
+     * are written straight into it.
+     */
+    void commit() throws IOException {
+      if (buffer != null) {
+        buffer.writeTo(out);
+        buffer = null;
+      }
+      out.flush();
+    }
+
+    boolean isCommitted() {
+      return buffer == null;
+    }
+  }
+
 }
@@ -0,0 +1,42 @@
+package at.ac.tuwien.ifs.es.middleware.controller;
+
+import at.ac.tuwien.ifs.es.middleware.service.caching.StaleResults;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * This advice marks responses with a {@code Warning: 110} header (see RFC 7234), if they have been
+ * computed with stale cached results, because the backend was unavailable (see {@link
+ * StaleResults}).
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@ControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+  public static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+  @Override
+  public boolean supports(MethodParameter returnType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType,
+      MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request, ServerHttpResponse response) {
+    if (StaleResults.isStale()) {
+      response.getHeaders().add(HttpHeaders.WARNING, STALE_WARNING);
+    }
+    return body;
+  }
+}
@@ -0,0 +1,34 @@
+package at.ac.tuwien.ifs.es.middleware.controller;
+
+import at.ac.tuwien.ifs.es.middleware.service.caching.StaleResults;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * This filter resets the {@link StaleResults} of the serving thread at the beginning and end of
+ * each request, such that stale results of a previous request aren't attributed to the current
+ * one.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class StaleResultsFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    StaleResults.reset();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      StaleResults.reset();
+    }
+  }
+}
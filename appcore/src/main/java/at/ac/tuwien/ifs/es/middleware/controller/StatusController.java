@@ -4,6 +4,7 @@ import at.ac.tuwien.ifs.es.middleware.VersionManager;
 import at.ac.tuwien.ifs.es.middleware.controller.meta.Beat;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.status.KGDAOStatus;
 import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendObserverService;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.CircuitBreaker.State;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
@@ -56,4 +57,13 @@ public class StatusController {
     return backendObserverService.getBackendServiceStatusMap();
   }
 
+  @GetMapping(value = "/health/backend/circuit")
+  @ApiOperation(value = "Gets the state of the circuit breakers of the backend service (SPARQL, Full-Text-Search).")
+  @ApiResponses({
+      @ApiResponse(code = 200, message = "")
+  })
+  public Map<String, State> getCircuitStateOfBackend() {
+    return backendObserverService.getCircuitStateMap();
+  }
+
 }
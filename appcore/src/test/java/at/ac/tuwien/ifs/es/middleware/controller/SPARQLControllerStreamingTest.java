@@ -0,0 +1,320 @@
+package at.ac.tuwien.ifs.es.middleware.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.StreamingQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
+import at.ac.tuwien.ifs.es.middleware.service.caching.BoundedCache;
+import at.ac.tuwien.ifs.es.middleware.service.caching.SPARQLQueryKeyGenerator;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceExecutionException;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * This class tests the streaming of query results by the {@link SPARQLController}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SPARQLControllerStreamingTest {
+
+  private static final String QUERY = "SELECT * WHERE { ?s ?p ?o }";
+  private static final String MIME_TYPE = "text/csv";
+
+  private FakeSPARQLService sparqlService;
+  private SPARQLController controller;
+
+  @Before
+  public void setUp() {
+    sparqlService = new FakeSPARQLService();
+    controller = new SPARQLController(sparqlService);
+  }
+
+  private String write(ResponseEntity<StreamingResponseBody> response, ByteArrayOutputStream out)
+      throws IOException {
+    response.getBody().writeTo(out);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void streamedResult_mustBeWrittenCompletely() throws Exception {
+    sparqlService.result = new FakeStreamingQueryResult("a,b\n", 3, -1);
+    String body = write(controller.queryGet(QUERY, MIME_TYPE, false), new ByteArrayOutputStream());
+    assertThat(body, is("a,b\na,b\na,b\n"));
+    assertThat(sparqlService.streamCalls, is(1));
+    assertThat(sparqlService.result.closed, is(true));
+  }
+
+  @Test
+  public void failureBeforeCommit_mustNotWriteAnything() {
+    sparqlService.result = new FakeStreamingQueryResult("a,b\n", 3, 1);
+    ResponseEntity<StreamingResponseBody> response = controller.queryGet(QUERY, MIME_TYPE, false);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertThrows(SPARQLServiceExecutionException.class, () -> response.getBody().writeTo(out));
+    assertThat(out.size(), is(0));
+    assertThat(sparqlService.result.closed, is(true));
+  }
+
+  @Test
+  public void failureAfterCommit_mustEndResultWithVisibleError() {
+    int rows = SPARQLController.RESULT_BUFFER_SIZE / 4 + 10;
+    sparqlService.result = new FakeStreamingQueryResult("a,b\n", rows, rows - 1);
+    ResponseEntity<StreamingResponseBody> response = controller.queryGet(QUERY, MIME_TYPE, false);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertThrows(SPARQLServiceExecutionException.class, () -> response.getBody().writeTo(out));
+    String body = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    assertThat(body, containsString(SPARQLController.INCOMPLETE_RESULT_MARKER));
+    assertThat(body, containsString("The backend failed."));
+  }
+
+  @Test
+  public void unsupportedMimeType_mustCloseResult() {
+    sparqlService.result = new FakeStreamingQueryResult("a,b\n", 3, -1);
+    assertThrows(KGSPARQLResultFormatException.class,
+        () -> controller.queryGet(QUERY, "image/png", false));
+    assertThat(sparqlService.result.closed, is(true));
+  }
+
+  @Test
+  public void nonStreamingBackend_mustUseCachedQuery() throws Exception {
+    sparqlService.streamingSupported = false;
+    String body = write(controller.queryGet(QUERY, MIME_TYPE, false), new ByteArrayOutputStream());
+    assertThat(body, is("a,b\n"));
+    assertThat(sparqlService.queryCalls, is(1));
+    assertThat(sparqlService.streamCalls, is(0));
+  }
+
+  /**
+   * Creates a {@link SPARQLController} with a {@link SimpleSPARQLService} on top of the given DAO,
+   * whose {@code sparql} cache has the given maximal size in bytes.
+   */
+  private static SPARQLController cachingController(KGSparqlDAO sparqlDAO, long cacheSize) {
+    SimpleCacheManager cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(Collections.singletonList(
+        new BoundedCache("sparql", cacheSize, Duration.ZERO)));
+    cacheManager.initializeCaches();
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("cacheManager", cacheManager);
+    beanFactory.addBean("sparqlQueryKeyGenerator", new SPARQLQueryKeyGenerator(100));
+    return new SPARQLController(new SimpleSPARQLService(sparqlDAO,
+        beanFactory.getBeanProvider(BackendCircuitBreakers.class),
+        beanFactory.getBeanProvider(CacheManager.class),
+        beanFactory.getBeanProvider(SPARQLQueryKeyGenerator.class)));
+  }
+
+  @Test
+  public void repeatedQuery_mustBeServedFromCache() throws Exception {
+    StreamingSparqlDAO sparqlDAO = new StreamingSparqlDAO();
+    SPARQLController cachingController = cachingController(sparqlDAO, 1024 * 1024);
+    for (int i = 0; i < 2; i++) {
+      String body = write(cachingController.queryGet(QUERY, MIME_TYPE, false),
+          new ByteArrayOutputStream());
+      assertThat(body, is("a,b\n"));
+    }
+    assertThat(sparqlDAO.queryCalls, is(1));
+    assertThat(sparqlDAO.streamCalls, is(0));
+  }
+
+  @Test
+  public void resultTooLargeForCache_mustBeStreamedForLaterRequests() throws Exception {
+    StreamingSparqlDAO sparqlDAO = new StreamingSparqlDAO();
+    SPARQLController cachingController = cachingController(sparqlDAO, 1);
+    for (int i = 0; i < 3; i++) {
+      String body = write(cachingController.queryGet(QUERY, MIME_TYPE, false),
+          new ByteArrayOutputStream());
+      assertThat(body, is("a,b\n"));
+    }
+    assertThat(sparqlDAO.queryCalls, is(1));
+    assertThat(sparqlDAO.streamCalls, is(2));
+  }
+
+  /**
+   * Creates a {@link QueryResult}, which is serialized to a single CSV row.
+   */
+  private static QueryResult csvResult() {
+    return new QueryResult() {
+      @Override
+      public Optional<String> matchMimeType(List<String> mimeTypes) {
+        return mimeTypes.contains(MIME_TYPE) ? Optional.of(MIME_TYPE) : Optional.empty();
+      }
+
+      @Override
+      public Supplier<KGSPARQLResultFormatException> getMimeTypeException(
+          List<String> mimeTypes) {
+        return () -> new KGSPARQLResultFormatException(mimeTypes + " are not supported.");
+      }
+
+      @Override
+      public byte[] transform(String mimeType) {
+        return "a,b\n".getBytes(StandardCharsets.UTF_8);
+      }
+
+      @Override
+      public byte[] transform(List<String> mimeTypes) {
+        return transform(MIME_TYPE);
+      }
+    };
+  }
+
+  /**
+   * A {@link StreamingQueryResult}, which writes the given row the given number of times, and
+   * fails before writing the row with the given index.
+   */
+  private static class FakeStreamingQueryResult implements StreamingQueryResult {
+
+    private final String row;
+    private final int rows;
+    private final int failingRow;
+    private boolean closed = false;
+
+    private FakeStreamingQueryResult(String row, int rows, int failingRow) {
+      this.row = row;
+      this.rows = rows;
+      this.failingRow = failingRow;
+    }
+
+    @Override
+    public Optional<String> matchMimeType(List<String> mimeTypes) {
+      return mimeTypes.contains(MIME_TYPE) ? Optional.of(MIME_TYPE) : Optional.empty();
+    }
+
+    @Override
+    public Supplier<KGSPARQLResultFormatException> getMimeTypeException(List<String> mimeTypes) {
+      return () -> new KGSPARQLResultFormatException(mimeTypes + " are not supported.");
+    }
+
+    @Override
+    public void writeTo(String mimeType, OutputStream out) {
+      try {
+        for (int i = 0; i < rows; i++) {
+          if (i == failingRow) {
+            throw new SPARQLServiceExecutionException("The backend failed.");
+          }
+          out.write(row.getBytes(StandardCharsets.UTF_8));
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  /**
+   * A {@link SPARQLService}, which counts the calls of its query methods.
+   */
+  private static class FakeSPARQLService implements SPARQLService {
+
+    private FakeStreamingQueryResult result;
+    private boolean streamingSupported = true;
+    private int queryCalls = 0;
+    private int streamCalls = 0;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends QueryResult> T query(String query, boolean includeInference) {
+      queryCalls++;
+      return (T) csvResult();
+    }
+
+    @Override
+    public <T extends QueryResult> T query(BoundSPARQLQuery query, boolean includeInference) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SelectQueryResultCursor select(String query, boolean includeInference) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SelectQueryResultCursor select(BoundSPARQLQuery query, boolean includeInference) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public StreamingQueryResult stream(String query, boolean includeInference) {
+      streamCalls++;
+      return result;
+    }
+
+    @Override
+    public boolean isStreamingSupported() {
+      return streamingSupported;
+    }
+
+    @Override
+    public void update(String query) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * A streaming SPARQL DAO, which counts the evaluated queries.
+   */
+  private static class StreamingSparqlDAO implements KGSparqlDAO {
+
+    private int queryCalls = 0;
+    private int streamCalls = 0;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends QueryResult> T query(String query, boolean includeInferred) {
+      queryCalls++;
+      return (T) csvResult();
+    }
+
+    @Override
+    public StreamingQueryResult stream(String query, boolean includeInferred) {
+      streamCalls++;
+      return new FakeStreamingQueryResult("a,b\n", 1, -1);
+    }
+
+    @Override
+    public boolean isStreamingSupported() {
+      return true;
+    }
+
+    @Override
+    public void update(String query) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void update(long timestamp) {
+    }
+  }
+
+}
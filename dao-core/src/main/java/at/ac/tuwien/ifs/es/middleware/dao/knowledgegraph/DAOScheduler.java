@@ -1,12 +1,15 @@
 package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph;
 
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGUpdatedEvent;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin.SPARQLSyncingGremlinDAO;
 import at.ac.tuwien.ifs.es.middleware.scheduler.ScheduleTask;
 import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
 import at.ac.tuwien.ifs.es.middleware.scheduler.behaviour.NRetryBehaviour;
 import com.google.common.collect.Lists;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -64,6 +67,10 @@ public class DAOScheduler {
   }
 
   private void pushTasks(long daoTimestamp) {
+    pushTasks(daoTimestamp, gremlinDAO::setup);
+  }
+
+  private void pushTasks(long daoTimestamp, Runnable gremlinTask) {
     if (daoTimestamp == -1 && delayDAOInMs > 0) {
       try {
         Thread.sleep(delayDAOInMs);
@@ -76,7 +83,7 @@ public class DAOScheduler {
           new ScheduleTask(KGSparqlDAO.class.getName(), daoTimestamp, sparqlDAO::setup,
               daoDependencyGraphService.getSPARQLRequirements(),
               Collections.singleton(SPARQL_SERVICE_ID), NRetryBehaviour.of(10)),
-          new ScheduleTask(KGGremlinDAO.class.getName(), daoTimestamp, gremlinDAO::setup,
+          new ScheduleTask(KGGremlinDAO.class.getName(), daoTimestamp, gremlinTask,
               daoDependencyGraphService.getGremlinRequirements(),
               Collections.singleton(GREMLIN_SERVICE_ID), NRetryBehaviour.of(10)),
           new ScheduleTask(KGFullTextSearchDAO.class.getName(), daoTimestamp,
@@ -88,7 +95,15 @@ public class DAOScheduler {
 
   @EventListener
   public void onKnowledgeGraphUpdated(KGUpdatedEvent updatedEvent) {
-    pushTasks(updatedEvent.getTimestamp());
+    Optional<KGDelta> deltaOptional = updatedEvent.getDelta();
+    if (deltaOptional.isPresent() && gremlinDAO instanceof SPARQLSyncingGremlinDAO) {
+      KGDelta delta = deltaOptional.get();
+      long timestamp = updatedEvent.getTimestamp();
+      pushTasks(timestamp,
+          () -> ((SPARQLSyncingGremlinDAO) gremlinDAO).applyDelta(delta, timestamp));
+    } else {
+      pushTasks(updatedEvent.getTimestamp());
+    }
   }
 
 }
@@ -53,6 +53,25 @@ public interface KGGremlinDAO extends KGDAO {
    */
   void unlock();
 
+  /**
+   * Acquires a shared lock for read-only access to the backend. In contrast to {@link #lock()},
+   * several threads can hold this lock at the same time, but none of them while another thread
+   * holds the exclusive lock. If the gremlin backend supports transactions, a new transaction is
+   * started for the current thread. By default, the exclusive lock is acquired.
+   */
+  default void readLock() {
+    lock();
+  }
+
+  /**
+   * Releases the shared lock that has been acquired with {@link #readLock()}. If the gremlin backend
+   * supports transactions, the open transaction will be closed without committing any changes. By
+   * default, the exclusive lock is released.
+   */
+  default void readUnlock() {
+    unlock();
+  }
+
   /**
    * Gets the property graph schema for representing the RDF data. The returned schema must not be
    * null.
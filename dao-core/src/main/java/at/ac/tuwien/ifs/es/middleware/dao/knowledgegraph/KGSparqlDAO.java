@@ -1,7 +1,14 @@
 package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph;
 
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGMalformedSPARQLQueryException;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPARQLException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.ListSelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.MaterializedStreamingQueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.StreamingQueryResult;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
 
 /**
  * An instance of this interface represents a SPARQL interface to a certain knowledge graph. This
@@ -27,6 +34,99 @@ public interface KGSparqlDAO extends KGDAO {
   <T extends QueryResult> T query(String query, boolean includeInferred)
       throws KGSPARQLException;
 
+  /**
+   * Queries the knowledge graph using the given {@link BoundSPARQLQuery} and returns the result.
+   * The operations SELECT, ASK, CONSTRUCT and DESCRIBE are supported by this method.
+   * <p/>
+   * The default implementation executes the query string, in which the bound rows have been
+   * substituted. It should be overridden by DAOs that are able to evaluate the parsed query.
+   *
+   * @param query which shall be executed (SELECT, ASK, CONSTRUCT and DESCRIBE).
+   * @param includeInferred {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link QueryResult} of the SPARQL query.
+   * @throws KGSPARQLException if the given SPARQL query could not be executed successfully.
+   */
+  default <T extends QueryResult> T query(BoundSPARQLQuery query, boolean includeInferred)
+      throws KGSPARQLException {
+    return this.query(query.getQueryString(), includeInferred);
+  }
+
+  /**
+   * Queries the knowledge graph using the given SELECT SPARQL {@code query} and streams the result
+   * row by row. In contrast to {@link KGSparqlDAO#query(String, boolean)}, the result is not
+   * materialized in memory, which makes this method the preferred way to load large parts of the
+   * knowledge graph. The returned {@link SelectQueryResultCursor} must be closed by the caller.
+   * <p/>
+   * The default implementation materializes the result and should be overridden by DAOs that are
+   * able to stream results.
+   *
+   * @param query SELECT query which shall be executed.
+   * @param includeInferred {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link SelectQueryResultCursor} over the rows of the result.
+   * @throws KGSPARQLException if the given SPARQL query could not be executed successfully.
+   */
+  default SelectQueryResultCursor select(String query, boolean includeInferred)
+      throws KGSPARQLException {
+    QueryResult result = this.query(query, includeInferred);
+    if (!(result instanceof SelectQueryResult)) {
+      throw new KGMalformedSPARQLQueryException(
+          String.format("Given query must be a SELECT query, but was '%s'.", query));
+    }
+    return new ListSelectQueryResultCursor(((SelectQueryResult) result).value());
+  }
+  /**
+   * Queries the knowledge graph using the given SELECT {@link BoundSPARQLQuery} and streams the
+   * result row by row (see {@link KGSparqlDAO#select(String, boolean)}). The returned {@link
+   * SelectQueryResultCursor} must be closed by the caller.
+   * <p/>
+   * The default implementation executes the query string, in which the bound rows have been
+   * substituted. It should be overridden by DAOs that are able to evaluate the parsed query.
+   *
+   * @param query SELECT query which shall be executed.
+   * @param includeInferred {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link SelectQueryResultCursor} over the rows of the result.
+   * @throws KGSPARQLException if the given SPARQL query could not be executed successfully.
+   */
+  default SelectQueryResultCursor select(BoundSPARQLQuery query, boolean includeInferred)
+      throws KGSPARQLException {
+    return this.select(query.getQueryString(), includeInferred);
+  }
+
+
+  /**
+   * Validates the given SPARQL {@code query} and returns a {@link StreamingQueryResult}, which
+   * evaluates the query and serializes the result straight into an output stream. This is meant
+   * for serving query results to clients without materializing them. The operations SELECT, ASK,
+   * CONSTRUCT and DESCRIBE are supported by this method.
+   * <p/>
+   * The default implementation materializes the result and should be overridden by DAOs that are
+   * able to stream results.
+   *
+   * @param query which shall be executed (SELECT, ASK, CONSTRUCT and DESCRIBE).
+   * @param includeInferred {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link StreamingQueryResult} for the given SPARQL query.
+   * @throws KGSPARQLException if the given SPARQL query is malformed or could not be executed
+   * successfully.
+   */
+  default StreamingQueryResult stream(String query, boolean includeInferred)
+      throws KGSPARQLException {
+    return new MaterializedStreamingQueryResult(this.query(query, includeInferred));
+  }
+
+  /**
+   * Tells whether this DAO streams the results of {@link KGSparqlDAO#stream(String, boolean)}, or
+   * whether it only falls back to materializing them.
+   *
+   * @return {@code true}, if the results are streamed, otherwise {@code false}.
+   */
+  default boolean isStreamingSupported() {
+    return false;
+  }
+
   /**
    * Updates the knowledge graph using given SPARQL {@code query}.
    *
@@ -0,0 +1,348 @@
+package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.adjacency;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * This class represents an immutable adjacency index of the knowledge graph in the compressed
+ * sparse row (CSR) format. Vertices are identified by dense integer keys in the range of {@code
+ * [0, vertexCount)}, and the predicates of edges are identified by dense integer ids, which can be
+ * resolved with {@link #getPredicate(int)}.
+ * <p/>
+ * The outgoing edges of a vertex {@code v} are located at the positions {@code [outStart(v),
+ * outEnd(v))}, and their targets and predicates can be accessed with {@link #outTarget(int)} and
+ * {@link #outPredicate(int)}. The same holds for incoming edges. The index is backed by primitive
+ * arrays, such that it can be scanned by several threads in parallel without any allocation.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CSRAdjacencyIndex {
+
+  private static final int FORMAT_VERSION = 1;
+
+  private final int vertexCount;
+  private final String[] predicates;
+  private final Map<String, Integer> predicateIdMap;
+
+  private final int[] outOffsets;
+  private final int[] outTargets;
+  private final int[] outPredicates;
+  private final int[] inOffsets;
+  private final int[] inSources;
+  private final int[] inPredicates;
+
+  private CSRAdjacencyIndex(int vertexCount, String[] predicates, int[] outOffsets,
+      int[] outTargets, int[] outPredicates, int[] inOffsets, int[] inSources,
+      int[] inPredicates) {
+    this.vertexCount = vertexCount;
+    this.predicates = predicates;
+    this.outOffsets = outOffsets;
+    this.outTargets = outTargets;
+    this.outPredicates = outPredicates;
+    this.inOffsets = inOffsets;
+    this.inSources = inSources;
+    this.inPredicates = inPredicates;
+    this.predicateIdMap = new HashMap<>();
+    for (int i = 0; i < predicates.length; i++) {
+      predicateIdMap.put(predicates[i], i);
+    }
+  }
+
+  /**
+   * Creates a new {@link Builder} for a {@link CSRAdjacencyIndex}.
+   *
+   * @return a new {@link Builder} for a {@link CSRAdjacencyIndex}.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Gets the number of vertices, i.e. the highest vertex key plus one. Keys in this range without
+   * any edge are unused (see {@link #hasEdges(int)}).
+   *
+   * @return the number of vertices.
+   */
+  public int getVertexCount() {
+    return vertexCount;
+  }
+
+  /**
+   * Gets the number of edges in this index.
+   *
+   * @return the number of edges in this index.
+   */
+  public int getEdgeCount() {
+    return outTargets.length;
+  }
+
+  /**
+   * Gets the number of distinct predicates in this index.
+   *
+   * @return the number of distinct predicates in this index.
+   */
+  public int getPredicateCount() {
+    return predicates.length;
+  }
+
+  /**
+   * Gets the IRI of the predicate with the given id.
+   *
+   * @param predicateId the id of the predicate.
+   * @return the IRI of the predicate with the given id.
+   */
+  public String getPredicate(int predicateId) {
+    return predicates[predicateId];
+  }
+
+  /**
+   * Gets the id of the predicate with the given IRI.
+   *
+   * @param predicate the IRI of the predicate.
+   * @return the id of the predicate, or {@link Optional#empty()}, if it is not part of the index.
+   */
+  public Optional<Integer> getPredicateId(String predicate) {
+    return Optional.ofNullable(predicateIdMap.get(predicate));
+  }
+
+  /**
+   * Returns {@code true}, if the given key is in the range of vertices of this index.
+   *
+   * @param key of the vertex.
+   * @return {@code true}, if the given key is in the range of vertices, otherwise {@code false}.
+   */
+  public boolean contains(int key) {
+    return key >= 0 && key < vertexCount;
+  }
+
+  /**
+   * Returns {@code true}, if the vertex with the given key has at least one incoming or outgoing
+   * edge. Keys in the range of vertices without any edge are unused slots, e.g. the key {@code 0},
+   * if the keys start at {@code 1}.
+   *
+   * @param key of the vertex, which must be in the range of vertices.
+   * @return {@code true}, if the vertex with the given key has at least one edge, otherwise {@code
+   * false}.
+   */
+  public boolean hasEdges(int key) {
+    return outOffsets[key + 1] > outOffsets[key] || inOffsets[key + 1] > inOffsets[key];
+  }
+
+  public int outStart(int key) {
+    return outOffsets[key];
+  }
+
+  public int outEnd(int key) {
+    return outOffsets[key + 1];
+  }
+
+  public int outDegree(int key) {
+    return outOffsets[key + 1] - outOffsets[key];
+  }
+
+  public int outTarget(int edge) {
+    return outTargets[edge];
+  }
+
+  public int outPredicate(int edge) {
+    return outPredicates[edge];
+  }
+
+  public int inStart(int key) {
+    return inOffsets[key];
+  }
+
+  public int inEnd(int key) {
+    return inOffsets[key + 1];
+  }
+
+  public int inDegree(int key) {
+    return inOffsets[key + 1] - inOffsets[key];
+  }
+
+  public int inSource(int edge) {
+    return inSources[edge];
+  }
+
+  public int inPredicate(int edge) {
+    return inPredicates[edge];
+  }
+
+  /**
+   * Writes this index to the given file. The index is first written to a temporary file, which
+   * then replaces the given file atomically.
+   *
+   * @param file to which this index shall be written. It must not be null.
+   * @throws IOException if this index could not be written.
+   */
+  public void writeTo(File file) throws IOException {
+    checkArgument(file != null, "The given file must not be null.");
+    File tmpFile = new File(file.getPath() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath()), 1 << 16))) {
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(vertexCount);
+      out.writeInt(predicates.length);
+      for (String predicate : predicates) {
+        out.writeUTF(predicate);
+      }
+      for (int[] array : new int[][]{outOffsets, outTargets, outPredicates, inOffsets, inSources,
+          inPredicates}) {
+        out.writeInt(array.length);
+        for (int value : array) {
+          out.writeInt(value);
+        }
+      }
+    }
+    Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads an index from the given file, which has been written with {@link #writeTo(File)}.
+   *
+   * @param file from which the index shall be read. It must not be null.
+   * @return the index read from the given file.
+   * @throws IOException if the index could not be read.
+   */
+  public static CSRAdjacencyIndex readFrom(File file) throws IOException {
+    checkArgument(file != null, "The given file must not be null.");
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(file.toPath()), 1 << 16))) {
+      int version = in.readInt();
+      if (version != FORMAT_VERSION) {
+        throw new IOException(
+            String.format("Unsupported format version %d of the adjacency index.", version));
+      }
+      int vertexCount = in.readInt();
+      String[] predicates = new String[in.readInt()];
+      for (int i = 0; i < predicates.length; i++) {
+        predicates[i] = in.readUTF();
+      }
+      int[][] arrays = new int[6][];
+      for (int a = 0; a < arrays.length; a++) {
+        arrays[a] = new int[in.readInt()];
+        for (int i = 0; i < arrays[a].length; i++) {
+          arrays[a][i] = in.readInt();
+        }
+      }
+      return new CSRAdjacencyIndex(vertexCount, predicates, arrays[0], arrays[1], arrays[2],
+          arrays[3], arrays[4], arrays[5]);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CSRAdjacencyIndex{" +
+        "vertices=" + vertexCount +
+        ", edges=" + getEdgeCount() +
+        ", predicates=" + predicates.length +
+        '}';
+  }
+
+  /**
+   * This class is a builder for {@link CSRAdjacencyIndex}, which collects edges in growing
+   * primitive arrays. Duplicated edges are kept.
+   */
+  public static final class Builder {
+
+    private final Map<String, Integer> predicateIdMap = new HashMap<>();
+    private String[] predicates = new String[16];
+
+    private int[] sources = new int[1024];
+    private int[] targets = new int[1024];
+    private int[] edgePredicates = new int[1024];
+    private int edgeCount = 0;
+    private int maxKey = -1;
+
+    private Builder() {
+    }
+
+    /**
+     * Adds an edge from the vertex with the given source key to the vertex with the given target
+     * key, which is labelled with the given predicate.
+     *
+     * @param source key of the source vertex. It must not be negative.
+     * @param predicate IRI of the predicate. It must not be null.
+     * @param target key of the target vertex. It must not be negative.
+     * @return this builder.
+     */
+    public Builder addEdge(int source, String predicate, int target) {
+      checkArgument(source >= 0 && target >= 0, "The keys of vertices must not be negative.");
+      checkArgument(predicate != null, "The given predicate must not be null.");
+      Integer predicateId = predicateIdMap.get(predicate);
+      if (predicateId == null) {
+        predicateId = predicateIdMap.size();
+        if (predicateId == predicates.length) {
+          predicates = Arrays.copyOf(predicates, predicates.length * 2);
+        }
+        predicates[predicateId] = predicate;
+        predicateIdMap.put(predicate, predicateId);
+      }
+      if (edgeCount == sources.length) {
+        int newLength = sources.length * 2;
+        sources = Arrays.copyOf(sources, newLength);
+        targets = Arrays.copyOf(targets, newLength);
+        edgePredicates = Arrays.copyOf(edgePredicates, newLength);
+      }
+      sources[edgeCount] = source;
+      targets[edgeCount] = target;
+      edgePredicates[edgeCount] = predicateId;
+      edgeCount++;
+      maxKey = Math.max(maxKey, Math.max(source, target));
+      return this;
+    }
+
+    /**
+     * Builds the {@link CSRAdjacencyIndex} with the collected edges. Edges keep the order, in which
+     * they have been added.
+     *
+     * @return the built {@link CSRAdjacencyIndex}.
+     */
+    public CSRAdjacencyIndex build() {
+      int vertexCount = maxKey + 1;
+      int[] outOffsets = new int[vertexCount + 1];
+      int[] inOffsets = new int[vertexCount + 1];
+      for (int i = 0; i < edgeCount; i++) {
+        outOffsets[sources[i] + 1]++;
+        inOffsets[targets[i] + 1]++;
+      }
+      for (int v = 0; v < vertexCount; v++) {
+        outOffsets[v + 1] += outOffsets[v];
+        inOffsets[v + 1] += inOffsets[v];
+      }
+      int[] outTargets = new int[edgeCount];
+      int[] outPredicates = new int[edgeCount];
+      int[] inSources = new int[edgeCount];
+      int[] inPredicates = new int[edgeCount];
+      int[] outPos = Arrays.copyOf(outOffsets, vertexCount);
+      int[] inPos = Arrays.copyOf(inOffsets, vertexCount);
+      for (int i = 0; i < edgeCount; i++) {
+        int o = outPos[sources[i]]++;
+        outTargets[o] = targets[i];
+        outPredicates[o] = edgePredicates[i];
+        int n = inPos[targets[i]]++;
+        inSources[n] = sources[i];
+        inPredicates[n] = edgePredicates[i];
+      }
+      return new CSRAdjacencyIndex(vertexCount,
+          Arrays.copyOf(predicates, predicateIdMap.size()), outOffsets, outTargets, outPredicates,
+          inOffsets, inSources, inPredicates);
+    }
+  }
+
+}
@@ -0,0 +1,67 @@
+package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import org.apache.commons.rdf.api.Triple;
+
+/**
+ * This class represents the changes of a single update of the knowledge graph, i.e. the statements
+ * that have been added and the ones that have been removed. It is attached to a {@link
+ * KGUpdatedEvent}, if the DAO was able to capture the changes, such that dependent DAOs can apply
+ * them incrementally instead of reloading the complete knowledge graph.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class KGDelta {
+
+  private final List<Triple> addedStatements;
+  private final List<Triple> removedStatements;
+
+  public KGDelta(Collection<Triple> addedStatements, Collection<Triple> removedStatements) {
+    checkArgument(addedStatements != null, "The given added statements must not be null.");
+    checkArgument(removedStatements != null, "The given removed statements must not be null.");
+    this.addedStatements = Collections.unmodifiableList(new LinkedList<>(addedStatements));
+    this.removedStatements = Collections.unmodifiableList(new LinkedList<>(removedStatements));
+  }
+
+  /**
+   * Gets the statements that have been added to the knowledge graph.
+   *
+   * @return an unmodifiable list of the statements that have been added.
+   */
+  public List<Triple> getAddedStatements() {
+    return addedStatements;
+  }
+
+  /**
+   * Gets the statements that have been removed from the knowledge graph.
+   *
+   * @return an unmodifiable list of the statements that have been removed.
+   */
+  public List<Triple> getRemovedStatements() {
+    return removedStatements;
+  }
+
+  /**
+   * Checks whether the knowledge graph has been changed at all.
+   *
+   * @return {@code true}, if no statement has been added or removed, otherwise {@code false}.
+   */
+  public boolean isEmpty() {
+    return addedStatements.isEmpty() && removedStatements.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return "KGDelta{" +
+        "added=" + addedStatements.size() +
+        ", removed=" + removedStatements.size() +
+        '}';
+  }
+}
@@ -1,9 +1,11 @@
 package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event;
 
+import java.util.Optional;
 import org.springframework.context.ApplicationEvent;
 
 /**
- *
+ * This event is published, if the knowledge graph has been updated. It optionally carries the
+ * {@link KGDelta} of the update, if the DAO executing the update was able to capture it.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -11,12 +13,34 @@ import org.springframework.context.ApplicationEvent;
  */
 public class KGUpdatedEvent extends ApplicationEvent {
 
+  private KGDelta delta;
+
   /**
    * Create a new ApplicationEvent.
    *
    * @param source the object on which the event initially occurred (never {@code null})
    */
   public KGUpdatedEvent(Object source) {
+    this(source, null);
+  }
+
+  /**
+   * Create a new ApplicationEvent with the given {@link KGDelta} of the update.
+   *
+   * @param source the object on which the event initially occurred (never {@code null})
+   * @param delta the changes of the knowledge graph, or {@code null}, if they are unknown.
+   */
+  public KGUpdatedEvent(Object source, KGDelta delta) {
     super(source);
+    this.delta = delta;
+  }
+
+  /**
+   * Gets the {@link KGDelta} of the update, if it is known.
+   *
+   * @return the {@link KGDelta} of the update, or {@link Optional#empty()}, if it is unknown.
+   */
+  public Optional<KGDelta> getDelta() {
+    return Optional.ofNullable(delta);
   }
 }
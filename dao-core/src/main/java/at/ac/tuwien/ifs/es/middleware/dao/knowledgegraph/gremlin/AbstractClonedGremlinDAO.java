@@ -2,6 +2,7 @@ package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.KGDAOException;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.status.KGDAOStatusChangeListener;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGGremlinDAO;
@@ -11,31 +12,43 @@ import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPAR
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.status.KGDAOInitStatus;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.status.KGDAOStatus;
 
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.annotation.PreDestroy;
 
 import org.apache.commons.rdf.api.BlankNode;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.RDFTerm;
-import org.apache.commons.text.StringSubstitutor;
+import org.apache.commons.rdf.api.Triple;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Graph.Features;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty.Cardinality;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.task.TaskExecutor;
 
@@ -49,6 +62,15 @@ import org.springframework.core.task.TaskExecutor;
  * In order to use this DAO, the graph to use must be set by the implementing class by calling the
  * method {@link AbstractClonedGremlinDAO#setGraph(Graph)}. This is best done in the constructor of
  * the implementing class.
+ * <p/>
+ * If the implementing class is able to provide a new empty graph with {@link
+ * AbstractClonedGremlinDAO#newSnapshotGraph()}, the graph is reconstructed in snapshot mode. The
+ * new graph is then constructed in the background, while the current graph keeps serving
+ * traversals. Afterwards, both graphs are swapped atomically. Deltas that are applied during the
+ * construction of a snapshot are queued, and replayed on the snapshot before the swap, such that
+ * they aren't lost, if the snapshot has been streamed before the delta. The swap doesn't wait for
+ * the readers of the former graph (see {@link #readLock()}), which keep reading it. The former
+ * graph is closed, when its last reader has released the read lock.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -58,31 +80,43 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
 
   private static final Logger logger = LoggerFactory.getLogger(AbstractClonedGremlinDAO.class);
 
-  private static final int STATEMENT_LOAD_LIMIT = 100000;
-
   private static final String ALL_STATEMENTS_QUERY = "SELECT ?s ?p ?o WHERE {\n"
       + "    ?s ?p ?o .\n"
       + "    FILTER(isIRI(?s) && isIRI(?o)) .\n"
-      + "}\n"
-      + "OFFSET ${offset}\n"
-      + "LIMIT ${limit}";
+      + "}";
 
   /* application context */
   private ApplicationContext context;
   /* thread pool for spanning syncing operations */
   private TaskExecutor taskExecutor;
-  /* lock for controlling syncing operations */
-  private Lock graphLock = new ReentrantLock();
+  /* lock for controlling syncing operations (write) and read-only traversals (read) */
+  private ReadWriteLock graphLock = new ReentrantReadWriteLock();
+  /* lock for serializing the application of deltas with the swap of a snapshot */
+  private Lock deltaLock = new ReentrantLock();
+  /* number of readers of each graph, which hold the read lock (guarded by itself) */
+  private final Map<Graph, Integer> readerCountMap = new IdentityHashMap<>();
+  /* swapped graphs, which are closed after their last reader (guarded by readerCountMap) */
+  private final Set<Graph> retiredGraphs = Collections.newSetFromMap(new IdentityHashMap<>());
+  /* graphs read by the current thread, one for each acquired read lock */
+  private final ThreadLocal<Deque<Graph>> readGraphs = ThreadLocal.withInitial(ArrayDeque::new);
   /* status of the this gremlin DAO */
   private KGDAOStatus status;
   /* change listener for status */
   private List<KGDAOStatusChangeListener> statusChangeListeners;
   /* SPARQL from which data shall be cloned */
   private KGSparqlDAO sparqlDAO;
-  /* storing graph data */
-  private Graph graph;
+  /* storing graph data, which might be swapped with a new snapshot */
+  private volatile Graph graph;
+  /* deltas applied during the construction of each pending snapshot (guarded by delta lock) */
+  private List<List<KGDelta>> pendingSnapshotDeltas = new LinkedList<>();
   /* schema for the graph data */
   private PGS schema;
+  /* number of statements that are loaded in one transaction */
+  @Value("${esm.db.gremlin.bulkload.batchsize:100000}")
+  private int batchSize = 100000;
+  /* whether the graph shall be reconstructed as new snapshot, if supported */
+  @Value("${esm.db.gremlin.snapshot:true}")
+  private boolean snapshotEnabled = true;
 
   /**
    * Creates a new {@link AbstractClonedGremlinDAO} with the given {@code knowledgeGraphDAO}.
@@ -102,12 +136,23 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
 
   @Override
   public void setup() {
-    new GraphConstruction(Instant.now()).run();
+    construct(Instant.now());
   }
 
   @Override
   public void update(long timestamp) throws KGDAOException {
-    new GraphConstruction(Instant.now()).run();
+    construct(Instant.now());
+  }
+
+  /**
+   * Constructs the graph from the knowledge graph. If the snapshot mode is enabled and supported,
+   * a new snapshot is constructed in the background and swapped with the current graph afterwards.
+   * Otherwise, the current graph is updated in place.
+   */
+  private void construct(Instant issuedTimestamp) {
+    Graph snapshotGraph =
+        snapshotEnabled && !areTransactionSupported() ? newSnapshotGraph() : null;
+    new GraphConstruction(issuedTimestamp, snapshotGraph).run();
   }
 
   /**
@@ -119,16 +164,43 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
     this.graph = graph;
   }
 
+  /**
+   * Gets the graph that is currently used for this gremlin dao.
+   *
+   * @return the graph that is currently used for this gremlin dao.
+   */
+  protected Graph getGraph() {
+    return graph;
+  }
+
   protected abstract boolean areTransactionSupported();
 
+  /**
+   * Creates a new empty graph, which can be used as snapshot for the reconstruction of the graph.
+   * The snapshot is constructed without blocking the current graph, and is swapped with it
+   * afterwards. Snapshots are only used for graphs without transaction support. By default,
+   * snapshots aren't supported.
+   *
+   * @return a new empty graph, or {@code null}, if snapshots aren't supported.
+   */
+  protected Graph newSnapshotGraph() {
+    return null;
+  }
+
   @Override
   public PGS getPropertyGraphSchema() {
     return schema;
   }
 
+  /**
+   * Returns the ability to traverse the served graph. If the current thread holds the read lock,
+   * the traversal is spawned on the graph it has locked for reading, even if this graph has been
+   * swapped with a snapshot since.
+   */
   @Override
   public GraphTraversalSource traversal() {
-    return graph.traversal();
+    Graph readGraph = readGraphs.get().peek();
+    return (readGraph != null ? readGraph : graph).traversal();
   }
 
   public KGDAOStatus getStatus() {
@@ -140,6 +212,164 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
     return graph.features();
   }
 
+  /**
+   * Gets the string value of the given resource, which is used as IRI of the vertex.
+   */
+  private static String stringValueOf(BlankNodeOrIRI resource) {
+    return resource instanceof IRI ? ((IRI) resource).getIRIString()
+        : "_:" + ((BlankNode) resource).uniqueReference();
+  }
+
+  /**
+   * Looks up the vertex with the given IRI. If the IRI is used as element id, the lookup is done
+   * by id, otherwise the index of the IRI property is used.
+   */
+  private Iterator<Vertex> lookupVertex(Graph graph, String sIRI) {
+    if (schema.iri().identifier() == T.id) {
+      return graph.vertices(sIRI);
+    }
+    return graph.traversal().V().has(schema.iri().identifierAsString(), sIRI);
+  }
+
+  private static long toTimeStampInNs(Instant timestamp) {
+    return timestamp.getEpochSecond() * 1000000000L + timestamp.getNano();
+  }
+
+  @Override
+  public void applyDelta(KGDelta delta) throws KGDAOException {
+    applyDeltaOfVersion(delta, null);
+  }
+
+  @Override
+  public void applyDelta(KGDelta delta, long version) throws KGDAOException {
+    applyDeltaOfVersion(delta, version);
+  }
+
+  /**
+   * Applies the given delta to the served graph, or constructs the graph again, if it failed.
+   *
+   * @param delta     the changes of the knowledge graph that shall be applied.
+   * @param kgVersion of the knowledge graph after the update, or {@code null}, if it is unknown.
+   */
+  private void applyDeltaOfVersion(KGDelta delta, Long kgVersion) {
+    checkArgument(delta != null, "The given delta must not be null.");
+    logger.info("Starts to apply {} to the '{}' graph.", delta,
+        AbstractClonedGremlinDAO.this.getClass().getSimpleName());
+    long version = toTimeStampInNs(Instant.now());
+    boolean successful = false;
+    deltaLock.lock();
+    try {
+      this.lock();
+      try {
+        applyDelta(graph, delta, version);
+        for (List<KGDelta> snapshotDeltas : pendingSnapshotDeltas) {
+          snapshotDeltas.add(delta);
+        }
+        this.commit();
+        successful = true;
+      } catch (Exception e) {
+        logger.error("Applying {} failed, the graph will be constructed again. {}", delta,
+            e.getMessage());
+        this.rollback();
+      } finally {
+        this.unlock();
+      }
+    } finally {
+      deltaLock.unlock();
+    }
+    if (successful) {
+      logger.info("Applied {} to the '{}' graph.", delta,
+          AbstractClonedGremlinDAO.this.getClass().getSimpleName());
+      onDeltaApplied(kgVersion);
+    } else {
+      setup();
+    }
+  }
+
+  /**
+   * Applies the given delta to the given graph. Applying the same delta again has no effect.
+   */
+  private void applyDelta(Graph graph, KGDelta delta, long version) {
+    for (Triple triple : delta.getRemovedStatements()) {
+      if (triple.getObject() instanceof BlankNodeOrIRI) {
+        removeEdge(graph, stringValueOf(triple.getSubject()),
+            stringValueOf(triple.getPredicate()),
+            stringValueOf((BlankNodeOrIRI) triple.getObject()));
+      }
+    }
+    for (Triple triple : delta.getAddedStatements()) {
+      if (triple.getSubject() instanceof IRI && triple.getObject() instanceof IRI) {
+        addEdge(graph, stringValueOf(triple.getSubject()), stringValueOf(triple.getPredicate()),
+            stringValueOf((IRI) triple.getObject()), version);
+      }
+    }
+  }
+
+  /**
+   * Removes the edge with the given {@code label} between the given subject and object. Vertices
+   * that have no edges anymore are removed as well, since they would not be part of a newly
+   * constructed graph.
+   */
+  private void removeEdge(Graph graph, String subjectIRI, String label, String objectIRI) {
+    Iterator<Vertex> subjectIt = lookupVertex(graph, subjectIRI);
+    Iterator<Vertex> objectIt = lookupVertex(graph, objectIRI);
+    if (!subjectIt.hasNext() || !objectIt.hasNext()) {
+      return;
+    }
+    Vertex subjectVertex = subjectIt.next();
+    Vertex objectVertex = objectIt.next();
+    Iterator<Edge> edgeIt = subjectVertex.edges(Direction.OUT, label);
+    while (edgeIt.hasNext()) {
+      Edge edge = edgeIt.next();
+      if (edge.inVertex().id().equals(objectVertex.id())) {
+        edge.remove();
+      }
+    }
+    for (Vertex vertex : new Vertex[]{subjectVertex, objectVertex}) {
+      if (!vertex.edges(Direction.BOTH).hasNext()) {
+        vertex.remove();
+      }
+    }
+  }
+
+  /**
+   * Adds an edge with the given {@code label} between the given subject and object, if it does not
+   * exist yet. Missing vertices are created.
+   */
+  private void addEdge(Graph graph, String subjectIRI, String label, String objectIRI,
+      long version) {
+    Vertex subjectVertex = findOrCreateVertex(graph, subjectIRI, version);
+    Vertex objectVertex = findOrCreateVertex(graph, objectIRI, version);
+    Iterator<Edge> edgeIt = subjectVertex.edges(Direction.OUT, label);
+    while (edgeIt.hasNext()) {
+      if (edgeIt.next().inVertex().id().equals(objectVertex.id())) {
+        return;
+      }
+    }
+    subjectVertex.addEdge(label, objectVertex, "version", version);
+  }
+
+  private Vertex findOrCreateVertex(Graph graph, String sIRI, long version) {
+    Iterator<Vertex> vertexIt = lookupVertex(graph, sIRI);
+    if (vertexIt.hasNext()) {
+      return vertexIt.next();
+    }
+    return graph.addVertex(schema.iri().identifier(), sIRI, schema.kind().identifier(), "iri",
+        "version", version);
+  }
+
+  /**
+   * This method is called, before data of the knowledge graph is going to be integrated into the
+   * graph. Implementing classes can prepare the backend for the bulk load (e.g. indices). Unless a
+   * snapshot is constructed, the data is loaded into the graph that is set after this call, such
+   * that implementing classes can replace the graph (e.g. to open it in a batch-loading mode).
+   *
+   * @param bulkLoad {@code true}, if the graph is empty and the data is loaded in bulk-load mode.
+   */
+  protected void onBulkLoadStarted(boolean bulkLoad) {
+
+  }
+
   /**
    * This method is called, when potentially new data has been integrated into the graph.
    */
@@ -148,105 +378,248 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
   }
 
   /**
-   * This is a {@link Callable} that computes a new graph.
+   * This method is called, when the graph has been constructed successfully from the knowledge
+   * graph and is served by this gremlin dao.
+   */
+  protected void onGraphConstructed() {
+
+  }
+
+  /**
+   * This method is called, when a {@link KGDelta} has been applied successfully to the graph that
+   * is served by this gremlin dao.
+   *
+   * @param version of the knowledge graph after the update, or {@code null}, if it is unknown.
+   */
+  protected void onDeltaApplied(Long version) {
+
+  }
+
+  /**
+   * This is a {@link Callable} that computes a new graph. If the graph is empty at the beginning of
+   * the construction, it runs in bulk-load mode. In this mode, the existence of a vertex is solely
+   * checked against the dictionary of already created vertices instead of querying the graph, and
+   * there is no old data that has to be cleaned up afterwards.
+   * <p/>
+   * If a snapshot graph is given, the data is loaded into this graph without holding the lock of
+   * the current graph. The snapshot is only swapped with the current graph, if the construction was
+   * successful.
    */
   private class GraphConstruction implements Runnable {
 
     private Instant issuedTimestamp;
-
-    private GraphConstruction(Instant issuedTimestamp) {
+    private long version;
+    private boolean bulkLoad;
+    /* graph into which the data is loaded */
+    private Graph target;
+    /* whether the target is a new snapshot that is not yet visible */
+    private boolean snapshot;
+    /* dictionary mapping the string value of a resource to the id of its vertex */
+    private Map<String, Object> vertexDictionary = new HashMap<>();
+    /* vertices that have been accessed in the current batch (transaction) */
+    private Map<String, Vertex> batchVertexMap = new HashMap<>();
+    /* deltas that have been applied to the current graph during the snapshot construction */
+    private List<KGDelta> snapshotDeltas;
+
+    private GraphConstruction(Instant issuedTimestamp, Graph snapshotGraph) {
       checkArgument(issuedTimestamp != null, "Given timestamp must not be null.");
       this.issuedTimestamp = issuedTimestamp;
+      this.version = toTimeStampInNs(issuedTimestamp);
+      this.snapshot = snapshotGraph != null;
+      this.target = snapshot ? snapshotGraph : graph;
+    }
+
+    private void lock() {
+      if (!snapshot) {
+        AbstractClonedGremlinDAO.this.lock();
+      }
+    }
+
+    private void commit() {
+      if (!snapshot) {
+        AbstractClonedGremlinDAO.this.commit();
+      }
     }
 
-    private Vertex prepareVertex(BlankNodeOrIRI resource, Map<BlankNodeOrIRI, Vertex> cache) {
-      if (cache.containsKey(resource)) {
-        return cache.get(resource);
+    private void rollback() {
+      if (!snapshot) {
+        AbstractClonedGremlinDAO.this.rollback();
       }
-      String sIRI = resource instanceof IRI ? ((IRI) resource).getIRIString()
-          : "_:" + ((BlankNode) resource).uniqueReference();
-      Iterator<Vertex> vertexIt = graph.traversal().V()
-          .has(schema.iri().identifierAsString(), sIRI);
-      if (vertexIt.hasNext()) {
-        Vertex v = vertexIt.next();
-        v.property(Cardinality.single, "version", toTimeStampInNs(issuedTimestamp));
-        cache.put(resource, v);
-        return v;
+    }
+
+    private void unlock() {
+      if (!snapshot) {
+        AbstractClonedGremlinDAO.this.unlock();
+      }
+    }
+
+    private Vertex prepareVertex(BlankNodeOrIRI resource) {
+      String sIRI = stringValueOf(resource);
+      Vertex vertex = batchVertexMap.get(sIRI);
+      if (vertex != null) {
+        return vertex;
+      }
+      Object vertexId = vertexDictionary.get(sIRI);
+      if (vertexId != null) {
+        vertex = target.vertices(vertexId).next();
       } else {
-        Vertex v = graph
-            .addVertex(schema.iri().identifier(), sIRI, schema.kind().identifier(), "iri",
-                "version", toTimeStampInNs(issuedTimestamp));
-        cache.put(resource, v);
-        return v;
+        if (!bulkLoad) {
+          Iterator<Vertex> vertexIt = lookupVertex(target, sIRI);
+          if (vertexIt.hasNext()) {
+            vertex = vertexIt.next();
+            vertex.property(Cardinality.single, "version", version);
+          }
+        }
+        if (vertex == null) {
+          vertex = target.addVertex(schema.iri().identifier(), sIRI, schema.kind().identifier(),
+              "iri", "version", version);
+        }
+        vertexDictionary.put(sIRI, vertex.id());
       }
+      batchVertexMap.put(sIRI, vertex);
+      return vertex;
     }
 
-    private long toTimeStampInNs(Instant timestamp) {
-      return timestamp.getEpochSecond() * 10 ^ 9 + timestamp.getNano();
+    private void logThroughput(long loadedStatements, Instant start) {
+      long elapsedMs = Math.max(Duration.between(start, Instant.now()).toMillis(), 1);
+      logger.info(
+          "Loaded {} statements and {} vertices from the knowledge graph {} in {} s ({} statements/s).",
+          loadedStatements, vertexDictionary.size(), sparqlDAO.getClass().getSimpleName(),
+          elapsedMs / 1000, loadedStatements * 1000 / elapsedMs);
     }
 
     @Override
     public void run() {
-      logger.info("Starts to construct an '{}' graph with timestamp={} and transaction support={}.",
+      if (snapshot) {
+        deltaLock.lock();
+        try {
+          snapshotDeltas = new LinkedList<>();
+          pendingSnapshotDeltas.add(snapshotDeltas);
+        } finally {
+          deltaLock.unlock();
+        }
+      }
+      lock();
+      try {
+        bulkLoad = !target.traversal().V().limit(1).hasNext();
+      } finally {
+        unlock();
+      }
+      logger.info(
+          "Starts to construct an '{}' graph with timestamp={}, bulk-load mode={}, snapshot mode={} and transaction support={}.",
           AbstractClonedGremlinDAO.this.getClass().getSimpleName(),
-          issuedTimestamp, areTransactionSupported());
-      /* prepare the vertex map by fetching all resources (IRI) */
-      Map<BlankNodeOrIRI, Vertex> vertexCacheMap = new HashMap<>();
+          issuedTimestamp, bulkLoad, snapshot, areTransactionSupported());
+      AbstractClonedGremlinDAO.this.onBulkLoadStarted(bulkLoad);
+      if (!snapshot) {
+        target = graph;
+      }
+      Instant start = Instant.now();
       boolean successful = true;
-      List<Map<String, RDFTerm>> values;
-      int offset = 0;
-      do {
-        /* load statements from SPARQL DAO */
-        try {
-          Map<String, String> valuesMap = new HashMap<>();
-          valuesMap.put("offset", String.valueOf(offset));
-          valuesMap.put("limit", String.valueOf(STATEMENT_LOAD_LIMIT));
-          values = sparqlDAO.<SelectQueryResult>query(
-              new StringSubstitutor(valuesMap).replace(ALL_STATEMENTS_QUERY), true).value();
-          AbstractClonedGremlinDAO.this.lock();
-          /* import it into the graph database */
+      long loadedStatements = 0;
+      /* stream statements from SPARQL DAO and import them batch-wise into the graph database */
+      try (SelectQueryResultCursor cursor = sparqlDAO.select(ALL_STATEMENTS_QUERY, true)) {
+        while (cursor.hasNext()) {
+          lock();
           try {
-            for (Map<String, RDFTerm> row : values) {
-              BlankNodeOrIRI property = (BlankNodeOrIRI) row.get("p");
-              Vertex subjectVertex = prepareVertex((BlankNodeOrIRI) row.get("s"), vertexCacheMap);
-              Vertex objectVertex = prepareVertex((BlankNodeOrIRI) row.get("o"), vertexCacheMap);
-              subjectVertex
-                  .addEdge(property instanceof IRI ? ((IRI) property).getIRIString()
-                          : "_:" + ((BlankNode) property).uniqueReference(), objectVertex, "version",
-                      toTimeStampInNs(issuedTimestamp));
+            int batch = 0;
+            while (batch < batchSize && cursor.hasNext()) {
+              Map<String, RDFTerm> row = cursor.next();
+              Vertex subjectVertex = prepareVertex((BlankNodeOrIRI) row.get("s"));
+              Vertex objectVertex = prepareVertex((BlankNodeOrIRI) row.get("o"));
+              subjectVertex.addEdge(stringValueOf((BlankNodeOrIRI) row.get("p")), objectVertex,
+                  "version", version);
+              batch++;
             }
-            logger
-                .info("Loaded {} statements from the knowledge graph {}.", offset + values.size(),
-                    sparqlDAO.getClass().getSimpleName());
-            offset += STATEMENT_LOAD_LIMIT;
-            AbstractClonedGremlinDAO.this.commit();
+            commit();
+            loadedStatements += batch;
+            logThroughput(loadedStatements, start);
           } catch (Exception e) {
             logger.error("An exception occurred while loading the graph. {}", e.getMessage());
-            AbstractClonedGremlinDAO.this.rollback();
+            rollback();
             successful = false;
             break;
           } finally {
-            AbstractClonedGremlinDAO.this.unlock();
+            batchVertexMap.clear();
+            unlock();
           }
-        } catch (KGSPARQLException e) {
-          logger.error("An exception occurred while loading the graph. {}", e.getMessage());
-          successful = false;
-          break;
         }
-      } while (!values.isEmpty() && values.size() == STATEMENT_LOAD_LIMIT);
+      } catch (KGSPARQLException e) {
+        logger.error("An exception occurred while loading the graph. {}", e.getMessage());
+        successful = false;
+      }
       if (successful) {
         logger.debug("An bulk load with timestamp '{}' has been committed.", issuedTimestamp);
       }
+      if (snapshot) {
+        swapSnapshot(successful);
+      } else {
+        cleanUp(successful);
+      }
+      logThroughput(loadedStatements, start);
+      vertexDictionary.clear();
+      if (successful || !snapshot) {
+        AbstractClonedGremlinDAO.this.onBulkLoadCompleted();
+      }
+      if (successful) {
+        AbstractClonedGremlinDAO.this.onGraphConstructed();
+      }
+    }
+
+    /**
+     * Swaps the constructed snapshot with the current graph, if the construction was successful.
+     * The deltas that have been applied during the construction are replayed on the snapshot
+     * before, while holding the delta lock such that no further delta can be missed. Otherwise, the
+     * snapshot is discarded. The swap doesn't wait for the readers of the old graph, and the old
+     * graph is closed, when the last of them has released the read lock.
+     */
+    private void swapSnapshot(boolean successful) {
+      Graph oldGraph = target;
+      boolean retired = false;
+      deltaLock.lock();
+      try {
+        pendingSnapshotDeltas.remove(snapshotDeltas);
+        if (successful) {
+          for (KGDelta delta : snapshotDeltas) {
+            applyDelta(target, delta, version);
+          }
+          synchronized (readerCountMap) {
+            oldGraph = graph;
+            graph = target;
+            retired = readerCountMap.containsKey(oldGraph);
+            if (retired) {
+              retiredGraphs.add(oldGraph);
+            }
+          }
+        }
+      } catch (Exception e) {
+        logger.error("Replaying {} deltas on the snapshot failed, it is discarded. {}",
+            snapshotDeltas.size(), e.getMessage());
+      } finally {
+        deltaLock.unlock();
+      }
+      if (oldGraph != target) {
+        logger.info(
+            "Swapped the '{}' graph with the snapshot of timestamp={} after replaying {} deltas.",
+            AbstractClonedGremlinDAO.this.getClass().getSimpleName(), issuedTimestamp,
+            snapshotDeltas.size());
+      }
+      if (!retired) {
+        closeGraph(oldGraph);
+      }
+    }
+
+    private void cleanUp(boolean successful) {
       /* remove old/corrupt data */
-      long cT = toTimeStampInNs(issuedTimestamp);
       AbstractClonedGremlinDAO.this.lock();
       try {
         if (successful) {
-          graph.traversal().V().has("version", P.lt(cT)).drop().iterate();
-          graph.traversal().E().has("version", P.lt(cT)).drop().iterate();
+          if (!bulkLoad) {
+            graph.traversal().V().has("version", P.lt(version)).drop().iterate();
+            graph.traversal().E().has("version", P.lt(version)).drop().iterate();
+          }
         } else {
-          graph.traversal().V().has("version", P.eq(cT)).drop().iterate();
-          graph.traversal().E().has("version", P.eq(cT)).drop().iterate();
+          graph.traversal().V().has("version", P.eq(version)).drop().iterate();
+          graph.traversal().E().has("version", P.eq(version)).drop().iterate();
         }
         AbstractClonedGremlinDAO.this.commit();
       } catch (Exception e) {
@@ -255,7 +628,6 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
       } finally {
         AbstractClonedGremlinDAO.this.unlock();
       }
-      AbstractClonedGremlinDAO.this.onBulkLoadCompleted();
     }
   }
 
@@ -264,7 +636,7 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
     if (areTransactionSupported()) {
       graph.tx().open();
     } else {
-      graphLock.lock();
+      graphLock.writeLock().lock();
     }
   }
 
@@ -289,7 +661,67 @@ public abstract class AbstractClonedGremlinDAO implements SPARQLSyncingGremlinDA
         graph.tx().close();
       }
     } else {
-      graphLock.unlock();
+      graphLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Acquires the shared lock for read-only access. Without transaction support, the current thread
+   * is registered as reader of the current graph, such that this graph isn't closed, while it is
+   * read, even if it is swapped with a snapshot.
+   */
+  @Override
+  public void readLock() {
+    if (areTransactionSupported()) {
+      graph.tx().open();
+    } else {
+      graphLock.readLock().lock();
+      synchronized (readerCountMap) {
+        readerCountMap.merge(graph, 1, Integer::sum);
+        readGraphs.get().push(graph);
+      }
+    }
+  }
+
+  /**
+   * Releases the shared lock. Without transaction support, the graph read by the current thread is
+   * closed, if it has been swapped with a snapshot and the current thread has been its last
+   * reader.
+   */
+  @Override
+  public void readUnlock() {
+    if (areTransactionSupported()) {
+      if (graph.tx().isOpen()) {
+        graph.tx().close();
+      }
+    } else {
+      Graph readGraph;
+      boolean close = false;
+      synchronized (readerCountMap) {
+        readGraph = readGraphs.get().pop();
+        if (readerCountMap.merge(readGraph, -1, Integer::sum) == 0) {
+          readerCountMap.remove(readGraph);
+          close = retiredGraphs.remove(readGraph);
+        }
+      }
+      graphLock.readLock().unlock();
+      if (close) {
+        closeGraph(readGraph);
+      }
+    }
+  }
+
+  /**
+   * Closes the given graph, which isn't served by this gremlin dao anymore and isn't read by any
+   * thread.
+   *
+   * @param graph that shall be closed.
+   */
+  protected void closeGraph(Graph graph) {
+    try {
+      graph.close();
+    } catch (Exception e) {
+      logger.error("Failed to close the old graph. {}", e.getMessage());
     }
   }
 
@@ -7,10 +7,38 @@ import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.config.KnowledgeGraphDA
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.KGDAOException;
 import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.LiteralGraphSchema;
 import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
+import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
+import at.ac.tuwien.ifs.es.middleware.scheduler.TaskStatus;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PostConstruct;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
+import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
@@ -21,7 +49,18 @@ import org.springframework.stereotype.Component;
 /**
  * This class implements the {@link KGGremlinDAO} as a in-memory {@link TinkerGraph}. It makes use
  * of the abstract implementation {@link AbstractClonedGremlinDAO}, which implements all the
- * necessary steps for cloning relevant data from the {@link KnowledgeGraphDAOConfig}.
+ * necessary steps for cloning relevant data from the {@link KnowledgeGraphDAOConfig}. The graph is
+ * reconstructed as a new snapshot, which requires memory for two graphs during the reconstruction.
+ * <p/>
+ * After each successful construction, the graph is persisted in the gzipped GraphSON format to the
+ * data directory together with the version of the knowledge graph it has been cloned from. At
+ * startup, the persisted graph is loaded, if this version matches the current version of the
+ * knowledge graph, instead of cloning the knowledge graph again. Deltas applied to the graph are
+ * persisted together with the version of their update, at most once per {@code
+ * esm.db.gremlin.inmemory.persist.delay} milliseconds and at the latest, when this DAO is torn
+ * down. GraphSON is used instead of Gryo,
+ * because the Kryo serializers of Gryo need reflective access to the internals of the JDK, which
+ * is denied since Java 16, unless the packages are opened explicitly.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -32,13 +71,45 @@ import org.springframework.stereotype.Component;
 @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
 public class ClonedInMemoryGremlinDAO extends AbstractClonedGremlinDAO {
 
+  private static final Logger logger = LoggerFactory.getLogger(ClonedInMemoryGremlinDAO.class);
+
   private static final PGS schema = PGS.with("kind", T.id, T.id,
       new LiteralGraphSchema(T.value, "datatype", "language"));
 
+  private static final String GRAPH_FILE_NAME = "tinkergraph.json.gz";
+  private static final String VERSION_FILE_NAME = "tinkergraph.version";
+
+  private final SchedulerPipeline schedulerPipeline;
+  private final File persistenceDir;
+
+  /* version of the knowledge graph at the start of the current construction */
+  private volatile Long constructionVersion;
+  /* version of the knowledge graph from which the restored graph has been cloned */
+  private volatile Long restoredVersion;
+
+  @Value("${esm.db.gremlin.inmemory.persist.delay:60000}")
+  long persistDelayInMs;
+
+  private final Object pendingLock = new Object();
+  /* version of the last applied delta, which hasn't been persisted yet (guarded by pendingLock) */
+  private Long unpersistedVersion;
+  private ScheduledExecutorService persistenceExecutor;
+  private ScheduledFuture<?> scheduledPersistence;
+  private boolean tornDown;
+
+  private final Object persistenceLock = new Object();
+  /* version of the persisted graph (guarded by persistenceLock) */
+  private Long persistedVersion;
+
   @Autowired
   public ClonedInMemoryGremlinDAO(ApplicationContext context,
-      @Qualifier("getSparqlDAO") KGSparqlDAO sparqlDAO, TaskExecutor taskExecutor) {
+      @Qualifier("getSparqlDAO") KGSparqlDAO sparqlDAO, TaskExecutor taskExecutor,
+      ObjectProvider<SchedulerPipeline> schedulerPipelineProvider,
+      @Value("${esm.db.data.dir:#{null}}") String dataDir,
+      @Value("${esm.db.gremlin.inmemory.persist:true}") boolean persist) {
     super(context, sparqlDAO, schema, taskExecutor);
+    this.schedulerPipeline = schedulerPipelineProvider.getIfAvailable();
+    this.persistenceDir = persist && dataDir != null ? new File(dataDir, "gremlin") : null;
     this.setGraph(TinkerGraph.open());
   }
 
@@ -47,6 +118,201 @@ public class ClonedInMemoryGremlinDAO extends AbstractClonedGremlinDAO {
     return false;
   }
 
+  @Override
+  protected Graph newSnapshotGraph() {
+    return TinkerGraph.open();
+  }
+
+  /**
+   * Gets the current version of the knowledge graph, which is the timestamp of the last successful
+   * setup of the {@link KGSparqlDAO}.
+   *
+   * @return the current version of the knowledge graph, or {@code null}, if it is unknown.
+   */
+  private Long currentKGVersion() {
+    if (schedulerPipeline == null) {
+      return null;
+    }
+    Optional<TaskStatus> statusOptional = schedulerPipeline
+        .getTaskStatus(KGSparqlDAO.class.getName());
+    if (statusOptional.isPresent() && TaskStatus.VALUE.OK
+        .equals(statusOptional.get().getStatus())) {
+      return statusOptional.get().getTimestamp();
+    }
+    return null;
+  }
+
+  /**
+   * Loads the persisted graph, if its version matches the current version of the knowledge graph.
+   */
+  @PostConstruct
+  void restore() {
+    if (persistenceDir == null) {
+      return;
+    }
+    File graphFile = new File(persistenceDir, GRAPH_FILE_NAME);
+    File versionFile = new File(persistenceDir, VERSION_FILE_NAME);
+    if (!graphFile.isFile() || !versionFile.isFile()) {
+      return;
+    }
+    try {
+      long persistedVersion = Long.parseLong(
+          new String(Files.readAllBytes(versionFile.toPath()), StandardCharsets.UTF_8).trim());
+      Long currentVersion = currentKGVersion();
+      if (currentVersion == null || currentVersion != persistedVersion) {
+        logger.info(
+            "The persisted in-memory graph of version {} is outdated (current version {}) and will not be restored.",
+            persistedVersion, currentVersion);
+        return;
+      }
+      Instant start = Instant.now();
+      TinkerGraph graph = TinkerGraph.open();
+      try (InputStream in = new GZIPInputStream(
+          new BufferedInputStream(Files.newInputStream(graphFile.toPath())))) {
+        GraphSONReader.build().create().readGraph(in, graph);
+      }
+      this.setGraph(graph);
+      this.restoredVersion = persistedVersion;
+      synchronized (persistenceLock) {
+        this.persistedVersion = persistedVersion;
+      }
+      logger.info("Restored the in-memory graph of version {} from '{}' in {} ms.",
+          persistedVersion, graphFile, Duration.between(start, Instant.now()).toMillis());
+    } catch (IOException | RuntimeException e) {
+      logger.error("Failed to restore the persisted in-memory graph. {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void setup() {
+    Long version = restoredVersion;
+    restoredVersion = null;
+    if (version != null && version.equals(currentKGVersion())) {
+      logger.info("The restored in-memory graph of version {} is up-to-date.", version);
+      return;
+    }
+    super.setup();
+  }
+
+  @Override
+  protected void onDeltaApplied(Long version) {
+    restoredVersion = null;
+    if (persistenceDir == null || version == null) {
+      return;
+    }
+    synchronized (pendingLock) {
+      if (tornDown) {
+        return;
+      }
+      unpersistedVersion = version;
+      if (scheduledPersistence == null) {
+        if (persistenceExecutor == null) {
+          persistenceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gremlin-persistence");
+            thread.setDaemon(true);
+            return thread;
+          });
+        }
+        scheduledPersistence = persistenceExecutor
+            .schedule(this::persistDeltas, persistDelayInMs, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * Persists the graph with the version of the last applied delta, if it hasn't been persisted
+   * yet.
+   */
+  private void persistDeltas() {
+    Long version;
+    synchronized (pendingLock) {
+      version = unpersistedVersion;
+      unpersistedVersion = null;
+      scheduledPersistence = null;
+    }
+    if (version != null) {
+      persist(version);
+    }
+  }
+
+  @Override
+  protected void onBulkLoadStarted(boolean bulkLoad) {
+    constructionVersion = currentKGVersion();
+  }
+
+  @Override
+  protected void onGraphConstructed() {
+    Long version = constructionVersion;
+    if (persistenceDir == null || version == null) {
+      return;
+    }
+    persist(version);
+  }
+
+  /**
+   * Persists the served graph together with the given version of the knowledge graph, unless a
+   * graph of a newer version has been persisted already.
+   */
+  private void persist(long version) {
+    synchronized (persistenceLock) {
+      if (persistedVersion != null && persistedVersion > version) {
+        return;
+      }
+      if (!persistenceDir.exists()) {
+        persistenceDir.mkdirs();
+      }
+      File graphFile = new File(persistenceDir, GRAPH_FILE_NAME);
+      File versionFile = new File(persistenceDir, VERSION_FILE_NAME);
+      File tmpFile = new File(persistenceDir, GRAPH_FILE_NAME + ".tmp");
+      Instant start = Instant.now();
+      this.readLock();
+      try {
+        Files.deleteIfExists(versionFile.toPath());
+        persistedVersion = null;
+        try (OutputStream out = new GZIPOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(tmpFile.toPath())))) {
+          GraphSONWriter.build().create().writeGraph(out, getGraph());
+        }
+        Files.move(tmpFile.toPath(), graphFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        Files.write(versionFile.toPath(),
+            Long.toString(version).getBytes(StandardCharsets.UTF_8));
+        persistedVersion = version;
+        logger.info("Persisted the in-memory graph of version {} to '{}' in {} ms.", version,
+            graphFile, Duration.between(start, Instant.now()).toMillis());
+      } catch (IOException | RuntimeException e) {
+        logger.error("Failed to persist the in-memory graph. {}", e.getMessage());
+      } finally {
+        this.readUnlock();
+      }
+    }
+  }
+
+  /**
+   * Persists the deltas, which haven't been persisted yet, before the graph is closed.
+   */
+  @Override
+  public void tearDown() {
+    ScheduledExecutorService executor;
+    synchronized (pendingLock) {
+      tornDown = true;
+      executor = persistenceExecutor;
+      if (scheduledPersistence != null) {
+        scheduledPersistence.cancel(false);
+      }
+    }
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    persistDeltas();
+    super.tearDown();
+  }
+
   @Override
   public void update(long timestamp) throws KGDAOException {
     //nothing to do
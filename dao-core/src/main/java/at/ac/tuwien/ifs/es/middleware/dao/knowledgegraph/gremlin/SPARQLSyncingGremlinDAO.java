@@ -1,6 +1,8 @@
 package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin;
 
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGGremlinDAO;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.KGDAOException;
 
 /**
  * This is a marker interface for {@link at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGGremlinDAO}
@@ -12,4 +14,25 @@ import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGGremlinDAO;
  */
 public interface SPARQLSyncingGremlinDAO extends KGGremlinDAO {
 
+  /**
+   * Applies the given {@link KGDelta} of an update of the knowledge graph incrementally to the
+   * property graph, instead of cloning the whole knowledge graph again.
+   *
+   * @param delta the changes of the knowledge graph that shall be applied.
+   * @throws KGDAOException if the delta could not be applied.
+   */
+  void applyDelta(KGDelta delta) throws KGDAOException;
+
+  /**
+   * Applies the given {@link KGDelta} of an update of the knowledge graph incrementally to the
+   * property graph, instead of cloning the whole knowledge graph again.
+   *
+   * @param delta   the changes of the knowledge graph that shall be applied.
+   * @param version of the knowledge graph after the update, i.e. the timestamp of the update.
+   * @throws KGDAOException if the delta could not be applied.
+   */
+  default void applyDelta(KGDelta delta, long version) throws KGDAOException {
+    applyDelta(delta);
+  }
+
 }
@@ -0,0 +1,107 @@
+package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.adjacency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This class tests {@link CSRAdjacencyIndex}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class CSRAdjacencyIndexTests {
+
+  private static final String KNOWS = "http://xmlns.com/foaf/0.1/knows";
+  private static final String TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
+
+  private CSRAdjacencyIndex index;
+
+  @BeforeEach
+  public void setUp() {
+    index = CSRAdjacencyIndex.builder()
+        .addEdge(1, KNOWS, 2)
+        .addEdge(3, TYPE, 4)
+        .addEdge(1, KNOWS, 3)
+        .addEdge(2, KNOWS, 1)
+        .addEdge(1, TYPE, 4)
+        .build();
+  }
+
+  @Test
+  public void buildIndex_mustHaveCorrectSizes() {
+    assertThat(index.getVertexCount(), is(5));
+    assertThat(index.getEdgeCount(), is(5));
+    assertThat(index.getPredicateCount(), is(2));
+  }
+
+  @Test
+  public void keyWithoutEdges_mustBeUnused() {
+    assertThat(index.hasEdges(0), is(false));
+    assertThat(index.hasEdges(1), is(true));
+    assertThat(index.hasEdges(4), is(true));
+  }
+
+  @Test
+  public void buildIndex_mustHaveCorrectOutEdges() {
+    assertThat(index.outDegree(0), is(0));
+    assertThat(index.outDegree(1), is(3));
+    int edge = index.outStart(1);
+    assertThat(index.outTarget(edge), is(2));
+    assertThat(index.getPredicate(index.outPredicate(edge)), is(KNOWS));
+    assertThat(index.outTarget(edge + 1), is(3));
+    assertThat(index.outTarget(edge + 2), is(4));
+    assertThat(index.getPredicate(index.outPredicate(edge + 2)), is(TYPE));
+    assertThat(index.outEnd(1), is(edge + 3));
+  }
+
+  @Test
+  public void buildIndex_mustHaveCorrectInEdges() {
+    assertThat(index.inDegree(4), is(2));
+    assertThat(index.inSource(index.inStart(4)), is(3));
+    assertThat(index.inSource(index.inStart(4) + 1), is(1));
+    assertThat(index.inDegree(1), is(1));
+    assertThat(index.inSource(index.inStart(1)), is(2));
+  }
+
+  @Test
+  public void buildEmptyIndex_mustHaveNoVertices() {
+    CSRAdjacencyIndex emptyIndex = CSRAdjacencyIndex.builder().build();
+    assertThat(emptyIndex.getVertexCount(), is(0));
+    assertThat(emptyIndex.getEdgeCount(), is(0));
+    assertThat(emptyIndex.contains(0), is(false));
+  }
+
+  @Test
+  public void getPredicateId_mustReturnIdOfKnownPredicate() {
+    assertThat(index.getPredicateId(KNOWS).map(index::getPredicate), is(Optional.of(KNOWS)));
+    assertThat(index.getPredicateId("http://example.org/unknown"), is(Optional.empty()));
+  }
+
+  @Test
+  public void writeAndReadIndex_mustBeEqual(@TempDir Path tempDir) throws Exception {
+    File file = tempDir.resolve("csr.bin").toFile();
+    index.writeTo(file);
+    CSRAdjacencyIndex readIndex = CSRAdjacencyIndex.readFrom(file);
+    assertThat(readIndex.getVertexCount(), is(index.getVertexCount()));
+    assertThat(readIndex.getEdgeCount(), is(index.getEdgeCount()));
+    for (int v = 0; v < index.getVertexCount(); v++) {
+      assertThat(readIndex.outDegree(v), is(index.outDegree(v)));
+      assertThat(readIndex.inDegree(v), is(index.inDegree(v)));
+    }
+    for (int e = 0; e < index.getEdgeCount(); e++) {
+      assertThat(readIndex.outTarget(e), is(index.outTarget(e)));
+      assertThat(readIndex.getPredicate(readIndex.outPredicate(e)),
+          is(index.getPredicate(index.outPredicate(e))));
+      assertThat(readIndex.inSource(e), is(index.inSource(e)));
+    }
+  }
+
+}
@@ -0,0 +1,122 @@
+package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * This class tests the shared read lock and the exclusive lock of an {@link
+ * AbstractClonedGremlinDAO} without transaction support.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class AbstractClonedGremlinDAOLockTests {
+
+  private static final SimpleRDF valueFactory = new SimpleRDF();
+  private static final String NS = "http://example.org/";
+
+  private ClonedInMemoryGremlinDAO gremlinDAO;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setUp() {
+    gremlinDAO = new ClonedInMemoryGremlinDAO(null, new EmptySparqlDAO(), null,
+        new StaticListableBeanFactory().getBeanProvider(SchedulerPipeline.class), null, false);
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static Triple triple(String s, String p, String o) {
+    return valueFactory.createTriple(valueFactory.createIRI(NS + s),
+        valueFactory.createIRI(NS + p), valueFactory.createIRI(NS + o));
+  }
+
+  @Test
+  public void readLock_mustBeSharedAmongReaders() throws Exception {
+    gremlinDAO.readLock();
+    try {
+      Future<Boolean> reader = executor.submit(() -> {
+        gremlinDAO.readLock();
+        try {
+          return true;
+        } finally {
+          gremlinDAO.readUnlock();
+        }
+      });
+      assertThat(reader.get(5, TimeUnit.SECONDS), is(true));
+    } finally {
+      gremlinDAO.readUnlock();
+    }
+  }
+
+  @Test
+  public void delta_mustWaitUntilReadersHaveReleasedReadLock() throws Exception {
+    Future<?> writer;
+    gremlinDAO.readLock();
+    try {
+      writer = executor.submit(() -> gremlinDAO.applyDelta(
+          new KGDelta(Collections.singletonList(triple("a", "knows", "b")),
+              Collections.emptyList())));
+      assertThrows(TimeoutException.class, () -> writer.get(200, TimeUnit.MILLISECONDS));
+    } finally {
+      gremlinDAO.readUnlock();
+    }
+    writer.get(5, TimeUnit.SECONDS);
+    List<String> edges = gremlinDAO.traversal().E().toStream()
+        .map(e -> e.outVertex().id() + " " + e.label() + " " + e.inVertex().id())
+        .map(e -> e.replace(NS, ""))
+        .collect(Collectors.toList());
+    assertThat(edges, containsInAnyOrder("a knows b"));
+  }
+
+  /**
+   * A SPARQL DAO without any statements.
+   */
+  private static class EmptySparqlDAO implements KGSparqlDAO {
+
+    @Override
+    public <T extends QueryResult> T query(String query, boolean includeInferred) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void update(String query) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void update(long timestamp) {
+    }
+  }
+
+}
@@ -0,0 +1,231 @@
+package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
+import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.LiteralGraphSchema;
+import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the reconstruction of an {@link AbstractClonedGremlinDAO} in snapshot mode.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class AbstractClonedGremlinDAOSnapshotTests {
+
+  private static final SimpleRDF valueFactory = new SimpleRDF();
+  private static final String NS = "http://example.org/";
+
+  private static final PGS schema = PGS.with("kind", T.id, T.id,
+      new LiteralGraphSchema(T.value, "datatype", "language"));
+
+  private StreamingSparqlDAO sparqlDAO;
+  private SnapshotGremlinDAO gremlinDAO;
+
+  @BeforeEach
+  public void setUp() {
+    sparqlDAO = new StreamingSparqlDAO();
+    gremlinDAO = new SnapshotGremlinDAO(sparqlDAO);
+    sparqlDAO.statements = Arrays.asList(triple("a", "knows", "b"), triple("b", "knows", "c"));
+    gremlinDAO.setup();
+  }
+
+  private static Triple triple(String s, String p, String o) {
+    return valueFactory.createTriple(valueFactory.createIRI(NS + s),
+        valueFactory.createIRI(NS + p), valueFactory.createIRI(NS + o));
+  }
+
+  private List<String> edges() {
+    return gremlinDAO.traversal().E().toStream()
+        .map(e -> e.outVertex().id() + " " + e.label() + " " + e.inVertex().id())
+        .map(e -> e.replace(NS, ""))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void reconstruction_mustSwapSnapshot() {
+    Graph formerGraph = gremlinDAO.getGraph();
+    sparqlDAO.statements = Arrays.asList(triple("a", "knows", "c"));
+    gremlinDAO.setup();
+    assertThat(gremlinDAO.getGraph(), not(sameInstance(formerGraph)));
+    assertThat(edges(), containsInAnyOrder("a knows c"));
+  }
+
+  @Test
+  public void deltaDuringSnapshotConstruction_mustBeReplayedOnSnapshot() {
+    KGDelta delta = new KGDelta(Collections.singletonList(triple("d", "knows", "a")),
+        Collections.singletonList(triple("b", "knows", "c")));
+    sparqlDAO.onFirstRow = () -> gremlinDAO.applyDelta(delta);
+    gremlinDAO.setup();
+    assertThat(edges(), containsInAnyOrder("a knows b", "d knows a"));
+  }
+
+  @Test
+  public void failedSnapshotConstruction_mustKeepGraphWithDelta() {
+    Graph formerGraph = gremlinDAO.getGraph();
+    KGDelta delta = new KGDelta(Collections.singletonList(triple("d", "knows", "a")),
+        Collections.emptyList());
+    sparqlDAO.onFirstRow = () -> {
+      gremlinDAO.applyDelta(delta);
+      throw new IllegalStateException("The knowledge graph failed.");
+    };
+    gremlinDAO.setup();
+    assertThat(gremlinDAO.getGraph(), is(sameInstance(formerGraph)));
+    assertThat(edges(), containsInAnyOrder("a knows b", "b knows c", "d knows a"));
+  }
+
+  @Test
+  public void traversalOpenAcrossSwap_mustReadFormerGraphUntilReadLockIsReleased()
+      throws Exception {
+    Graph formerGraph = gremlinDAO.getGraph();
+    sparqlDAO.statements = Arrays.asList(triple("a", "knows", "c"));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      gremlinDAO.readLock();
+      try {
+        Iterator<Edge> edgeIt = gremlinDAO.traversal().E();
+        edgeIt.next();
+        executor.submit(() -> gremlinDAO.setup()).get(5, TimeUnit.SECONDS);
+        assertThat(gremlinDAO.getGraph(), not(sameInstance(formerGraph)));
+        assertThat(gremlinDAO.closedGraphs, not(hasItem(sameInstance(formerGraph))));
+        assertThat(edgeIt.hasNext(), is(true));
+        edgeIt.next();
+        assertThat(edges(), containsInAnyOrder("a knows b", "b knows c"));
+      } finally {
+        gremlinDAO.readUnlock();
+      }
+      assertThat(gremlinDAO.closedGraphs, hasItem(sameInstance(formerGraph)));
+      assertThat(edges(), containsInAnyOrder("a knows c"));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * A cloned in-memory gremlin DAO, which is constructed in snapshot mode and records the graphs
+   * that have been closed.
+   */
+  private static class SnapshotGremlinDAO extends AbstractClonedGremlinDAO {
+
+    private final List<Graph> closedGraphs = new ArrayList<>();
+
+    private SnapshotGremlinDAO(KGSparqlDAO sparqlDAO) {
+      super(null, sparqlDAO, schema, null);
+      setGraph(TinkerGraph.open());
+    }
+
+    @Override
+    protected boolean areTransactionSupported() {
+      return false;
+    }
+
+    @Override
+    protected Graph newSnapshotGraph() {
+      return TinkerGraph.open();
+    }
+
+    @Override
+    protected void closeGraph(Graph graph) {
+      closedGraphs.add(graph);
+      super.closeGraph(graph);
+    }
+  }
+
+  /**
+   * A SPARQL DAO, which streams the given statements and calls the given hook after the first
+   * streamed row.
+   */
+  private static class StreamingSparqlDAO implements KGSparqlDAO {
+
+    private List<Triple> statements = new ArrayList<>();
+    private Runnable onFirstRow;
+
+    @Override
+    public <T extends QueryResult> T query(String query, boolean includeInferred) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SelectQueryResultCursor select(String query, boolean includeInferred) {
+      Iterator<Triple> statementIt = new ArrayList<>(statements).iterator();
+      Runnable hook = onFirstRow;
+      onFirstRow = null;
+      return new SelectQueryResultCursor() {
+
+        private boolean first = true;
+
+        @Override
+        public List<String> getBindingNames() {
+          return Arrays.asList("s", "p", "o");
+        }
+
+        @Override
+        public boolean hasNext() {
+          return statementIt.hasNext();
+        }
+
+        @Override
+        public Map<String, RDFTerm> next() {
+          if (!first && hook != null) {
+            hook.run();
+          }
+          first = false;
+          Triple triple = statementIt.next();
+          Map<String, RDFTerm> row = new HashMap<>();
+          row.put("s", triple.getSubject());
+          row.put("p", triple.getPredicate());
+          row.put("o", triple.getObject());
+          return row;
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    @Override
+    public void update(String query) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void update(long timestamp) {
+    }
+  }
+
+}
@@ -0,0 +1,226 @@
+package at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
+import at.ac.tuwien.ifs.es.middleware.scheduler.TaskStatus;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapdb.DBMaker;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+/**
+ * This class tests the persistence of the graph of the {@link ClonedInMemoryGremlinDAO} and its
+ * restoration at startup.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class ClonedInMemoryGremlinDAOPersistenceTests {
+
+  private static final SimpleRDF valueFactory = new SimpleRDF();
+  private static final String NS = "http://example.org/";
+
+  @TempDir
+  public File dataDir;
+
+  private VersionedSchedulerPipeline schedulerPipeline;
+
+  @BeforeEach
+  public void setUp() {
+    schedulerPipeline = new VersionedSchedulerPipeline();
+    schedulerPipeline.version = 1L;
+  }
+
+  private static Triple triple(String s, String p, String o) {
+    return valueFactory.createTriple(valueFactory.createIRI(NS + s),
+        valueFactory.createIRI(NS + p), valueFactory.createIRI(NS + o));
+  }
+
+  /**
+   * Creates the DAO like at the startup of the application, i.e. the persisted graph is restored
+   * before the DAO is set up.
+   */
+  private ClonedInMemoryGremlinDAO start(KGSparqlDAO sparqlDAO) {
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    beanFactory.addBean("schedulerPipeline", schedulerPipeline);
+    ClonedInMemoryGremlinDAO gremlinDAO = new ClonedInMemoryGremlinDAO(null, sparqlDAO, null,
+        beanFactory.getBeanProvider(SchedulerPipeline.class), dataDir.getAbsolutePath(), true);
+    gremlinDAO.restore();
+    gremlinDAO.setup();
+    return gremlinDAO;
+  }
+
+  private static List<String> edges(ClonedInMemoryGremlinDAO gremlinDAO) {
+    return gremlinDAO.traversal().E().toStream()
+        .map(e -> e.outVertex().id() + " " + e.label() + " " + e.inVertex().id())
+        .map(e -> e.replace(NS, ""))
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void persistedGraphOfCurrentVersion_mustBeRestoredWithoutCloning() {
+    start(new CountingSparqlDAO(triple("a", "knows", "b"), triple("b", "knows", "c")));
+    CountingSparqlDAO restartedSparqlDAO = new CountingSparqlDAO(triple("a", "knows", "c"));
+    ClonedInMemoryGremlinDAO restartedGremlinDAO = start(restartedSparqlDAO);
+    assertThat(edges(restartedGremlinDAO), containsInAnyOrder("a knows b", "b knows c"));
+    assertThat(restartedSparqlDAO.selectCalls, is(0));
+  }
+
+  @Test
+  public void persistedGraphOfOutdatedVersion_mustBeClonedAgain() {
+    start(new CountingSparqlDAO(triple("a", "knows", "b"), triple("b", "knows", "c")));
+    schedulerPipeline.version = 2L;
+    CountingSparqlDAO restartedSparqlDAO = new CountingSparqlDAO(triple("a", "knows", "c"));
+    ClonedInMemoryGremlinDAO restartedGremlinDAO = start(restartedSparqlDAO);
+    assertThat(edges(restartedGremlinDAO), containsInAnyOrder("a knows c"));
+    assertThat(restartedSparqlDAO.selectCalls, is(1));
+  }
+
+  @Test
+  public void appliedDelta_mustBePersistedWithVersionOfUpdate() throws Exception {
+    ClonedInMemoryGremlinDAO gremlinDAO = start(
+        new CountingSparqlDAO(triple("a", "knows", "b")));
+    schedulerPipeline.version = 2L;
+    gremlinDAO.applyDelta(new KGDelta(Collections.singletonList(triple("b", "knows", "c")),
+        Collections.emptyList()), 2L);
+    File versionFile = new File(dataDir, "gremlin/tinkergraph.version");
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!readVersion(versionFile).equals("2") && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(readVersion(versionFile), is("2"));
+    CountingSparqlDAO restartedSparqlDAO = new CountingSparqlDAO(triple("a", "knows", "c"));
+    ClonedInMemoryGremlinDAO restartedGremlinDAO = start(restartedSparqlDAO);
+    assertThat(edges(restartedGremlinDAO), containsInAnyOrder("a knows b", "b knows c"));
+    assertThat(restartedSparqlDAO.selectCalls, is(0));
+  }
+
+  @Test
+  public void pendingDelta_mustBePersistedAtTearDown() throws Exception {
+    ClonedInMemoryGremlinDAO gremlinDAO = start(
+        new CountingSparqlDAO(triple("a", "knows", "b")));
+    gremlinDAO.persistDelayInMs = 60000;
+    schedulerPipeline.version = 2L;
+    gremlinDAO.applyDelta(new KGDelta(Collections.singletonList(triple("b", "knows", "c")),
+        Collections.emptyList()), 2L);
+    gremlinDAO.tearDown();
+    CountingSparqlDAO restartedSparqlDAO = new CountingSparqlDAO(triple("a", "knows", "c"));
+    ClonedInMemoryGremlinDAO restartedGremlinDAO = start(restartedSparqlDAO);
+    assertThat(edges(restartedGremlinDAO), containsInAnyOrder("a knows b", "b knows c"));
+    assertThat(restartedSparqlDAO.selectCalls, is(0));
+  }
+
+  private static String readVersion(File versionFile) throws Exception {
+    if (!versionFile.isFile()) {
+      return "";
+    }
+    return new String(Files.readAllBytes(versionFile.toPath()), StandardCharsets.UTF_8).trim();
+  }
+
+  /**
+   * A {@link SchedulerPipeline}, which reports the given version as the timestamp of the last
+   * successful setup of the SPARQL DAO.
+   */
+  private static class VersionedSchedulerPipeline extends SchedulerPipeline {
+
+    private Long version;
+
+    private VersionedSchedulerPipeline() {
+      super(DBMaker.memoryDB().make(), null);
+    }
+
+    @Override
+    public Optional<TaskStatus> getTaskStatus(String id) {
+      if (KGSparqlDAO.class.getName().equals(id)) {
+        return Optional.of(new TaskStatus(version, TaskStatus.VALUE.OK, 1));
+      }
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * A SPARQL DAO, which streams the given statements and counts the streamed queries.
+   */
+  private static class CountingSparqlDAO implements KGSparqlDAO {
+
+    private final List<Triple> statements;
+    private int selectCalls = 0;
+
+    private CountingSparqlDAO(Triple... statements) {
+      this.statements = Arrays.asList(statements);
+    }
+
+    @Override
+    public <T extends QueryResult> T query(String query, boolean includeInferred) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SelectQueryResultCursor select(String query, boolean includeInferred) {
+      selectCalls++;
+      Iterator<Triple> statementIt = statements.iterator();
+      return new SelectQueryResultCursor() {
+        @Override
+        public List<String> getBindingNames() {
+          return Arrays.asList("s", "p", "o");
+        }
+
+        @Override
+        public boolean hasNext() {
+          return statementIt.hasNext();
+        }
+
+        @Override
+        public Map<String, RDFTerm> next() {
+          Triple triple = statementIt.next();
+          Map<String, RDFTerm> row = new HashMap<>();
+          row.put("s", triple.getSubject());
+          row.put("p", triple.getPredicate());
+          row.put("o", triple.getObject());
+          return row;
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    @Override
+    public void update(String query) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void update(long timestamp) {
+    }
+  }
+
+}
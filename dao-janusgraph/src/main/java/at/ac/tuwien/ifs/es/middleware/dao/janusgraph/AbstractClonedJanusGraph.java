@@ -0,0 +1,104 @@
+package at.ac.tuwien.ifs.es.middleware.dao.janusgraph;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin.AbstractClonedGremlinDAO;
+import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.LiteralGraphSchema;
+import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.janusgraph.core.JanusGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * This is an implementation of {@link AbstractClonedGremlinDAO} for JanusGraph instances. The
+ * implementing classes only have to open the graph for their storage backend, and they have to
+ * call {@link #initGraph()} at the end of their constructor.
+ * <p/>
+ * If batch loading is enabled, the graph is reopened with {@code storage.batch-loading} for the
+ * initial bulk load into the empty graph, and it is reopened without it as soon as the bulk load
+ * has been completed. Hence, all the later writes (e.g. deltas) are locked and checked for
+ * consistency again.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @see <a href="http://janusgraph.org/">JanusGraph</a>
+ * @since 1.0
+ */
+public abstract class AbstractClonedJanusGraph extends AbstractClonedGremlinDAO {
+
+  private static final Logger logger = LoggerFactory.getLogger(AbstractClonedJanusGraph.class);
+
+  private static final PGS schema = PGS.with("kind", "iri", "bnodeid",
+      new LiteralGraphSchema(T.value, "datatype", "language"));
+
+  private final boolean batchLoading;
+  private JanusGraph graph;
+  private boolean batchLoadingOpened;
+
+  /**
+   * Creates a new {@link AbstractClonedJanusGraph}.
+   *
+   * @param context      to publish the events.
+   * @param sparqlDAO    that shall be cloned.
+   * @param taskExecutor for the construction of the graph.
+   * @param batchLoading {@code true}, if the initial bulk load shall be run in the batch-loading
+   *                     mode of JanusGraph, otherwise {@code false}.
+   */
+  protected AbstractClonedJanusGraph(ApplicationContext context, KGSparqlDAO sparqlDAO,
+      TaskExecutor taskExecutor, boolean batchLoading) {
+    super(context, sparqlDAO, schema, taskExecutor);
+    this.batchLoading = batchLoading;
+  }
+
+  /**
+   * Opens the {@link JanusGraph} for the storage backend of the implementing class.
+   *
+   * @param batchLoading {@code true}, if the graph shall be opened with {@code
+   *                     storage.batch-loading}, otherwise {@code false}.
+   * @return the opened {@link JanusGraph}.
+   */
+  protected abstract JanusGraph openGraph(boolean batchLoading);
+
+  /**
+   * Opens the graph without batch loading, and declares its schema and indices.
+   */
+  protected void initGraph() {
+    logger.info("Started to initialize the Janusgraph.");
+    graph = openGraph(false);
+    IndexUtils.index(graph);
+    setGraph(graph);
+    logger.info("Finished initializing the setup of Janusgraph.");
+  }
+
+  private void reopenGraph(boolean batchLoading) {
+    logger.info("Reopening the Janusgraph with batch-loading={}.", batchLoading);
+    graph.close();
+    graph = openGraph(batchLoading);
+    setGraph(graph);
+  }
+
+  @Override
+  protected boolean areTransactionSupported() {
+    return true;
+  }
+
+  @Override
+  protected void onBulkLoadStarted(boolean bulkLoad) {
+    if (bulkLoad && batchLoading) {
+      reopenGraph(true);
+      batchLoadingOpened = true;
+    }
+  }
+
+  @Override
+  protected void onBulkLoadCompleted() {
+    if (batchLoadingOpened) {
+      reopenGraph(false);
+      batchLoadingOpened = false;
+    }
+    IndexUtils.updateIndex(graph);
+  }
+
+}
@@ -3,15 +3,10 @@ package at.ac.tuwien.ifs.es.middleware.dao.janusgraph;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.DependsOn;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin.AbstractClonedGremlinDAO;
-import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.LiteralGraphSchema;
-import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
-import org.apache.tinkerpop.gremlin.structure.Graph;
-import org.apache.tinkerpop.gremlin.structure.T;
 import org.janusgraph.core.JanusGraph;
 import org.janusgraph.core.JanusGraphFactory;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Lazy;
@@ -21,7 +16,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * This is an implementation of {@link AbstractClonedGremlinDAO} using a local instance using a
- * Cassandra node.
+ * Cassandra node. The initial bulk load can be run in the batch-loading mode of JanusGraph (see
+ * {@link AbstractClonedJanusGraph}).
  *
  * @author Kevin Haller
  * @version 1.0
@@ -32,14 +28,9 @@ import org.springframework.stereotype.Component;
 @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
 @Component("CassandraSyncingJanusGraph")
 @DependsOn(sparql = true)
-public class ClonedCassandraJanusGraph extends AbstractClonedGremlinDAO {
+public class ClonedCassandraJanusGraph extends AbstractClonedJanusGraph {
 
-  private static final Logger logger = LoggerFactory.getLogger(ClonedCassandraJanusGraph.class);
-
-  private static final PGS schema = PGS.with("kind", "iri", "bnodeid",
-      new LiteralGraphSchema(T.value, "datatype", "language"));
-
-  private JanusGraph graph;
+  private final CassandraConfig cassandraConfig;
 
   /**
    * Creates a new {@link AbstractClonedGremlinDAO} with the given {@code knowledgeGraphDAO}.
@@ -48,14 +39,16 @@ public class ClonedCassandraJanusGraph extends AbstractClonedGremlinDAO {
    * @param sparqlDAO that shall be used.
    */
   public ClonedCassandraJanusGraph(ApplicationContext context, CassandraConfig cassandraConfig,
-      @Qualifier("getSparqlDAO") KGSparqlDAO sparqlDAO, TaskExecutor taskExecutor) {
-    super(context, sparqlDAO, schema, taskExecutor);
-    this.setGraph(initGraphInstance(cassandraConfig));
+      @Qualifier("getSparqlDAO") KGSparqlDAO sparqlDAO, TaskExecutor taskExecutor,
+      @Value("${esm.db.gremlin.janusgraph.batchLoading:false}") boolean batchLoading) {
+    super(context, sparqlDAO, taskExecutor, batchLoading);
+    this.cassandraConfig = cassandraConfig;
+    initGraph();
   }
 
-  private Graph initGraphInstance(CassandraConfig cassandraConfig) {
-    logger.info("Started to initialize the Janusgraph.");
-    graph = JanusGraphFactory.build()
+  @Override
+  protected JanusGraph openGraph(boolean batchLoading) {
+    return JanusGraphFactory.build()
         .set("storage.backend", "cql")
         .set("storage.cassandra.keyspace", cassandraConfig.getKeySpace())
         .set("storage.hostname", cassandraConfig.getHostname())
@@ -63,20 +56,8 @@ public class ClonedCassandraJanusGraph extends AbstractClonedGremlinDAO {
             cassandraConfig.getIdSuffix() != null ? cassandraConfig.getIdSuffix() :
                 String.valueOf((short) (cassandraConfig.getKeySpace().hashCode())))
         .set("storage.transactions", true)
+        .set("storage.batch-loading", batchLoading)
         .open();
-    IndexUtils.index(graph);
-    logger.info("Finished initializing the setup of Janusgraph.");
-    return graph;
-  }
-
-  @Override
-  protected boolean areTransactionSupported() {
-    return true;
-  }
-
-  @Override
-  protected void onBulkLoadCompleted() {
-    IndexUtils.updateIndex(graph);
   }
 
 }
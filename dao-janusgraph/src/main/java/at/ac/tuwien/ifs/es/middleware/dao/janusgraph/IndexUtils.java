@@ -17,7 +17,30 @@ public final class IndexUtils {
 
   private static final Logger logger = LoggerFactory.getLogger(IndexUtils.class);
 
+  /**
+   * Declares the property keys of the cloned knowledge graph upfront, such that they have not to be
+   * created on the fly during a bulk load. This is required for loading data with {@code
+   * storage.batch-loading} enabled, because consistency checks are then disabled.
+   *
+   * @param graph {@link JanusGraph} for which the schema shall be declared.
+   */
+  static void declareSchema(JanusGraph graph) {
+    JanusGraphManagement mgmt = graph.openManagement();
+    for (String stringKey : new String[]{"iri", "kind", "bnodeid", "datatype", "language"}) {
+      if (mgmt.getPropertyKey(stringKey) == null) {
+        mgmt.makePropertyKey(stringKey).dataType(String.class).cardinality(Cardinality.SINGLE)
+            .make();
+      }
+    }
+    if (mgmt.getPropertyKey("version") == null) {
+      mgmt.makePropertyKey("version").dataType(Long.class).cardinality(Cardinality.SINGLE)
+          .make();
+    }
+    mgmt.commit();
+  }
+
   static void index(JanusGraph graph) {
+    declareSchema(graph);
     /* build and maintain IRI index */
     JanusGraphManagement mgmt = graph.openManagement();
     PropertyKey iriProperty = mgmt.getPropertyKey("iri");
@@ -0,0 +1,175 @@
+package at.ac.tuwien.ifs.es.middleware.dao.janusgraph;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class tests that an {@link AbstractClonedJanusGraph} is only opened in the batch-loading
+ * mode of JanusGraph for the initial bulk load.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class AbstractClonedJanusGraphTest {
+
+  private static final SimpleRDF valueFactory = new SimpleRDF();
+  private static final String NS = "http://example.org/";
+
+  @Rule
+  public TemporaryFolder dataDir = new TemporaryFolder();
+
+  private RecordingSparqlDAO sparqlDAO;
+  private RecordingJanusGraph gremlinDAO;
+
+  @Before
+  public void setUp() throws IOException {
+    sparqlDAO = new RecordingSparqlDAO();
+    sparqlDAO.statements = Arrays.asList(triple("a", "knows", "b"), triple("b", "knows", "c"));
+    gremlinDAO = new RecordingJanusGraph(sparqlDAO, dataDir.newFolder());
+    sparqlDAO.batchLoadingProbe = () -> gremlinDAO.batchLoading;
+  }
+
+  @After
+  public void tearDown() {
+    gremlinDAO.close();
+  }
+
+  private static Triple triple(String s, String p, String o) {
+    return valueFactory.createTriple(valueFactory.createIRI(NS + s),
+        valueFactory.createIRI(NS + p), valueFactory.createIRI(NS + o));
+  }
+
+  @Test
+  public void initialBulkLoad_mustBeTheOnlyLoadInBatchLoadingMode() {
+    assertThat(gremlinDAO.batchLoading, is(false));
+    gremlinDAO.setup();
+    assertThat(sparqlDAO.batchLoadingDuringLoads, contains(true));
+    assertThat(gremlinDAO.batchLoading, is(false));
+    gremlinDAO.setup();
+    assertThat(sparqlDAO.batchLoadingDuringLoads, contains(true, false));
+    assertThat(gremlinDAO.batchLoading, is(false));
+    assertThat(gremlinDAO.traversal().E().toStream().map(e -> e.label())
+        .collect(Collectors.toList()), contains(NS + "knows", NS + "knows"));
+  }
+
+  /**
+   * An {@link AbstractClonedJanusGraph} with batch loading, which records the mode, in which its
+   * graph has been opened last. The graph itself is opened without batch loading, because the
+   * local BerkeleyJE backend doesn't support it.
+   */
+  private static class RecordingJanusGraph extends AbstractClonedJanusGraph {
+
+    private final File dataDir;
+    private boolean batchLoading;
+
+    private RecordingJanusGraph(KGSparqlDAO sparqlDAO, File dataDir) {
+      super(null, sparqlDAO, (TaskExecutor) Runnable::run, true);
+      this.dataDir = dataDir;
+      initGraph();
+    }
+
+    @Override
+    protected JanusGraph openGraph(boolean batchLoading) {
+      this.batchLoading = batchLoading;
+      return JanusGraphFactory.build().set("storage.backend", "berkeleyje")
+          .set("storage.directory", dataDir.getAbsolutePath()).open();
+    }
+
+    private void close() {
+      try {
+        getGraph().close();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  /**
+   * A SPARQL DAO, which streams the given statements and records the batch-loading mode of the
+   * graph, when the statements are loaded.
+   */
+  private static class RecordingSparqlDAO implements KGSparqlDAO {
+
+    private List<Triple> statements = new ArrayList<>();
+    private BooleanSupplier batchLoadingProbe;
+    private List<Boolean> batchLoadingDuringLoads = new ArrayList<>();
+
+    @Override
+    public <T extends QueryResult> T query(String query, boolean includeInferred) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SelectQueryResultCursor select(String query, boolean includeInferred) {
+      batchLoadingDuringLoads.add(batchLoadingProbe.getAsBoolean());
+      Iterator<Triple> statementIt = new ArrayList<>(statements).iterator();
+      return new SelectQueryResultCursor() {
+
+        @Override
+        public List<String> getBindingNames() {
+          return Arrays.asList("s", "p", "o");
+        }
+
+        @Override
+        public boolean hasNext() {
+          return statementIt.hasNext();
+        }
+
+        @Override
+        public Map<String, RDFTerm> next() {
+          Triple triple = statementIt.next();
+          Map<String, RDFTerm> row = new HashMap<>();
+          row.put("s", triple.getSubject());
+          row.put("p", triple.getPredicate());
+          row.put("o", triple.getObject());
+          return row;
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    @Override
+    public void update(String query) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void update(long timestamp) {
+    }
+  }
+
+}
@@ -2,6 +2,7 @@ package at.ac.tuwien.ifs.es.middleware.dao.rdf4j;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGUpdatedEvent;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.KGDAOConnectionException;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.KGDAOException;
@@ -11,9 +12,16 @@ import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPAR
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPARQLExecutionException;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGMalformedSPARQLQueryException;
 import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JAskQueryResult;
+import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JDeltaCollector;
 import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JGraphQueryResult;
 import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JSelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JSelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JStreamingQueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.StreamingQueryResult;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import java.util.Optional;
 import javax.annotation.PreDestroy;
 import org.eclipse.rdf4j.RDF4JException;
 import org.eclipse.rdf4j.query.BooleanQuery;
@@ -25,10 +33,18 @@ import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailBooleanQuery;
+import org.eclipse.rdf4j.repository.sail.SailGraphQuery;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
 import org.eclipse.rdf4j.sail.Sail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +70,8 @@ public abstract class RDF4JSparqlDAO implements KGSparqlDAO, AutoCloseable {
   private long updateInterval;
   @Value("${esm.db.updateinterval.timeout:60000}")
   private long updateIntervalTimout;
+  @Value("${esm.db.update.delta.limit:100000}")
+  private int deltaLimit = 100000;
 
   private Repository repository;
 
@@ -95,7 +113,6 @@ public abstract class RDF4JSparqlDAO implements KGSparqlDAO, AutoCloseable {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public <T extends QueryResult> T query(String queryString, boolean includeInferred)
       throws KGSPARQLException {
     logger.trace("SPARQL Query {} was issued. Inference={}",
@@ -103,37 +120,194 @@ public abstract class RDF4JSparqlDAO implements KGSparqlDAO, AutoCloseable {
     try (RepositoryConnection con = repository.getConnection()) {
       Query query = con.prepareQuery(QueryLanguage.SPARQL, queryString);
       query.setIncludeInferred(includeInferred);
-      if (query instanceof TupleQuery) {
-        TupleQueryResult result = ((TupleQuery) query).evaluate();
-        return (T) new RDF4JSelectQueryResult(result.getBindingNames(),
-            QueryResults.asList(result));
-      } else if (query instanceof BooleanQuery) {
-        return (T) new RDF4JAskQueryResult(((BooleanQuery) query).evaluate());
-      } else if (query instanceof GraphQuery) {
-        GraphQueryResult graphQueryResult = ((GraphQuery) query).evaluate();
-        return (T) new RDF4JGraphQueryResult(graphQueryResult.getNamespaces(),
-            QueryResults.asList(graphQueryResult));
+      return evaluate(query);
+    } catch (MalformedQueryException e) {
+      throw new KGMalformedSPARQLQueryException(e);
+    } catch (RDF4JException e) {
+      throw new KGSPARQLExecutionException(e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * If the repository is a {@link SailRepository}, the parsed query with the bound rows is
+   * evaluated directly, without building and parsing the query string.
+   */
+  @Override
+  public <T extends QueryResult> T query(BoundSPARQLQuery boundQuery, boolean includeInferred)
+      throws KGSPARQLException {
+    Optional<ParsedQuery> parsedQueryOptional = boundQuery.getParsedQuery();
+    if (!(repository instanceof SailRepository) || !parsedQueryOptional.isPresent()) {
+      return this.query(boundQuery.getQueryString(), includeInferred);
+    }
+    logger.trace("Parsed SPARQL Query for template {} was issued. Inference={}",
+        boundQuery.getTemplate().replaceAll("\\n", "\\\\n"), includeInferred);
+    try (SailRepositoryConnection con = ((SailRepository) repository).getConnection()) {
+      ParsedQuery parsedQuery = parsedQueryOptional.get();
+      Query query;
+      if (parsedQuery instanceof ParsedTupleQuery) {
+        query = new SailTupleQuery((ParsedTupleQuery) parsedQuery, con);
+      } else if (parsedQuery instanceof ParsedBooleanQuery) {
+        query = new SailBooleanQuery((ParsedBooleanQuery) parsedQuery, con) {
+        };
       } else {
+        query = new SailGraphQuery((ParsedGraphQuery) parsedQuery, con) {
+        };
+      }
+      query.setIncludeInferred(includeInferred);
+      return evaluate(query);
+    } catch (RDF4JException e) {
+      throw new KGSPARQLExecutionException(e);
+    }
+  }
+
+  /**
+   * Evaluates the given prepared {@link Query} and materializes its result.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends QueryResult> T evaluate(Query query) throws KGSPARQLException {
+    if (query instanceof TupleQuery) {
+      TupleQueryResult result = ((TupleQuery) query).evaluate();
+      return (T) new RDF4JSelectQueryResult(result.getBindingNames(),
+          QueryResults.asList(result));
+    } else if (query instanceof BooleanQuery) {
+      return (T) new RDF4JAskQueryResult(((BooleanQuery) query).evaluate());
+    } else if (query instanceof GraphQuery) {
+      GraphQueryResult graphQueryResult = ((GraphQuery) query).evaluate();
+      return (T) new RDF4JGraphQueryResult(graphQueryResult.getNamespaces(),
+          QueryResults.asList(graphQueryResult));
+    } else {
+      throw new KGMalformedSPARQLQueryException(String
+          .format(
+              "Given query must be a SELECT, ASK or CONSTRUCT query, but was '%s'. For update queries use the corresponding endpoint.",
+              query));
+    }
+  }
+
+  @Override
+  public SelectQueryResultCursor select(String queryString, boolean includeInferred)
+      throws KGSPARQLException {
+    logger.trace("Streaming SPARQL Query {} was issued. Inference={}",
+        queryString.replaceAll("\\n", "\\\\n"), includeInferred);
+    RepositoryConnection con;
+    try {
+      con = repository.getConnection();
+    } catch (RDF4JException e) {
+      throw new KGSPARQLExecutionException(e);
+    }
+    try {
+      Query query = con.prepareQuery(QueryLanguage.SPARQL, queryString);
+      if (!(query instanceof TupleQuery)) {
+        throw new KGMalformedSPARQLQueryException(
+            String.format("Given query must be a SELECT query, but was '%s'.", queryString));
+      }
+      query.setIncludeInferred(includeInferred);
+      return new RDF4JSelectQueryResultCursor(con, ((TupleQuery) query).evaluate());
+    } catch (MalformedQueryException e) {
+      con.close();
+      throw new KGMalformedSPARQLQueryException(e);
+    } catch (RDF4JException e) {
+      con.close();
+      throw new KGSPARQLExecutionException(e);
+    } catch (KGSPARQLException e) {
+      con.close();
+      throw e;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * If the repository is a {@link SailRepository}, the parsed SELECT query with the bound rows is
+   * evaluated directly, without building and parsing the query string.
+   */
+  @Override
+  public SelectQueryResultCursor select(BoundSPARQLQuery boundQuery, boolean includeInferred)
+      throws KGSPARQLException {
+    Optional<ParsedQuery> parsedQueryOptional = boundQuery.getParsedQuery();
+    if (!(repository instanceof SailRepository) || !parsedQueryOptional.isPresent()) {
+      return this.select(boundQuery.getQueryString(), includeInferred);
+    }
+    if (!(parsedQueryOptional.get() instanceof ParsedTupleQuery)) {
+      throw new KGMalformedSPARQLQueryException(String
+          .format("Given query must be a SELECT query, but was '%s'.", boundQuery.getTemplate()));
+    }
+    logger.trace("Streaming parsed SPARQL Query for template {} was issued. Inference={}",
+        boundQuery.getTemplate().replaceAll("\\n", "\\\\n"), includeInferred);
+    SailRepositoryConnection con;
+    try {
+      con = ((SailRepository) repository).getConnection();
+    } catch (RDF4JException e) {
+      throw new KGSPARQLExecutionException(e);
+    }
+    try {
+      TupleQuery query = new SailTupleQuery((ParsedTupleQuery) parsedQueryOptional.get(), con);
+      query.setIncludeInferred(includeInferred);
+      return new RDF4JSelectQueryResultCursor(con, query.evaluate());
+    } catch (RDF4JException e) {
+      con.close();
+      throw new KGSPARQLExecutionException(e);
+    }
+  }
+
+  @Override
+  public StreamingQueryResult stream(String queryString, boolean includeInferred)
+      throws KGSPARQLException {
+    logger.trace("Streaming of SPARQL Query {} was requested. Inference={}",
+        queryString.replaceAll("\\n", "\\\\n"), includeInferred);
+    RepositoryConnection con;
+    try {
+      con = repository.getConnection();
+    } catch (RDF4JException e) {
+      throw new KGSPARQLExecutionException(e);
+    }
+    try {
+      Query query = con.prepareQuery(QueryLanguage.SPARQL, queryString);
+      if (!(query instanceof TupleQuery || query instanceof BooleanQuery
+          || query instanceof GraphQuery)) {
         throw new KGMalformedSPARQLQueryException(String
             .format(
                 "Given query must be a SELECT, ASK or CONSTRUCT query, but was '%s'. For update queries use the corresponding endpoint.",
                 query));
       }
+      query.setIncludeInferred(includeInferred);
+      return RDF4JStreamingQueryResult.of(con, query);
     } catch (MalformedQueryException e) {
+      con.close();
       throw new KGMalformedSPARQLQueryException(e);
     } catch (RDF4JException e) {
+      con.close();
       throw new KGSPARQLExecutionException(e);
+    } catch (KGSPARQLException e) {
+      con.close();
+      throw e;
     }
   }
 
+  @Override
+  public boolean isStreamingSupported() {
+    return true;
+  }
+
   @Override
   public void update(String query) throws KGSPARQLException {
     checkArgument(query != null && !query.isEmpty(),
         "The given query string must be specified and not be null or empty.");
     logger.trace("Update {} was requested to be executed", query.replaceAll("\\n", "\\\\n"));
     try (RepositoryConnection con = repository.getConnection()) {
-      con.prepareUpdate(query).execute();
-      context.publishEvent(new KGUpdatedEvent(this));
+      Optional<RDF4JDeltaCollector> collectorOptional = RDF4JDeltaCollector
+          .attach(con, deltaLimit);
+      KGDelta delta = null;
+      try {
+        con.prepareUpdate(query).execute();
+        if (collectorOptional.isPresent()) {
+          delta = collectorOptional.get().getDelta().orElse(null);
+        }
+      } finally {
+        collectorOptional.ifPresent(RDF4JDeltaCollector::close);
+      }
+      context.publishEvent(new KGUpdatedEvent(this, delta));
     } catch (RDF4JException e) {
       throw new KGSPARQLExecutionException(e);
     }
@@ -2,8 +2,8 @@ package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.AskQueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
 import org.eclipse.rdf4j.query.resultio.BooleanQueryResultFormat;
@@ -13,19 +13,21 @@ import org.eclipse.rdf4j.query.resultio.QueryResultIO;
 /**
  * This class is an implementation of {@link AskQueryResult} that maintains the response of a ASK
  * SPARQL query. This is either {@code true}, or {@code false}.
+ * <p/>
+ * The result is serializable.
  *
  * @author Kevin Haller
  * @version 1.0
  * @since 1.0
  */
 public class RDF4JAskQueryResult extends RDF4JQueryResult<QueryResultFormat> implements
-    AskQueryResult {
+    AskQueryResult, Serializable {
 
-  private static final List<QueryResultFormat> ASK_QUERY_RESULT_FORMATS = Arrays
+  static final List<QueryResultFormat> ASK_QUERY_RESULT_FORMATS = Arrays
       .asList(BooleanQueryResultFormat.SPARQL, BooleanQueryResultFormat.JSON,
           BooleanQueryResultFormat.TEXT);
 
-  private static final String ASK_QUERY_RESULT_FORMATS_STRING = RDF4JQueryResult
+  static final String ASK_QUERY_RESULT_FORMATS_STRING = RDF4JQueryResult
       .transformResultFormatsToReadableString(ASK_QUERY_RESULT_FORMATS);
 
   private boolean value;
@@ -46,12 +48,30 @@ public class RDF4JAskQueryResult extends RDF4JQueryResult<QueryResultFormat> imp
   }
 
   @Override
-  public byte[] performTransformation(QueryResultFormat format) throws KGSPARQLResultFormatException {
-    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-      QueryResultIO.createBooleanWriter(format, out).handleBoolean(value);
-      return out.toByteArray();
-    } catch (IOException e) {
-      throw new KGSPARQLResultFormatException(e);
+  public void performTransformation(QueryResultFormat format, OutputStream out)
+      throws KGSPARQLResultFormatException {
+    QueryResultIO.createBooleanWriter(format, out).handleBoolean(value);
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm(value);
+  }
+
+  /**
+   * The serialized form of a {@link RDF4JAskQueryResult}.
+   */
+  private static class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean value;
+
+    private SerializedForm(boolean value) {
+      this.value = value;
+    }
+
+    private Object readResolve() {
+      return new RDF4JAskQueryResult(value);
     }
   }
 
@@ -0,0 +1,135 @@
+package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.commons.rdf.api.Triple;
+import org.apache.commons.rdf.rdf4j.RDF4J;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.NotifyingSailConnection;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.SailConnectionListener;
+
+/**
+ * This class captures the statements that are added and removed on a {@link
+ * RepositoryConnection}, while an update is executed. Capturing is only possible for repositories
+ * backed by a {@link org.eclipse.rdf4j.sail.NotifyingSail} (e.g. memory and native store), but not
+ * for remote repositories. Only the net changes are kept, i.e. a statement that is removed and
+ * added again in the same update is not part of the delta. Since stores do not notify about the
+ * re-insertion of a statement that is already part of their snapshot, the captured changes are
+ * reconciled with the state of the connection, when the delta is fetched.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class RDF4JDeltaCollector implements SailConnectionListener, AutoCloseable {
+
+  private final RDF4J valueFactory = new RDF4J();
+
+  private final RepositoryConnection repositoryConnection;
+  private final NotifyingSailConnection connection;
+  private final int limit;
+
+  private Set<Statement> addedStatements = new LinkedHashSet<>();
+  private Set<Statement> removedStatements = new LinkedHashSet<>();
+  private boolean exceeded = false;
+
+  private RDF4JDeltaCollector(RepositoryConnection repositoryConnection,
+      NotifyingSailConnection connection, int limit) {
+    this.repositoryConnection = repositoryConnection;
+    this.connection = connection;
+    this.limit = limit;
+  }
+
+  /**
+   * Attaches a new {@link RDF4JDeltaCollector} to the given {@link RepositoryConnection}, if its
+   * changes can be captured.
+   *
+   * @param con {@link RepositoryConnection} of which the changes shall be captured.
+   * @param limit the maximal number of changed statements, before capturing is given up.
+   * @return the attached {@link RDF4JDeltaCollector}, or {@link Optional#empty()}, if the changes
+   * of the given connection cannot be captured.
+   */
+  public static Optional<RDF4JDeltaCollector> attach(RepositoryConnection con, int limit) {
+    checkArgument(con != null, "The given connection must not be null.");
+    if (con instanceof SailRepositoryConnection) {
+      SailConnection sailConnection = ((SailRepositoryConnection) con).getSailConnection();
+      if (sailConnection instanceof NotifyingSailConnection) {
+        RDF4JDeltaCollector collector = new RDF4JDeltaCollector(con,
+            (NotifyingSailConnection) sailConnection, limit);
+        ((NotifyingSailConnection) sailConnection).addConnectionListener(collector);
+        return Optional.of(collector);
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public void statementAdded(Statement st) {
+    if (!exceeded) {
+      if (!removedStatements.remove(st)) {
+        addedStatements.add(st);
+      }
+      checkLimit();
+    }
+  }
+
+  @Override
+  public void statementRemoved(Statement st) {
+    if (!exceeded) {
+      if (!addedStatements.remove(st)) {
+        removedStatements.add(st);
+      }
+      checkLimit();
+    }
+  }
+
+  private void checkLimit() {
+    if (addedStatements.size() + removedStatements.size() > limit) {
+      exceeded = true;
+      addedStatements.clear();
+      removedStatements.clear();
+    }
+  }
+
+  /**
+   * Gets the captured {@link KGDelta}. The connection this collector was attached to must still be
+   * open, because the captured changes are checked against it.
+   *
+   * @return the captured {@link KGDelta}, or {@link Optional#empty()}, if the number of changed
+   * statements exceeded the limit.
+   */
+  public Optional<KGDelta> getDelta() {
+    if (exceeded) {
+      return Optional.empty();
+    }
+    List<Triple> added = new LinkedList<>();
+    for (Statement st : addedStatements) {
+      if (repositoryConnection.hasStatement(st.getSubject(), st.getPredicate(), st.getObject(),
+          false)) {
+        added.add(valueFactory.asTriple(st));
+      }
+    }
+    List<Triple> removed = new LinkedList<>();
+    for (Statement st : removedStatements) {
+      if (!repositoryConnection.hasStatement(st.getSubject(), st.getPredicate(), st.getObject(),
+          false)) {
+        removed.add(valueFactory.asTriple(st));
+      }
+    }
+    return Optional.of(new KGDelta(added, removed));
+  }
+
+  @Override
+  public void close() {
+    connection.removeConnectionListener(this);
+  }
+}
@@ -2,9 +2,11 @@ package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.GraphQueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.rdf.api.Graph;
@@ -19,18 +21,22 @@ import org.eclipse.rdf4j.rio.Rio;
 /**
  * This class is an implementation of {@link GraphQueryResult} that maintains the response of a
  * CONSTRUCT or DESCRIBE SPARQL query executed by the RDF4J framework.
+ * <p/>
+ * The result is serializable, where the values are copied such that they are independent of the
+ * store, which created them.
  *
  * @author Kevin Haller
  * @version 1.0
  * @since 1.0
  */
-public class RDF4JGraphQueryResult extends RDF4JQueryResult<RDFFormat> implements GraphQueryResult {
+public class RDF4JGraphQueryResult extends RDF4JQueryResult<RDFFormat> implements GraphQueryResult,
+    Serializable {
 
-  private static final List<RDFFormat> GRAPH_QUERY_RESULT_FORMATS = Arrays
+  static final List<RDFFormat> GRAPH_QUERY_RESULT_FORMATS = Arrays
       .asList(RDFFormat.JSONLD, RDFFormat.TURTLE, RDFFormat.RDFXML, RDFFormat.NTRIPLES,
           RDFFormat.BINARY);
 
-  private static final String GRAPH_QUERY_RESULT_FORMATS_STRING = RDF4JQueryResult
+  static final String GRAPH_QUERY_RESULT_FORMATS_STRING = RDF4JQueryResult
       .transformResultFormatsToReadableString(GRAPH_QUERY_RESULT_FORMATS);
 
   private Map<String, String> namespaces;
@@ -43,14 +49,10 @@ public class RDF4JGraphQueryResult extends RDF4JQueryResult<RDFFormat> implement
   }
 
   @Override
-  public byte[] performTransformation(RDFFormat format) throws KGSPARQLResultFormatException {
-    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-      QueryResults.report(new IteratingGraphQueryResult(namespaces, statements),
-          Rio.createWriter(format, out));
-      return out.toByteArray();
-    } catch (IOException e) {
-      throw new KGSPARQLResultFormatException(e);
-    }
+  public void performTransformation(RDFFormat format, OutputStream out)
+      throws KGSPARQLResultFormatException {
+    QueryResults.report(new IteratingGraphQueryResult(namespaces, statements),
+        Rio.createWriter(format, out));
   }
 
   @Override
@@ -58,6 +60,33 @@ public class RDF4JGraphQueryResult extends RDF4JQueryResult<RDFFormat> implement
     return new RDF4J().asGraph(new LinkedHashModel(statements));
   }
 
+  private Object writeReplace() {
+    return new SerializedForm(namespaces, statements);
+  }
+
+  /**
+   * The serialized form of a {@link RDF4JGraphQueryResult}.
+   */
+  private static class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final HashMap<String, String> namespaces;
+    private final ArrayList<Statement> statements;
+
+    private SerializedForm(Map<String, String> namespaces, List<Statement> statements) {
+      this.namespaces = namespaces != null ? new HashMap<>(namespaces) : new HashMap<>();
+      this.statements = new ArrayList<>(statements.size());
+      for (Statement statement : statements) {
+        this.statements.add(RDF4JValueCopier.copy(statement));
+      }
+    }
+
+    private Object readResolve() {
+      return new RDF4JGraphQueryResult(namespaces, statements);
+    }
+  }
+
   @Override
   public String toString() {
     return "RDF4JGraphQueryResult{" +
@@ -3,6 +3,9 @@ package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultSerializationException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -39,9 +42,23 @@ public abstract class RDF4JQueryResult<T extends FileFormat> implements QueryRes
   }
 
   /**
-   * A hook for specific implementations.
+   * A hook for specific implementations, which shall write the result in the given {@code format}
+   * to the given {@link OutputStream}.
    */
-  public abstract byte[] performTransformation(T format) throws KGSPARQLResultFormatException;
+  public abstract void performTransformation(T format, OutputStream out)
+      throws KGSPARQLResultFormatException, IOException;
+
+  /**
+   * Serializes the result in the given {@code format} into a byte array.
+   */
+  public byte[] performTransformation(T format) throws KGSPARQLResultFormatException {
+    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      performTransformation(format, out);
+      return out.toByteArray();
+    } catch (IOException e) {
+      throw new KGSPARQLResultFormatException(e);
+    }
+  }
 
   @Override
   public byte[] transform(String mimeType) throws KGSPARQLResultFormatException {
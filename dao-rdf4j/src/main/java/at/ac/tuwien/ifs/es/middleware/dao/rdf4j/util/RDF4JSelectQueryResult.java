@@ -1,21 +1,26 @@
 package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
 
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
+import com.google.common.collect.Iterators;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.rdf.rdf4j.RDF4J;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryResults;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
 import org.eclipse.rdf4j.query.resultio.QueryResultIO;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
@@ -25,22 +30,25 @@ import org.slf4j.LoggerFactory;
 /**
  * This class takes the {@link TupleQueryResult} of a SPARQL query executed with the RDF4J framework
  * and abstracts it to {@link SelectQueryResult}.
+ * <p/>
+ * The result is serializable, where the values are copied such that they are independent of the
+ * store, which created them.
  *
  * @author Kevin Haller
  * @version 1.0
  * @since 1.0
  */
 public class RDF4JSelectQueryResult extends RDF4JQueryResult<QueryResultFormat> implements
-    SelectQueryResult {
+    SelectQueryResult, Serializable {
 
   private static final Logger logger = LoggerFactory.getLogger(
       RDF4JSelectQueryResult.class);
 
-  private static final List<QueryResultFormat> SELECT_QUERY_RESULT_FORMATS = Arrays
+  static final List<QueryResultFormat> SELECT_QUERY_RESULT_FORMATS = Arrays
       .asList(TupleQueryResultFormat.SPARQL, TupleQueryResultFormat.JSON,
           TupleQueryResultFormat.CSV, TupleQueryResultFormat.TSV, TupleQueryResultFormat.BINARY);
 
-  private static final String SELECT_QUERY_RESULT_FORMATS_STRING = RDF4JQueryResult
+  static final String SELECT_QUERY_RESULT_FORMATS_STRING = RDF4JQueryResult
       .transformResultFormatsToReadableString(SELECT_QUERY_RESULT_FORMATS);
 
   private List<String> bindingNames;
@@ -57,27 +65,76 @@ public class RDF4JSelectQueryResult extends RDF4JQueryResult<QueryResultFormat>
     LinkedList<Map<String, RDFTerm>> resultTable = new LinkedList<>();
     RDF4J valueFactory = new RDF4J();
     for (BindingSet bindingSet : bindingSets) {
-      Map<String, RDFTerm> row = new HashMap<>();
-      for (String bindingName : bindingNames) {
-        Binding b = bindingSet.getBinding(bindingName);
-        if (b != null) {
-          row.put(bindingName, valueFactory.asRDFTerm(b.getValue()));
-        }
-      }
-      resultTable.add(row);
+      resultTable.add(toRow(valueFactory, bindingSet));
     }
     return resultTable;
   }
 
   @Override
-  public byte[] performTransformation(QueryResultFormat format) throws KGSPARQLResultFormatException {
-    try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-      QueryResults
-          .report(new IteratingTupleQueryResult(bindingNames, bindingSets),
-              QueryResultIO.createTupleWriter(format, out));
-      return out.toByteArray();
-    } catch (IOException e) {
-      throw new KGSPARQLResultFormatException(e);
+  public int size() {
+    return bindingSets.size();
+  }
+
+  @Override
+  public Iterator<Map<String, RDFTerm>> rowIterator() {
+    RDF4J valueFactory = new RDF4J();
+    return Iterators.transform(bindingSets.iterator(),
+        bindingSet -> toRow(valueFactory, bindingSet));
+  }
+
+  /**
+   * Converts the given {@link BindingSet} into a row of this result.
+   */
+  private Map<String, RDFTerm> toRow(RDF4J valueFactory, BindingSet bindingSet) {
+    Map<String, RDFTerm> row = new HashMap<>();
+    for (String bindingName : bindingNames) {
+      Binding b = bindingSet.getBinding(bindingName);
+      if (b != null) {
+        row.put(bindingName, valueFactory.asRDFTerm(b.getValue()));
+      }
+    }
+    return row;
+  }
+
+  @Override
+  public void performTransformation(QueryResultFormat format, OutputStream out)
+      throws KGSPARQLResultFormatException {
+    QueryResults.report(new IteratingTupleQueryResult(bindingNames, bindingSets),
+        QueryResultIO.createTupleWriter(format, out));
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm(bindingNames, bindingSets);
+  }
+
+  /**
+   * The serialized form of a {@link RDF4JSelectQueryResult}.
+   */
+  private static class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ArrayList<String> bindingNames;
+    private final ArrayList<Value[]> rows;
+
+    private SerializedForm(List<String> bindingNames, List<BindingSet> bindingSets) {
+      this.bindingNames = new ArrayList<>(bindingNames);
+      this.rows = new ArrayList<>(bindingSets.size());
+      for (BindingSet bindingSet : bindingSets) {
+        Value[] row = new Value[bindingNames.size()];
+        for (int i = 0; i < row.length; i++) {
+          row[i] = RDF4JValueCopier.copy(bindingSet.getValue(bindingNames.get(i)));
+        }
+        rows.add(row);
+      }
+    }
+
+    private Object readResolve() {
+      List<BindingSet> bindingSets = new ArrayList<>(rows.size());
+      for (Value[] row : rows) {
+        bindingSets.add(new ListBindingSet(bindingNames, row));
+      }
+      return new RDF4JSelectQueryResult(bindingNames, bindingSets);
     }
   }
 
@@ -0,0 +1,104 @@
+package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPARQLExecutionException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.rdf4j.RDF4J;
+import org.eclipse.rdf4j.RDF4JException;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class streams the {@link TupleQueryResult} of a SPARQL query executed with the RDF4J
+ * framework as {@link SelectQueryResultCursor}. The {@link RepositoryConnection} on which the query
+ * has been evaluated is kept open, until this cursor is closed.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class RDF4JSelectQueryResultCursor implements SelectQueryResultCursor {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(RDF4JSelectQueryResultCursor.class);
+
+  private final RDF4J valueFactory = new RDF4J();
+
+  private final RepositoryConnection connection;
+  private final TupleQueryResult result;
+  private final List<String> bindingNames;
+  private boolean closed = false;
+
+  public RDF4JSelectQueryResultCursor(RepositoryConnection connection, TupleQueryResult result) {
+    checkArgument(connection != null, "The given connection must not be null.");
+    checkArgument(result != null, "The given tuple query result must not be null.");
+    this.connection = connection;
+    this.result = result;
+    this.bindingNames = result.getBindingNames();
+  }
+
+  @Override
+  public List<String> getBindingNames() {
+    return bindingNames;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (closed) {
+      return false;
+    }
+    try {
+      return result.hasNext();
+    } catch (RDF4JException e) {
+      close();
+      throw new KGSPARQLExecutionException(e);
+    }
+  }
+
+  @Override
+  public Map<String, RDFTerm> next() {
+    BindingSet bindingSet;
+    try {
+      bindingSet = result.next();
+    } catch (RDF4JException e) {
+      close();
+      throw new KGSPARQLExecutionException(e);
+    }
+    Map<String, RDFTerm> row = new HashMap<>();
+    for (String bindingName : bindingNames) {
+      Binding b = bindingSet.getBinding(bindingName);
+      if (b != null) {
+        row.put(bindingName, valueFactory.asRDFTerm(b.getValue()));
+      }
+    }
+    return row;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      result.close();
+    } catch (RDF4JException e) {
+      logger.warn("Failed to close the tuple query result. {}", e.getMessage());
+    } finally {
+      try {
+        connection.close();
+      } catch (RDF4JException e) {
+        logger.warn("Failed to close the repository connection. {}", e.getMessage());
+      }
+    }
+  }
+}
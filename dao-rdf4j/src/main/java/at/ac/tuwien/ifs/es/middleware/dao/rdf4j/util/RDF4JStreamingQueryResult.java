@@ -0,0 +1,156 @@
+package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPARQLExecutionException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.StreamingQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultSerializationException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.eclipse.rdf4j.RDF4JException;
+import org.eclipse.rdf4j.common.lang.FileFormat;
+import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.GraphQuery;
+import org.eclipse.rdf4j.query.Query;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.Rio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is an implementation of {@link StreamingQueryResult} for SPARQL queries executed with
+ * the RDF4J framework. The query is evaluated, when the result is requested to be written, and the
+ * result writer of RDF4J is directly attached to the evaluation. Hence, the result is never
+ * materialized in memory.
+ * <p/>
+ * The query is prepared only once, and the {@link RepositoryConnection} on which it has been
+ * prepared is kept open, until the result has been written or this result is closed.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class RDF4JStreamingQueryResult implements StreamingQueryResult {
+
+  private static final Logger logger = LoggerFactory.getLogger(RDF4JStreamingQueryResult.class);
+
+  private final RepositoryConnection connection;
+  private final Query query;
+  private final List<? extends FileFormat> supportedFormats;
+  private final String readableFormatsString;
+  private boolean closed = false;
+
+  private RDF4JStreamingQueryResult(RepositoryConnection connection, Query query,
+      List<? extends FileFormat> supportedFormats, String readableFormatsString) {
+    this.connection = connection;
+    this.query = query;
+    this.supportedFormats = supportedFormats;
+    this.readableFormatsString = readableFormatsString;
+  }
+
+  /**
+   * Creates a new {@link RDF4JStreamingQueryResult} for the given prepared {@code query}. The
+   * returned result takes over the given {@link RepositoryConnection}, on which the query has been
+   * prepared.
+   *
+   * @param connection on which the given query has been prepared.
+   * @param query the prepared query, which must be a {@link TupleQuery}, {@link BooleanQuery} or
+   * {@link GraphQuery}.
+   * @return {@link RDF4JStreamingQueryResult} for the given query.
+   */
+  public static RDF4JStreamingQueryResult of(RepositoryConnection connection, Query query) {
+    checkArgument(connection != null, "The given connection must not be null.");
+    checkArgument(query != null, "The given query must not be null.");
+    if (query instanceof TupleQuery) {
+      return new RDF4JStreamingQueryResult(connection, query,
+          RDF4JSelectQueryResult.SELECT_QUERY_RESULT_FORMATS,
+          RDF4JSelectQueryResult.SELECT_QUERY_RESULT_FORMATS_STRING);
+    } else if (query instanceof BooleanQuery) {
+      return new RDF4JStreamingQueryResult(connection, query,
+          RDF4JAskQueryResult.ASK_QUERY_RESULT_FORMATS,
+          RDF4JAskQueryResult.ASK_QUERY_RESULT_FORMATS_STRING);
+    } else if (query instanceof GraphQuery) {
+      return new RDF4JStreamingQueryResult(connection, query,
+          RDF4JGraphQueryResult.GRAPH_QUERY_RESULT_FORMATS,
+          RDF4JGraphQueryResult.GRAPH_QUERY_RESULT_FORMATS_STRING);
+    } else {
+      throw new IllegalArgumentException(
+          String.format("The given query '%s' is not a SELECT, ASK or CONSTRUCT query.", query));
+    }
+  }
+
+  @Override
+  public Optional<String> matchMimeType(List<String> mimeTypes) {
+    for (String mimeType : mimeTypes) {
+      Optional<? extends FileFormat> formatOptional = FileFormat
+          .matchMIMEType(mimeType, supportedFormats);
+      if (formatOptional.isPresent()) {
+        return Optional.of(formatOptional.get().getDefaultMIMEType());
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Supplier<KGSPARQLResultFormatException> getMimeTypeException(List<String> mimeTypes) {
+    return () -> new KGSPARQLResultFormatException(
+        String.format("The given format '%s' is not part of the supported ones %s.", mimeTypes,
+            readableFormatsString));
+  }
+
+  @Override
+  public void writeTo(String mimeType, OutputStream out)
+      throws KGSPARQLResultFormatException, KGSPARQLResultSerializationException {
+    FileFormat format = FileFormat.matchMIMEType(mimeType, supportedFormats)
+        .orElseThrow(getMimeTypeException(Collections.singletonList(mimeType)));
+    checkState(!closed, "The result has already been written or closed.");
+    try {
+      if (query instanceof TupleQuery) {
+        ((TupleQuery) query)
+            .evaluate(QueryResultIO.createTupleWriter((QueryResultFormat) format, out));
+      } else if (query instanceof BooleanQuery) {
+        QueryResultIO.createBooleanWriter((QueryResultFormat) format, out)
+            .handleBoolean(((BooleanQuery) query).evaluate());
+      } else {
+        ((GraphQuery) query).evaluate(Rio.createWriter((RDFFormat) format, out));
+      }
+    } catch (QueryResultHandlerException | RDFHandlerException e) {
+      throw new KGSPARQLResultSerializationException(e);
+    } catch (RDF4JException e) {
+      throw new KGSPARQLExecutionException(e);
+    } finally {
+      close();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      connection.close();
+    } catch (RDF4JException e) {
+      logger.warn("Failed to close the repository connection. {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RDF4JStreamingQueryResult{" +
+        "query=" + query +
+        '}';
+  }
+}
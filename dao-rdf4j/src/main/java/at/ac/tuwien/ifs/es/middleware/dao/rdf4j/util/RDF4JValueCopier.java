@@ -0,0 +1,70 @@
+package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+/**
+ * This class copies RDF4J values and statements into simple ones, which are independent of the
+ * store that created them. The values of some stores (e.g. memory store) reference the store
+ * itself, and can therefore not be serialized on their own.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+final class RDF4JValueCopier {
+
+  private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+  private RDF4JValueCopier() {
+  }
+
+  /**
+   * Copies the given {@link Value}.
+   *
+   * @param value that shall be copied. It can be {@code null}.
+   * @return a simple copy of the given value, or {@code null}, if the given value is {@code null}.
+   */
+  static Value copy(Value value) {
+    if (value == null) {
+      return null;
+    } else if (value instanceof IRI) {
+      return valueFactory.createIRI(value.stringValue());
+    } else if (value instanceof BNode) {
+      return valueFactory.createBNode(((BNode) value).getID());
+    } else if (value instanceof Literal) {
+      Literal literal = (Literal) value;
+      if (literal.getLanguage().isPresent()) {
+        return valueFactory.createLiteral(literal.getLabel(), literal.getLanguage().get());
+      }
+      return valueFactory.createLiteral(literal.getLabel(),
+          (IRI) copy(literal.getDatatype()));
+    } else if (value instanceof Triple) {
+      Triple triple = (Triple) value;
+      return valueFactory.createTriple((Resource) copy(triple.getSubject()),
+          (IRI) copy(triple.getPredicate()), copy(triple.getObject()));
+    }
+    throw new IllegalArgumentException(
+        String.format("The given value '%s' is of an unknown type.", value));
+  }
+
+  /**
+   * Copies the given {@link Statement}.
+   *
+   * @param statement that shall be copied. It must not be null.
+   * @return a simple copy of the given statement.
+   */
+  static Statement copy(Statement statement) {
+    return valueFactory.createStatement((Resource) copy(statement.getSubject()),
+        (IRI) copy(statement.getPredicate()), copy(statement.getObject()),
+        (Resource) copy(statement.getContext()));
+  }
+
+}
@@ -0,0 +1,145 @@
+package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.unit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.RDF4JSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.AskQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests the evaluation of {@link BoundSPARQLQuery}s by the {@link RDF4JSparqlDAO}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class RDF4JBoundQueryTests {
+
+  private static final RDF rdf = new SimpleRDF();
+
+  private static final String OBJECT_QUERY = "SELECT ?s ?o WHERE {\n"
+      + "  VALUES ?s {\n"
+      + "    ${resources}\n"
+      + "  }\n"
+      + "  ?s <http://ex.org/p> ?o .\n"
+      + "}";
+
+  private RDF4JSparqlDAO sparqlDAO;
+
+  @Before
+  public void setUp() {
+    sparqlDAO = new RDF4JSparqlDAO() {
+      {
+        init(new MemoryStore());
+      }
+    };
+    try (RepositoryConnection con = sparqlDAO.getRepository().getConnection()) {
+      con.prepareUpdate("INSERT DATA { <http://ex.org/a> <http://ex.org/p> <http://ex.org/b> . "
+          + "<http://ex.org/b> <http://ex.org/p> <http://ex.org/c> . "
+          + "<http://ex.org/c> <http://ex.org/p> \"c\"@en . }").execute();
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    sparqlDAO.close();
+  }
+
+  private List<String> objectsOf(SelectQueryResult result) {
+    return result.value().stream().map(row -> row.get("o").ntriplesString())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void boundResources_mustReturnSameResultAsQueryString() {
+    BoundSPARQLQuery query = PreparedSPARQLQuery.of(OBJECT_QUERY).bind().values("resources",
+        Arrays.asList(rdf.createIRI("http://ex.org/a"), rdf.createIRI("http://ex.org/c")))
+        .build();
+    assertThat(query.getParsedQuery().isPresent(), is(true));
+    List<String> objects = objectsOf(sparqlDAO.query(query, false));
+    assertThat(objects, containsInAnyOrder("<http://ex.org/b>", "\"c\"@en"));
+    assertThat(objectsOf(sparqlDAO.query(query.getQueryString(), false)),
+        containsInAnyOrder(objects.toArray()));
+  }
+
+  @Test
+  public void selectedBoundResources_mustStreamSameRowsAsQuery() {
+    BoundSPARQLQuery query = PreparedSPARQLQuery.of(OBJECT_QUERY).bind().values("resources",
+        Arrays.asList(rdf.createIRI("http://ex.org/a"), rdf.createIRI("http://ex.org/c")))
+        .build();
+    List<String> objects = new ArrayList<>();
+    try (SelectQueryResultCursor cursor = sparqlDAO.select(query, false)) {
+      cursor.forEachRemaining(row -> objects.add(row.get("o").ntriplesString()));
+    }
+    assertThat(objects, containsInAnyOrder("<http://ex.org/b>", "\"c\"@en"));
+  }
+
+  @Test
+  public void sameTemplateBoundTwice_mustBindEachQuerySeparately() {
+    PreparedSPARQLQuery preparedQuery = PreparedSPARQLQuery.of(OBJECT_QUERY);
+    BoundSPARQLQuery firstQuery = preparedQuery.bind()
+        .values("resources", Collections.singletonList(rdf.createIRI("http://ex.org/a"))).build();
+    BoundSPARQLQuery secondQuery = preparedQuery.bind()
+        .values("resources", Collections.singletonList(rdf.createIRI("http://ex.org/b"))).build();
+    assertThat(objectsOf(sparqlDAO.query(secondQuery, false)),
+        containsInAnyOrder("<http://ex.org/c>"));
+    assertThat(objectsOf(sparqlDAO.query(firstQuery, false)),
+        containsInAnyOrder("<http://ex.org/b>"));
+  }
+
+  @Test
+  public void boundRowsWithUndefinedValues_mustMatchAnyValue() {
+    IRI p = rdf.createIRI("http://ex.org/p");
+    BoundSPARQLQuery query = PreparedSPARQLQuery
+        .of("SELECT ?s ?o WHERE { VALUES (?s ?o) { ${pairs} } ?s <http://ex.org/p> ?o . }")
+        .bind().rows("pairs", Arrays.<List<RDFTerm>>asList(
+            Arrays.asList(rdf.createIRI("http://ex.org/a"), null),
+            Arrays.asList(null, rdf.createLiteral("c", "en")),
+            Arrays.asList(p, p))).build();
+    assertThat(query.getParsedQuery().isPresent(), is(true));
+    List<Map<String, RDFTerm>> rows = sparqlDAO.<SelectQueryResult>query(query, false).value();
+    assertThat(rows, hasSize(2));
+    assertThat(objectsOf(sparqlDAO.query(query.getQueryString(), false)), hasSize(2));
+  }
+
+  @Test
+  public void boundAskQuery_mustReturnBoolean() {
+    BoundSPARQLQuery query = PreparedSPARQLQuery
+        .of("ASK { VALUES ?o { ${objects} } <http://ex.org/c> ?p ?o . }").bind()
+        .values("objects", Collections.singletonList(rdf.createLiteral("c", "en"))).build();
+    assertThat(sparqlDAO.<AskQueryResult>query(query, false).value(), is(true));
+  }
+
+  @Test
+  public void equalBindings_mustBeEqualQueries() {
+    BoundSPARQLQuery firstQuery = PreparedSPARQLQuery.of(OBJECT_QUERY).bind()
+        .values("resources", Collections.singletonList(rdf.createIRI("http://ex.org/a"))).build();
+    BoundSPARQLQuery secondQuery = PreparedSPARQLQuery.of(OBJECT_QUERY).bind()
+        .values("resources", Collections.singletonList(rdf.createIRI("http://ex.org/a"))).build();
+    assertThat(firstQuery, is(secondQuery));
+    assertThat(firstQuery.hashCode(), is(secondQuery.hashCode()));
+    assertThat(firstQuery.toString(), is(secondQuery.toString()));
+  }
+
+}
@@ -0,0 +1,89 @@
+package at.ac.tuwien.ifs.es.middleware.dao.rdf4j.unit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGDelta;
+import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JDeltaCollector;
+import java.util.Optional;
+import org.apache.commons.rdf.api.IRI;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests {@link RDF4JDeltaCollector}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class RDF4JDeltaCollectorTests {
+
+  private Repository repository;
+
+  @Before
+  public void setUp() {
+    repository = new SailRepository(new MemoryStore());
+    repository.init();
+    try (RepositoryConnection con = repository.getConnection()) {
+      con.prepareUpdate("INSERT DATA { <http://ex.org/a> <http://ex.org/p> <http://ex.org/b> . }")
+          .execute();
+    }
+  }
+
+  @After
+  public void tearDown() {
+    repository.shutDown();
+  }
+
+  private Optional<KGDelta> executeUpdate(String update, int limit) {
+    try (RepositoryConnection con = repository.getConnection()) {
+      RDF4JDeltaCollector collector = RDF4JDeltaCollector.attach(con, limit).get();
+      try {
+        con.prepareUpdate(update).execute();
+        return collector.getDelta();
+      } finally {
+        collector.close();
+      }
+    }
+  }
+
+  @Test
+  public void insertSingleTriple_mustCaptureOneAddedStatement() {
+    KGDelta delta = executeUpdate(
+        "INSERT DATA { <http://ex.org/b> <http://ex.org/p> <http://ex.org/c> . }", 10).get();
+    assertThat(delta.getAddedStatements(), hasSize(1));
+    assertThat(delta.getRemovedStatements(), hasSize(0));
+    assertThat(((IRI) delta.getAddedStatements().get(0).getObject()).getIRIString(),
+        is("http://ex.org/c"));
+  }
+
+  @Test
+  public void deleteSingleTriple_mustCaptureOneRemovedStatement() {
+    KGDelta delta = executeUpdate(
+        "DELETE DATA { <http://ex.org/a> <http://ex.org/p> <http://ex.org/b> . }", 10).get();
+    assertThat(delta.getAddedStatements(), hasSize(0));
+    assertThat(delta.getRemovedStatements(), hasSize(1));
+  }
+
+  @Test
+  public void deleteAndInsertSameTriple_mustCaptureEmptyDelta() {
+    KGDelta delta = executeUpdate(
+        "DELETE { ?s ?p ?o } INSERT { ?s ?p ?o } WHERE { ?s ?p ?o }", 10).get();
+    assertThat(delta.isEmpty(), is(true));
+  }
+
+  @Test
+  public void exceedLimit_mustReturnNoDelta() {
+    Optional<KGDelta> delta = executeUpdate("INSERT DATA { "
+        + "<http://ex.org/b> <http://ex.org/p> <http://ex.org/c> . "
+        + "<http://ex.org/c> <http://ex.org/p> <http://ex.org/d> . }", 1);
+    assertThat(delta.isPresent(), is(false));
+  }
+}
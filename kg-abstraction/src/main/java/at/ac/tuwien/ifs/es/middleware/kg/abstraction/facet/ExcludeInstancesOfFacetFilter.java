@@ -5,6 +5,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import java.util.List;
+import java.util.Objects;
 
 @JsonTypeName("excludeInstancesOf")
 public class ExcludeInstancesOfFacetFilter implements FacetFilter {
@@ -20,6 +21,23 @@ public class ExcludeInstancesOfFacetFilter implements FacetFilter {
     return classes;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ExcludeInstancesOfFacetFilter that = (ExcludeInstancesOfFacetFilter) o;
+    return Objects.equals(classes, that.classes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(classes);
+  }
+
   @Override
   public String toString() {
     return "ExcludeInstancesOfFacetFilter{" +
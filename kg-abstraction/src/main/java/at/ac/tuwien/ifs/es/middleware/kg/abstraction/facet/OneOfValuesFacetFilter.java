@@ -4,6 +4,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import java.util.List;
+import java.util.Objects;
 import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.RDFTerm;
 
@@ -36,6 +37,23 @@ public class OneOfValuesFacetFilter implements PropertyFacetFilter {
     return values;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    OneOfValuesFacetFilter that = (OneOfValuesFacetFilter) o;
+    return Objects.equals(property, that.property) && Objects.equals(values, that.values);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(property, values);
+  }
+
   @Override
   public String toString() {
     return "OneOfValuesFacetFilter{" +
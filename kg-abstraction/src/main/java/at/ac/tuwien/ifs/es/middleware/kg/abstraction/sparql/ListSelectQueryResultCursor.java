@@ -0,0 +1,56 @@
+package at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.rdf.api.RDFTerm;
+
+/**
+ * This is a {@link SelectQueryResultCursor} over an already materialized result table. It is used
+ * as fallback by knowledge graph implementations that are not able to stream the result of a
+ * SELECT query.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class ListSelectQueryResultCursor implements SelectQueryResultCursor {
+
+  private final List<String> bindingNames;
+  private final Iterator<Map<String, RDFTerm>> rowIterator;
+
+  public ListSelectQueryResultCursor(List<Map<String, RDFTerm>> rows) {
+    checkArgument(rows != null, "The given result rows must not be null.");
+    Set<String> names = new LinkedHashSet<>();
+    for (Map<String, RDFTerm> row : rows) {
+      names.addAll(row.keySet());
+    }
+    this.bindingNames = new LinkedList<>(names);
+    this.rowIterator = rows.iterator();
+  }
+
+  @Override
+  public List<String> getBindingNames() {
+    return bindingNames;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return rowIterator.hasNext();
+  }
+
+  @Override
+  public Map<String, RDFTerm> next() {
+    return rowIterator.next();
+  }
+
+  @Override
+  public void close() {
+    //nothing to release.
+  }
+}
@@ -0,0 +1,50 @@
+package at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultSerializationException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * This is a {@link StreamingQueryResult} over an already materialized {@link QueryResult}. It is
+ * used as fallback by knowledge graph implementations that are not able to stream the result of a
+ * query.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class MaterializedStreamingQueryResult implements StreamingQueryResult {
+
+  private final QueryResult queryResult;
+
+  public MaterializedStreamingQueryResult(QueryResult queryResult) {
+    checkArgument(queryResult != null, "The given query result must not be null.");
+    this.queryResult = queryResult;
+  }
+
+  @Override
+  public Optional<String> matchMimeType(List<String> mimeTypes) {
+    return queryResult.matchMimeType(mimeTypes);
+  }
+
+  @Override
+  public Supplier<KGSPARQLResultFormatException> getMimeTypeException(List<String> mimeTypes) {
+    return queryResult.getMimeTypeException(mimeTypes);
+  }
+
+  @Override
+  public void writeTo(String mimeType, OutputStream out)
+      throws KGSPARQLResultFormatException, KGSPARQLResultSerializationException {
+    try {
+      out.write(queryResult.transform(mimeType));
+    } catch (IOException e) {
+      throw new KGSPARQLResultSerializationException(e);
+    }
+  }
+}
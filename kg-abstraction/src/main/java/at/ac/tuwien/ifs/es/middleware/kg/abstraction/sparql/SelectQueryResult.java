@@ -1,6 +1,7 @@
 package at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql;
 
 import com.google.common.collect.Table;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.rdf.api.RDFTerm;
@@ -23,4 +24,27 @@ public interface SelectQueryResult extends QueryResult {
    */
   List<Map<String, RDFTerm>> value();
 
+  /**
+   * Returns the number of rows of this result. The default implementation materializes the rows
+   * with {@link #value()}, and should be overridden by implementations that know the number of
+   * rows.
+   *
+   * @return the number of rows of this result.
+   */
+  default int size() {
+    return value().size();
+  }
+
+  /**
+   * Returns an {@link Iterator} over the rows of this result. In contrast to {@link #value()}, the
+   * rows shall be constructed lazily by implementations, such that inspecting a few rows doesn't
+   * copy the whole result. The default implementation materializes the rows with {@link
+   * #value()}.
+   *
+   * @return {@link Iterator} over the rows of this result.
+   */
+  default Iterator<Map<String, RDFTerm>> rowIterator() {
+    return value().iterator();
+  }
+
 }
@@ -0,0 +1,33 @@
+package at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.rdf.api.RDFTerm;
+
+/**
+ * This interface represents the response of a SELECT SPARQL query that is streamed row by row from
+ * the knowledge graph instead of being materialized as a whole like {@link SelectQueryResult}. The
+ * underlying resources (e.g. the connection to the triplestore) are held until this cursor is
+ * closed, which is why it should always be used in a try-with-resources statement.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public interface SelectQueryResultCursor extends Iterator<Map<String, RDFTerm>>, AutoCloseable {
+
+  /**
+   * Gets the names of the bindings (columns) of this result.
+   *
+   * @return the names of the bindings of this result.
+   */
+  List<String> getBindingNames();
+
+  /**
+   * Releases all resources held by this cursor. Calling this method more than once has no effect.
+   */
+  @Override
+  void close();
+
+}
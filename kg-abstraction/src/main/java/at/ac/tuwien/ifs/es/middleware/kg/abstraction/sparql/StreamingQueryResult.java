@@ -0,0 +1,65 @@
+package at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultSerializationException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * This interface represents a SPARQL query that has been validated, but whose result has not been
+ * materialized yet. The result is evaluated and serialized straight into an {@link OutputStream}
+ * by calling {@link StreamingQueryResult#writeTo(String, OutputStream)}, such that not the whole
+ * result must be held in memory.
+ * <p/>
+ * A streaming query result can only be written once. It may hold resources (e.g. the connection
+ * on which the query has been prepared), which are released after the result has been written or
+ * when it is closed, which is why it must be closed, if it is never written.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public interface StreamingQueryResult extends AutoCloseable {
+
+  /**
+   * Iterates over the given list of {@code mimeTypes} and returns the first matching (supported)
+   * mime type.
+   *
+   * @param mimeTypes for which the match shall be found.
+   * @return the mime type, or {@link Optional#empty()}, if no mime type in the given list is
+   * supported.
+   */
+  Optional<String> matchMimeType(List<String> mimeTypes);
+
+  /**
+   * Supplies a readable error message for the client to show which mime types are supported.
+   *
+   * @param mimeTypes list of unsupported mime types that could not be matched ({@link
+   * StreamingQueryResult#matchMimeType(List)}).
+   */
+  Supplier<KGSPARQLResultFormatException> getMimeTypeException(List<String> mimeTypes);
+
+  /**
+   * Evaluates the query and writes the result in the given {@code mimeType} to the given {@link
+   * OutputStream}. The given stream will not be closed by this method, but the resources of this
+   * result are released afterwards.
+   *
+   * @param mimeType MIME type of the format into which this result should be serialized.
+   * @param out {@link OutputStream} to which the result shall be written.
+   * @throws KGSPARQLResultFormatException if the given mime type is not supported by this query
+   * result.
+   * @throws KGSPARQLResultSerializationException if the result could not be serialized.
+   */
+  void writeTo(String mimeType, OutputStream out)
+      throws KGSPARQLResultFormatException, KGSPARQLResultSerializationException;
+
+  /**
+   * Releases all resources held by this result. Calling this method more than once has no effect.
+   */
+  @Override
+  default void close() {
+  }
+
+}
@@ -4,8 +4,10 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import at.ac.tuwien.ifs.es.middleware.scheduler.TaskStatus.VALUE;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
@@ -36,6 +38,8 @@ public class SchedulerPipeline {
 
   private static final Logger logger = LoggerFactory.getLogger(SchedulerPipeline.class);
 
+  private static final String TASK_MAP_NAME = "scheduler.pipeline";
+
   private final DB db;
   private final HTreeMap<String, TaskStatus> taskMap;
   private final TaskExecutor threadPool;
@@ -54,8 +58,27 @@ public class SchedulerPipeline {
   public SchedulerPipeline(DB db, TaskExecutor threadPool) {
     this.db = db;
     this.threadPool = threadPool;
-    this.taskMap = db.hashMap("scheduler.pipeline").keySerializer(Serializer.STRING)
-        .<TaskStatus>valueSerializer(Serializer.JAVA).createOrOpen();
+    this.taskMap = db.hashMap(TASK_MAP_NAME + ".compact", Serializer.STRING,
+        TaskStatusSerializer.INSTANCE).createOrOpen();
+    migrateTaskMap();
+  }
+
+  /**
+   * Migrates the task states, which have been stored with Java serialization under the former name
+   * of the task map, to the compact task map.
+   */
+  @SuppressWarnings("unchecked")
+  private void migrateTaskMap() {
+    if (db.exists(TASK_MAP_NAME)) {
+      HTreeMap<String, TaskStatus> formerTaskMap = (HTreeMap<String, TaskStatus>) db
+          .hashMap(TASK_MAP_NAME, Serializer.STRING, Serializer.JAVA).open();
+      if (!formerTaskMap.isEmpty()) {
+        logger.info("Migrates {} task states to compact serialization.", formerTaskMap.size());
+        taskMap.putAll(formerTaskMap);
+        formerTaskMap.clear();
+        db.commit();
+      }
+    }
   }
 
   /**
@@ -153,6 +176,40 @@ public class SchedulerPipeline {
     }
   }
 
+  /**
+   * Gets the last persisted {@link TaskStatus} of the task or provided requirement with the given
+   * id.
+   *
+   * @param id of the task or provided requirement. It must not be null or empty.
+   * @return the last persisted {@link TaskStatus}, or {@link Optional#empty()}, if there is none.
+   */
+  public Optional<TaskStatus> getTaskStatus(String id) {
+    checkArgument(id != null && !id.isEmpty(), "The given id must not be null or empty.");
+    mapLock.lock();
+    try {
+      return Optional.ofNullable(taskMap.get(id));
+    } finally {
+      mapLock.unlock();
+    }
+  }
+
+  /**
+   * Resets the persisted {@link TaskStatus} of the tasks or provided requirements with the given
+   * ids, such that the tasks aren't treated as outdated, when they are pushed the next time.
+   *
+   * @param ids of the tasks or provided requirements. It must not be null.
+   */
+  public void resetTaskStatus(Collection<String> ids) {
+    checkArgument(ids != null, "The given ids must not be null.");
+    mapLock.lock();
+    try {
+      ids.forEach(taskMap::remove);
+      db.commit();
+    } finally {
+      mapLock.unlock();
+    }
+  }
+
   /**
    * @param id            for which the listener shall be registered. It must not be null.
    * @param newTaskStatus new {@link TaskStatus} passed to the change listener. It must not be
@@ -0,0 +1,45 @@
+package at.ac.tuwien.ifs.es.middleware.scheduler;
+
+import at.ac.tuwien.ifs.es.middleware.scheduler.TaskStatus.VALUE;
+import java.io.IOException;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+/**
+ * This {@link Serializer} stores a {@link TaskStatus} in a compact binary form, i.e. the timestamp
+ * and number of attempts as variable-length longs, and the status as a single byte.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+final class TaskStatusSerializer implements Serializer<TaskStatus> {
+
+  static final TaskStatusSerializer INSTANCE = new TaskStatusSerializer();
+
+  private static final VALUE[] values = VALUE.values();
+
+  private TaskStatusSerializer() {
+  }
+
+  @Override
+  public void serialize(DataOutput2 out, TaskStatus taskStatus) throws IOException {
+    out.packLong(taskStatus.getTimestamp());
+    out.writeByte(taskStatus.getStatus().ordinal());
+    out.packLong(taskStatus.getAttempts());
+  }
+
+  @Override
+  public TaskStatus deserialize(DataInput2 input, int available) throws IOException {
+    long timestamp = input.unpackLong();
+    VALUE status = values[input.readByte()];
+    return new TaskStatus(timestamp, status, input.unpackLong());
+  }
+
+  @Override
+  public boolean isTrusted() {
+    return true;
+  }
+
+}
@@ -3,10 +3,23 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGUpdatedEvent;
 import at.ac.tuwien.ifs.es.middleware.scheduler.ScheduleTask;
 import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
+import at.ac.tuwien.ifs.es.middleware.scheduler.TaskStatus;
 import at.ac.tuwien.ifs.es.middleware.scheduler.behaviour.NRetryBehaviour;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -15,6 +28,11 @@ import org.springframework.stereotype.Component;
 
 /**
  * This class handles the scheduling of DAO and analysis tasks.
+ * <p/>
+ * The analysis services, which are scheduled at once, are computed in one run of {@link
+ * AnalysisNamespaces}. The results of each dependency chain are activated together, when the whole
+ * chain has been computed. The services, whose results have been computed, but never activated
+ * (e.g. because the run has been superseded), are computed again.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -23,17 +41,21 @@ import org.springframework.stereotype.Component;
 @Component
 public class AnalysisScheduler {
 
+  private static final Logger logger = LoggerFactory.getLogger(AnalysisScheduler.class);
+
   private final SchedulerPipeline schedulerPipeline;
   private final AnalysisServiceRegistry registry;
+  private final AnalysisNamespaces namespaces;
 
   @Value("${esm.analysis.computeFreshlyOnStart:#{false}}")
   private boolean computeFreshlyOnStart;
 
   @Autowired
   public AnalysisScheduler(AnalysisServiceRegistry registry,
-      SchedulerPipeline schedulerPipeline) {
+      SchedulerPipeline schedulerPipeline, AnalysisNamespaces namespaces) {
     this.registry = registry;
     this.schedulerPipeline = schedulerPipeline;
+    this.namespaces = namespaces;
   }
 
   @EventListener
@@ -43,11 +65,103 @@ public class AnalysisScheduler {
         registry.getRegisteredAnalysisServices());
   }
 
-  private void pushTasks(long analysisTimestamp, List<AnalysisServiceEntry> analysisServices) {
+  /**
+   * Checks whether the analysis service with the given name has already been computed successfully
+   * for the given timestamp, i.e. the scheduler pipeline will skip it.
+   */
+  private boolean isOutdated(String name, long analysisTimestamp) {
+    Optional<TaskStatus> taskStatusOpt = schedulerPipeline.getTaskStatus(name);
+    return taskStatusOpt.isPresent()
+        && TaskStatus.VALUE.OK.equals(taskStatusOpt.get().getStatus())
+        && analysisTimestamp <= taskStatusOpt.get().getTimestamp();
+  }
+
+  /**
+   * Gets the given enabled analysis services, which are going to be computed for the given
+   * timestamp. These are the services, which haven't been computed for this timestamp yet, and
+   * whose required analysis services are computed or have already been computed.
+   */
+  private Set<AnalysisServiceEntry> getExpectedServices(long analysisTimestamp,
+      List<AnalysisServiceEntry> analysisServices) {
+    Set<AnalysisServiceEntry> expected = new HashSet<>();
+    Set<AnalysisServiceEntry> outdated = new HashSet<>();
+    for (AnalysisServiceEntry as : analysisServices) {
+      if (as.isDisabled()) {
+        continue;
+      }
+      if (isOutdated(as.getName(), analysisTimestamp)) {
+        outdated.add(as);
+      } else {
+        expected.add(as);
+      }
+    }
+    boolean changed = true;
+    while (changed) {
+      Set<Class<?>> provided = new HashSet<>();
+      expected.forEach(as -> provided.addAll(as.getImplementedAnalysisServiceClasses()));
+      outdated.forEach(as -> provided.addAll(as.getImplementedAnalysisServiceClasses()));
+      changed = expected.removeIf(as -> as.getRequirements().stream()
+          .anyMatch(r -> AnalysisService.class.isAssignableFrom(r) && !provided.contains(r)));
+    }
+    return expected;
+  }
+
+  /**
+   * Splits the given analysis services into chains of services, which depend on each other. The
+   * results of a chain are activated together.
+   */
+  private Collection<Set<String>> getDependencyChains(Set<AnalysisServiceEntry> expected) {
+    Map<String, Set<String>> chainMap = new HashMap<>();
+    for (AnalysisServiceEntry as : expected) {
+      chainMap.put(as.getName(), new HashSet<>(Collections.singleton(as.getName())));
+    }
+    for (AnalysisServiceEntry as : expected) {
+      for (AnalysisServiceEntry prerequisite : expected) {
+        if (as.getRequirements().stream()
+            .anyMatch(prerequisite.getImplementedAnalysisServiceClasses()::contains)) {
+          Set<String> chain = chainMap.get(as.getName());
+          Set<String> prerequisiteChain = chainMap.get(prerequisite.getName());
+          if (chain != prerequisiteChain) {
+            chain.addAll(prerequisiteChain);
+            prerequisiteChain.forEach(name -> chainMap.put(name, chain));
+          }
+        }
+      }
+    }
+    Set<Set<String>> chains = Collections.newSetFromMap(new IdentityHashMap<>());
+    chains.addAll(chainMap.values());
+    return chains;
+  }
+
+  /**
+   * Resets the status of the analysis services, whose results have been computed, but never been
+   * activated, such that they are computed again.
+   */
+  private void resetAbandonedServices(List<AnalysisServiceEntry> analysisServices) {
+    Set<String> abandonedServiceNames = namespaces.abandonRun();
+    if (!abandonedServiceNames.isEmpty()) {
+      logger.info("The analysis services {} are going to be computed again.",
+          abandonedServiceNames);
+      Set<String> ids = new HashSet<>(abandonedServiceNames);
+      for (AnalysisServiceEntry as : analysisServices) {
+        if (abandonedServiceNames.contains(as.getName())) {
+          as.getImplementedAnalysisServiceClasses().forEach(c -> ids.add(c.getName()));
+        }
+      }
+      schedulerPipeline.resetTaskStatus(ids);
+    }
+  }
+
+  private synchronized void pushTasks(long analysisTimestamp,
+      List<AnalysisServiceEntry> analysisServices) {
+    resetAbandonedServices(analysisServices);
+    namespaces.beginRun(
+        getDependencyChains(getExpectedServices(analysisTimestamp, analysisServices)));
     schedulerPipeline.pushTasks(analysisServices.stream()
         .filter(as -> !as.isDisabled())
         .map(as -> new ScheduleTask(as.getName(), analysisTimestamp,
-            as.getAnalysisService()::compute,
+            BackendCircuitBreakers.inBackground(
+                namespaces.inRun(as.getName(), as.getAnalysisService()::compute)),
             as.getRequirements().stream().map(Class::getName).collect(Collectors.toSet()),
             as.getImplementedAnalysisServiceClasses().stream().map(Class::getName)
                 .collect(Collectors.toSet()),
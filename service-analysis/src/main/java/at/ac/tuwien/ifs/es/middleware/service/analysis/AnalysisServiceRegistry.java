@@ -36,6 +36,7 @@ public class AnalysisServiceRegistry {
 
   private final Environment env;
   private final Map<String, AnalysisServiceEntry> analysisServiceMap;
+  private final Map<String, Class<? extends AnalysisService>[]> replacementMap;
 
   /**
    * Creates a new {@link AnalysisServiceRegistry}.
@@ -46,11 +47,13 @@ public class AnalysisServiceRegistry {
   public AnalysisServiceRegistry(Environment env) {
     this.env = env;
     this.analysisServiceMap = new ConcurrentHashMap<>();
+    this.replacementMap = new ConcurrentHashMap<>();
   }
 
   /**
    * Scans for {@link AnalysisService} registered with {@link RegisterForAnalyticalProcessing} using
-   * the given Spring context {@link ApplicationContext}.
+   * the given Spring context {@link ApplicationContext}. The analysis services, which are replaced
+   * by an enabled service (see {@link RegisterForAnalyticalProcessing#replaces()}), are disabled.
    *
    * @param context {@link ApplicationContext}
    */
@@ -86,6 +89,31 @@ public class AnalysisServiceRegistry {
                 className, e.getMessage());
       }
     }
+    disableReplacedAnalysisServices();
+  }
+
+  /**
+   * Disables the registered analysis services, which are replaced by an enabled analysis service.
+   */
+  private void disableReplacedAnalysisServices() {
+    for (AnalysisServiceEntry entry : analysisServiceMap.values()) {
+      Class<? extends AnalysisService>[] replacedClasses = replacementMap.get(entry.getName());
+      if (entry.isDisabled() || replacedClasses == null) {
+        continue;
+      }
+      for (Class<? extends AnalysisService> replacedClass : replacedClasses) {
+        analysisServiceMap.replaceAll((name, replacedEntry) -> {
+          if (replacedEntry.isDisabled() || !replacedClass
+              .isInstance(replacedEntry.getAnalysisService())) {
+            return replacedEntry;
+          }
+          logger.info("The analysis service '{}' is replaced by '{}' and hence disabled.", name,
+              entry.getName());
+          return new AnalysisServiceEntry(name, replacedEntry.getAnalysisService(),
+              replacedEntry.getRequirements(), true);
+        });
+      }
+    }
   }
 
   /**
@@ -112,13 +140,16 @@ public class AnalysisServiceRegistry {
     }
     logger.debug("Registers analysis service {} with requirements {}.", analysisService,
         combinedRequirements);
-    if (!annotation.disabled()) {
-      analysisServiceMap
-          .put(annotation.name(),
-              new AnalysisServiceEntry(annotation.name(), analysisService, combinedRequirements,
-                  env.getProperty("esm.analysis.disable." + annotation.name(), "false").trim()
-                      .toLowerCase().equals("true")));
+    if (annotation.disabled() && !env.getProperty("esm.analysis.enable." + annotation.name(),
+        "false").trim().toLowerCase().equals("true")) {
+      return;
     }
+    analysisServiceMap
+        .put(annotation.name(),
+            new AnalysisServiceEntry(annotation.name(), analysisService, combinedRequirements,
+                env.getProperty("esm.analysis.disable." + annotation.name(), "false").trim()
+                    .toLowerCase().equals("true")));
+    replacementMap.put(annotation.name(), annotation.replaces());
   }
 
   /**
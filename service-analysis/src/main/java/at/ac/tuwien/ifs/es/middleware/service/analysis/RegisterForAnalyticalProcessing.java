@@ -70,14 +70,24 @@ public @interface RegisterForAnalyticalProcessing {
   Class<? extends AnalysisService>[] prerequisites() default {};
 
   /**
-   * If {@code true}, this analysis service is not put into the analysis pipeline, but registered.
-   * This setting can be overwritten with Spring properties by setting {@code
-   * esm.analysis.processor.disable.xxx} to {@code true} or {@code false}, where {@code xxx} is the
-   * registered name ({@link RegisterForAnalyticalProcessing#name()}).
+   * If {@code true}, this analysis service is neither registered nor put into the analysis
+   * pipeline, unless it is explicitly enabled with the Spring property {@code
+   * esm.analysis.enable.xxx} set to {@code true}, where {@code xxx} is the registered name ({@link
+   * RegisterForAnalyticalProcessing#name()}). A registered analysis service can be disabled by
+   * setting {@code esm.analysis.disable.xxx} to {@code true}.
    *
    * @return {@code true}, if this analysis services should not be put into the analysis pipeline,
    * otherwise {@code false}.
    */
   boolean disabled() default false;
 
+  /**
+   * An array of {@link AnalysisService}s that are replaced by this service, if it is registered
+   * and not disabled. The replaced services are disabled, because they are alternative
+   * implementations, which store their results under the same name.
+   *
+   * @return an array of {@link AnalysisService}s that are replaced by this service.
+   */
+  Class<? extends AnalysisService>[] replaces() default {};
+
 }
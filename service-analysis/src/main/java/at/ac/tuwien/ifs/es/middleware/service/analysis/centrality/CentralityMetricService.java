@@ -1,7 +1,12 @@
 package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import at.ac.tuwien.ifs.es.middleware.service.analysis.AnalysisService;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Instances get this interface represent a centrality metric that can be computed for the given
@@ -31,4 +36,24 @@ public interface CentralityMetricService<R> extends AnalysisService {
    */
   R getValueFor(Resource resource);
 
+  /**
+   * Gets the computed values for the given {@code resources}. Implementations should override this
+   * method, if they can look up the values of many resources more efficiently than one by one.
+   *
+   * @param resources for which the computed values shall be returned. It must not be null.
+   * @return a map from the given resources to their computed values, which contains no entry for a
+   * resource without computed value.
+   */
+  default Map<Resource, R> getValuesFor(Collection<Resource> resources) {
+    checkArgument(resources != null, "The given resources must not be null.");
+    Map<Resource, R> valueMap = new HashMap<>();
+    for (Resource resource : resources) {
+      R value = getValueFor(resource);
+      if (value != null) {
+        valueMap.put(resource, value);
+      }
+    }
+    return valueMap;
+  }
+
 }
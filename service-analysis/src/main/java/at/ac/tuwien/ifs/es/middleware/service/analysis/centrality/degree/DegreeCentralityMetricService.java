@@ -1,10 +1,16 @@
 package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.degree;
 
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.CentralityMetricService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
- * Instances get this interface compute the degree metric for the given knowledge graph.
+ * Instances get this interface compute the degree metric for the given knowledge graph. The value
+ * returned by {@link #getValueFor(Resource)} is the in-degree of the resource, but the out-degree
+ * and the total degree are computed as well.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -12,4 +18,80 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.Decim
  */
 public interface DegreeCentralityMetricService extends CentralityMetricService<DecimalNormalizedAnalysisValue> {
 
+  /**
+   * Gets the number of statements, in which the given resource is the object.
+   *
+   * @param resource for which the in-degree shall be returned. It must not be null.
+   * @return the in-degree of the given resource, or {@code null}, if it is unknown.
+   */
+  default DecimalNormalizedAnalysisValue getInDegreeFor(Resource resource) {
+    return getValueFor(resource);
+  }
+
+  /**
+   * Gets the number of statements, in which the given resource is the subject.
+   *
+   * @param resource for which the out-degree shall be returned. It must not be null.
+   * @return the out-degree of the given resource, or {@code null}, if it is unknown.
+   */
+  DecimalNormalizedAnalysisValue getOutDegreeFor(Resource resource);
+
+  /**
+   * Gets the sum of the in-degree and the out-degree of the given resource.
+   *
+   * @param resource for which the total degree shall be returned. It must not be null.
+   * @return the total degree of the given resource, or {@code null}, if it is unknown.
+   */
+  DecimalNormalizedAnalysisValue getTotalDegreeFor(Resource resource);
+
+  /**
+   * Gets the in-degree of the given resources.
+   *
+   * @param resources for which the in-degree shall be returned. It must not be null.
+   * @return a map from the given resources to their in-degree, which contains no entry for a
+   * resource with unknown in-degree.
+   */
+  default Map<Resource, DecimalNormalizedAnalysisValue> getInDegreesFor(
+      Collection<Resource> resources) {
+    return getValuesFor(resources);
+  }
+
+  /**
+   * Gets the out-degree of the given resources.
+   *
+   * @param resources for which the out-degree shall be returned. It must not be null.
+   * @return a map from the given resources to their out-degree, which contains no entry for a
+   * resource with unknown out-degree.
+   */
+  default Map<Resource, DecimalNormalizedAnalysisValue> getOutDegreesFor(
+      Collection<Resource> resources) {
+    Map<Resource, DecimalNormalizedAnalysisValue> valueMap = new HashMap<>();
+    for (Resource resource : resources) {
+      DecimalNormalizedAnalysisValue value = getOutDegreeFor(resource);
+      if (value != null) {
+        valueMap.put(resource, value);
+      }
+    }
+    return valueMap;
+  }
+
+  /**
+   * Gets the total degree of the given resources.
+   *
+   * @param resources for which the total degree shall be returned. It must not be null.
+   * @return a map from the given resources to their total degree, which contains no entry for a
+   * resource with unknown total degree.
+   */
+  default Map<Resource, DecimalNormalizedAnalysisValue> getTotalDegreesFor(
+      Collection<Resource> resources) {
+    Map<Resource, DecimalNormalizedAnalysisValue> valueMap = new HashMap<>();
+    for (Resource resource : resources) {
+      DecimalNormalizedAnalysisValue value = getTotalDegreeFor(resource);
+      if (value != null) {
+        valueMap.put(resource, value);
+      }
+    }
+    return valueMap;
+  }
+
 }
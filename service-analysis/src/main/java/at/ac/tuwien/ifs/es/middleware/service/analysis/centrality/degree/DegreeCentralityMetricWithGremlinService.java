@@ -2,6 +2,10 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.degree;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalMetricColumns;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.GremlinService;
@@ -9,10 +13,15 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Optional;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.mapdb.DB;
-import org.mapdb.HTreeMap;
-import org.mapdb.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,7 +30,8 @@ import org.springframework.stereotype.Service;
 
 /**
  * This is an implementation get {@link DegreeCentralityMetricService} that uses the {@link
- * GremlinService} to compute the degree get resources.
+ * GremlinService} to compute the degree get resources. The in-degree, out-degree and total degree
+ * are computed in a single scan over all the vertices and their adjacent edges.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -37,57 +47,117 @@ public class DegreeCentralityMetricWithGremlinService implements DegreeCentralit
       .getLogger(DegreeCentralityMetricWithGremlinService.class);
 
   static final String DEGREE_PROP_NAME = "esm.service.analytics.centrality.degree";
+  static final String OUT_DEGREE_PROP_NAME = DEGREE_PROP_NAME + ".out";
+  static final String TOTAL_DEGREE_PROP_NAME = DEGREE_PROP_NAME + ".total";
 
   private final GremlinService gremlinService;
   private final AllResourcesService allResourcesService;
-  private DB mapDB;
   private PGS schema;
 
-  private HTreeMap<Integer, DecimalNormalizedAnalysisValue> degreeMap;
+  private final Versioned<DecimalMetricColumns> degreeColumns;
+  private final Versioned<DecimalMetricColumns> outDegreeColumns;
+  private final Versioned<DecimalMetricColumns> totalDegreeColumns;
 
   @Autowired
   public DegreeCentralityMetricWithGremlinService(GremlinService gremlinService,
-      AllResourcesService allResourcesService, DB mapDB) {
+      AllResourcesService allResourcesService, DB mapDB,
+      MetricColumnStore metricColumnStore,
+      AnalysisNamespaces namespaces) {
     this.gremlinService = gremlinService;
     this.schema = gremlinService.getPropertyGraphSchema();
     this.allResourcesService = allResourcesService;
-    this.mapDB = mapDB;
-    this.degreeMap = mapDB.hashMap(DEGREE_PROP_NAME, Serializer.INTEGER, Serializer.JAVA)
-        .createOrOpen();
+    this.degreeColumns = namespaces.versioned(DEGREE_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.degreeColumns.get().migrateFrom(mapDB, DEGREE_PROP_NAME);
+    this.outDegreeColumns = namespaces.versioned(OUT_DEGREE_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.outDegreeColumns.get().migrateFrom(mapDB, OUT_DEGREE_PROP_NAME);
+    this.totalDegreeColumns = namespaces.versioned(TOTAL_DEGREE_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.totalDegreeColumns.get().migrateFrom(mapDB, TOTAL_DEGREE_PROP_NAME);
   }
 
   @Override
   public DecimalNormalizedAnalysisValue getValueFor(Resource resource) {
     checkArgument(resource != null,
         "The passed resource (for which the degree shall be returned) must not be null.");
-    return allResourcesService.getResourceKey(resource).map(integer -> degreeMap.get(integer))
+    return allResourcesService.getResourceKey(resource).map(key -> degreeColumns.get().get(key))
         .orElse(null);
   }
 
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getValuesFor(
+      Collection<Resource> resources) {
+    return degreeColumns.get().get(resources, allResourcesService);
+  }
+
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getOutDegreesFor(
+      Collection<Resource> resources) {
+    return outDegreeColumns.get().get(resources, allResourcesService);
+  }
+
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getTotalDegreesFor(
+      Collection<Resource> resources) {
+    return totalDegreeColumns.get().get(resources, allResourcesService);
+  }
+
+  @Override
+  public DecimalNormalizedAnalysisValue getOutDegreeFor(Resource resource) {
+    checkArgument(resource != null,
+        "The passed resource (for which the degree shall be returned) must not be null.");
+    return allResourcesService.getResourceKey(resource).map(key -> outDegreeColumns.get().get(key))
+        .orElse(null);
+  }
+
+  @Override
+  public DecimalNormalizedAnalysisValue getTotalDegreeFor(Resource resource) {
+    checkArgument(resource != null,
+        "The passed resource (for which the degree shall be returned) must not be null.");
+    return allResourcesService.getResourceKey(resource)
+        .map(key -> totalDegreeColumns.get().get(key)).orElse(null);
+  }
+
   @Override
   public void compute() {
-    gremlinService.lock();
+    logger.info("Starting to compute degree metrics.");
+    Map<Integer, long[]> degrees = new HashMap<>();
+    gremlinService.readLock();
     try {
-      Normalizer<Integer> normalizer = new Normalizer<>();
-      for (Resource resource : allResourcesService.getResourceList()) {
-        Optional<Integer> resourceKeyOptional = allResourcesService.getResourceKey(resource);
+      Iterator<Vertex> vertexIterator = gremlinService.traversal().V();
+      while (vertexIterator.hasNext()) {
+        Vertex vertex = vertexIterator.next();
+        Optional<Integer> resourceKeyOptional = allResourcesService
+            .getResourceKey(new Resource(schema.iri().<String>apply(vertex)));
         if (resourceKeyOptional.isPresent()) {
-          Optional<Long> degreeCountOptional = gremlinService.traversal().V()
-              .has(schema.iri().identifierAsString(), resource.getId())
-              .inE().count().tryNext();
-          degreeCountOptional
-              .ifPresent(aLong -> normalizer.register(resourceKeyOptional.get(), aLong));
+          degrees.put(resourceKeyOptional.get(),
+              new long[]{IteratorUtils.count(vertex.edges(Direction.IN)),
+                  IteratorUtils.count(vertex.edges(Direction.OUT))});
         }
       }
-      degreeMap.putAll(normalizer.normalize());
-      mapDB.commit();
-      gremlinService.commit();
-    } catch (Exception e) {
-      gremlinService.rollback();
-      throw e;
     } finally {
-      gremlinService.unlock();
+      gremlinService.readUnlock();
+    }
+    Normalizer<Integer> inNormalizer = new Normalizer<>();
+    Normalizer<Integer> outNormalizer = new Normalizer<>();
+    Normalizer<Integer> totalNormalizer = new Normalizer<>();
+    Iterator<Resource> resourceIterator = allResourcesService.getResourceIterator();
+    while (resourceIterator.hasNext()) {
+      Resource resource = resourceIterator.next();
+      Optional<Integer> resourceKeyOptional = allResourcesService.getResourceKey(resource);
+      if (resourceKeyOptional.isPresent()) {
+        long[] degree = degrees.getOrDefault(resourceKeyOptional.get(), new long[2]);
+        inNormalizer.register(resourceKeyOptional.get(), degree[0]);
+        outNormalizer.register(resourceKeyOptional.get(), degree[1]);
+        totalNormalizer.register(resourceKeyOptional.get(), degree[0] + degree[1]);
+      }
     }
+    degreeColumns.write(columns -> columns.write(inNormalizer.normalize()));
+    outDegreeColumns.write(columns -> columns.write(outNormalizer.normalize()));
+    totalDegreeColumns.write(columns -> columns.write(totalNormalizer.normalize()));
+    logger.info("Degree metrics have successfully been computed for {} vertices.",
+        degrees.size());
   }
 
 }
@@ -0,0 +1,180 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.degree;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalMetricColumns;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is an implementation of {@link DegreeCentralityMetricService} for deployments without
+ * Gremlin. The in-degree and out-degree of all resources are computed with a single aggregate
+ * SPARQL query. The results are stored in the same columns as the ones of {@link
+ * DegreeCentralityMetricWithGremlinService}, such that the implementations can be exchanged.
+ * <p/>
+ * This service is disabled per default. It can be enabled with {@code
+ * esm.analysis.enable.esm.service.analytics.centrality.degree.sparql=true}, in which case it
+ * replaces the degree service using Gremlin.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@RegisterForAnalyticalProcessing(name = DegreeCentralityMetricWithSPARQLService.UID,
+    requiresSPARQL = true, prerequisites = {AllResourcesService.class}, disabled = true,
+    replaces = DegreeCentralityMetricWithGremlinService.class)
+public class DegreeCentralityMetricWithSPARQLService implements DegreeCentralityMetricService {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(DegreeCentralityMetricWithSPARQLService.class);
+
+  public static final String UID = "esm.service.analytics.centrality.degree.sparql";
+
+  private static final String DEGREE_QUERY =
+      "SELECT ?r (SUM(?in) AS ?inDegree) (SUM(?out) AS ?outDegree) WHERE {\n"
+          + "    {\n"
+          + "        ?r ?p ?o .\n"
+          + "        FILTER(isIRI(?r) && isIRI(?o)) .\n"
+          + "        BIND(0 AS ?in) .\n"
+          + "        BIND(1 AS ?out) .\n"
+          + "    } UNION {\n"
+          + "        ?s ?p ?r .\n"
+          + "        FILTER(isIRI(?s) && isIRI(?r)) .\n"
+          + "        BIND(1 AS ?in) .\n"
+          + "        BIND(0 AS ?out) .\n"
+          + "    }\n"
+          + "} GROUP BY ?r";
+
+  private final SPARQLService sparqlService;
+  private final AllResourcesService allResourcesService;
+
+  private final Versioned<DecimalMetricColumns> degreeColumns;
+  private final Versioned<DecimalMetricColumns> outDegreeColumns;
+  private final Versioned<DecimalMetricColumns> totalDegreeColumns;
+
+  @Autowired
+  public DegreeCentralityMetricWithSPARQLService(SPARQLService sparqlService,
+      AllResourcesService allResourcesService, DB mapDB,
+      MetricColumnStore metricColumnStore,
+      AnalysisNamespaces namespaces) {
+    this.sparqlService = sparqlService;
+    this.allResourcesService = allResourcesService;
+    this.degreeColumns = namespaces.versioned(
+        DegreeCentralityMetricWithGremlinService.DEGREE_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.degreeColumns.get().migrateFrom(mapDB,
+        DegreeCentralityMetricWithGremlinService.DEGREE_PROP_NAME);
+    this.outDegreeColumns = namespaces.versioned(
+        DegreeCentralityMetricWithGremlinService.OUT_DEGREE_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.outDegreeColumns.get().migrateFrom(mapDB,
+        DegreeCentralityMetricWithGremlinService.OUT_DEGREE_PROP_NAME);
+    this.totalDegreeColumns = namespaces.versioned(
+        DegreeCentralityMetricWithGremlinService.TOTAL_DEGREE_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.totalDegreeColumns.get().migrateFrom(mapDB,
+        DegreeCentralityMetricWithGremlinService.TOTAL_DEGREE_PROP_NAME);
+  }
+
+  @Override
+  public DecimalNormalizedAnalysisValue getValueFor(Resource resource) {
+    checkArgument(resource != null,
+        "The passed resource (for which the degree shall be returned) must not be null.");
+    return allResourcesService.getResourceKey(resource).map(key -> degreeColumns.get().get(key))
+        .orElse(null);
+  }
+
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getValuesFor(
+      Collection<Resource> resources) {
+    return degreeColumns.get().get(resources, allResourcesService);
+  }
+
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getOutDegreesFor(
+      Collection<Resource> resources) {
+    return outDegreeColumns.get().get(resources, allResourcesService);
+  }
+
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getTotalDegreesFor(
+      Collection<Resource> resources) {
+    return totalDegreeColumns.get().get(resources, allResourcesService);
+  }
+
+  @Override
+  public DecimalNormalizedAnalysisValue getOutDegreeFor(Resource resource) {
+    checkArgument(resource != null,
+        "The passed resource (for which the degree shall be returned) must not be null.");
+    return allResourcesService.getResourceKey(resource).map(key -> outDegreeColumns.get().get(key))
+        .orElse(null);
+  }
+
+  @Override
+  public DecimalNormalizedAnalysisValue getTotalDegreeFor(Resource resource) {
+    checkArgument(resource != null,
+        "The passed resource (for which the degree shall be returned) must not be null.");
+    return allResourcesService.getResourceKey(resource)
+        .map(key -> totalDegreeColumns.get().get(key)).orElse(null);
+  }
+
+  @Override
+  public void compute() {
+    logger.info("Starting to compute degree metrics.");
+    Map<Integer, long[]> degrees = new HashMap<>();
+    try (SelectQueryResultCursor cursor = sparqlService.select(DEGREE_QUERY, true)) {
+      while (cursor.hasNext()) {
+        Map<String, RDFTerm> row = cursor.next();
+        Optional<Integer> resourceKeyOptional = allResourcesService
+            .getResourceKey(new Resource((BlankNodeOrIRI) row.get("r")));
+        if (resourceKeyOptional.isPresent()) {
+          degrees.put(resourceKeyOptional.get(), new long[]{
+              Long.parseLong(((Literal) row.get("inDegree")).getLexicalForm()),
+              Long.parseLong(((Literal) row.get("outDegree")).getLexicalForm())});
+        }
+      }
+    }
+    Normalizer<Integer> inNormalizer = new Normalizer<>();
+    Normalizer<Integer> outNormalizer = new Normalizer<>();
+    Normalizer<Integer> totalNormalizer = new Normalizer<>();
+    Iterator<Resource> resourceIterator = allResourcesService.getResourceIterator();
+    while (resourceIterator.hasNext()) {
+      Resource resource = resourceIterator.next();
+      Optional<Integer> resourceKeyOptional = allResourcesService.getResourceKey(resource);
+      if (resourceKeyOptional.isPresent()) {
+        long[] degree = degrees.getOrDefault(resourceKeyOptional.get(), new long[2]);
+        inNormalizer.register(resourceKeyOptional.get(), degree[0]);
+        outNormalizer.register(resourceKeyOptional.get(), degree[1]);
+        totalNormalizer.register(resourceKeyOptional.get(), degree[0] + degree[1]);
+      }
+    }
+    degreeColumns.write(columns -> columns.write(inNormalizer.normalize()));
+    outDegreeColumns.write(columns -> columns.write(outNormalizer.normalize()));
+    totalDegreeColumns.write(columns -> columns.write(totalNormalizer.normalize()));
+    logger.info("Degree metrics have successfully been computed for {} resources.",
+        degrees.size());
+  }
+
+}
@@ -0,0 +1,219 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.adjacency.CSRAdjacencyIndex;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * This class computes the page rank with the power iteration method over the primitive arrays of a
+ * {@link CSRAdjacencyIndex}. The vertices are partitioned into ranges with roughly the same number
+ * of incoming edges, and each iteration pulls the contributions of the incoming edges for all
+ * ranges in parallel. The rank of dangling vertices (i.e. vertices without outgoing edges) is
+ * distributed uniformly across all vertices. Keys without any edge are unused slots of the index
+ * (see {@link CSRAdjacencyIndex#hasEdges(int)}), they aren't counted as vertices and their rank is
+ * {@code 0}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+final class CSRPageRank {
+
+  private final CSRAdjacencyIndex index;
+  private final double damping;
+  private final double tolerance;
+  private final int maxIterations;
+  private final int parallelism;
+
+  /**
+   * Creates a new {@link CSRPageRank} for the given index.
+   *
+   * @param index         {@link CSRAdjacencyIndex} for which the page rank shall be computed. It
+   *                      must not be {@code null}.
+   * @param damping       factor, which must be in the range of {@code [0, 1)}.
+   * @param tolerance     for the L1 residual between two iterations, which must be positive.
+   * @param maxIterations the maximal number of iterations, which must be positive.
+   * @param parallelism   number of threads that shall be used, which must be positive.
+   */
+  CSRPageRank(CSRAdjacencyIndex index, double damping, double tolerance, int maxIterations,
+      int parallelism) {
+    checkArgument(index != null, "The given adjacency index must not be null.");
+    checkArgument(damping >= 0 && damping < 1, "The damping factor must be in [0, 1).");
+    checkArgument(tolerance > 0, "The tolerance must be positive.");
+    checkArgument(maxIterations > 0, "The maximal number of iterations must be positive.");
+    checkArgument(parallelism > 0, "The parallelism must be positive.");
+    this.index = index;
+    this.damping = damping;
+    this.tolerance = tolerance;
+    this.maxIterations = maxIterations;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Computes the page rank for all the vertices of the index.
+   *
+   * @return the {@link Result} of the computation.
+   */
+  Result compute() {
+    int n = index.getVertexCount();
+    if (n == 0) {
+      return new Result(new double[0], 0, 0.0, true);
+    }
+    int vertices = 0;
+    for (int v = 0; v < n; v++) {
+      if (index.hasEdges(v)) {
+        vertices++;
+      }
+    }
+    if (vertices == 0) {
+      return new Result(new double[n], 0, 0.0, true);
+    }
+    int[] bounds = partition(n);
+    int partitions = bounds.length - 1;
+    double[] rank = new double[n];
+    double[] next = new double[n];
+    double[] contribution = new double[n];
+    double[] partialDangling = new double[partitions];
+    double[] partialResidual = new double[partitions];
+    for (int v = 0; v < n; v++) {
+      rank[v] = index.hasEdges(v) ? 1.0 / vertices : 0.0;
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      int iteration = 0;
+      double residual = Double.MAX_VALUE;
+      while (iteration < maxIterations && residual >= tolerance) {
+        double[] currentRank = rank;
+        run(pool, partitions, p -> {
+          double dangling = 0.0;
+          for (int v = bounds[p]; v < bounds[p + 1]; v++) {
+            int outDegree = index.outDegree(v);
+            if (outDegree == 0) {
+              dangling += currentRank[v];
+              contribution[v] = 0.0;
+            } else {
+              contribution[v] = currentRank[v] / outDegree;
+            }
+          }
+          partialDangling[p] = dangling;
+        });
+        double base = (1.0 - damping) / vertices + damping * sum(partialDangling) / vertices;
+        double[] nextRank = next;
+        run(pool, partitions, p -> {
+          double delta = 0.0;
+          for (int v = bounds[p]; v < bounds[p + 1]; v++) {
+            if (!index.hasEdges(v)) {
+              nextRank[v] = 0.0;
+              continue;
+            }
+            double incoming = 0.0;
+            for (int e = index.inStart(v); e < index.inEnd(v); e++) {
+              incoming += contribution[index.inSource(e)];
+            }
+            nextRank[v] = base + damping * incoming;
+            delta += Math.abs(nextRank[v] - currentRank[v]);
+          }
+          partialResidual[p] = delta;
+        });
+        residual = sum(partialResidual);
+        next = rank;
+        rank = nextRank;
+        iteration++;
+      }
+      return new Result(rank, iteration, residual, residual < tolerance);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Partitions the vertices into ranges with roughly the same number of incoming edges.
+   *
+   * @param n number of vertices.
+   * @return the bounds of the ranges, where the range {@code p} is {@code [bounds[p],
+   * bounds[p+1])}.
+   */
+  private int[] partition(int n) {
+    int partitions = Math.min(n, parallelism * 4);
+    long work = (long) index.getEdgeCount() + n;
+    int[] bounds = new int[partitions + 1];
+    int v = 0;
+    for (int p = 1; p < partitions; p++) {
+      long target = work * p / partitions;
+      while (v < n && (long) index.inStart(v) + v < target) {
+        v++;
+      }
+      bounds[p] = Math.max(v, bounds[p - 1]);
+    }
+    bounds[partitions] = n;
+    return bounds;
+  }
+
+  private static void run(ForkJoinPool pool, int partitions, IntConsumer task) {
+    try {
+      pool.submit(() -> IntStream.range(0, partitions).parallel().forEach(task)).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The computation of the page rank was interrupted.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("The computation of the page rank failed.", e.getCause());
+    }
+  }
+
+  private static double sum(double[] values) {
+    double sum = 0.0;
+    for (double value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  /**
+   * This class represents the result of a page rank computation together with statistics about
+   * its convergence.
+   */
+  static final class Result {
+
+    private final double[] ranks;
+    private final int iterations;
+    private final double residual;
+    private final boolean converged;
+
+    private Result(double[] ranks, int iterations, double residual, boolean converged) {
+      this.ranks = ranks;
+      this.iterations = iterations;
+      this.residual = residual;
+      this.converged = converged;
+    }
+
+    double[] getRanks() {
+      return ranks;
+    }
+
+    int getIterations() {
+      return iterations;
+    }
+
+    double getResidual() {
+      return residual;
+    }
+
+    boolean isConverged() {
+      return converged;
+    }
+
+    @Override
+    public String toString() {
+      return "Result{" +
+          "iterations=" + iterations +
+          ", residual=" + residual +
+          ", converged=" + converged +
+          '}';
+    }
+  }
+
+}
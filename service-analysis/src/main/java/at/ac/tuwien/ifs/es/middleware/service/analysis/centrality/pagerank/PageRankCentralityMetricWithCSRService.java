@@ -0,0 +1,127 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.adjacency.CSRAdjacencyIndex;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.adjacency.AdjacencyIndexService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalMetricColumns;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * This class is an implementation of {@link PageRankCentralityMetricService} that computes the page
+ * rank natively with a parallel power iteration over the {@link CSRAdjacencyIndex} of the {@link
+ * AdjacencyIndexService}. The results are stored in the same {@link DecimalMetricColumns} as the
+ * ones of {@link PageRankCentralityMetricWithGremlinService}, such that the implementations can be
+ * exchanged.
+ * <p/>
+ * This service is disabled per default. It can be enabled with {@code
+ * esm.analysis.enable.esm.service.analytics.centrality.pagerank.csr=true}, in which case it
+ * replaces the page rank service using Gremlin. Hence, only one of them writes the page rank.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@RegisterForAnalyticalProcessing(name = PageRankCentralityMetricWithCSRService.UID,
+    prerequisites = {AllResourcesService.class, AdjacencyIndexService.class}, disabled = true,
+    replaces = PageRankCentralityMetricWithGremlinService.class)
+public class PageRankCentralityMetricWithCSRService implements PageRankCentralityMetricService {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(PageRankCentralityMetricWithCSRService.class);
+
+  public static final String UID = "esm.service.analytics.centrality.pagerank.csr";
+
+  private final AllResourcesService allResourcesService;
+  private final AdjacencyIndexService adjacencyIndexService;
+
+  @Value("${esm.analysis.pagerank.damping:0.85}")
+  private double damping;
+  @Value("${esm.analysis.pagerank.tolerance:1e-6}")
+  private double tolerance;
+  @Value("${esm.analysis.pagerank.maxIterations:100}")
+  private int maxIterations;
+  @Value("${esm.analysis.pagerank.parallelism:0}")
+  private int parallelism;
+
+  private final Versioned<DecimalMetricColumns> pageRankColumns;
+
+  @Autowired
+  public PageRankCentralityMetricWithCSRService(AllResourcesService allResourcesService,
+      AdjacencyIndexService adjacencyIndexService, DB mapDB, MetricColumnStore metricColumnStore,
+      AnalysisNamespaces namespaces) {
+    this.allResourcesService = allResourcesService;
+    this.adjacencyIndexService = adjacencyIndexService;
+    this.pageRankColumns = namespaces.versioned(
+        PageRankCentralityMetricWithGremlinService.PAGE_RANK_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.pageRankColumns.get()
+        .migrateFrom(mapDB, PageRankCentralityMetricWithGremlinService.PAGE_RANK_PROP_NAME);
+  }
+
+  @Override
+  public DecimalNormalizedAnalysisValue getValueFor(Resource resource) {
+    checkArgument(resource != null, "The given resource must not for null.");
+    Optional<Integer> optionalResourceKey = allResourcesService.getResourceKey(resource);
+    return optionalResourceKey.map(key -> pageRankColumns.get().get(key)).orElse(null);
+  }
+
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getValuesFor(
+      Collection<Resource> resources) {
+    return pageRankColumns.get().get(resources, allResourcesService);
+  }
+
+  @Override
+  public void compute() {
+    Optional<CSRAdjacencyIndex> indexOptional = adjacencyIndexService.getIndex();
+    if (!indexOptional.isPresent()) {
+      throw new IllegalStateException(
+          "The adjacency index must be computed before the page rank.");
+    }
+    CSRAdjacencyIndex index = indexOptional.get();
+    int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    logger.info(
+        "Starting to compute page rank metric for {} with damping {}, tolerance {}, at most {} iterations and {} threads.",
+        index, damping, tolerance, maxIterations, threads);
+    Instant start = Instant.now();
+    CSRPageRank.Result result = new CSRPageRank(index, damping, tolerance, maxIterations,
+        threads).compute();
+    if (result.isConverged()) {
+      logger.info("Page rank converged after {} iterations with a residual of {} in {} ms.",
+          result.getIterations(), result.getResidual(),
+          Duration.between(start, Instant.now()).toMillis());
+    } else {
+      logger.warn(
+          "Page rank did not converge within {} iterations, the residual is {} (tolerance {}).",
+          result.getIterations(), result.getResidual(), tolerance);
+    }
+    double[] ranks = result.getRanks();
+    for (int key = 0; key < ranks.length; key++) {
+      if (!allResourcesService.getResourceIdFor(key).isPresent()) {
+        ranks[key] = Double.NaN;
+      }
+    }
+    pageRankColumns.write(columns -> columns.writeNormalized(ranks));
+    logger.info("Page rank has successfully been computed.");
+  }
+
+}
@@ -2,6 +2,10 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalMetricColumns;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.GremlinService;
@@ -9,12 +13,12 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.mapdb.DB;
-import org.mapdb.HTreeMap;
-import org.mapdb.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,7 +28,8 @@ import org.springframework.stereotype.Service;
 /**
  * This class is an implementation get {@link PageRankCentralityMetricService} using Tinkerprop
  * Gremlin {@link GremlinService}. A vertex program will be executed in order to compute the value
- * for each vertex in the knowledge graph.
+ * for each vertex in the knowledge graph. The results are stored in the {@link
+ * DecimalMetricColumns} of the {@link MetricColumnStore}.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -43,33 +48,39 @@ public class PageRankCentralityMetricWithGremlinService implements PageRankCentr
 
   private final GremlinService gremlinService;
   private final AllResourcesService allResourcesService;
-  private final DB mapDB;
   private final PGS schema;
 
-  private HTreeMap<Integer, DecimalNormalizedAnalysisValue> pageRankMap;
+  private final Versioned<DecimalMetricColumns> pageRankColumns;
 
   @Autowired
   public PageRankCentralityMetricWithGremlinService(GremlinService gremlinService,
-      AllResourcesService allResourcesService, DB mapDB) {
+      AllResourcesService allResourcesService, DB mapDB, MetricColumnStore metricColumnStore,
+      AnalysisNamespaces namespaces) {
     this.gremlinService = gremlinService;
     this.allResourcesService = allResourcesService;
-    this.mapDB = mapDB;
     this.schema = gremlinService.getPropertyGraphSchema();
-    this.pageRankMap = mapDB.hashMap(PAGE_RANK_PROP_NAME, Serializer.INTEGER, Serializer.JAVA)
-        .createOrOpen();
+    this.pageRankColumns = namespaces.versioned(PAGE_RANK_PROP_NAME,
+        metricColumnStore::getDecimalColumns);
+    this.pageRankColumns.get().migrateFrom(mapDB, PAGE_RANK_PROP_NAME);
   }
 
   @Override
   public DecimalNormalizedAnalysisValue getValueFor(Resource resource) {
     checkArgument(resource != null, "The given resource must not for null.");
     Optional<Integer> optionalResourceKey = allResourcesService.getResourceKey(resource);
-    return optionalResourceKey.map(integer -> pageRankMap.get(integer)).orElse(null);
+    return optionalResourceKey.map(key -> pageRankColumns.get().get(key)).orElse(null);
+  }
+
+  @Override
+  public Map<Resource, DecimalNormalizedAnalysisValue> getValuesFor(
+      Collection<Resource> resources) {
+    return pageRankColumns.get().get(resources, allResourcesService);
   }
 
   @Override
   public void compute() {
     logger.info("Starting to compute page rank metric.");
-    gremlinService.lock();
+    gremlinService.readLock();
     try {
       Normalizer<Integer> normalizer = new Normalizer<>();
       gremlinService.traversal().withComputer().V().pageRank().sideEffect(vertexTraverser -> {
@@ -78,14 +89,9 @@ public class PageRankCentralityMetricWithGremlinService implements PageRankCentr
             .ifPresent(integer -> normalizer.register(integer,
                 (Double) vertex.values(PageRankVertexProgram.PAGE_RANK).next()));
       }).iterate();
-      pageRankMap.putAll(normalizer.normalize());
-      mapDB.commit();
-      gremlinService.commit();
-    } catch (Exception e) {
-      gremlinService.rollback();
-      throw e;
+      pageRankColumns.write(columns -> columns.write(normalizer.normalize()));
     } finally {
-      gremlinService.unlock();
+      gremlinService.readUnlock();
     }
     logger.info("Page rank has successfully been computed.");
   }
@@ -0,0 +1,27 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.adjacency;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.adjacency.CSRAdjacencyIndex;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.AnalysisService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import java.util.Optional;
+
+/**
+ * An implementation of {@link AnalysisService} that provides a {@link CSRAdjacencyIndex} of the
+ * knowledge graph. The vertices of the index are identified by the keys of {@link
+ * AllResourcesService}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public interface AdjacencyIndexService extends AnalysisService {
+
+  /**
+   * Gets the {@link CSRAdjacencyIndex} of the knowledge graph.
+   *
+   * @return the {@link CSRAdjacencyIndex} of the knowledge graph, or {@link Optional#empty()}, if
+   * it has not been computed yet.
+   */
+  Optional<CSRAdjacencyIndex> getIndex();
+
+}
@@ -0,0 +1,114 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.adjacency;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.adjacency.CSRAdjacencyIndex;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * This is an implementation of {@link AdjacencyIndexService} that streams all the statements
+ * between two IRIs with the {@link SPARQLService} into a {@link CSRAdjacencyIndex}. The index is
+ * kept in memory and persisted to the data directory, such that it is available after a restart.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@RegisterForAnalyticalProcessing(name = AdjacencyIndexWithSPARQLService.UID, requiresSPARQL = true,
+    prerequisites = {AllResourcesService.class})
+public class AdjacencyIndexWithSPARQLService implements AdjacencyIndexService {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(AdjacencyIndexWithSPARQLService.class);
+
+  public static final String UID = "esm.service.analytics.dataset.adjacency";
+
+  private static final String ALL_STATEMENTS_QUERY = "SELECT ?s ?p ?o WHERE {\n"
+      + "    ?s ?p ?o .\n"
+      + "    FILTER(isIRI(?s) && isIRI(?o)) .\n"
+      + "}";
+
+  private final SPARQLService sparqlService;
+  private final AllResourcesService allResourcesService;
+  private final File indexFile;
+
+  private volatile CSRAdjacencyIndex index;
+
+  @Autowired
+  public AdjacencyIndexWithSPARQLService(SPARQLService sparqlService,
+      AllResourcesService allResourcesService,
+      @Value("${esm.db.data.dir:#{null}}") String dataDir) {
+    this.sparqlService = sparqlService;
+    this.allResourcesService = allResourcesService;
+    this.indexFile = dataDir != null ? new File(new File(dataDir, "adjacency"), "csr.bin") : null;
+  }
+
+  @Override
+  public Optional<CSRAdjacencyIndex> getIndex() {
+    if (index == null && indexFile != null && indexFile.isFile()) {
+      synchronized (this) {
+        if (index == null) {
+          try {
+            index = CSRAdjacencyIndex.readFrom(indexFile);
+          } catch (IOException e) {
+            logger.error("Failed to read the adjacency index from '{}'. {}", indexFile,
+                e.getMessage());
+          }
+        }
+      }
+    }
+    return Optional.ofNullable(index);
+  }
+
+  @Override
+  public void compute() {
+    Instant start = Instant.now();
+    logger.info("Starting to compute the adjacency index.");
+    CSRAdjacencyIndex.Builder builder = CSRAdjacencyIndex.builder();
+    try (SelectQueryResultCursor cursor = sparqlService.select(ALL_STATEMENTS_QUERY, true)) {
+      while (cursor.hasNext()) {
+        Map<String, RDFTerm> row = cursor.next();
+        Optional<Integer> sourceKey = allResourcesService.getResourceKey(
+            new Resource(RDFTermJsonUtil.stringValue((BlankNodeOrIRI) row.get("s"))));
+        Optional<Integer> targetKey = allResourcesService.getResourceKey(
+            new Resource(RDFTermJsonUtil.stringValue((BlankNodeOrIRI) row.get("o"))));
+        if (sourceKey.isPresent() && targetKey.isPresent()) {
+          builder.addEdge(sourceKey.get(),
+              RDFTermJsonUtil.stringValue((BlankNodeOrIRI) row.get("p")),
+              targetKey.get());
+        }
+      }
+    }
+    CSRAdjacencyIndex newIndex = builder.build();
+    if (indexFile != null) {
+      try {
+        indexFile.getParentFile().mkdirs();
+        newIndex.writeTo(indexFile);
+      } catch (IOException e) {
+        logger.error("Failed to persist the adjacency index to '{}'. {}", indexFile,
+            e.getMessage());
+      }
+    }
+    index = newIndex;
+    logger.info("Computed the adjacency index {} in {} ms.", newIndex,
+        Duration.between(start, Instant.now()).toMillis());
+  }
+
+}
@@ -1,5 +1,9 @@
 package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes;
 
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalValueSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.NormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
@@ -50,31 +54,33 @@ public class ClassEntropyWithGremlinService implements ClassEntropyService {
   private final PGS schema;
   private final DB mapDB;
 
-  private final HTreeMap<String, DecimalNormalizedAnalysisValue> classEntropyMap;
+  private final Versioned<HTreeMap<String, DecimalNormalizedAnalysisValue>> classEntropyMap;
 
   @Autowired
   public ClassEntropyWithGremlinService(GremlinService gremlinService,
       AllClassesService allClassesService,
-      ClassHierarchyService classHierarchyService, DB mapDB) {
+      ClassHierarchyService classHierarchyService, DB mapDB, AnalysisNamespaces namespaces) {
     this.gremlinService = gremlinService;
     this.allClassesService = allClassesService;
     this.classHierarchyService = classHierarchyService;
     this.mapDB = mapDB;
-    this.classEntropyMap = mapDB.hashMap(UID, Serializer.STRING, Serializer.JAVA)
-        .createOrOpen();
+    this.classEntropyMap = namespaces.versioned(UID,
+        name -> CompactMaps.openHashMap(mapDB, name, Serializer.STRING,
+            DecimalValueSerializer.INSTANCE, Serializer.STRING, Serializer.JAVA),
+        map -> CompactMaps.clear(mapDB, map));
     this.schema = gremlinService.getPropertyGraphSchema();
   }
 
   @Override
   public DecimalNormalizedAnalysisValue getEntropyForClass(Resource resource) {
-    return classEntropyMap.get(resource.getId());
+    return classEntropyMap.get().get(resource.getId());
   }
 
   @Override
   public void compute() {
     Instant issueTimestamp = Instant.now();
     logger.info("Starting to computes information content metric for classes.");
-    gremlinService.lock();
+    gremlinService.readLock();
     try {
       Set<Resource> allClasses = allClassesService.getAllClasses();
       if (!allClasses.isEmpty()) {
@@ -102,16 +108,14 @@ public class ClassEntropyWithGremlinService implements ClassEntropyService {
             }
           }
 
-          classEntropyMap.putAll(normalizer.normalize());
-          mapDB.commit();
+          classEntropyMap.write(map -> {
+            map.putAll(normalizer.normalize());
+            mapDB.commit();
+          });
         }
       }
-      gremlinService.commit();
-    } catch (Exception e) {
-      gremlinService.rollback();
-      throw e;
     } finally {
-      gremlinService.unlock();
+      gremlinService.readUnlock();
     }
     logger.info("Information Content for classes issued on {} computed on {}.", issueTimestamp,
         Instant.now());
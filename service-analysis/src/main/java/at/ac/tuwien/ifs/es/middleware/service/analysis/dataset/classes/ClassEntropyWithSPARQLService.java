@@ -2,6 +2,10 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalValueSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.GremlinService;
@@ -61,21 +65,23 @@ public class ClassEntropyWithSPARQLService implements ClassEntropyService {
   private AllClassesService allClassesService;
   private DB mapDB;
 
-  private final HTreeMap<String, DecimalNormalizedAnalysisValue> classEntropyMap;
+  private final Versioned<HTreeMap<String, DecimalNormalizedAnalysisValue>> classEntropyMap;
 
   @Autowired
   public ClassEntropyWithSPARQLService(SPARQLService sparqlService,
-      AllClassesService allClassesService, DB mapDB) {
+      AllClassesService allClassesService, DB mapDB, AnalysisNamespaces namespaces) {
     this.sparqlService = sparqlService;
     this.allClassesService = allClassesService;
     this.mapDB = mapDB;
-    this.classEntropyMap = mapDB.hashMap(UID, Serializer.STRING, Serializer.JAVA)
-        .createOrOpen();
+    this.classEntropyMap = namespaces.versioned(UID,
+        name -> CompactMaps.openHashMap(mapDB, name, Serializer.STRING,
+            DecimalValueSerializer.INSTANCE, Serializer.STRING, Serializer.JAVA),
+        map -> CompactMaps.clear(mapDB, map));
   }
 
   @Override
   public DecimalNormalizedAnalysisValue getEntropyForClass(Resource resource) {
-    return classEntropyMap.get(resource.getId());
+    return classEntropyMap.get().get(resource.getId());
   }
 
   private void processSPARQLResult(Normalizer<String> normalizer, List<Resource> classList, List<Map<String, RDFTerm>> result,
@@ -126,8 +132,10 @@ public class ClassEntropyWithSPARQLService implements ClassEntropyService {
                       .collect(
                           Collectors.joining("\n"))), true).value(), total);
         }
-        classEntropyMap.putAll(normalizer.normalize());
-        mapDB.commit();
+        classEntropyMap.write(map -> {
+          map.putAll(normalizer.normalize());
+          mapDB.commit();
+        });
       }
     }
   }
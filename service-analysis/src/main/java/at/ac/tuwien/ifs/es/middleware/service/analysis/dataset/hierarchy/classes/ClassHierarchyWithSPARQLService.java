@@ -5,6 +5,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
@@ -92,8 +93,8 @@ public class ClassHierarchyWithSPARQLService implements ClassHierarchyService {
     this.mapDB = mapDB;
     this.classNodeMap = mapDB
         .hashMap(UID + ".class.to.node.map", Serializer.STRING, Serializer.INTEGER).createOrOpen();
-    this.treeNodeMap = mapDB.hashMap(UID + ".node.map", Serializer.INTEGER, Serializer.JAVA)
-        .createOrOpen();
+    this.treeNodeMap = CompactMaps.openHashMap(mapDB, UID + ".node.map", Serializer.INTEGER,
+        ClassTreeNodeSerializer.INSTANCE, Serializer.INTEGER, Serializer.JAVA);
     this.treeNodeId = treeNodeMap.size();
   }
 
@@ -0,0 +1,67 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+/**
+ * This {@link Serializer} stores a {@link ClassTreeNode} in a compact binary form, i.e. the id as
+ * well as the ids of parents and children as variable-length integers, and the resources as UTF
+ * strings.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+final class ClassTreeNodeSerializer implements Serializer<ClassTreeNode> {
+
+  static final ClassTreeNodeSerializer INSTANCE = new ClassTreeNodeSerializer();
+
+  private ClassTreeNodeSerializer() {
+  }
+
+  @Override
+  public void serialize(DataOutput2 out, ClassTreeNode node) throws IOException {
+    out.packInt(node.getId());
+    out.packInt(node.getResources().size());
+    for (String resource : node.getResources()) {
+      out.writeUTF(resource);
+    }
+    writeIds(out, node.getParents());
+    writeIds(out, node.getChildren());
+  }
+
+  private static void writeIds(DataOutput2 out, Set<Integer> ids) throws IOException {
+    out.packInt(ids.size());
+    for (int id : ids) {
+      out.packInt(id);
+    }
+  }
+
+  @Override
+  public ClassTreeNode deserialize(DataInput2 input, int available) throws IOException {
+    int id = input.unpackInt();
+    int resourceCount = input.unpackInt();
+    Set<String> resources = new HashSet<>();
+    for (int i = 0; i < resourceCount; i++) {
+      resources.add(input.readUTF());
+    }
+    ClassTreeNode node = new ClassTreeNode(id, resources);
+    for (int i = input.unpackInt(); i > 0; i--) {
+      node.addParent(input.unpackInt());
+    }
+    for (int i = input.unpackInt(); i > 0; i--) {
+      node.addChildren(input.unpackInt());
+    }
+    return node;
+  }
+
+  @Override
+  public boolean isTrusted() {
+    return true;
+  }
+
+}
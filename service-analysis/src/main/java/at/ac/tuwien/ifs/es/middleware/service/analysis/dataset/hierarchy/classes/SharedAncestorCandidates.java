@@ -0,0 +1,257 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class generates the candidate partners of a resource for similarity metrics that are based
+ * on the lowest common ancestors of two resources (e.g. Resnik or LCAPR). Only resources that share
+ * at least one class or ancestor class with a resource are candidates, all the other pairs have no
+ * common ancestor at all.
+ * <p/>
+ * The candidates of a resource are collected from its classes and ancestor classes, starting with
+ * the most specific ones (i.e. the ones with the fewest members), and the collection stops as soon
+ * as the maximal number of candidates is reached. Classes with more members than the given maximal
+ * class size (e.g. {@code owl:Thing}) aren't considered at all, their members aren't even kept in
+ * the index. Hence, the costs per resource are bounded by the number of its ancestor classes times
+ * the maximal number of candidates. The candidates are ordered by the number of classes, which
+ * they share with the resource.
+ * <p/>
+ * The index is built from the key space of the {@link AllResourcesService}, and the resources are
+ * looked up by their key, when they are needed. The index should be built only once for all the
+ * services of a run (see {@link SharedAncestorCandidatesProvider}).
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SharedAncestorCandidates {
+
+  private static final int[] NO_MEMBERS = new int[0];
+
+  private final AllResourcesService allResourcesService;
+  private final int[][] ancestorsOfResource;
+  private final int[][] membersOfClass;
+
+  private SharedAncestorCandidates(AllResourcesService allResourcesService,
+      int[][] ancestorsOfResource, int[][] membersOfClass) {
+    this.allResourcesService = allResourcesService;
+    this.ancestorsOfResource = ancestorsOfResource;
+    this.membersOfClass = membersOfClass;
+  }
+
+  /**
+   * Builds the index of the classes and ancestor classes of all the resources of the knowledge
+   * graph.
+   *
+   * @param allResourcesService   that provides all the resources and their keys.
+   * @param resourceClassService  that provides the classes of a resource.
+   * @param classHierarchyService that provides the ancestor classes.
+   * @param maxClassSize          the maximal number of members of a class, whose members are
+   *                              candidates, or zero for no limit.
+   * @return the candidates for all the resources of the knowledge graph.
+   */
+  public static SharedAncestorCandidates build(AllResourcesService allResourcesService,
+      ResourceClassService resourceClassService, ClassHierarchyService classHierarchyService,
+      int maxClassSize) {
+    checkArgument(allResourcesService != null, "The all resources service must not be null.");
+    checkArgument(maxClassSize >= 0, "The maximal class size must not be negative.");
+    int maxKey = allResourcesService.getMaxResourceKey();
+    int[][] ancestorsOfResource = new int[maxKey + 1][];
+    Map<Resource, Integer> classIndexMap = new HashMap<>();
+    Map<Set<Resource>, int[]> ancestorCache = new HashMap<>();
+    List<int[]> members = new ArrayList<>();
+    List<Integer> memberCounts = new ArrayList<>();
+    for (int key = 0; key <= maxKey; key++) {
+      Optional<String> idOptional = allResourcesService.getResourceIdFor(key);
+      if (!idOptional.isPresent()) {
+        continue;
+      }
+      Optional<Set<Resource>> classesOptional = resourceClassService
+          .getClassesOf(new Resource(idOptional.get()));
+      if (!classesOptional.isPresent() || classesOptional.get().isEmpty()) {
+        continue;
+      }
+      int[] ancestors = ancestorCache.computeIfAbsent(classesOptional.get(),
+          classes -> classHierarchyService.getAllClasses(classes).stream()
+              .mapToInt(c -> classIndexMap.computeIfAbsent(c, k -> classIndexMap.size()))
+              .toArray());
+      ancestorsOfResource[key] = ancestors;
+      for (int ancestor : ancestors) {
+        while (members.size() <= ancestor) {
+          members.add(new int[4]);
+          memberCounts.add(0);
+        }
+        int count = memberCounts.get(ancestor);
+        if (maxClassSize > 0 && count >= maxClassSize) {
+          members.set(ancestor, NO_MEMBERS);
+          memberCounts.set(ancestor, count + 1);
+          continue;
+        }
+        int[] classMembers = members.get(ancestor);
+        if (count == classMembers.length) {
+          classMembers = Arrays.copyOf(classMembers, count * 2);
+          members.set(ancestor, classMembers);
+        }
+        classMembers[count] = key;
+        memberCounts.set(ancestor, count + 1);
+      }
+    }
+    int[][] membersOfClass = new int[members.size()][];
+    for (int i = 0; i < membersOfClass.length; i++) {
+      membersOfClass[i] = members.get(i) == NO_MEMBERS ? NO_MEMBERS
+          : Arrays.copyOf(members.get(i), memberCounts.get(i));
+    }
+    for (int[] ancestors : ancestorCache.values()) {
+      int[] orderedAncestors = Arrays.stream(ancestors).boxed()
+          .sorted(Comparator.comparingInt(a -> memberCounts.get(a)))
+          .mapToInt(Integer::intValue).toArray();
+      System.arraycopy(orderedAncestors, 0, ancestors, 0, ancestors.length);
+    }
+    return new SharedAncestorCandidates(allResourcesService, ancestorsOfResource, membersOfClass);
+  }
+
+  /**
+   * Gets the keys of all the resources, which have at least one class.
+   *
+   * @return the keys of all the resources, which have at least one class.
+   */
+  public int[] getResourceKeys() {
+    int[] keys = new int[ancestorsOfResource.length];
+    int n = 0;
+    for (int key = 0; key < ancestorsOfResource.length; key++) {
+      if (ancestorsOfResource[key] != null) {
+        keys[n++] = key;
+      }
+    }
+    return Arrays.copyOf(keys, n);
+  }
+
+  /**
+   * Gets the resource with the given key.
+   *
+   * @param key of the resource.
+   * @return the resource with the given key, or {@code null}, if the key isn't mapped.
+   */
+  public Resource getResource(int key) {
+    return allResourcesService.getResourceIdFor(key).map(Resource::new).orElse(null);
+  }
+
+  /**
+   * Gets the candidate partners of the resource with the given key.
+   *
+   * @param key           of the resource.
+   * @param maxCandidates the maximal number of candidates, or zero for no limit.
+   * @return the keys of the candidates ordered by the number of shared classes in descending
+   * order.
+   */
+  public int[] getCandidatesFor(int key, int maxCandidates) {
+    int[] ancestors = key >= 0 && key < ancestorsOfResource.length ? ancestorsOfResource[key]
+        : null;
+    if (ancestors == null) {
+      return new int[0];
+    }
+    int limit = maxCandidates > 0 ? maxCandidates : Integer.MAX_VALUE;
+    Map<Integer, int[]> sharedCountMap = new HashMap<>();
+    for (int i = 0; i < ancestors.length && sharedCountMap.size() < limit; i++) {
+      int[] members = membersOfClass[ancestors[i]];
+      for (int j = 0; j < members.length && sharedCountMap.size() < limit; j++) {
+        if (members[j] == key) {
+          continue;
+        }
+        int[] sharedCount = sharedCountMap.get(members[j]);
+        if (sharedCount != null) {
+          sharedCount[0]++;
+        } else {
+          sharedCountMap.put(members[j], new int[]{1});
+        }
+      }
+    }
+    return sharedCountMap.entrySet().stream()
+        .sorted((a, b) -> a.getValue()[0] != b.getValue()[0]
+            ? Integer.compare(b.getValue()[0], a.getValue()[0])
+            : Integer.compare(a.getKey(), b.getKey()))
+        .mapToInt(Map.Entry::getKey).toArray();
+  }
+
+  /**
+   * Computes the given metric for each resource and its candidate partners, and passes the pairs
+   * of each resource with its {@code k} most similar partners on to the given consumer.
+   *
+   * @param k             the number of partners per resource, or zero for all candidates.
+   * @param maxCandidates the maximal number of candidates per resource, or zero for no limit.
+   * @param metric        that shall be computed for a pair, it returns {@code null}, if the pair
+   *                      has no value.
+   * @param order         of the values, the most similar partners come first. If it is {@code
+   *                      null}, the order of the candidates is kept.
+   * @param consumer      to which the selected pairs are passed on.
+   * @param <V>           the type of the values of the metric.
+   */
+  public <V> void forEachTopPair(int k, int maxCandidates, Function<ResourcePair, V> metric,
+      Comparator<V> order, PairConsumer<V> consumer) {
+    checkArgument(metric != null, "The metric must not be null.");
+    checkArgument(consumer != null, "The consumer must not be null.");
+    for (int key : getResourceKeys()) {
+      Resource resource = getResource(key);
+      int[] candidates = resource != null ? getCandidatesFor(key, maxCandidates) : new int[0];
+      List<ScoredPartner<V>> partners = new ArrayList<>(candidates.length);
+      for (int candidate : candidates) {
+        if (order == null && k > 0 && partners.size() >= k) {
+          break;
+        }
+        Resource partner = getResource(candidate);
+        if (partner == null) {
+          continue;
+        }
+        V value = metric.apply(ResourcePair.of(resource, partner));
+        if (value != null) {
+          partners.add(new ScoredPartner<>(candidate, value));
+        }
+      }
+      if (order != null) {
+        partners.sort((a, b) -> order.compare(b.value, a.value));
+      }
+      int n = k > 0 ? Math.min(k, partners.size()) : partners.size();
+      for (int i = 0; i < n; i++) {
+        consumer.accept(key, partners.get(i).key, partners.get(i).value);
+      }
+    }
+  }
+
+  private static final class ScoredPartner<V> {
+
+    private final int key;
+    private final V value;
+
+    private ScoredPartner(int key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  /**
+   * A consumer of the pairs selected by {@link #forEachTopPair(int, int, Function, Comparator,
+   * PairConsumer)}.
+   *
+   * @param <V> the type of the values of the metric.
+   */
+  @FunctionalInterface
+  public interface PairConsumer<V> {
+
+    void accept(int resourceKey, int partnerKey, V value);
+  }
+
+}
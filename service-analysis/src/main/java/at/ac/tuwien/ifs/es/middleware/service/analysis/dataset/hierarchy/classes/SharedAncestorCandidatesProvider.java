@@ -0,0 +1,98 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes;
+
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisResultsActivatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class provides the {@link SharedAncestorCandidates} to the similarity metrics (e.g. LCS,
+ * LCAPR and Resnik). These services depend on each other, and hence they are computed in the same
+ * dependency chain of a run (see {@link AnalysisNamespaces}). The index is built only once per
+ * chain, and it is shared by all the services of this chain. It is dropped, as soon as new analysis
+ * results are activated. Outside of a run, the index is built for each request.
+ * <p/>
+ * Classes with more than {@code esm.analysis.sim.topk.class-size} members aren't considered for
+ * the candidates.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class SharedAncestorCandidatesProvider {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(SharedAncestorCandidatesProvider.class);
+
+  private final AllResourcesService allResourcesService;
+  private final ResourceClassService resourceClassService;
+  private final ClassHierarchyService classHierarchyService;
+  private final AnalysisNamespaces namespaces;
+
+  @Value("${esm.analysis.sim.topk.class-size:100000}")
+  private int maxClassSize;
+
+  private volatile ChainCandidates chainCandidates;
+
+  @Autowired
+  public SharedAncestorCandidatesProvider(AllResourcesService allResourcesService,
+      ResourceClassService resourceClassService, ClassHierarchyService classHierarchyService,
+      AnalysisNamespaces namespaces) {
+    this.allResourcesService = allResourcesService;
+    this.resourceClassService = resourceClassService;
+    this.classHierarchyService = classHierarchyService;
+    this.namespaces = namespaces;
+  }
+
+  /**
+   * Gets the {@link SharedAncestorCandidates} for the results of the prerequisites, which are read
+   * by the current thread.
+   *
+   * @return the {@link SharedAncestorCandidates} for the results of the prerequisites, which are
+   * read by the current thread.
+   */
+  public synchronized SharedAncestorCandidates getCandidates() {
+    Object chain = namespaces.getComputingChain();
+    if (chain == null) {
+      return build();
+    }
+    ChainCandidates cached = chainCandidates;
+    if (cached != null && cached.chain == chain) {
+      return cached.candidates;
+    }
+    chainCandidates = null;
+    SharedAncestorCandidates candidates = build();
+    chainCandidates = new ChainCandidates(chain, candidates);
+    return candidates;
+  }
+
+  private SharedAncestorCandidates build() {
+    logger.debug("Started to build the index of the shared ancestor classes.");
+    return SharedAncestorCandidates
+        .build(allResourcesService, resourceClassService, classHierarchyService, maxClassSize);
+  }
+
+  @EventListener
+  public void onAnalysisResultsActivated(AnalysisResultsActivatedEvent event) {
+    chainCandidates = null;
+  }
+
+  private static final class ChainCandidates {
+
+    private final Object chain;
+    private final SharedAncestorCandidates candidates;
+
+    private ChainCandidates(Object chain, SharedAncestorCandidates candidates) {
+      this.chain = chain;
+      this.candidates = candidates;
+    }
+  }
+
+}
@@ -7,28 +7,37 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidates;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidatesProvider;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.IntPairSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.PackedIntArraySerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.Table;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.mapdb.DB;
 import org.mapdb.HTreeMap;
 import org.mapdb.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 /**
- * This class implements {@link LowestCommonAncestorService}. It pre-computes the metric.
+ * This class implements {@link LowestCommonAncestorService}. It pre-computes the lowest common
+ * ancestors of each resource with its {@code esm.analysis.sim.topk} most similar partners, i.e. the
+ * candidates that share the most classes with the resource (see {@link SharedAncestorCandidates}).
+ * The lowest common ancestors of all the other pairs are computed on the fly.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -47,20 +56,32 @@ public class LCSWithClassHierarchyService implements LowestCommonAncestorService
   private final AllResourcesService allResourcesService;
   private final ResourceClassService resourceClassService;
   private final ClassHierarchyService classHierarchyService;
+  private final SharedAncestorCandidatesProvider candidatesProvider;
   private final DB mapDB;
 
-  private final HTreeMap<int[], int[]> lcsMap;
+  @Value("${esm.analysis.sim.topk:50}")
+  private int topK;
+  @Value("${esm.analysis.sim.topk.candidates:1000}")
+  private int maxCandidates;
+
+  private final Versioned<HTreeMap<int[], int[]>> lcsMap;
 
   @Autowired
   public LCSWithClassHierarchyService(
       AllResourcesService allResourcesService,
       ResourceClassService resourceClassService,
-      ClassHierarchyService classHierarchyService, DB mapDB) {
+      ClassHierarchyService classHierarchyService,
+      SharedAncestorCandidatesProvider candidatesProvider, DB mapDB,
+      AnalysisNamespaces namespaces) {
     this.allResourcesService = allResourcesService;
     this.resourceClassService = resourceClassService;
     this.classHierarchyService = classHierarchyService;
+    this.candidatesProvider = candidatesProvider;
     this.mapDB = mapDB;
-    this.lcsMap = mapDB.hashMap(LCS_UID, Serializer.INT_ARRAY, Serializer.INT_ARRAY).createOrOpen();
+    this.lcsMap = namespaces.versioned(LCS_UID,
+        name -> CompactMaps.openHashMap(mapDB, name, IntPairSerializer.INSTANCE,
+            PackedIntArraySerializer.INSTANCE, Serializer.INT_ARRAY, Serializer.INT_ARRAY),
+        map -> CompactMaps.clear(mapDB, map));
   }
 
   @Override
@@ -71,9 +92,9 @@ public class LCSWithClassHierarchyService implements LowestCommonAncestorService
       Optional<Integer> resourceBKeyOpt = allResourcesService
           .getResourceKey(resourcePair.getSecond());
       if (resourceBKeyOpt.isPresent()) {
-        Set<Resource> lowestCommonAncestors = new HashSet<>();
-        int[] lcaIds = lcsMap.get(new int[]{resourceAKeyOpt.get(), resourceBKeyOpt.get()});
+        int[] lcaIds = lcsMap.get().get(new int[]{resourceAKeyOpt.get(), resourceBKeyOpt.get()});
         if (lcaIds != null) {
+          Set<Resource> lowestCommonAncestors = new HashSet<>();
           for (int lcaId : lcaIds) {
             allResourcesService.getResourceIdFor(lcaId).ifPresent(iri -> {
               lowestCommonAncestors.add(new Resource(iri));
@@ -81,6 +102,7 @@ public class LCSWithClassHierarchyService implements LowestCommonAncestorService
           }
           return lowestCommonAncestors;
         }
+        return computeLowestCommonAncestor(resourcePair);
       }
     }
     return null;
@@ -122,45 +144,32 @@ public class LCSWithClassHierarchyService implements LowestCommonAncestorService
     }
   }
 
+  private Set<Resource> computeLowestCommonAncestor(ResourcePair resourcePair) {
+    Optional<Set<Resource>> classesAOpt = resourceClassService
+        .getClassesOf(resourcePair.getFirst());
+    Optional<Set<Resource>> classesBOpt = resourceClassService
+        .getClassesOf(resourcePair.getSecond());
+    if (classesAOpt.isPresent() && classesBOpt.isPresent()) {
+      return classHierarchyService.getLowestCommonAncestor(classesAOpt.get(), classesBOpt.get());
+    }
+    return new HashSet<>();
+  }
+
   @Override
   public void compute() {
-    int n = 0;
-    Map<int[], int[]> storageCache = new HashMap<>();
-    for (Resource resourceA : allResourcesService.getResourceList()) {
-      Optional<Integer> resourceKeyA = allResourcesService.getResourceKey(resourceA);
-      Optional<Set<Resource>> optClassesA = resourceClassService.getClassesOf(resourceA);
-      if (optClassesA.isPresent() && resourceKeyA.isPresent()) {
-        for (Resource resourceB : allResourcesService.getResourceList()) {
-          Optional<Set<Resource>> optClassesB = resourceClassService.getClassesOf(resourceB);
-          Optional<Integer> resourceKeyB = allResourcesService.getResourceKey(resourceB);
-          if (optClassesB.isPresent() && resourceKeyB.isPresent()) {
-            List<Integer> lowestCommonAncestor = classHierarchyService
-                .getLowestCommonAncestor(optClassesA.get(), optClassesB.get()).stream()
-                .map(allResourcesService::getResourceKey).filter(Optional::isPresent)
-                .map(Optional::get).collect(Collectors.toList());
-            int[] lcas = new int[lowestCommonAncestor.size()];
-            for (int i = 0; i < lowestCommonAncestor.size(); i++) {
-              lcas[i] = lowestCommonAncestor.get(i);
-            }
-            storageCache.put(new int[]{resourceKeyA.get(), resourceKeyB.get()}, lcas);
-          } else {
-            logger.warn("Classes or key cannot be fetched for resource {}.", resourceB);
-          }
-          n++;
-          if (n % 100000 == 0) {
-            logger.trace("Processed LCS for {} pairs.", n);
-            lcsMap.putAll(storageCache);
-            storageCache.clear();
-          }
-        }
-      } else {
-        logger.warn("Classes or key cannot be fetched for resource {}.", resourceA);
-      }
-    }
-    if (!storageCache.isEmpty()) {
-      lcsMap.putAll(storageCache);
-    }
-    mapDB.commit();
+    SharedAncestorCandidates candidates = candidatesProvider.getCandidates();
+    Map<Long, int[]> lcsPairMap = new HashMap<>();
+    candidates.forEachTopPair(topK, maxCandidates, pair -> {
+      int[] lcas = computeLowestCommonAncestor(pair).stream()
+          .map(allResourcesService::getResourceKey).filter(Optional::isPresent)
+          .mapToInt(Optional::get).toArray();
+      return lcas.length > 0 ? lcas : null;
+    }, null, (resourceKey, partnerKey, lcas) -> {
+      lcsPairMap.put(IntPairSerializer.pack(resourceKey, partnerKey), lcas);
+      lcsPairMap.put(IntPairSerializer.pack(partnerKey, resourceKey), lcas);
+    });
+    logger.info("Computed the lowest common ancestors of {} pairs.", lcsPairMap.size());
+    lcsMap.write(map -> CompactMaps.replacePairs(mapDB, map, lcsPairMap));
   }
 
 }
@@ -2,6 +2,7 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.AnalysisService;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,27 @@ public interface AllResourcesService extends AnalysisService {
    */
   List<Resource> getResourceList();
 
+  /**
+   * Gets an iterator over all {@link Resource}s in the knowledge graph. In contrast to {@link
+   * #getResourceList()}, implementations should stream the resources instead of collecting all of
+   * them first.
+   *
+   * @return an iterator over all {@link Resource}s in the knowledge graph.
+   */
+  default Iterator<Resource> getResourceIterator() {
+    return getResourceList().iterator();
+  }
+
+  /**
+   * Checks whether the given resource is known, i.e. it has been mapped to a key.
+   *
+   * @param resource that shall be checked. It must not be null.
+   * @return {@code true}, if the given resource is known, otherwise {@code false}.
+   */
+  default boolean isResourceKnown(Resource resource) {
+    return getResourceKey(resource).isPresent();
+  }
+
   /**
    * Gets the {@link Integer} key of the given resource, if it has been mapped correctly cleanSetup.
    * The long key is not going to change over time (is durable).
@@ -42,4 +64,23 @@ public interface AllResourcesService extends AnalysisService {
    */
   Optional<String> getResourceIdFor(Integer key);
 
+  /**
+   * Gets the largest key, which has been mapped to a resource. The keys of all the resources can
+   * be enumerated from zero to this key with {@link #getResourceIdFor(Integer)}, which might skip
+   * keys that aren't mapped.
+   *
+   * @return the largest key, which has been mapped to a resource, or {@code -1}, if there is none.
+   */
+  default int getMaxResourceKey() {
+    int maxKey = -1;
+    Iterator<Resource> resourceIterator = getResourceIterator();
+    while (resourceIterator.hasNext()) {
+      Optional<Integer> keyOptional = getResourceKey(resourceIterator.next());
+      if (keyOptional.isPresent()) {
+        maxKey = Math.max(maxKey, keyOptional.get());
+      }
+    }
+    return maxKey;
+  }
+
 }
@@ -6,29 +6,40 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.FileMapDB;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.ResourceDictionary;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import org.apache.commons.lang3.text.StrSubstitutor;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
-import org.apache.commons.rdf.api.RDFTerm;
 import org.mapdb.DB;
 import org.mapdb.HTreeMap;
 import org.mapdb.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
  * This class provide a concrete implmentation {@link AllResourcesService} that uses {@link
- * SPARQLService} for fetching all the resources and {@link FileMapDB}
- * to store all the resources for fast access.
+ * SPARQLService} for fetching all the resources and a {@link ResourceDictionary} to store all the
+ * resources for fast access. The dictionary is memory-mapped from the file {@code
+ * <esm.db.data.dir>/dictionary/resources.dict}, or kept in memory, if no data directory is
+ * specified.
+ * <p/>
+ * Resources, which have formerly been stored in maps of the {@link FileMapDB}, are migrated into
+ * the dictionary with their keys.
+ * <p/>
+ * The new resources of a computation are added with {@link ResourceDictionary#addAllNew(Iterator,
+ * int)}. At most {@code esm.analysis.resources.runSize} new IRIs are held on the heap, further
+ * ones are spilled to sorted runs on disk and merged into the dictionary. Hence, the peak heap of
+ * a computation is one run plus about 13 bytes per resource for the arrays of the dictionary.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -51,95 +62,116 @@ public class AllResourcesWithSPARQLService implements AllResourcesService {
       + "        [] ?p2 ?resource .\n"
       + "    } \n"
       + "    FILTER (isIRI(?resource)) .\n"
-      + "}\n"
-      + "OFFSET ${offset}\n"
-      + "LIMIT ${limit}";
+      + "}";
 
   private final SPARQLService sparqlService;
-  private final DB mapDB;
+  private final ResourceDictionary dictionary;
 
-  private final HTreeMap<String, Integer> resourceKeyMap;
-  private final HTreeMap<Integer, String> resourceIdMap;
+  @Value("${esm.analysis.resources.runSize:#{500000}}")
+  private int runSize;
 
   @Autowired
   public AllResourcesWithSPARQLService(
-      SPARQLService sparqlService, DB mapDB) {
+      SPARQLService sparqlService, DB mapDB,
+      @Value("${esm.db.data.dir:#{null}}") String dataDir) {
     this.sparqlService = sparqlService;
-    this.mapDB = mapDB;
-    this.resourceKeyMap = mapDB
-        .hashMap(AllResourcesWithSPARQLService.UID + ".id.key", Serializer.STRING,
-            Serializer.INTEGER)
-        .createOrOpen();
-    this.resourceIdMap = mapDB
-        .hashMap(AllResourcesWithSPARQLService.UID + ".key.id", Serializer.INTEGER,
-            Serializer.STRING).createOrOpen();
+    this.dictionary = new ResourceDictionary(
+        dataDir != null ? new File(dataDir, "dictionary/resources.dict") : null);
+    migrateFrom(mapDB);
+  }
 
+  private void migrateFrom(DB mapDB) {
+    String keyMapName = AllResourcesWithSPARQLService.UID + ".id.key";
+    String idMapName = AllResourcesWithSPARQLService.UID + ".key.id";
+    if (!mapDB.exists(keyMapName)) {
+      return;
+    }
+    HTreeMap<String, Integer> resourceKeyMap = mapDB
+        .hashMap(keyMapName, Serializer.STRING, Serializer.INTEGER).createOrOpen();
+    if (!resourceKeyMap.isEmpty()) {
+      if (dictionary.isEmpty()) {
+        logger.info("Migrates {} resources to the resource dictionary.", resourceKeyMap.size());
+        dictionary.addAll(resourceKeyMap);
+      }
+      resourceKeyMap.clear();
+      if (mapDB.exists(idMapName)) {
+        mapDB.hashMap(idMapName, Serializer.INTEGER, Serializer.STRING).createOrOpen().clear();
+      }
+      mapDB.commit();
+    }
   }
 
   @Override
   public List<Resource> getResourceList() {
-    List<Resource> resourceList = new LinkedList<>();
-    resourceKeyMap.keySet().forEach(id -> {
-      try {
-        resourceList.add(new Resource(id));
-      } catch (Exception ex) {
-        System.out.println(">" + ex.getMessage() + " :" + id);
-      }
-    });
+    List<Resource> resourceList = new ArrayList<>(dictionary.size());
+    getResourceIterator().forEachRemaining(resourceList::add);
     return resourceList;
-    //return resourceKeyMap.keySet().stream().map(Resource::new).collect(Collectors.toList());
+  }
+
+  @Override
+  public Iterator<Resource> getResourceIterator() {
+    Iterator<String> idIterator = dictionary.iterator();
+    return new Iterator<Resource>() {
+      @Override
+      public boolean hasNext() {
+        return idIterator.hasNext();
+      }
+
+      @Override
+      public Resource next() {
+        return new Resource(idIterator.next());
+      }
+    };
   }
 
   @Override
   public Optional<Integer> getResourceKey(Resource resource) {
     checkArgument(resource != null, "The given resource must not be null.");
-    Integer val = resourceKeyMap.get(resource.getId());
-    return val != null ? Optional.of(val) : Optional.empty();
+    int key = dictionary.getKey(resource.getId());
+    return key != ResourceDictionary.ABSENT ? Optional.of(key) : Optional.empty();
+  }
+
+  @Override
+  public boolean isResourceKnown(Resource resource) {
+    checkArgument(resource != null, "The given resource must not be null.");
+    return dictionary.getKey(resource.getId()) != ResourceDictionary.ABSENT;
   }
 
   @Override
   public Optional<String> getResourceIdFor(Integer key) {
     checkArgument(key != null, "The given resource key must not be null.");
-    String resourceId = resourceIdMap.get(key);
-    if (resourceId != null) {
-      return Optional.of(resourceId);
-    }
-    return Optional.empty();
+    return Optional.ofNullable(dictionary.getId(key));
+  }
+
+  @Override
+  public int getMaxResourceKey() {
+    return dictionary.isEmpty() ? -1 : dictionary.getMaxKey();
   }
 
   @Override
   public void compute() {
-    long offset = 0;
-    List<Map<String, RDFTerm>> results;
-    String resourceQuery = new StrSubstitutor(Collections.singletonMap("limit", LOAD_LIMIT))
-        .replace(ALL_RESOURCE_IRIS_QUERY);
-    int topId = resourceKeyMap.size();
-    do {
-      results = sparqlService.<SelectQueryResult>query(
-          new StrSubstitutor(Collections.singletonMap("offset", offset)).replace(resourceQuery),
-          true).value();
-      if (results != null) {
-        Map<String, Integer> resourceKeyIntermediateMap = new HashMap<>();
-        Map<Integer, String> resourceIdIntermediateMap = new HashMap<>();
-        for (Map<String, RDFTerm> row : results) {
+    AtomicLong loaded = new AtomicLong();
+    int added;
+    try (SelectQueryResultCursor cursor = sparqlService
+        .select(PreparedSPARQLQuery.of(ALL_RESOURCE_IRIS_QUERY).bind().build(), true)) {
+      added = dictionary.addAllNew(new Iterator<String>() {
+        @Override
+        public boolean hasNext() {
+          return cursor.hasNext();
+        }
+
+        @Override
+        public String next() {
           String resourceId = RDFTermJsonUtil
-              .stringValue((BlankNodeOrIRI) row.get("resource"));
-          if (!resourceKeyMap.containsKey(resourceId)) {
-            int key = ++topId;
-            resourceKeyIntermediateMap.put(resourceId, key);
-            resourceIdIntermediateMap.put(key, resourceId);
+              .stringValue((BlankNodeOrIRI) cursor.next().get("resource"));
+          if (loaded.incrementAndGet() % LOAD_LIMIT == 0) {
+            logger.debug("{} resources already loaded.", loaded.get());
           }
+          return resourceId;
         }
-        resourceKeyMap.putAll(resourceKeyIntermediateMap);
-        resourceIdMap.putAll(resourceIdIntermediateMap);
-        offset += results.size();
-        logger.debug("Loaded {} resources. {} resources already loaded.", results.size(), offset);
-      } else {
-        break;
-      }
-    } while (results.size() == LOAD_LIMIT);
-    mapDB.commit();
+      }, runSize);
+    }
+    logger.debug("Loaded {} resources in total, {} of them are new.", loaded.get(), added);
   }
 
-
 }
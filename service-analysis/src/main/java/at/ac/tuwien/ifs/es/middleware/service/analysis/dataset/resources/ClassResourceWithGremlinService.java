@@ -5,6 +5,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.GremlinService;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.AllClassesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyService;
@@ -48,23 +51,24 @@ public class ClassResourceWithGremlinService implements ClassResourceService {
   private final ClassHierarchyService classHierarchyService;
   private final DB mapDB;
 
-  private final HTreeMap<Integer, int[]> classResourceMap;
+  private final Versioned<HTreeMap<Integer, int[]>> classResourceMap;
 
   @Autowired
   public ClassResourceWithGremlinService(
       GremlinService gremlinService,
       AllResourcesService allResourcesService,
       AllClassesService allClassesService,
-      ClassHierarchyService classHierarchyService, DB mapDB) {
+      ClassHierarchyService classHierarchyService, DB mapDB, AnalysisNamespaces namespaces) {
     this.gremlinService = gremlinService;
     this.schema = gremlinService.getPropertyGraphSchema();
     this.allResourcesService = allResourcesService;
     this.allClassesService = allClassesService;
     this.classHierarchyService = classHierarchyService;
     this.mapDB = mapDB;
-    this.classResourceMap = mapDB
-        .hashMap("esm.service.analytics.dataset.class.resource.all.gremlin", Serializer.INTEGER,
-            Serializer.INT_ARRAY).createOrOpen();
+    this.classResourceMap = namespaces
+        .versioned("esm.service.analytics.dataset.class.resource.all.gremlin",
+            name -> mapDB.hashMap(name, Serializer.INTEGER, Serializer.INT_ARRAY).createOrOpen(),
+            map -> CompactMaps.clear(mapDB, map));
   }
 
   @Override
@@ -72,7 +76,7 @@ public class ClassResourceWithGremlinService implements ClassResourceService {
     checkArgument(classResource != null, "The class resource must not be null.");
     Optional<Integer> classResourceKeyOpt = allResourcesService.getResourceKey(classResource);
     if (classResourceKeyOpt.isPresent()) {
-      int[] resourceKeys = classResourceMap.get(classResourceKeyOpt.get());
+      int[] resourceKeys = classResourceMap.get().get(classResourceKeyOpt.get());
       if (resourceKeys != null) {
         return Optional.of(Stream.of(ArrayUtils.toObject(resourceKeys))
             .map(allResourcesService::getResourceIdFor)
@@ -85,12 +89,16 @@ public class ClassResourceWithGremlinService implements ClassResourceService {
 
   @Override
   public void compute() {
+    classResourceMap.write(this::compute);
+  }
+
+  private void compute(HTreeMap<Integer, int[]> classResourceMap) {
     for (Resource classResource : allClassesService.getAllClasses()) {
       Optional<Integer> classResourceKeyOpt = allResourcesService.getResourceKey(classResource);
       if (classResourceKeyOpt.isPresent()) {
         Set<Resource> classesToConsider = classHierarchyService.getSubClasses(classResource);
         classesToConsider.add(classResource);
-        gremlinService.lock();
+        gremlinService.readLock();
         try {
           Set<Resource> resourceSet = new HashSet<>();
           gremlinService.traversal().V().has(schema.iri().identifierAsString(),
@@ -103,9 +111,8 @@ public class ClassResourceWithGremlinService implements ClassResourceService {
           classResourceMap.put(classResourceKeyOpt.get(), ArrayUtils.toPrimitive(
               resourceSet.stream().map(allResourcesService::getResourceKey)
                   .filter(Optional::isPresent).map(Optional::get).toArray(Integer[]::new)));
-          gremlinService.commit();
         } finally {
-          gremlinService.unlock();
+          gremlinService.readUnlock();
         }
       }
     }
@@ -1,11 +1,13 @@
 package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.apache.commons.rdf.api.IRI;
@@ -38,19 +40,21 @@ public class PropertyCountWithSPARQLService implements PropertyCountService {
   private final SPARQLService sparqlService;
   private final DB mapDB;
 
-  private final HTreeMap<String, Long> propertyCountMap;
+  private final Versioned<HTreeMap<String, Long>> propertyCountMap;
 
   @Autowired
   public PropertyCountWithSPARQLService(
-      SPARQLService sparqlService, DB mapDB) {
+      SPARQLService sparqlService, DB mapDB, AnalysisNamespaces namespaces) {
     this.sparqlService = sparqlService;
     this.mapDB = mapDB;
-    this.propertyCountMap = mapDB.hashMap(UID, Serializer.STRING, Serializer.LONG).createOrOpen();
+    this.propertyCountMap = namespaces.versioned(UID,
+        name -> mapDB.hashMap(name, Serializer.STRING, Serializer.LONG).createOrOpen(),
+        map -> CompactMaps.clear(mapDB, map));
   }
 
   @Override
   public Optional<Long> getCountOf(Resource property) {
-    Long value = propertyCountMap.get(property.getId());
+    Long value = propertyCountMap.get().get(property.getId());
     if (value != null) {
       return Optional.of(value);
     }
@@ -59,19 +63,26 @@ public class PropertyCountWithSPARQLService implements PropertyCountService {
 
   @Override
   public void compute() {
+    propertyCountMap.write(this::compute);
+  }
+
+  private void compute(HTreeMap<String, Long> propertyCountMap) {
     Map<String, Long> propertyCountCache = new HashMap<>();
-    List<Map<String, RDFTerm>> result = sparqlService.<SelectQueryResult>query(QUERY, true).value();
     int n = 0;
-    for (Map<String, RDFTerm> row : result) {
-      propertyCountCache.put(new Resource((IRI) row.get("p")).getId(),
-          Long.parseLong(((Literal) row.get("cnt")).getLexicalForm()));
-      n++;
-      if (n % 1000 == 0) {
-        logger.trace("Processed {} property counts.", n);
-        propertyCountMap.putAll(propertyCountCache);
-        propertyCountCache.clear();
+    try (SelectQueryResultCursor cursor = sparqlService.select(QUERY, true)) {
+      while (cursor.hasNext()) {
+        Map<String, RDFTerm> row = cursor.next();
+        propertyCountCache.put(new Resource((IRI) row.get("p")).getId(),
+            Long.parseLong(((Literal) row.get("cnt")).getLexicalForm()));
+        n++;
+        if (n % 1000 == 0) {
+          logger.trace("Processed {} property counts.", n);
+          propertyCountMap.putAll(propertyCountCache);
+          propertyCountCache.clear();
+        }
       }
     }
+    propertyCountMap.putAll(propertyCountCache);
     mapDB.commit();
   }
 
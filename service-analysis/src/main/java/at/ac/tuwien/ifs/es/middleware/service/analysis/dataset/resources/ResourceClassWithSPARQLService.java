@@ -3,18 +3,22 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.RDFTerm;
@@ -51,7 +55,7 @@ public class ResourceClassWithSPARQLService implements ResourceClassService {
   private static final String ALL_INSTANCE_CLASSES_QUERY =
       "SELECT DISTINCT ?resource ?class WHERE {\n"
           + "    VALUES ?resource {\n"
-          + "        %s\n"
+          + "        ${resources}\n"
           + "    }\n"
           + "    ?resource a/rdfs:subClassOf* ?class .\n"
           + "    FILTER (isIRI(?class)) .\n"
@@ -61,16 +65,18 @@ public class ResourceClassWithSPARQLService implements ResourceClassService {
   private final AllResourcesService allResourcesService;
   private final DB mapDB;
 
-  private final HTreeMap<Integer, int[]> resourceClassDbMap;
+  private final Versioned<HTreeMap<Integer, int[]>> resourceClassDbMap;
 
   @Autowired
   public ResourceClassWithSPARQLService(
       SPARQLService sparqlService,
-      AllResourcesService allResourcesService, DB mapDB) {
+      AllResourcesService allResourcesService, DB mapDB, AnalysisNamespaces namespaces) {
     this.sparqlService = sparqlService;
     this.allResourcesService = allResourcesService;
     this.mapDB = mapDB;
-    this.resourceClassDbMap = mapDB.hashMap(UID, SERIALIZER.INTEGER, SERIALIZER.INT_ARRAY).createOrOpen();
+    this.resourceClassDbMap = namespaces.versioned(UID,
+        name -> mapDB.hashMap(name, SERIALIZER.INTEGER, SERIALIZER.INT_ARRAY).createOrOpen(),
+        map -> CompactMaps.clear(mapDB, map));
   }
 
   @Override
@@ -78,7 +84,7 @@ public class ResourceClassWithSPARQLService implements ResourceClassService {
     checkArgument(instance != null, "The given instance must not be null.");
     Optional<Integer> optResourceKey = allResourcesService.getResourceKey(instance);
     if (optResourceKey.isPresent()) {
-      int[] classKeySet = resourceClassDbMap.get(optResourceKey.get());
+      int[] classKeySet = resourceClassDbMap.get().get(optResourceKey.get());
       if (classKeySet != null) {
         Set<Resource> classResourceSet = new HashSet<>();
         for (int n = 0; n < classKeySet.length; n++) {
@@ -96,22 +102,27 @@ public class ResourceClassWithSPARQLService implements ResourceClassService {
 
   @Override
   public void compute() {
-    List<Resource> resourceList = allResourcesService.getResourceList();
-    int total = resourceList.size();
-    int page = (int) Math.ceil(((double) total) / LOAD_SIZE);
-    for (int n = 0; n < page; n++) {
-      int start = n * LOAD_SIZE;
-      int end = total > (start + LOAD_SIZE) ? (start + LOAD_SIZE) : total;
+    resourceClassDbMap.write(this::compute);
+  }
+
+  private void compute(HTreeMap<Integer, int[]> resourceClassDbMap) {
+    Iterator<Resource> resourceIterator = allResourcesService.getResourceIterator();
+    int loaded = 0;
+    while (resourceIterator.hasNext()) {
+      List<Resource> resourcePage = new ArrayList<>(LOAD_SIZE);
+      while (resourceIterator.hasNext() && resourcePage.size() < LOAD_SIZE) {
+        resourcePage.add(resourceIterator.next());
+      }
+      loaded += resourcePage.size();
       /* prepare map */
       Map<Resource, Set<Resource>> classResourceMap = new HashMap<>();
-      for (Resource resource : resourceList.subList(start, end)) {
+      for (Resource resource : resourcePage) {
         classResourceMap.put(resource, new HashSet<>());
       }
       /* fetch class relationships */
       List<Map<String, RDFTerm>> results = sparqlService.<SelectQueryResult>query(
-          String.format(ALL_INSTANCE_CLASSES_QUERY, resourceList.subList(start, end).stream().map(
-              RDFTermJsonUtil::stringForSPARQLResourceOf).collect(Collectors.joining("\n"))),
-          true)
+          PreparedSPARQLQuery.of(ALL_INSTANCE_CLASSES_QUERY).bind()
+              .resources("resources", resourcePage).build(), true)
           .value();
       for (Map<String, RDFTerm> row : results) {
         Resource resource = new Resource((BlankNodeOrIRI) row.get("resource"));
@@ -119,7 +130,7 @@ public class ResourceClassWithSPARQLService implements ResourceClassService {
       }
       logger.trace(
           "Loaded class relationships for {} resources. {} resources has already been loaded.",
-          (end - start), end);
+          resourcePage.size(), loaded);
       /* store the class relationships */
       Map<Integer, int[]> classDbIntermediateMap = new HashMap<>();
       for (Entry<Resource, Set<Resource>> entry : classResourceMap.entrySet()) {
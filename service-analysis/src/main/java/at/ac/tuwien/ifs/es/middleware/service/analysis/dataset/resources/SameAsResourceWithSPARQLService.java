@@ -4,12 +4,14 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import com.google.common.collect.Sets;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -49,9 +51,7 @@ public class SameAsResourceWithSPARQLService implements SameAsResourceService {
           + "SELECT ?s ?same WHERE { \n"
           + "\t?s owl:sameAs ?same .\n"
           + "    FILTER (?s != ?same) .\n"
-          + "}\n"
-          + "OFFSET %d\n"
-          + "LIMIT %d";
+          + "}";
 
 
   private final SPARQLService sparqlService;
@@ -59,42 +59,38 @@ public class SameAsResourceWithSPARQLService implements SameAsResourceService {
 
   private final DB mapDB;
 
-  private final HTreeMap<Integer, int[]> sameAsMap;
+  private final Versioned<HTreeMap<Integer, int[]>> sameAsMap;
 
   @Autowired
   public SameAsResourceWithSPARQLService(SPARQLService sparqlService,
-      AllResourcesService allResourcesService, DB mapDB) {
+      AllResourcesService allResourcesService, DB mapDB, AnalysisNamespaces namespaces) {
     this.sparqlService = sparqlService;
     this.allResourcesService = allResourcesService;
     this.mapDB = mapDB;
-    this.sameAsMap = mapDB
-        .hashMap("esm.service.analytics.dataset.sameas", Serializer.INTEGER, Serializer.INT_ARRAY)
-        .createOrOpen();
+    this.sameAsMap = namespaces.versioned("esm.service.analytics.dataset.sameas",
+        name -> mapDB.hashMap(name, Serializer.INTEGER, Serializer.INT_ARRAY).createOrOpen(),
+        map -> CompactMaps.clear(mapDB, map));
   }
 
   @Override
   public void compute() {
     logger.debug("Start to compute the 'owl:sameAs' mapping.");
     Map<Resource, Set<Resource>> sameAsIntermediateMap = new HashMap<>();
-    int offset = 0;
-    List<Map<String, RDFTerm>> results;
-    do {
-      results = sparqlService.<SelectQueryResult>query(
-          String.format(DUPLICATES_QUERY, offset, LOAD_LIMIT), true).value();
-      if (results != null) {
-        for (Map<String, RDFTerm> row : results) {
-          Resource keyResource = new Resource((BlankNodeOrIRI) row.get("s"));
-          sameAsIntermediateMap.compute(keyResource, (resource, sameAsSet) ->
-              sameAsSet != null ? sameAsSet : new HashSet<>())
-              .add(new Resource((BlankNodeOrIRI) row.get("same")));
+    long loaded = 0;
+    try (SelectQueryResultCursor cursor = sparqlService.select(DUPLICATES_QUERY, true)) {
+      while (cursor.hasNext()) {
+        Map<String, RDFTerm> row = cursor.next();
+        Resource keyResource = new Resource((BlankNodeOrIRI) row.get("s"));
+        sameAsIntermediateMap.compute(keyResource, (resource, sameAsSet) ->
+            sameAsSet != null ? sameAsSet : new HashSet<>())
+            .add(new Resource((BlankNodeOrIRI) row.get("same")));
+        loaded++;
+        if (loaded % LOAD_LIMIT == 0) {
+          logger.trace("{} sameAs relationships loaded so far.", loaded);
         }
-        offset += results.size();
-        logger.trace("Loaded {} sameAs relationships. {} sameAs relationships in total.",
-            offset + results.size());
-      } else {
-        break;
       }
-    } while (results.size() == LOAD_LIMIT);
+    }
+    logger.trace("Loaded {} sameAs relationships in total.", loaded);
     Map<Integer, int[]> sameAsMapIntermediate = new HashMap<>();
     sameAsIntermediateMap.forEach((key, value) -> {
       Optional<Integer> resourceKey = allResourcesService.getResourceKey(key);
@@ -107,8 +103,10 @@ public class SameAsResourceWithSPARQLService implements SameAsResourceService {
         }
       }
     });
-    sameAsMap.putAll(sameAsMapIntermediate);
-    mapDB.commit();
+    sameAsMap.write(map -> {
+      map.putAll(sameAsMapIntermediate);
+      mapDB.commit();
+    });
   }
 
   @Override
@@ -117,7 +115,7 @@ public class SameAsResourceWithSPARQLService implements SameAsResourceService {
         "The given resource for computing the same as resources must not be null.");
     Optional<Integer> resourceKey = allResourcesService.getResourceKey(resource);
     if (resourceKey.isPresent()) {
-      int[] resourceKeys = sameAsMap.get(resourceKey.get());
+      int[] resourceKeys = sameAsMap.get().get(resourceKey.get());
       if (resourceKeys != null && resourceKeys.length > 0) {
         Set<Resource> resourceSet = new HashSet<>();
         for (int n = 0; n < resourceKeys.length; n++) {
@@ -6,28 +6,44 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank.PageRankCentralityMetricService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidates;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidatesProvider;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.lca.LowestCommonAncestorService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalValueSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.IntPairSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.NormalizationStatistics;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import org.mapdb.Atomic;
 import org.mapdb.DB;
 import org.mapdb.HTreeMap;
 import org.mapdb.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 /**
  * This class is an implementation of {@link LCAPRMetricService} that pre-computes this metric using
- * the {@link LowestCommonAncestorService} and {@link PageRankCentralityMetricService}. The
+ * the {@link LowestCommonAncestorService} and {@link PageRankCentralityMetricService}. The values
+ * are pre-computed for each resource with its {@code esm.analysis.sim.topk} most similar partners
+ * among at most {@code esm.analysis.sim.topk.candidates} candidates (see {@link
+ * SharedAncestorCandidates}). The values of all the other pairs are computed on the fly, and they
+ * are normalized with the statistics (min, max, mean and standard deviation) of the pre-computed
+ * values.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -36,7 +52,8 @@ import org.springframework.stereotype.Service;
 @Primary
 @Service
 @RegisterForAnalyticalProcessing(name = LCAPRMetricImpl.UID, prerequisites = {
-    LowestCommonAncestorService.class, PageRankCentralityMetricService.class}, disabled=true)
+    LowestCommonAncestorService.class, PageRankCentralityMetricService.class,
+    ResourceClassService.class, ClassHierarchyService.class}, disabled = true)
 public class LCAPRMetricImpl implements LCAPRMetricService {
 
   private static final Logger logger = LoggerFactory.getLogger(LCAPRMetricImpl.class);
@@ -46,21 +63,36 @@ public class LCAPRMetricImpl implements LCAPRMetricService {
   private final AllResourcesService allResourcesService;
   private final LowestCommonAncestorService lowestCommonAncestorService;
   private final PageRankCentralityMetricService pageRankCentralityMetricService;
+  private final SharedAncestorCandidatesProvider candidatesProvider;
+
+  @Value("${esm.analysis.sim.topk:50}")
+  private int topK;
+  @Value("${esm.analysis.sim.topk.candidates:1000}")
+  private int maxCandidates;
 
   private final DB mapDB;
-  private final HTreeMap<int[], DecimalNormalizedAnalysisValue> lcaprValueMap;
+  private final Versioned<HTreeMap<int[], DecimalNormalizedAnalysisValue>> lcaprValueMap;
+  private final Versioned<Atomic.Var<Object>> statisticsVar;
 
   @Autowired
   public LCAPRMetricImpl(
       AllResourcesService allResourcesService,
       LowestCommonAncestorService lowestCommonAncestorService,
-      PageRankCentralityMetricService pageRankCentralityMetricService, DB mapDB) {
+      PageRankCentralityMetricService pageRankCentralityMetricService,
+      SharedAncestorCandidatesProvider candidatesProvider, DB mapDB,
+      AnalysisNamespaces namespaces) {
     this.allResourcesService = allResourcesService;
     this.lowestCommonAncestorService = lowestCommonAncestorService;
     this.pageRankCentralityMetricService = pageRankCentralityMetricService;
+    this.candidatesProvider = candidatesProvider;
     this.mapDB = mapDB;
-    this.lcaprValueMap = mapDB.hashMap(UID, Serializer.INT_ARRAY, Serializer.JAVA)
-        .createOrOpen();
+    this.lcaprValueMap = namespaces.versioned(UID,
+        name -> CompactMaps.openHashMap(mapDB, name, IntPairSerializer.INSTANCE,
+            DecimalValueSerializer.INSTANCE, Serializer.INT_ARRAY, Serializer.JAVA),
+        map -> CompactMaps.clear(mapDB, map));
+    this.statisticsVar = namespaces.versioned(UID + ".statistics",
+        name -> (Atomic.Var<Object>) mapDB.atomicVar(name, Serializer.JAVA).createOrOpen(),
+        var -> var.set(null));
   }
 
   @Override
@@ -71,47 +103,60 @@ public class LCAPRMetricImpl implements LCAPRMetricService {
       Optional<Integer> resourceBKeyOpt = allResourcesService
           .getResourceKey(resourcePair.getSecond());
       if (resourceBKeyOpt.isPresent()) {
-        return lcaprValueMap.get(new int[]{resourceAKeyOpt.get(), resourceBKeyOpt.get()});
+        DecimalNormalizedAnalysisValue value = lcaprValueMap.get()
+            .get(new int[]{resourceAKeyOpt.get(), resourceBKeyOpt.get()});
+        if (value != null) {
+          return value;
+        }
       }
     }
-    return new DecimalNormalizedAnalysisValue(BigDecimal.ZERO);
+    BigDecimal value = computeLCAPR(resourcePair);
+    return normalize(value != null ? value : BigDecimal.ZERO);
   }
 
-  @Override
-  public void compute() {
-    Normalizer<int[]> normalizer = new Normalizer<>();
-    for (Resource resourceA : allResourcesService.getResourceList()) {
-      Optional<Integer> resourceAKeyOpt = allResourcesService.getResourceKey(resourceA);
-      if (resourceAKeyOpt.isPresent()) {
-        int resourceAKey = resourceAKeyOpt.get();
-        for (Resource resourceB : allResourcesService.getResourceList()) {
-          Optional<Integer> resourceBKeyOpt = allResourcesService.getResourceKey(resourceB);
-          if (resourceBKeyOpt.isPresent()) {
-            int resourceBKey = resourceBKeyOpt.get();
-            Set<Resource> lcaClassResource = lowestCommonAncestorService
-                .getLowestCommonAncestor(ResourcePair.of(resourceA, resourceB));
-            if (!lcaClassResource.isEmpty()) {
-              BigDecimal totalSum = BigDecimal.valueOf(0);
-              for (Resource r : lcaClassResource) {
-                DecimalNormalizedAnalysisValue value = pageRankCentralityMetricService
-                    .getValueFor(r);
-                if (value != null) {
-                  BigDecimal decimalValue = value.getValue();
-                  if (decimalValue != null) {
-                    totalSum = totalSum.add(decimalValue);
-                  }
-                }
-              }
-              normalizer.register(new int[]{resourceAKey, resourceBKey},
-                  totalSum
-                      .divide(BigDecimal.valueOf(lcaClassResource.size()), MathContext.DECIMAL64));
-            }
-          }
+  /**
+   * Normalizes the given value computed on the fly with the statistics of the pre-computed values.
+   * The value is returned without normalization, if no value has been pre-computed.
+   */
+  private DecimalNormalizedAnalysisValue normalize(BigDecimal value) {
+    NormalizationStatistics statistics = (NormalizationStatistics) statisticsVar.get().get();
+    return statistics != null ? statistics.normalize(value)
+        : new DecimalNormalizedAnalysisValue(value);
+  }
+
+  /**
+   * Computes the average page rank of the lowest common ancestors of the given pair, or returns
+   * {@code null}, if the pair has no lowest common ancestor.
+   */
+  private BigDecimal computeLCAPR(ResourcePair pair) {
+    Set<Resource> lcaClassResource = lowestCommonAncestorService.getLowestCommonAncestor(pair);
+    if (lcaClassResource == null || lcaClassResource.isEmpty()) {
+      return null;
+    }
+    BigDecimal totalSum = BigDecimal.valueOf(0);
+    for (Resource r : lcaClassResource) {
+      DecimalNormalizedAnalysisValue value = pageRankCentralityMetricService.getValueFor(r);
+      if (value != null) {
+        BigDecimal decimalValue = value.getValue();
+        if (decimalValue != null) {
+          totalSum = totalSum.add(decimalValue);
         }
       }
     }
-    lcaprValueMap.putAll(normalizer.normalize());
-    mapDB.commit();
+    return totalSum.divide(BigDecimal.valueOf(lcaClassResource.size()), MathContext.DECIMAL64);
+  }
+
+  @Override
+  public void compute() {
+    SharedAncestorCandidates candidates = candidatesProvider.getCandidates();
+    Normalizer<Long> normalizer = new Normalizer<>();
+    candidates.forEachTopPair(topK, maxCandidates, this::computeLCAPR, BigDecimal::compareTo,
+        (resourceKey, partnerKey, value) -> {
+          normalizer.register(IntPairSerializer.pack(resourceKey, partnerKey), value);
+          normalizer.register(IntPairSerializer.pack(partnerKey, resourceKey), value);
+        });
+    lcaprValueMap.write(map -> CompactMaps.replacePairs(mapDB, map, normalizer.normalize()));
+    statisticsVar.write(var -> normalizer.getStatistics().ifPresent(var::set));
   }
 
 }
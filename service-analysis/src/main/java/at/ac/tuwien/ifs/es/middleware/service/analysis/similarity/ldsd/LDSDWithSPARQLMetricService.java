@@ -4,14 +4,22 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalValueSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.IntPairSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -50,7 +58,7 @@ public class LDSDWithSPARQLMetricService implements LinkedDataSemanticDistanceMe
   private static final String ALL_LDSD_QUERY =
       "SELECT ?a ?b ((1.0 /(1.0 + COALESCE(?cd,0.0) + COALESCE(?cio,0.0) + COALESCE(?cii,0.0))) as ?ldsd) WHERE {\n"
           + "  VALUES (?a ?b) {\n"
-          + "    %s \n"
+          + "    ${pairs}\n"
           + "  }\n"
           + "  OPTIONAL {\n"
           + "    SELECT ?a ?b (COUNT(DISTINCT ?p) as ?cd) WHERE {\n"
@@ -82,18 +90,19 @@ public class LDSDWithSPARQLMetricService implements LinkedDataSemanticDistanceMe
   private final AllResourcesService allResourcesService;
   private final DB mapDB;
 
-  private final HTreeMap<int[], DecimalNormalizedAnalysisValue> ldsdValueMap;
+  private final Versioned<HTreeMap<int[], DecimalNormalizedAnalysisValue>> ldsdValueMap;
 
   @Autowired
   public LDSDWithSPARQLMetricService(
       SPARQLService sparqlService,
-      AllResourcesService allResourcesService, DB mapDB) {
+      AllResourcesService allResourcesService, DB mapDB, AnalysisNamespaces namespaces) {
     this.sparqlService = sparqlService;
     this.allResourcesService = allResourcesService;
     this.mapDB = mapDB;
-    this.ldsdValueMap = mapDB.hashMap(UNWEIGHTED_LDSD_SIMILARITY_UID)
-        .keySerializer(Serializer.INT_ARRAY)
-        .valueSerializer(Serializer.JAVA).createOrOpen();
+    this.ldsdValueMap = namespaces.versioned(UNWEIGHTED_LDSD_SIMILARITY_UID,
+        name -> CompactMaps.openHashMap(mapDB, name, IntPairSerializer.INSTANCE,
+            DecimalValueSerializer.INSTANCE, Serializer.INT_ARRAY, Serializer.JAVA),
+        map -> CompactMaps.clear(mapDB, map));
   }
 
   @Override
@@ -105,23 +114,27 @@ public class LDSDWithSPARQLMetricService implements LinkedDataSemanticDistanceMe
       Optional<Integer> optionalResourceBKey = allResourcesService
           .getResourceKey(resourcePair.getSecond());
       if (optionalResourceBKey.isPresent()) {
-        return ldsdValueMap
+        return ldsdValueMap.get()
             .get(new int[]{optionalResourceAKey.get(), optionalResourceBKey.get()});
       }
     }
     return null;
   }
 
-  private void processSPARQLResult(Normalizer<int[]> normalizer,
-      List<Map<String, RDFTerm>> results) {
-    for (Map<String, RDFTerm> row : results) {
-      Optional<Integer> optResAKey = allResourcesService
-          .getResourceKey(new Resource((BlankNodeOrIRI) row.get("a")));
-      Optional<Integer> optResBKey = allResourcesService
-          .getResourceKey(new Resource((BlankNodeOrIRI) row.get("b")));
-      if (optResAKey.isPresent() && optResBKey.isPresent()) {
-        normalizer.register(new int[]{optResAKey.get(), optResBKey.get()},
-            Double.parseDouble(((Literal) row.get("ldsd")).getLexicalForm()));
+  private void processSPARQLResult(Normalizer<int[]> normalizer, List<List<RDFTerm>> pairs) {
+    BoundSPARQLQuery query = PreparedSPARQLQuery.of(ALL_LDSD_QUERY).bind().rows("pairs", pairs)
+        .build();
+    try (SelectQueryResultCursor cursor = sparqlService.select(query, true)) {
+      while (cursor.hasNext()) {
+        Map<String, RDFTerm> row = cursor.next();
+        Optional<Integer> optResAKey = allResourcesService
+            .getResourceKey(new Resource((BlankNodeOrIRI) row.get("a")));
+        Optional<Integer> optResBKey = allResourcesService
+            .getResourceKey(new Resource((BlankNodeOrIRI) row.get("b")));
+        if (optResAKey.isPresent() && optResBKey.isPresent()) {
+          normalizer.register(new int[]{optResAKey.get(), optResBKey.get()},
+              Double.parseDouble(((Literal) row.get("ldsd")).getLexicalForm()));
+        }
       }
     }
   }
@@ -130,7 +143,7 @@ public class LDSDWithSPARQLMetricService implements LinkedDataSemanticDistanceMe
   public void compute() {
     int n = 0, total = 0;
     Normalizer<int[]> normalizer = new Normalizer<>();
-    StringBuilder valueList = new StringBuilder();
+    List<List<RDFTerm>> pairs = new ArrayList<>(LOAD_SIZE);
     for (Resource resourceA : allResourcesService.getResourceList()) {
       for (Resource resourceB : allResourcesService.getResourceList()) {
         // store 0.0 for pairs with same resource.
@@ -143,27 +156,25 @@ public class LDSDWithSPARQLMetricService implements LinkedDataSemanticDistanceMe
             normalizer.register(new int[]{optResAKey.get(), optResBKey.get()}, 0.0);
           }
         } else { // store the result of pairs.
-          valueList.append(String
-              .format("(%s %s)\n", RDFTermJsonUtil.stringForSPARQLResourceOf(resourceA),
-                  RDFTermJsonUtil.stringForSPARQLResourceOf(resourceB)));
+          pairs.add(Arrays.asList(resourceA.value(), resourceB.value()));
           n++;
           if (n == LOAD_SIZE) {
-            processSPARQLResult(normalizer, sparqlService.<SelectQueryResult>query(
-                String.format(ALL_LDSD_QUERY, valueList.toString()), true).value());
+            processSPARQLResult(normalizer, pairs);
             total += n;
             n = 0;
-            valueList = new StringBuilder();
+            pairs = new ArrayList<>(LOAD_SIZE);
             logger.trace("Loaded {} LDSD pairs. In total {} have been loaded.", n, total);
           }
         }
       }
     }
     if (n > 0) {
-      processSPARQLResult(normalizer, sparqlService.<SelectQueryResult>query(
-          String.format(ALL_LDSD_QUERY, valueList.toString()), true).value());
+      processSPARQLResult(normalizer, pairs);
     }
-    ldsdValueMap.putAll(normalizer.normalize());
-    mapDB.commit();
+    ldsdValueMap.write(map -> {
+      map.putAll(normalizer.normalize());
+      mapDB.commit();
+    });
   }
 
 }
@@ -6,9 +6,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.IntPairSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
 import ch.obermuhlner.math.big.BigDecimalMath;
@@ -54,26 +58,47 @@ public class WeightedLDSDAlphaWithGremlinService implements
   private final TaskExecutor taskExecutor;
   private final DB mapDB;
 
-  private final HTreeMap<int[], Long> cdMap;
-  private final HTreeMap<int[], Long> ciiMap;
-  private final HTreeMap<int[], Long> cioMap;
+  private final Versioned<CountMaps> countMaps;
 
   @Autowired
   public WeightedLDSDAlphaWithGremlinService(SPARQLService sparqlService,
-      AllResourcesService allResourcesService, TaskExecutor taskExecutor, DB mapDB) {
+      AllResourcesService allResourcesService, TaskExecutor taskExecutor, DB mapDB,
+      AnalysisNamespaces namespaces) {
     this.sparqlService = sparqlService;
     this.allResourcesService = allResourcesService;
     this.taskExecutor = taskExecutor;
     this.mapDB = mapDB;
-    this.cdMap = mapDB.hashMap(WEIGHTED_LDSD_SIMILARITY_UID + ".cd")
-        .keySerializer(Serializer.INT_ARRAY)
-        .valueSerializer(Serializer.LONG).createOrOpen();
-    this.ciiMap = mapDB.hashMap(WEIGHTED_LDSD_SIMILARITY_UID + ".cii")
-        .keySerializer(Serializer.INT_ARRAY)
-        .valueSerializer(Serializer.LONG).createOrOpen();
-    this.cioMap = mapDB.hashMap(WEIGHTED_LDSD_SIMILARITY_UID + ".cio")
-        .keySerializer(Serializer.INT_ARRAY)
-        .valueSerializer(Serializer.LONG).createOrOpen();
+    this.countMaps = namespaces.versioned(WEIGHTED_LDSD_SIMILARITY_UID,
+        name -> new CountMaps(mapDB, name), maps -> maps.clear(mapDB));
+  }
+
+  /**
+   * The maps of the counts (Cd, Cii and Cio) of a resource and property, which are stored in the
+   * same namespace such that they are activated together.
+   */
+  private static final class CountMaps {
+
+    private final HTreeMap<int[], Long> cdMap;
+    private final HTreeMap<int[], Long> ciiMap;
+    private final HTreeMap<int[], Long> cioMap;
+
+    private CountMaps(DB mapDB, String name) {
+      this.cdMap = open(mapDB, name + ".cd");
+      this.ciiMap = open(mapDB, name + ".cii");
+      this.cioMap = open(mapDB, name + ".cio");
+    }
+
+    private static HTreeMap<int[], Long> open(DB mapDB, String name) {
+      return CompactMaps.openHashMap(mapDB, name, IntPairSerializer.INSTANCE,
+          Serializer.LONG_PACKED, Serializer.INT_ARRAY, Serializer.LONG);
+    }
+
+    private void clear(DB mapDB) {
+      cdMap.clear();
+      ciiMap.clear();
+      cioMap.clear();
+      mapDB.commit();
+    }
   }
 
   private class ComputeWithSPARQLCallback implements Callable<BigDecimal> {
@@ -95,18 +120,21 @@ public class WeightedLDSDAlphaWithGremlinService implements
     @Override
     public BigDecimal call() throws Exception {
       BigDecimal value = BigDecimal.ZERO;
-      for (Map<String, RDFTerm> row : sparqlService.<SelectQueryResult>query(query, true).value()) {
-        Resource property = new Resource((IRI) row.get("p"));
-        Optional<Integer> propertyKeyOpt = allResourcesService.getResourceKey(property);
-        if (propertyKeyOpt.isPresent()) {
-          Long total = map.get(new int[]{aKey, propertyKeyOpt.get()});
-          if (total != null) {
-            value = value.add(BigDecimal.ONE
-                .divide(BigDecimal.ONE
-                        .add(BigDecimalMath.log10(BigDecimal.valueOf(total), MathContext.DECIMAL64)),
-                    MathContext.DECIMAL64));
-          } else {
-            logger.trace("Resource: {}, Property: {} not in the key map.", aKey, property.getId());
+      try (SelectQueryResultCursor cursor = sparqlService.select(query, true)) {
+        while (cursor.hasNext()) {
+          Resource property = new Resource((IRI) cursor.next().get("p"));
+          Optional<Integer> propertyKeyOpt = allResourcesService.getResourceKey(property);
+          if (propertyKeyOpt.isPresent()) {
+            Long total = map.get(new int[]{aKey, propertyKeyOpt.get()});
+            if (total != null) {
+              value = value.add(BigDecimal.ONE
+                  .divide(BigDecimal.ONE.add(
+                      BigDecimalMath.log10(BigDecimal.valueOf(total), MathContext.DECIMAL64)),
+                      MathContext.DECIMAL64));
+            } else {
+              logger.trace("Resource: {}, Property: {} not in the key map.", aKey,
+                  property.getId());
+            }
           }
         }
       }
@@ -129,26 +157,27 @@ public class WeightedLDSDAlphaWithGremlinService implements
         String aSparql = RDFTermJsonUtil.stringForSPARQLResourceOf(resourcePair.getFirst().value());
         String bSparql = RDFTermJsonUtil
             .stringForSPARQLResourceOf(resourcePair.getSecond().value());
+        CountMaps maps = countMaps.get();
         CompletionService<BigDecimal> completionService = new ExecutorCompletionService<>(
             taskExecutor);
         // cd(l_i, a, b)
         completionService.submit(new ComputeWithSPARQLCallback(String.format("select ?p where { \n"
             + "   %s ?p %s .\n"
-            + "}", aSparql, bSparql), cdMap, aKey));
+            + "}", aSparql, bSparql), maps.cdMap, aKey));
         // cd(l_i, b, a)
         completionService.submit(new ComputeWithSPARQLCallback(String.format("select ?p where { \n"
             + "   %s ?p %s .\n"
-            + "}", bSparql, aSparql), cdMap, aKey));
+            + "}", bSparql, aSparql), maps.cdMap, aKey));
         // cii(l_i. a, b)
         completionService.submit(new ComputeWithSPARQLCallback(String.format("SELECT ?p WHERE { \n"
             + "  ?rn ?p %s .\n"
             + "  ?rn ?p %s .\n"
-            + "}", aSparql, bSparql), ciiMap, aKey));
+            + "}", aSparql, bSparql), maps.ciiMap, aKey));
         // cio(l_i. a, b)
         completionService.submit(new ComputeWithSPARQLCallback(String.format("SELECT ?p WHERE { \n"
             + "  %s ?p ?rn .\n"
             + "  %s ?p ?rn .\n"
-            + "}", aSparql, bSparql), cioMap, aKey));
+            + "}", aSparql, bSparql), maps.cioMap, aKey));
         // value
         BigDecimal sum = BigDecimal.ONE;
         for (int i = 0; i < 4; i++) {
@@ -187,21 +216,24 @@ public class WeightedLDSDAlphaWithGremlinService implements
       logger.debug("Compute the {} map for LDSD.", name);
       Map<int[], Long> storageCache = new HashMap<>();
       int n = 0;
-      for (Map<String, RDFTerm> row : sparqlService.<SelectQueryResult>query(query, true).value()) {
-        Resource resource = new Resource((BlankNodeOrIRI) row.get("s"));
-        Optional<Integer> resourceKeyOptional = allResourcesService.getResourceKey(resource);
-        if (resourceKeyOptional.isPresent()) {
-          Resource property = new Resource((IRI) row.get("p"));
-          Optional<Integer> propertyKeyOptional = allResourcesService.getResourceKey(property);
-          if (propertyKeyOptional.isPresent()) {
-            storageCache
-                .put(new int[]{resourceKeyOptional.get(), propertyKeyOptional.get()},
-                    Long.parseLong(((Literal) row.get("cnt")).getLexicalForm()));
-            n++;
-            if (n % 10000 == 0) {
-              logger.trace("Processed {} {} entries for LDSD.", n, name);
-              map.putAll(storageCache);
-              storageCache.clear();
+      try (SelectQueryResultCursor cursor = sparqlService.select(query, true)) {
+        while (cursor.hasNext()) {
+          Map<String, RDFTerm> row = cursor.next();
+          Resource resource = new Resource((BlankNodeOrIRI) row.get("s"));
+          Optional<Integer> resourceKeyOptional = allResourcesService.getResourceKey(resource);
+          if (resourceKeyOptional.isPresent()) {
+            Resource property = new Resource((IRI) row.get("p"));
+            Optional<Integer> propertyKeyOptional = allResourcesService.getResourceKey(property);
+            if (propertyKeyOptional.isPresent()) {
+              storageCache
+                  .put(new int[]{resourceKeyOptional.get(), propertyKeyOptional.get()},
+                      Long.parseLong(((Literal) row.get("cnt")).getLexicalForm()));
+              n++;
+              if (n % 10000 == 0) {
+                logger.trace("Processed {} {} entries for LDSD.", n, name);
+                map.putAll(storageCache);
+                storageCache.clear();
+              }
             }
           }
         }
@@ -217,13 +249,17 @@ public class WeightedLDSDAlphaWithGremlinService implements
 
   @Override
   public void compute() {
+    countMaps.write(this::compute);
+  }
+
+  private void compute(CountMaps maps) {
     CompletionService<Void> completionService = new ExecutorCompletionService<>(taskExecutor);
     // computing Cd(l_i, r_a), i.e. the total number of outgoing relationships given a resource.
     completionService
         .submit(new ProcessWithSPARQLCallback("Cd",
             "SELECT ?s ?p (count(*) as ?cnt) WHERE { \n"
                 + "    ?s ?p ?o .\n"
-                + "} GROUP BY ?s ?p", cdMap));
+                + "} GROUP BY ?s ?p", maps.cdMap));
     // computing Cii(l_i, r_a)
     completionService
         .submit(new ProcessWithSPARQLCallback("Cii",
@@ -231,20 +267,22 @@ public class WeightedLDSDAlphaWithGremlinService implements
                 + "    ?rn ?p ?s .\n"
                 + "    ?rn ?p ?o .\n"
                 + "    FILTER(isIRI(?s) && isIRI(?o)) ."
-                + "} GROUP BY ?s ?p", ciiMap));
+                + "} GROUP BY ?s ?p", maps.ciiMap));
     // computing Cio(l_i, r_a)
     completionService
         .submit(new ProcessWithSPARQLCallback("Cio",
             "SELECT ?s ?p (count(*) as ?cnt) WHERE { \n"
                 + "    ?s ?p ?rn .\n"
                 + "    ?o ?p ?rn .\n"
-                + "} GROUP BY ?s ?p", cioMap));
+                + "} GROUP BY ?s ?p", maps.cioMap));
     // wait for tasks to finish
     for (int i = 0; i < 3; i++) {
       try {
-        completionService.take();
+        completionService.take().get();
       } catch (InterruptedException e) {
         e.printStackTrace();
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Failed to compute the counts for LDSD.", e.getCause());
       }
     }
   }
@@ -10,8 +10,14 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.gremlin.util.schema.PGS;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.LongColumn;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
@@ -29,7 +35,8 @@ import org.springframework.stereotype.Service;
 
 /**
  * This class is an implementation get {@link PeerPressureClusteringMetricService} that uses the
- * {@link GremlinService}.
+ * {@link GremlinService}. The clusters are numbered densely, and the cluster number of each
+ * resource is stored in a {@link LongColumn} of the {@link MetricColumnStore}.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -52,38 +59,80 @@ public class PeerPressureClusteringMetricWithGremlinService implements
   private final PGS schema;
   private final DB mapDB;
 
-  private final HTreeMap<Integer, Object> peerClusterMap;
+  private final Versioned<LongColumn> peerClusterColumn;
 
   @Autowired
   public PeerPressureClusteringMetricWithGremlinService(
       GremlinService gremlinService,
-      AllResourcesService allResourcesService, DB mapDB) {
+      AllResourcesService allResourcesService, DB mapDB, MetricColumnStore metricColumnStore,
+      AnalysisNamespaces namespaces) {
     this.gremlinService = gremlinService;
     this.allResourcesService = allResourcesService;
     this.schema = gremlinService.getPropertyGraphSchema();
     this.mapDB = mapDB;
-    this.peerClusterMap = mapDB.hashMap(PEER_PRESSURE_UID, Serializer.INTEGER, Serializer.JAVA)
-        .createOrOpen();
+    this.peerClusterColumn = namespaces.versioned(PEER_PRESSURE_UID,
+        metricColumnStore::getLongColumn);
+    migrateClusterMap();
+  }
+
+  /**
+   * Migrates the clusters from the map, in which they have been stored formerly, into the column,
+   * if the column is still empty.
+   */
+  private void migrateClusterMap() {
+    if (!mapDB.exists(PEER_PRESSURE_UID)) {
+      return;
+    }
+    HTreeMap<Integer, Object> peerClusterMap = mapDB
+        .hashMap(PEER_PRESSURE_UID, Serializer.INTEGER, Serializer.JAVA).open();
+    if (!peerClusterMap.isEmpty()) {
+      if (peerClusterColumn.get().isEmpty()) {
+        logger.info("Migrates {} peer pressure clusters to the column of '{}'.",
+            peerClusterMap.size(), PEER_PRESSURE_UID);
+        writeClusters(peerClusterMap);
+      }
+      peerClusterMap.clear();
+      mapDB.commit();
+    }
+  }
+
+  /**
+   * Writes the given clusters of the resources with dense cluster numbers into the column.
+   */
+  private void writeClusters(Map<Integer, Object> clusterMap) {
+    long[] clusterNumbers = LongColumn.emptyValues(
+        clusterMap.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1);
+    Map<Object, Long> clusterNumberMap = new HashMap<>();
+    for (Map.Entry<Integer, Object> entry : clusterMap.entrySet()) {
+      Long clusterNumber = clusterNumberMap.get(entry.getValue());
+      if (clusterNumber == null) {
+        clusterNumber = (long) clusterNumberMap.size();
+        clusterNumberMap.put(entry.getValue(), clusterNumber);
+      }
+      clusterNumbers[entry.getKey()] = clusterNumber;
+    }
+    peerClusterColumn.write(column -> column.write(clusterNumbers));
   }
 
   @Override
   public DecimalNormalizedAnalysisValue isSharingSameCluster(ResourcePair pair) {
     checkArgument(pair != null, "The given resource pair must not be null.");
-    Object clusterA = null, clusterB = null;
+    LongColumn column = peerClusterColumn.get();
+    long clusterA = LongColumn.ABSENT, clusterB = LongColumn.ABSENT;
     /*resource a */
     Optional<Integer> optResourcePairAKey = allResourcesService.getResourceKey(pair.getFirst());
     if (optResourcePairAKey.isPresent()) {
-      clusterA = peerClusterMap.get(optResourcePairAKey.get());
+      clusterA = column.get(optResourcePairAKey.get());
     }
     /* resource b */
     Optional<Integer> optResourcePairBKey = allResourcesService.getResourceKey(pair.getSecond());
     if (optResourcePairBKey.isPresent()) {
-      clusterB = peerClusterMap.get(optResourcePairBKey.get());
+      clusterB = column.get(optResourcePairBKey.get());
     }
-    if (clusterA == null || clusterB == null) {
+    if (clusterA == LongColumn.ABSENT || clusterB == LongColumn.ABSENT) {
       return null;
     }
-    BigDecimal val = clusterA.equals(clusterB) ? BigDecimal.ONE : BigDecimal.ZERO;
+    BigDecimal val = clusterA == clusterB ? BigDecimal.ONE : BigDecimal.ZERO;
     return new DecimalNormalizedAnalysisValue(val, val, val);
   }
 
@@ -91,7 +140,8 @@ public class PeerPressureClusteringMetricWithGremlinService implements
   public void compute() {
     Instant issueTimestamp = Instant.now();
     logger.info("Starting to computes peer pressure clustering metric.");
-    gremlinService.lock();
+    Map<Integer, Object> clusterMap = new HashMap<>();
+    gremlinService.readLock();
     try {
       gremlinService.traversal().withComputer().V()
           .peerPressure()
@@ -101,17 +151,13 @@ public class PeerPressureClusteringMetricWithGremlinService implements
         Optional<Integer> optResourceKey = allResourcesService
             .getResourceKey(new Resource((String) iri));
         if (optResourceKey.isPresent()) {
-          peerClusterMap.put(optResourceKey.get(), value);
+          clusterMap.put(optResourceKey.get(), value);
         }
       });
-      mapDB.commit();
-      gremlinService.commit();
-    } catch (Exception e) {
-      gremlinService.rollback();
-      throw e;
     } finally {
-      gremlinService.unlock();
+      gremlinService.readUnlock();
     }
+    writeClusters(clusterMap);
     logger.info("Peer pressure clustering issued on {} computed on {}.", issueTimestamp,
         Instant.now());
   }
@@ -7,28 +7,40 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.RegisterForAnalyticalProcessing;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.ClassEntropyService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidates;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidatesProvider;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.lca.LowestCommonAncestorService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.CompactMaps;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.DecimalValueSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.IntPairSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.Versioned;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.NormalizationStatistics;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.BinaryOperator;
+import org.mapdb.Atomic;
 import org.mapdb.DB;
 import org.mapdb.HTreeMap;
 import org.mapdb.Serializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.context.annotation.Primary;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 /**
- * This is an implementation get {@link ResnikSimilarityMetricService} which tries to pre-compute
- * the values for all resources.
+ * This is an implementation get {@link ResnikSimilarityMetricService} which pre-computes the values
+ * of each resource with its {@code esm.analysis.sim.topk} most similar partners. The partners are
+ * chosen among at most {@code esm.analysis.sim.topk.candidates} candidates that share classes with
+ * the resource (see {@link SharedAncestorCandidates}). The values of all the other pairs are
+ * computed on the fly, and they are normalized with the statistics (min, max, mean and standard
+ * deviation) of the pre-computed values.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -37,7 +49,8 @@ import org.springframework.stereotype.Service;
 @Service
 @RegisterForAnalyticalProcessing(name = ResnikSimilarityMetricServiceImpl.UID,
     prerequisites = {ClassEntropyService.class, LowestCommonAncestorService.class,
-        AllResourcesService.class}, disabled=true)
+        AllResourcesService.class, ResourceClassService.class, ClassHierarchyService.class},
+    disabled = true)
 public class ResnikSimilarityMetricServiceImpl implements ResnikSimilarityMetricService {
 
   private static final Logger logger = LoggerFactory
@@ -48,21 +61,36 @@ public class ResnikSimilarityMetricServiceImpl implements ResnikSimilarityMetric
   private final ClassEntropyService classEntropyService;
   private final LowestCommonAncestorService leastCommonSubSumersService;
   private final AllResourcesService allResourcesService;
+  private final SharedAncestorCandidatesProvider candidatesProvider;
   private final DB mapDB;
 
-  private final HTreeMap<int[], DecimalNormalizedAnalysisValue> resnikValueMap;
+  @Value("${esm.analysis.sim.topk:50}")
+  private int topK;
+  @Value("${esm.analysis.sim.topk.candidates:1000}")
+  private int maxCandidates;
+
+  private final Versioned<HTreeMap<int[], DecimalNormalizedAnalysisValue>> resnikValueMap;
+  private final Versioned<Atomic.Var<Object>> statisticsVar;
 
   @Autowired
   public ResnikSimilarityMetricServiceImpl(
       ClassEntropyService classEntropyService,
       LowestCommonAncestorService leastCommonSubSumersService,
-      AllResourcesService allResourcesService, DB mapDB) {
+      AllResourcesService allResourcesService,
+      SharedAncestorCandidatesProvider candidatesProvider, DB mapDB,
+      AnalysisNamespaces namespaces) {
     this.classEntropyService = classEntropyService;
     this.leastCommonSubSumersService = leastCommonSubSumersService;
     this.allResourcesService = allResourcesService;
+    this.candidatesProvider = candidatesProvider;
     this.mapDB = mapDB;
-    this.resnikValueMap = mapDB.hashMap(UID, Serializer.INT_ARRAY, Serializer.JAVA)
-        .createOrOpen();
+    this.resnikValueMap = namespaces.versioned(UID,
+        name -> CompactMaps.openHashMap(mapDB, name, IntPairSerializer.INSTANCE,
+            DecimalValueSerializer.INSTANCE, Serializer.INT_ARRAY, Serializer.JAVA),
+        map -> CompactMaps.clear(mapDB, map));
+    this.statisticsVar = namespaces.versioned(UID + ".statistics",
+        name -> (Atomic.Var<Object>) mapDB.atomicVar(name, Serializer.JAVA).createOrOpen(),
+        var -> var.set(null));
   }
 
   @Override
@@ -74,48 +102,51 @@ public class ResnikSimilarityMetricServiceImpl implements ResnikSimilarityMetric
       Optional<Integer> optionalResourceBKey = allResourcesService
           .getResourceKey(resourcePair.getSecond());
       if (optionalResourceBKey.isPresent()) {
-        DecimalNormalizedAnalysisValue value = resnikValueMap
+        DecimalNormalizedAnalysisValue value = resnikValueMap.get()
             .get(new int[]{optionalResourceAKey.get(), optionalResourceBKey.get()});
         if (value != null) {
           return value;
         }
       }
     }
-    return new DecimalNormalizedAnalysisValue(BigDecimal.ZERO);
+    return normalize(computeIC(resourcePair));
+  }
+
+  /**
+   * Normalizes the given value computed on the fly with the statistics of the pre-computed values.
+   * The value is returned without normalization, if no value has been pre-computed.
+   */
+  private DecimalNormalizedAnalysisValue normalize(BigDecimal value) {
+    NormalizationStatistics statistics = (NormalizationStatistics) statisticsVar.get().get();
+    return statistics != null ? statistics.normalize(value)
+        : new DecimalNormalizedAnalysisValue(value);
   }
 
-  private Double computeIC(ResourcePair pair) {
+  private BigDecimal computeIC(ResourcePair pair) {
     Set<Resource> classes = leastCommonSubSumersService.getLowestCommonAncestor(pair);
+    if (classes == null) {
+      return BigDecimal.ZERO;
+    }
     return classes.stream().map(classEntropyService::getEntropyForClass)
-        .map(DecimalNormalizedAnalysisValue::getValue)
-        .reduce(BigDecimal.ZERO, BinaryOperator.maxBy(BigDecimal::compareTo)).doubleValue();
+        .filter(Objects::nonNull).map(DecimalNormalizedAnalysisValue::getValue)
+        .max(BigDecimal::compareTo).orElse(BigDecimal.ZERO);
   }
 
   @Override
   public void compute() {
     logger.info("Started to compute the Resnik similarity metric.");
-    /* compute Resnik metric for resource pairs */
-    Normalizer<int[]> normalizer = new Normalizer<>();
-    for (Resource resourceA : allResourcesService.getResourceList()) {
-      Optional<Integer> optionalResourceAKey = allResourcesService.getResourceKey(resourceA);
-      if (optionalResourceAKey.isPresent()) {
-        int resourceAKey = optionalResourceAKey.get();
-        for (Resource resourceB : allResourcesService.getResourceList()) {
-          Optional<Integer> optionalResourceBKey = allResourcesService.getResourceKey(resourceB);
-          if (optionalResourceBKey.isPresent()) {
-            int resourceBKey = optionalResourceBKey.get();
-            ResourcePair pair = ResourcePair.of(resourceA, resourceB);
-            normalizer.register(new int[]{resourceAKey, resourceBKey}, computeIC(pair));
-          } else {
-            logger.warn("No mapped key can be found for {}.", resourceA);
-          }
-        }
-      } else {
-        logger.warn("No mapped key can be found for {}.", resourceA);
-      }
-    }
-    resnikValueMap.putAll(normalizer.normalize());
-    mapDB.commit();
+    SharedAncestorCandidates candidates = candidatesProvider.getCandidates();
+    /* compute Resnik metric for the resources and their most similar partners */
+    Normalizer<Long> normalizer = new Normalizer<>();
+    candidates.forEachTopPair(topK, maxCandidates, pair -> {
+      BigDecimal value = computeIC(pair);
+      return value.signum() != 0 ? value : null;
+    }, BigDecimal::compareTo, (resourceKey, partnerKey, value) -> {
+      normalizer.register(IntPairSerializer.pack(resourceKey, partnerKey), value);
+      normalizer.register(IntPairSerializer.pack(partnerKey, resourceKey), value);
+    });
+    resnikValueMap.write(map -> CompactMaps.replacePairs(mapDB, map, normalizer.normalize()));
+    statisticsVar.write(var -> normalizer.getStatistics().ifPresent(var::set));
     logger.info("Resnik similarity measurement has successfully been computed.");
   }
 
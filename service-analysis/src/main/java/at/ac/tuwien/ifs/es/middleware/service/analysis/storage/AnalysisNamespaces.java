@@ -0,0 +1,298 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import org.mapdb.DB;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class manages the namespaces, in which the analysis services store their results. Each
+ * namespace has two slots (blue and green). The active slot is read, while an analysis service
+ * writes its new results into the other slot (see {@link Versioned#write(Consumer)}). The former
+ * results are kept in the inactive slot, until it is written the next time.
+ * <p/>
+ * The analysis services of a run are grouped into dependency chains (see {@link
+ * #beginRun(Collection)}). The new results of a chain are pending, until all the services of the
+ * chain have been computed successfully. Then the active slots of all the rewritten namespaces of
+ * the chain are flipped at once. Hence, readers never block and never read the results of a
+ * partially computed dependency chain, and a failed computation leaves the active results
+ * untouched. Only the threads, which compute the services of the chain, read the pending slots
+ * such that dependent services see the new results of their prerequisites.
+ * <p/>
+ * The services, which have been computed, but whose chain hasn't been activated, are persisted.
+ * They are returned by {@link #abandonRun()}, when the run is superseded or after a restart, such
+ * that they can be computed again.
+ * <p/>
+ * Results written outside of a run (e.g. if a service is computed directly) are activated, as soon
+ * as they have been written. An {@link AnalysisResultsActivatedEvent} is published after each
+ * activation, such that results derived from the former analysis results can be invalidated.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class AnalysisNamespaces {
+
+  private static final Logger logger = LoggerFactory.getLogger(AnalysisNamespaces.class);
+
+  static final int BLUE = 0;
+  static final int GREEN = 1;
+
+  private static final String ACTIVE_SLOTS_MAP_NAME = "esm.analysis.namespaces.active";
+  private static final String UNPUBLISHED_SET_NAME = "esm.analysis.namespaces.unpublished";
+  private static final String GREEN_SUFFIX = "@green";
+
+  private final DB mapDB;
+  private final ApplicationEventPublisher eventPublisher;
+  private final HTreeMap<String, Integer> activeSlotMap;
+  private final Set<String> unpublishedServiceNames;
+  private final Map<String, Object> writeLockMap = new ConcurrentHashMap<>();
+  private final ThreadLocal<Chain> computingChain = new ThreadLocal<>();
+
+  private volatile Map<String, Integer> activeSlots;
+  private Map<String, Chain> chainMap = new HashMap<>();
+
+  public AnalysisNamespaces(DB mapDB) {
+    this(mapDB, null);
+  }
+
+  @Autowired
+  public AnalysisNamespaces(DB mapDB, ApplicationEventPublisher eventPublisher) {
+    this.mapDB = mapDB;
+    this.eventPublisher = eventPublisher;
+    this.activeSlotMap = mapDB
+        .hashMap(ACTIVE_SLOTS_MAP_NAME, Serializer.STRING, Serializer.INTEGER).createOrOpen();
+    this.unpublishedServiceNames = mapDB.hashSet(UNPUBLISHED_SET_NAME, Serializer.STRING)
+        .createOrOpen();
+    this.activeSlots = Collections.unmodifiableMap(new HashMap<>(activeSlotMap));
+  }
+
+  /**
+   * Gets the name of the given slot of the namespace with the given name. The blue slot is stored
+   * under the plain name, such that results stored before the introduction of slots are still
+   * found.
+   *
+   * @param name of the namespace.
+   * @param slot of the namespace, either {@link #BLUE} or {@link #GREEN}.
+   * @return the name of the given slot of the namespace.
+   */
+  public static String slotName(String name, int slot) {
+    return slot == BLUE ? name : name + GREEN_SUFFIX;
+  }
+
+  /**
+   * Gets a {@link Versioned} store in the namespace with the given name, whose content is replaced
+   * as a whole at each write (e.g. a metric column).
+   *
+   * @param name   of the namespace. It must not be null.
+   * @param opener that opens the store with the given slot name. It must not be null.
+   * @param <T>    the type of the store.
+   * @return a {@link Versioned} store in the namespace with the given name.
+   */
+  public <T> Versioned<T> versioned(String name, Function<String, T> opener) {
+    return versioned(name, opener, store -> {
+    });
+  }
+
+  /**
+   * Gets a {@link Versioned} store in the namespace with the given name.
+   *
+   * @param name    of the namespace. It must not be null.
+   * @param opener  that opens the store with the given slot name. It must not be null.
+   * @param clearer that clears the given store, before new results are written into it. It must
+   *                not be null.
+   * @param <T>     the type of the store.
+   * @return a {@link Versioned} store in the namespace with the given name.
+   */
+  public <T> Versioned<T> versioned(String name, Function<String, T> opener,
+      Consumer<T> clearer) {
+    checkArgument(name != null, "The name of the namespace must not be null.");
+    checkArgument(opener != null, "The opener of the store must not be null.");
+    checkArgument(clearer != null, "The clearer of the store must not be null.");
+    return new Versioned<>(this, name, opener, clearer);
+  }
+
+  /**
+   * Gets the slot of the namespace with the given name, which shall be read by the current thread.
+   * It is the pending slot, if the current thread computes a service of the chain, which has
+   * written this slot. Otherwise, it is the active slot.
+   */
+  int resolve(String name) {
+    Chain chain = computingChain.get();
+    if (chain != null) {
+      Integer pendingSlot = chain.pendingSlots.get(name);
+      if (pendingSlot != null) {
+        return pendingSlot;
+      }
+    }
+    return activeSlots.getOrDefault(name, BLUE);
+  }
+
+  /**
+   * Gets the dependency chain of the current run, whose service is computed by the current thread.
+   * The returned chain is only meant to be compared by identity, e.g. to share intermediate results
+   * among the services of a chain, which all read the same pending slots.
+   *
+   * @return the dependency chain, whose service is computed by the current thread, or {@code null},
+   * if the current thread doesn't compute a service of the current run.
+   */
+  public Object getComputingChain() {
+    return computingChain.get();
+  }
+
+  /**
+   * Writes the inactive slot of the namespace with the given name with the given writer. Writes
+   * into the same namespace are serialized, and writes of a superseded run are skipped.
+   */
+  void write(String name, IntConsumer writer) {
+    Chain chain = computingChain.get();
+    synchronized (writeLockMap.computeIfAbsent(name, n -> new Object())) {
+      if (chain != null && chain.abandoned) {
+        logger.info("Skipped to write '{}', because its run has been superseded.", name);
+        return;
+      }
+      int slot = activeSlots.getOrDefault(name, BLUE) == BLUE ? GREEN : BLUE;
+      if (chain != null) {
+        chain.pendingSlots.remove(name);
+      }
+      writer.accept(slot);
+      if (chain != null) {
+        chain.pendingSlots.put(name, slot);
+      } else {
+        publish(Collections.singletonMap(name, slot), Collections.emptySet());
+      }
+    }
+  }
+
+  /**
+   * Abandons the current run, i.e. the pending results of its chains are never activated. The
+   * names of the services, which have been computed, but whose chain hasn't been activated (also
+   * before a restart), are returned and forgotten.
+   *
+   * @return the names of the services, whose results have been computed, but never activated.
+   */
+  public synchronized Set<String> abandonRun() {
+    chainMap.values().forEach(chain -> chain.abandoned = true);
+    chainMap = new HashMap<>();
+    Set<String> abandonedServiceNames = new HashSet<>(unpublishedServiceNames);
+    if (!abandonedServiceNames.isEmpty()) {
+      logger.info("The results of {} have been computed, but never activated.",
+          abandonedServiceNames);
+      unpublishedServiceNames.clear();
+      mapDB.commit();
+    }
+    return abandonedServiceNames;
+  }
+
+  /**
+   * Begins a new run, in which the analysis services of the given dependency chains shall be
+   * computed. The results of a chain are activated, when all the services of the chain have been
+   * computed. A former run is abandoned (see {@link #abandonRun()}).
+   *
+   * @param chains the names of the analysis services of each dependency chain. It must not be
+   *               null.
+   */
+  public synchronized void beginRun(Collection<? extends Set<String>> chains) {
+    checkArgument(chains != null, "The dependency chains must not be null.");
+    chainMap.values().forEach(chain -> chain.abandoned = true);
+    chainMap = new HashMap<>();
+    for (Set<String> serviceNames : chains) {
+      Chain chain = new Chain(serviceNames);
+      serviceNames.forEach(serviceName -> chainMap.put(serviceName, chain));
+    }
+  }
+
+  /**
+   * Wraps the computation of the analysis service with the given name such that it writes into
+   * the pending slots of its dependency chain in the current run.
+   *
+   * @param serviceName the name of the analysis service. It must not be null.
+   * @param computation the computation of the analysis service. It must not be null.
+   * @return the wrapped computation.
+   */
+  public synchronized Runnable inRun(String serviceName, Runnable computation) {
+    checkArgument(serviceName != null, "The name of the service must not be null.");
+    checkArgument(computation != null, "The computation must not be null.");
+    Chain chain = chainMap.get(serviceName);
+    if (chain == null) {
+      return computation;
+    }
+    return () -> {
+      computingChain.set(chain);
+      try {
+        computation.run();
+      } finally {
+        computingChain.remove();
+      }
+      complete(chain, serviceName);
+    };
+  }
+
+  private void complete(Chain chain, String serviceName) {
+    synchronized (this) {
+      if (chain.abandoned) {
+        return;
+      }
+      chain.computedServiceNames.add(serviceName);
+      if (!chain.computedServiceNames.containsAll(chain.serviceNames)) {
+        unpublishedServiceNames.add(serviceName);
+        mapDB.commit();
+        return;
+      }
+      chain.serviceNames.forEach(name -> chainMap.remove(name, chain));
+    }
+    publish(chain.pendingSlots, chain.serviceNames);
+  }
+
+  /**
+   * Activates the given slots at once, and forgets the given services as unpublished.
+   */
+  private void publish(Map<String, Integer> slots, Set<String> serviceNames) {
+    synchronized (this) {
+      Map<String, Integer> newActiveSlots = new HashMap<>(activeSlots);
+      newActiveSlots.putAll(slots);
+      activeSlotMap.putAll(slots);
+      unpublishedServiceNames.removeAll(serviceNames);
+      mapDB.commit();
+      activeSlots = Collections.unmodifiableMap(newActiveSlots);
+    }
+    logger.debug("Activated the slots {} of the analysis namespaces.", slots);
+    if (eventPublisher != null && !slots.isEmpty()) {
+      eventPublisher
+          .publishEvent(new AnalysisResultsActivatedEvent(this, new HashSet<>(slots.keySet())));
+    }
+  }
+
+  /**
+   * A chain of analysis services in a run, which depend on each other.
+   */
+  private static final class Chain {
+
+    private final Set<String> serviceNames;
+    private final Set<String> computedServiceNames = new HashSet<>();
+    private final Map<String, Integer> pendingSlots = new ConcurrentHashMap<>();
+    private volatile boolean abandoned;
+
+    private Chain(Set<String> serviceNames) {
+      this.serviceNames = new HashSet<>(serviceNames);
+    }
+  }
+
+}
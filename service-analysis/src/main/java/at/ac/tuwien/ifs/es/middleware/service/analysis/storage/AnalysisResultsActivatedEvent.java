@@ -0,0 +1,38 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import java.util.Collections;
+import java.util.Set;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * This event is published by {@link AnalysisNamespaces}, if new results of analysis services have
+ * been activated, i.e. readers see the new results from now on.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class AnalysisResultsActivatedEvent extends ApplicationEvent {
+
+  private final Set<String> namespaceNames;
+
+  /**
+   * Create a new ApplicationEvent for the given activated namespaces.
+   *
+   * @param source         the object on which the event initially occurred (never {@code null})
+   * @param namespaceNames the names of the namespaces, whose new results have been activated.
+   */
+  public AnalysisResultsActivatedEvent(Object source, Set<String> namespaceNames) {
+    super(source);
+    this.namespaceNames = Collections.unmodifiableSet(namespaceNames);
+  }
+
+  /**
+   * Gets the names of the namespaces, whose new results have been activated.
+   *
+   * @return the names of the namespaces, whose new results have been activated.
+   */
+  public Set<String> getNamespaceNames() {
+    return namespaceNames;
+  }
+}
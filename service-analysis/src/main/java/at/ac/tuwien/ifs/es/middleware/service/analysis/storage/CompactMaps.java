@@ -0,0 +1,109 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import java.util.Map;
+import org.mapdb.DB;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class opens the maps of analysis results with compact serializers (e.g. {@link
+ * IntPairSerializer}, {@link PackedIntArraySerializer} or {@link DecimalValueSerializer}) instead
+ * of Java serialization.
+ * <p/>
+ * The compact map is stored under the name of the former map with the suffix {@link #SUFFIX}. If
+ * the former map still contains entries, they are read with the former serializers and migrated
+ * into the compact map, and the former map is cleared afterwards. Hence, existing analysis results
+ * don't need to be computed again.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CompactMaps {
+
+  private static final Logger logger = LoggerFactory.getLogger(CompactMaps.class);
+
+  public static final String SUFFIX = ".compact";
+
+  private static final int BATCH_SIZE = 100000;
+
+  private CompactMaps() {
+  }
+
+  /**
+   * Opens the compact map with the given name, and migrates the entries of the former map with the
+   * given name, if there are any.
+   *
+   * @param db                    in which the map is stored.
+   * @param name                  of the former map.
+   * @param keySerializer         compact serializer for the keys.
+   * @param valueSerializer       compact serializer for the values.
+   * @param formerKeySerializer   serializer, with which the keys of the former map were stored.
+   * @param formerValueSerializer serializer, with which the values of the former map were stored.
+   * @param <K>                   type of the keys.
+   * @param <V>                   type of the values.
+   * @return the opened compact map.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> HTreeMap<K, V> openHashMap(DB db, String name,
+      Serializer<K> keySerializer, Serializer<V> valueSerializer,
+      Serializer<?> formerKeySerializer, Serializer<?> formerValueSerializer) {
+    HTreeMap<K, V> map = db.hashMap(name + SUFFIX, keySerializer, valueSerializer)
+        .createOrOpen();
+    if (db.exists(name)) {
+      HTreeMap<K, V> formerMap = (HTreeMap<K, V>) db
+          .hashMap(name, formerKeySerializer, formerValueSerializer).open();
+      if (!formerMap.isEmpty()) {
+        logger.info("Migrates {} entries of '{}' to compact serialization.", formerMap.size(),
+            name);
+        long n = 0;
+        for (Map.Entry<K, V> entry : formerMap.entrySet()) {
+          map.put(entry.getKey(), entry.getValue());
+          if (++n % BATCH_SIZE == 0) {
+            db.commit();
+          }
+        }
+        formerMap.clear();
+        db.commit();
+        logger.info("Migrated {} entries of '{}' to compact serialization.", n, name);
+      }
+    }
+    return map;
+  }
+
+  /**
+   * Replaces the content of the given map of resource pairs with the given pairs, whose keys are
+   * packed with {@link IntPairSerializer#pack(int, int)}. The changes are committed in batches.
+   *
+   * @param db            in which the map is stored.
+   * @param map           of which the content shall be replaced.
+   * @param packedPairMap a map from the packed pairs to their values.
+   * @param <V>           type of the values.
+   */
+  public static <V> void replacePairs(DB db, HTreeMap<int[], V> map, Map<Long, V> packedPairMap) {
+    map.clear();
+    db.commit();
+    long n = 0;
+    for (Map.Entry<Long, V> entry : packedPairMap.entrySet()) {
+      map.put(IntPairSerializer.unpack(entry.getKey()), entry.getValue());
+      if (++n % BATCH_SIZE == 0) {
+        db.commit();
+      }
+    }
+    db.commit();
+  }
+
+  /**
+   * Clears the given map, and commits the changes.
+   *
+   * @param db  in which the map is stored.
+   * @param map which shall be cleared.
+   */
+  public static void clear(DB db, HTreeMap<?, ?> map) {
+    map.clear();
+    db.commit();
+  }
+
+}
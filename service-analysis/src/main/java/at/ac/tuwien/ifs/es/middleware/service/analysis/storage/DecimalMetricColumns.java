@@ -0,0 +1,255 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.NormalizationStrategy;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.mapdb.DB;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class stores the {@link DecimalNormalizedAnalysisValue}s of a metric per resource in three
+ * {@link DoubleColumn}s, one for the original value and one for each of the normalized values
+ * ({@link NormalizationStrategy#MinMax} and {@link NormalizationStrategy#ZScore}).
+ * <p/>
+ * The values are stored with the precision of a {@code double}. Integral values (e.g. degrees)
+ * are restored as integral {@link BigDecimal}s.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class DecimalMetricColumns {
+
+  private static final Logger logger = LoggerFactory.getLogger(DecimalMetricColumns.class);
+
+  private static final double MAX_EXACT_INTEGRAL = 9007199254740992.0;
+
+  private final String name;
+  private final DoubleColumn valueColumn;
+  private final DoubleColumn minMaxColumn;
+  private final DoubleColumn zScoreColumn;
+
+  DecimalMetricColumns(String name, DoubleColumn valueColumn, DoubleColumn minMaxColumn,
+      DoubleColumn zScoreColumn) {
+    this.name = name;
+    this.valueColumn = valueColumn;
+    this.minMaxColumn = minMaxColumn;
+    this.zScoreColumn = zScoreColumn;
+  }
+
+  /**
+   * Gets the value for the given key.
+   *
+   * @param key of the resource.
+   * @return the value for the given key, or {@code null}, if there is none.
+   */
+  public DecimalNormalizedAnalysisValue get(int key) {
+    return toValue(valueColumn.get(key), minMaxColumn.get(key), zScoreColumn.get(key));
+  }
+
+  /**
+   * Gets the values for the given keys.
+   *
+   * @param keys of the resources. It must not be null.
+   * @return an array with the value for each of the given keys at the same position, which is
+   * {@code null}, if there is none.
+   */
+  public DecimalNormalizedAnalysisValue[] get(int[] keys) {
+    double[] values = valueColumn.get(keys);
+    double[] minMaxValues = minMaxColumn.get(keys);
+    double[] zScoreValues = zScoreColumn.get(keys);
+    DecimalNormalizedAnalysisValue[] results = new DecimalNormalizedAnalysisValue[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      results[i] = toValue(values[i], minMaxValues[i], zScoreValues[i]);
+    }
+    return results;
+  }
+
+  /**
+   * Gets the values for the given resources, whose keys are looked up with the given {@link
+   * AllResourcesService}.
+   *
+   * @param resources           for which the values shall be returned. It must not be null.
+   * @param allResourcesService with which the keys of the resources shall be looked up. It must not
+   *                            be null.
+   * @return a map from the given resources to their values, which contains no entry for a resource
+   * without value.
+   */
+  public Map<Resource, DecimalNormalizedAnalysisValue> get(Collection<Resource> resources,
+      AllResourcesService allResourcesService) {
+    checkArgument(resources != null, "The given resources must not be null.");
+    List<Resource> keyedResources = new ArrayList<>(resources.size());
+    int[] keys = new int[resources.size()];
+    for (Resource resource : resources) {
+      Optional<Integer> keyOptional = allResourcesService.getResourceKey(resource);
+      if (keyOptional.isPresent()) {
+        keys[keyedResources.size()] = keyOptional.get();
+        keyedResources.add(resource);
+      }
+    }
+    DecimalNormalizedAnalysisValue[] values = get(Arrays.copyOf(keys, keyedResources.size()));
+    Map<Resource, DecimalNormalizedAnalysisValue> valueMap = new HashMap<>();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        valueMap.put(keyedResources.get(i), values[i]);
+      }
+    }
+    return valueMap;
+  }
+
+  /**
+   * Replaces the content of the columns with the given values.
+   *
+   * @param valueMap a map from the key of a resource to its value. It must not be null, and the
+   *                 keys must not be negative.
+   */
+  public void write(Map<Integer, DecimalNormalizedAnalysisValue> valueMap) {
+    checkArgument(valueMap != null, "The given values must not be null.");
+    int length = valueMap.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1) + 1;
+    double[] values = DoubleColumn.emptyValues(length);
+    double[] minMaxValues = DoubleColumn.emptyValues(length);
+    double[] zScoreValues = DoubleColumn.emptyValues(length);
+    for (Map.Entry<Integer, DecimalNormalizedAnalysisValue> entry : valueMap.entrySet()) {
+      checkArgument(entry.getKey() >= 0, "The keys of the resources must not be negative.");
+      DecimalNormalizedAnalysisValue value = entry.getValue();
+      values[entry.getKey()] = value.getValue().doubleValue();
+      value.getValueOfStrategy(NormalizationStrategy.MinMax)
+          .ifPresent(v -> minMaxValues[entry.getKey()] = v.doubleValue());
+      value.getValueOfStrategy(NormalizationStrategy.ZScore)
+          .ifPresent(v -> zScoreValues[entry.getKey()] = v.doubleValue());
+    }
+    minMaxColumn.write(minMaxValues);
+    zScoreColumn.write(zScoreValues);
+    valueColumn.write(values);
+  }
+
+  /**
+   * Replaces the content of the columns with the given values, which are normalized with the same
+   * strategies as by the {@link Normalizer}. In contrast to it, the statistics of the values are computed in primitive passes over the
+   * given array, such that no object is created per value.
+   *
+   * @param values an array with the value of the resource with the key at the corresponding
+   *               position, which is {@link Double#NaN} for keys without value. It must not be
+   *               null, and it is taken over by the columns.
+   */
+  public void writeNormalized(double[] values) {
+    checkArgument(values != null, "The given values must not be null.");
+    int count = 0;
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    double sum = 0.0;
+    for (double value : values) {
+      if (!Double.isNaN(value)) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+      }
+    }
+    double mean = count > 0 ? sum / count : 0.0;
+    double squaredDeviations = 0.0;
+    for (double value : values) {
+      if (!Double.isNaN(value)) {
+        squaredDeviations += (value - mean) * (value - mean);
+      }
+    }
+    double sd = count > 0 ? Math.sqrt(squaredDeviations / count) : 0.0;
+    double[] minMaxValues = DoubleColumn.emptyValues(values.length);
+    double[] zScoreValues = DoubleColumn.emptyValues(values.length);
+    for (int key = 0; key < values.length; key++) {
+      double value = values[key];
+      if (Double.isNaN(value)) {
+        continue;
+      }
+      if (min == max) {
+        minMaxValues[key] = min != 0.0 ? 1.0 : min;
+      } else {
+        minMaxValues[key] = (value - min) / max;
+      }
+      zScoreValues[key] = sd != 0.0 ? (value - mean) / sd : 0.0;
+    }
+    minMaxColumn.write(minMaxValues);
+    zScoreColumn.write(zScoreValues);
+    valueColumn.write(values);
+  }
+
+  /**
+   * Migrates the values of the map with the given name, in which the values of this metric have
+   * been stored formerly (see {@link CompactMaps}), into the columns, if the columns are still
+   * empty. The map is cleared afterwards.
+   *
+   * @param db   in which the map is stored. It must not be null.
+   * @param name of the former map. It must not be null.
+   */
+  public synchronized void migrateFrom(DB db, String name) {
+    checkArgument(db != null, "The given database must not be null.");
+    checkArgument(name != null, "The name of the map must not be null.");
+    if (!db.exists(name) && !db.exists(name + CompactMaps.SUFFIX)) {
+      return;
+    }
+    HTreeMap<Integer, DecimalNormalizedAnalysisValue> map = CompactMaps
+        .openHashMap(db, name, Serializer.INTEGER, DecimalValueSerializer.INSTANCE,
+            Serializer.INTEGER, Serializer.JAVA);
+    if (!map.isEmpty()) {
+      if (isEmpty()) {
+        logger.info("Migrates {} values of '{}' to the columns of '{}'.", map.size(), name,
+            this.name);
+        write(map);
+      }
+      map.clear();
+      db.commit();
+    }
+  }
+
+  /**
+   * Checks whether no values have been written to the columns yet.
+   *
+   * @return {@code true}, if no values have been written to the columns yet, otherwise {@code
+   * false}.
+   */
+  public boolean isEmpty() {
+    return valueColumn.isEmpty();
+  }
+
+  private static DecimalNormalizedAnalysisValue toValue(double value, double minMaxValue,
+      double zScoreValue) {
+    if (Double.isNaN(value)) {
+      return null;
+    }
+    return new DecimalNormalizedAnalysisValue(toDecimal(value), toDecimal(minMaxValue),
+        toDecimal(zScoreValue));
+  }
+
+  private static BigDecimal toDecimal(double value) {
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      return null;
+    }
+    if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_INTEGRAL) {
+      return BigDecimal.valueOf((long) value);
+    }
+    return BigDecimal.valueOf(value);
+  }
+
+  @Override
+  public String toString() {
+    return "DecimalMetricColumns{" +
+        "name='" + name + '\'' +
+        ", size=" + valueColumn.size() +
+        '}';
+  }
+}
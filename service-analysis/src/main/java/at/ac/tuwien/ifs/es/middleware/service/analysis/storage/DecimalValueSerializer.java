@@ -0,0 +1,106 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.NormalizationStrategy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+/**
+ * This {@link Serializer} stores a {@link DecimalNormalizedAnalysisValue} in a compact binary
+ * form. A leading byte flags the present normalized values, and each value is stored as packed
+ * long, if it is integral, as double, if it can be represented by a double without loss, and
+ * otherwise as unscaled value with scale. The values are restored exactly (incl. their scale).
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class DecimalValueSerializer implements Serializer<DecimalNormalizedAnalysisValue> {
+
+  public static final DecimalValueSerializer INSTANCE = new DecimalValueSerializer();
+
+  private static final int MIN_MAX_FLAG = 1;
+  private static final int Z_SCORE_FLAG = 2;
+
+  private static final int LONG_TAG = 0;
+  private static final int DOUBLE_TAG = 1;
+  private static final int DECIMAL_TAG = 2;
+
+  private DecimalValueSerializer() {
+  }
+
+  @Override
+  public void serialize(DataOutput2 out, DecimalNormalizedAnalysisValue value) throws IOException {
+    BigDecimal minMaxValue = value.getValueOfStrategy(NormalizationStrategy.MinMax).orElse(null);
+    BigDecimal zScoreValue = value.getValueOfStrategy(NormalizationStrategy.ZScore).orElse(null);
+    out.writeByte((minMaxValue != null ? MIN_MAX_FLAG : 0) | (zScoreValue != null ? Z_SCORE_FLAG
+        : 0));
+    writeDecimal(out, value.getValue());
+    if (minMaxValue != null) {
+      writeDecimal(out, minMaxValue);
+    }
+    if (zScoreValue != null) {
+      writeDecimal(out, zScoreValue);
+    }
+  }
+
+  private static void writeDecimal(DataOutput2 out, BigDecimal value) throws IOException {
+    if (value.scale() == 0 && value.unscaledValue().bitLength() < 63) {
+      long v = value.longValueExact();
+      out.writeByte(LONG_TAG);
+      out.packLong((v << 1) ^ (v >> 63));
+      return;
+    }
+    double d = value.doubleValue();
+    if (!Double.isInfinite(d) && BigDecimal.valueOf(d).equals(value)) {
+      out.writeByte(DOUBLE_TAG);
+      out.writeDouble(d);
+      return;
+    }
+    byte[] unscaledValue = value.unscaledValue().toByteArray();
+    int scale = value.scale();
+    out.writeByte(DECIMAL_TAG);
+    out.packInt((scale << 1) ^ (scale >> 31));
+    out.packInt(unscaledValue.length);
+    out.write(unscaledValue);
+  }
+
+  @Override
+  public DecimalNormalizedAnalysisValue deserialize(DataInput2 input, int available)
+      throws IOException {
+    int flags = input.readByte();
+    BigDecimal value = readDecimal(input);
+    BigDecimal minMaxValue = (flags & MIN_MAX_FLAG) != 0 ? readDecimal(input) : null;
+    BigDecimal zScoreValue = (flags & Z_SCORE_FLAG) != 0 ? readDecimal(input) : null;
+    return new DecimalNormalizedAnalysisValue(value, minMaxValue, zScoreValue);
+  }
+
+  private static BigDecimal readDecimal(DataInput2 input) throws IOException {
+    int tag = input.readByte();
+    switch (tag) {
+      case LONG_TAG:
+        long v = input.unpackLong();
+        return BigDecimal.valueOf((v >>> 1) ^ -(v & 1));
+      case DOUBLE_TAG:
+        return BigDecimal.valueOf(input.readDouble());
+      case DECIMAL_TAG:
+        int scale = input.unpackInt();
+        scale = (scale >>> 1) ^ -(scale & 1);
+        byte[] unscaledValue = new byte[input.unpackInt()];
+        input.readFully(unscaledValue);
+        return new BigDecimal(new BigInteger(unscaledValue), scale);
+      default:
+        throw new IOException(String.format("Unknown tag %d of a stored decimal.", tag));
+    }
+  }
+
+  @Override
+  public boolean isTrusted() {
+    return true;
+  }
+
+}
@@ -0,0 +1,159 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is the base of a dense column, which stores one fixed-size value per resource in a
+ * flat array that is indexed by the {@link Integer} key of the resource (see {@link
+ * at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService}). Hence,
+ * a value is looked up without hashing and boxing.
+ * <p/>
+ * If a file is given, the column is memory-mapped from this file. A column is always written as a
+ * whole to a temporary file, which then replaces the file atomically and is mapped again.
+ * Otherwise, the column is kept in memory.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public abstract class DenseColumn {
+
+  private static final Logger logger = LoggerFactory.getLogger(DenseColumn.class);
+
+  private static final int MAGIC = 0x45534d43;
+  private static final int HEADER_SIZE = 16;
+
+  private final File file;
+  private final int width;
+
+  private volatile ByteBuffer buffer;
+
+  DenseColumn(File file, int width) {
+    this.file = file;
+    this.width = width;
+    if (file != null && file.isFile()) {
+      try {
+        this.buffer = checkHeader(map(file));
+      } catch (IOException e) {
+        logger.error("Failed to map the column '{}', it is treated as empty. {}", file,
+            e.getMessage());
+      }
+    }
+  }
+
+  private static ByteBuffer map(File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  private ByteBuffer checkHeader(ByteBuffer buffer) throws IOException {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+        || buffer.getInt(4) != width
+        || buffer.capacity() < HEADER_SIZE + (long) buffer.getInt(8) * width) {
+      throw new IOException("The file is not a column with values of width " + width + ".");
+    }
+    return buffer;
+  }
+
+  /**
+   * Gets the current buffer of this column, or {@code null}, if nothing has been written yet.
+   */
+  ByteBuffer buffer() {
+    return buffer;
+  }
+
+  /**
+   * Gets the number of slots in the given buffer.
+   */
+  static int length(ByteBuffer buffer) {
+    return buffer != null ? buffer.getInt(8) : 0;
+  }
+
+  /**
+   * Gets the offset of the value with the given key in the buffer.
+   */
+  int offset(int key) {
+    return HEADER_SIZE + key * width;
+  }
+
+  /**
+   * Replaces the content of this column with {@code length} values, which are put into the buffer
+   * by the given writer starting at {@link #offset(int)} of key {@code 0}.
+   */
+  void write(int length, Consumer<ByteBuffer> writer) {
+    long size = HEADER_SIZE + (long) length * width;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          String.format("A column can hold at most %d values, but %d were given.",
+              (Integer.MAX_VALUE - HEADER_SIZE) / width, length));
+    }
+    if (file == null) {
+      ByteBuffer newBuffer = ByteBuffer.allocate((int) size);
+      writeHeader(newBuffer, length);
+      writer.accept(newBuffer);
+      buffer = newBuffer;
+      return;
+    }
+    File tmpFile = new File(file.getPath() + ".tmp");
+    try {
+      file.getParentFile().mkdirs();
+      try (FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+          StandardOpenOption.WRITE)) {
+        ByteBuffer newBuffer = channel.map(MapMode.READ_WRITE, 0, size);
+        writeHeader(newBuffer, length);
+        writer.accept(newBuffer);
+        channel.force(true);
+      }
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      buffer = checkHeader(map(file));
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          String.format("Failed to write the column '%s'. %s", file, e.getMessage()), e);
+    }
+  }
+
+  private void writeHeader(ByteBuffer buffer, int length) {
+    buffer.putInt(0, MAGIC);
+    buffer.putInt(4, width);
+    buffer.putInt(8, length);
+  }
+
+  /**
+   * Checks whether nothing has been written to this column yet.
+   *
+   * @return {@code true}, if nothing has been written to this column yet, otherwise {@code false}.
+   */
+  public boolean isEmpty() {
+    return length(buffer) == 0;
+  }
+
+  /**
+   * Gets the number of slots of this column, i.e. the largest key plus one.
+   *
+   * @return the number of slots of this column.
+   */
+  public int size() {
+    return length(buffer);
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{" +
+        "file=" + file +
+        ", size=" + size() +
+        '}';
+  }
+}
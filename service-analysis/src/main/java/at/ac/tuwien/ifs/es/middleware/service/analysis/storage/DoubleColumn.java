@@ -0,0 +1,82 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This is a {@link DenseColumn} of {@code double} values. A missing value is represented by {@link
+ * Double#NaN}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class DoubleColumn extends DenseColumn {
+
+  DoubleColumn(File file) {
+    super(file, Double.BYTES);
+  }
+
+  /**
+   * Gets the value for the given key.
+   *
+   * @param key of the resource.
+   * @return the value for the given key, or {@link Double#NaN}, if there is none.
+   */
+  public double get(int key) {
+    ByteBuffer buffer = buffer();
+    if (key < 0 || key >= length(buffer)) {
+      return Double.NaN;
+    }
+    return buffer.getDouble(offset(key));
+  }
+
+  /**
+   * Gets the values for the given keys.
+   *
+   * @param keys of the resources. It must not be null.
+   * @return an array with the value for each of the given keys at the same position, which is
+   * {@link Double#NaN}, if there is none.
+   */
+  public double[] get(int[] keys) {
+    checkArgument(keys != null, "The given keys must not be null.");
+    ByteBuffer buffer = buffer();
+    int length = length(buffer);
+    double[] values = new double[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      values[i] = keys[i] >= 0 && keys[i] < length ? buffer.getDouble(offset(keys[i]))
+          : Double.NaN;
+    }
+    return values;
+  }
+
+  /**
+   * Replaces the content of this column with the given values, where the value of a key is at the
+   * position of the key in the given array.
+   *
+   * @param values that shall be written. It must not be null.
+   */
+  public void write(double[] values) {
+    checkArgument(values != null, "The given values must not be null.");
+    write(values.length, buffer -> {
+      for (int key = 0; key < values.length; key++) {
+        buffer.putDouble(offset(key), values[key]);
+      }
+    });
+  }
+
+  /**
+   * Creates an array of the given length, in which all values are missing.
+   *
+   * @param length of the array.
+   * @return an array of the given length, in which all values are {@link Double#NaN}.
+   */
+  public static double[] emptyValues(int length) {
+    double[] values = new double[length];
+    Arrays.fill(values, Double.NaN);
+    return values;
+  }
+}
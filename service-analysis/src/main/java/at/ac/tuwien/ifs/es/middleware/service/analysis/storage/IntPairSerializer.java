@@ -0,0 +1,87 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.mapdb.DataIO;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+/**
+ * This {@link Serializer} stores a pair of integer keys (e.g. of two resources), which is given as
+ * array of length two, as a single long of 8 bytes. The arrays are compared by their content.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class IntPairSerializer implements Serializer<int[]> {
+
+  public static final IntPairSerializer INSTANCE = new IntPairSerializer();
+
+  private IntPairSerializer() {
+  }
+
+  /**
+   * Packs the given pair of integers into a single long.
+   *
+   * @param first  integer of the pair.
+   * @param second integer of the pair.
+   * @return the long, whose upper half is the first and lower half the second integer.
+   */
+  public static long pack(int first, int second) {
+    return ((long) first << 32) | (second & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Unpacks the pair of integers from the given long, which has been packed with {@link
+   * #pack(int, int)}.
+   *
+   * @param pair the packed pair of integers.
+   * @return the pair of integers as array of length two.
+   */
+  public static int[] unpack(long pair) {
+    return new int[]{(int) (pair >>> 32), (int) pair};
+  }
+
+  @Override
+  public void serialize(DataOutput2 out, int[] value) throws IOException {
+    checkArgument(value.length == 2, "The given array must be a pair of integers, but had length %s.",
+        value.length);
+    out.writeLong(pack(value[0], value[1]));
+  }
+
+  @Override
+  public int[] deserialize(DataInput2 input, int available) throws IOException {
+    return unpack(input.readLong());
+  }
+
+  @Override
+  public int fixedSize() {
+    return 8;
+  }
+
+  @Override
+  public boolean isTrusted() {
+    return true;
+  }
+
+  @Override
+  public boolean equals(int[] first, int[] second) {
+    return Arrays.equals(first, second);
+  }
+
+  @Override
+  public int hashCode(int[] value, int seed) {
+    return DataIO.longHash(pack(value[0], value[1]) + seed);
+  }
+
+  @Override
+  public int compare(int[] first, int[] second) {
+    int c = Integer.compare(first[0], second[0]);
+    return c != 0 ? c : Integer.compare(first[1], second[1]);
+  }
+
+}
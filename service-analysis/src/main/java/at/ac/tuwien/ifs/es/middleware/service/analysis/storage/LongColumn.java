@@ -0,0 +1,83 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * This is a {@link DenseColumn} of {@code long} values. A missing value is represented by {@link
+ * #ABSENT}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LongColumn extends DenseColumn {
+
+  public static final long ABSENT = Long.MIN_VALUE;
+
+  LongColumn(File file) {
+    super(file, Long.BYTES);
+  }
+
+  /**
+   * Gets the value for the given key.
+   *
+   * @param key of the resource.
+   * @return the value for the given key, or {@link #ABSENT}, if there is none.
+   */
+  public long get(int key) {
+    ByteBuffer buffer = buffer();
+    if (key < 0 || key >= length(buffer)) {
+      return ABSENT;
+    }
+    return buffer.getLong(offset(key));
+  }
+
+  /**
+   * Gets the values for the given keys.
+   *
+   * @param keys of the resources. It must not be null.
+   * @return an array with the value for each of the given keys at the same position, which is
+   * {@link #ABSENT}, if there is none.
+   */
+  public long[] get(int[] keys) {
+    checkArgument(keys != null, "The given keys must not be null.");
+    ByteBuffer buffer = buffer();
+    int length = length(buffer);
+    long[] values = new long[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      values[i] = keys[i] >= 0 && keys[i] < length ? buffer.getLong(offset(keys[i])) : ABSENT;
+    }
+    return values;
+  }
+
+  /**
+   * Replaces the content of this column with the given values, where the value of a key is at the
+   * position of the key in the given array.
+   *
+   * @param values that shall be written. It must not be null.
+   */
+  public void write(long[] values) {
+    checkArgument(values != null, "The given values must not be null.");
+    write(values.length, buffer -> {
+      for (int key = 0; key < values.length; key++) {
+        buffer.putLong(offset(key), values[key]);
+      }
+    });
+  }
+
+  /**
+   * Creates an array of the given length, in which all values are missing.
+   *
+   * @param length of the array.
+   * @return an array of the given length, in which all values are {@link #ABSENT}.
+   */
+  public static long[] emptyValues(int length) {
+    long[] values = new long[length];
+    Arrays.fill(values, ABSENT);
+    return values;
+  }
+}
@@ -0,0 +1,84 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class manages the {@link DenseColumn}s, in which per-resource metrics (e.g. page rank or
+ * degree) are stored. The columns are memory-mapped from the files {@code
+ * <esm.db.data.dir>/metrics/<name>.col}, or kept in memory, if no data directory is specified.
+ * <p/>
+ * A column is opened once per name, such that all the services that share a metric (e.g. the
+ * different implementations of the page rank) see the same values.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class MetricColumnStore {
+
+  private static final String MINMAX_SUFFIX = ".minmax";
+  private static final String ZSCORE_SUFFIX = ".zscore";
+
+  private final File columnDir;
+  private final Map<String, DenseColumn> columnMap = new ConcurrentHashMap<>();
+  private final Map<String, DecimalMetricColumns> decimalColumnsMap = new ConcurrentHashMap<>();
+
+  public MetricColumnStore(@Value("${esm.db.data.dir:#{null}}") String dataDir) {
+    this.columnDir = dataDir != null ? new File(dataDir, "metrics") : null;
+  }
+
+  private File fileOf(String name) {
+    return columnDir != null ? new File(columnDir, name + ".col") : null;
+  }
+
+  /**
+   * Gets the {@link DoubleColumn} with the given name.
+   *
+   * @param name of the column. It must not be null.
+   * @return the {@link DoubleColumn} with the given name.
+   * @throws IllegalArgumentException if a column with a different type has been opened under the
+   *                                  given name.
+   */
+  public DoubleColumn getDoubleColumn(String name) {
+    checkArgument(name != null, "The name of the column must not be null.");
+    DenseColumn column = columnMap.computeIfAbsent(name, n -> new DoubleColumn(fileOf(n)));
+    checkArgument(column instanceof DoubleColumn, "The column '%s' isn't a double column.", name);
+    return (DoubleColumn) column;
+  }
+
+  /**
+   * Gets the {@link LongColumn} with the given name.
+   *
+   * @param name of the column. It must not be null.
+   * @return the {@link LongColumn} with the given name.
+   * @throws IllegalArgumentException if a column with a different type has been opened under the
+   *                                  given name.
+   */
+  public LongColumn getLongColumn(String name) {
+    checkArgument(name != null, "The name of the column must not be null.");
+    DenseColumn column = columnMap.computeIfAbsent(name, n -> new LongColumn(fileOf(n)));
+    checkArgument(column instanceof LongColumn, "The column '%s' isn't a long column.", name);
+    return (LongColumn) column;
+  }
+
+  /**
+   * Gets the {@link DecimalMetricColumns} with the given name.
+   *
+   * @param name of the metric. It must not be null.
+   * @return the {@link DecimalMetricColumns} with the given name.
+   */
+  public DecimalMetricColumns getDecimalColumns(String name) {
+    checkArgument(name != null, "The name of the metric must not be null.");
+    return decimalColumnsMap.computeIfAbsent(name,
+        n -> new DecimalMetricColumns(n, getDoubleColumn(n), getDoubleColumn(n + MINMAX_SUFFIX),
+            getDoubleColumn(n + ZSCORE_SUFFIX)));
+  }
+
+}
@@ -0,0 +1,74 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.mapdb.DataIO;
+import org.mapdb.DataInput2;
+import org.mapdb.DataOutput2;
+import org.mapdb.Serializer;
+
+/**
+ * This {@link Serializer} stores an array of integers as variable-length integers, such that small
+ * integers (e.g. keys of resources) need one to three bytes instead of four. Negative integers are
+ * zig-zag encoded.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class PackedIntArraySerializer implements Serializer<int[]> {
+
+  public static final PackedIntArraySerializer INSTANCE = new PackedIntArraySerializer();
+
+  private PackedIntArraySerializer() {
+  }
+
+  @Override
+  public void serialize(DataOutput2 out, int[] value) throws IOException {
+    out.packInt(value.length);
+    for (int v : value) {
+      out.packInt((v << 1) ^ (v >> 31));
+    }
+  }
+
+  @Override
+  public int[] deserialize(DataInput2 input, int available) throws IOException {
+    int[] value = new int[input.unpackInt()];
+    for (int i = 0; i < value.length; i++) {
+      int v = input.unpackInt();
+      value[i] = (v >>> 1) ^ -(v & 1);
+    }
+    return value;
+  }
+
+  @Override
+  public boolean isTrusted() {
+    return true;
+  }
+
+  @Override
+  public boolean equals(int[] first, int[] second) {
+    return Arrays.equals(first, second);
+  }
+
+  @Override
+  public int hashCode(int[] value, int seed) {
+    for (int v : value) {
+      seed = (-1640531527) * seed + v;
+    }
+    return DataIO.intHash(seed);
+  }
+
+  @Override
+  public int compare(int[] first, int[] second) {
+    int length = Math.min(first.length, second.length);
+    for (int i = 0; i < length; i++) {
+      int c = Integer.compare(first[i], second[i]);
+      if (c != 0) {
+        return c;
+      }
+    }
+    return Integer.compare(first.length, second.length);
+  }
+
+}
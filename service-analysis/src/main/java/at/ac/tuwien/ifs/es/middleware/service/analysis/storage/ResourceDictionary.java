@@ -0,0 +1,954 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.UnsignedBytes;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is a compressed dictionary of the IRIs of all resources, which maps an IRI to the
+ * durable {@link Integer} key of the resource and back (see {@link
+ * at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService}).
+ * <p/>
+ * The IRIs are sorted by their UTF-8 bytes and front-coded in blocks, i.e. an IRI is only stored
+ * as the suffix that differs from the preceding IRI in its block. The key of an IRI is looked up
+ * with a binary search over the first IRIs of the blocks followed by a scan of a single block. Two
+ * flat arrays map the position of an IRI in the sorted order to its key and back. A Bloom filter
+ * answers most of the lookups of unknown IRIs without touching the blocks at all.
+ * <p/>
+ * If a file is given, the dictionary is memory-mapped from this file. The dictionary is always
+ * written as a whole to a temporary file, which then replaces the file atomically and is mapped
+ * again. Otherwise, the dictionary is kept in memory.
+ * <p/>
+ * The dictionary is split into segments of a fixed size (1 GiB per default), which are mapped
+ * separately, such that the size of the dictionary isn't limited by the maximal size of a single
+ * mapping. Blocks are padded, such that neither a block nor a number spans two segments. The
+ * segment size is stored in the dictionary, which is why a dictionary can be mapped again with
+ * any segment size.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ResourceDictionary implements Iterable<String> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ResourceDictionary.class);
+
+  public static final int ABSENT = -1;
+
+  private static final long MAGIC = 0x45534d4400000002L;
+  private static final int TRAILER_SIZE = 8 * Long.BYTES;
+  private static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+  private static final int BLOCK_SIZE = 16;
+  private static final int BLOOM_BITS_PER_ENTRY = 10;
+  private static final int BLOOM_HASHES = 7;
+
+  private static final Comparator<byte[]> ORDER = UnsignedBytes.lexicographicalComparator();
+
+  private final File file;
+  private final int segmentSize;
+
+  private volatile Index index = Index.EMPTY;
+
+  public ResourceDictionary(File file) {
+    this(file, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Creates a new {@link ResourceDictionary}, which is written in segments of the given size.
+   *
+   * @param file        from which the dictionary shall be mapped. It can be {@code null}, if the
+   *                    dictionary shall be kept in memory.
+   * @param segmentSize the size of the segments in bytes, which must be a positive multiple of
+   *                    {@link Long#BYTES}.
+   */
+  public ResourceDictionary(File file, int segmentSize) {
+    checkArgument(segmentSize > 0 && segmentSize % Long.BYTES == 0,
+        "The segment size must be a positive multiple of %s.", Long.BYTES);
+    this.file = file;
+    this.segmentSize = segmentSize;
+    if (file != null && file.isFile()) {
+      try {
+        this.index = Index.of(Segments.map(file));
+      } catch (IOException e) {
+        logger.error("Failed to map the dictionary '{}', it is treated as empty. {}", file,
+            e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Gets the key of the given IRI.
+   *
+   * @param id the IRI of the resource. It must not be null.
+   * @return the key of the given IRI, or {@link #ABSENT}, if it isn't contained in this
+   * dictionary.
+   */
+  public int getKey(String id) {
+    checkArgument(id != null, "The given IRI must not be null.");
+    Index index = this.index;
+    byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+    if (!index.mightContain(bytes)) {
+      return ABSENT;
+    }
+    int rank = index.rankOf(bytes);
+    return rank != ABSENT ? index.keyOfRank(rank) : ABSENT;
+  }
+
+  /**
+   * Gets the IRI with the given key.
+   *
+   * @param key of the resource.
+   * @return the IRI with the given key, or {@code null}, if there is none.
+   */
+  public String getId(int key) {
+    Index index = this.index;
+    int rank = index.rankOfKey(key);
+    return rank != ABSENT ? index.idAt(rank) : null;
+  }
+
+  /**
+   * Gets the number of IRIs in this dictionary.
+   *
+   * @return the number of IRIs in this dictionary.
+   */
+  public int size() {
+    return index.count;
+  }
+
+  /**
+   * Checks whether no IRIs have been added to this dictionary yet.
+   *
+   * @return {@code true}, if no IRIs have been added to this dictionary yet, otherwise {@code
+   * false}.
+   */
+  public boolean isEmpty() {
+    return index.count == 0;
+  }
+
+  /**
+   * Gets the largest key in this dictionary.
+   *
+   * @return the largest key in this dictionary, or {@code 0}, if it is empty.
+   */
+  public int getMaxKey() {
+    return Math.max(0, index.keySlots - 1);
+  }
+
+  /**
+   * Gets an iterator over all the IRIs in this dictionary, which decodes the IRIs one after the
+   * other in their sorted order. The iterator isn't affected by later changes of this dictionary.
+   *
+   * @return an iterator over all the IRIs in this dictionary.
+   */
+  @Override
+  public Iterator<String> iterator() {
+    Index index = this.index;
+    Decoder decoder = new Decoder(index.segments);
+    return new Iterator<String>() {
+
+      private int rank = 0;
+
+      @Override
+      public boolean hasNext() {
+        return rank < index.count;
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        index.decode(decoder, rank++);
+        return decoder.toId();
+      }
+    };
+  }
+
+  /**
+   * Adds the given IRIs with their keys to this dictionary, while the keys of the IRIs in this
+   * dictionary are kept.
+   *
+   * @param entries a map from IRIs to their keys. It must not be null, the IRIs must not be
+   *                contained in this dictionary yet, and the keys must be positive and unique.
+   */
+  public synchronized void addAll(Map<String, Integer> entries) {
+    checkArgument(entries != null, "The given entries must not be null.");
+    if (entries.isEmpty()) {
+      return;
+    }
+    Index current = index;
+    byte[][] ids = new byte[entries.size()][];
+    int[] keys = new int[entries.size()];
+    int maxKey = current.keySlots - 1;
+    int n = 0;
+    for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+      checkArgument(entry.getKey() != null && entry.getValue() != null && entry.getValue() > 0,
+          "The IRIs must not be null and their keys must be positive.");
+      ids[n] = entry.getKey().getBytes(StandardCharsets.UTF_8);
+      keys[n] = entry.getValue();
+      maxKey = Math.max(maxKey, keys[n]);
+      n++;
+    }
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> ORDER.compare(ids[a], ids[b]));
+    Iterator<Integer> orderIterator = Arrays.asList(order).iterator();
+    write(current, new Entries() {
+
+      private int i;
+
+      @Override
+      public boolean next() {
+        if (!orderIterator.hasNext()) {
+          return false;
+        }
+        i = orderIterator.next();
+        return true;
+      }
+
+      @Override
+      public byte[] id() {
+        return ids[i];
+      }
+
+      @Override
+      public int key() {
+        return keys[i];
+      }
+    }, n, maxKey + 1);
+  }
+
+  /**
+   * Adds the given IRIs, which aren't contained in this dictionary yet, with new keys following
+   * the largest key in this dictionary, while the keys of the IRIs in this dictionary are kept. An
+   * IRI given more than once is added once.
+   * <p/>
+   * At most the given number of new IRIs is kept in memory. If there are more new IRIs, they are
+   * sorted in runs of this size, which are spilled to temporary files next to the file of this
+   * dictionary (or into the temporary directory of the system, if this dictionary is kept in
+   * memory) and merged, before the dictionary is written. Besides a run, the heap holds the flat
+   * arrays of the written dictionary, i.e. about 13 bytes per IRI.
+   *
+   * @param ids     the IRIs that shall be added. It must not be null.
+   * @param runSize the maximal number of new IRIs, which are kept in memory. It must be positive.
+   * @return the number of added IRIs.
+   */
+  public synchronized int addAllNew(Iterator<String> ids, int runSize) {
+    checkArgument(ids != null, "The given IRIs must not be null.");
+    checkArgument(runSize > 0, "The size of a run must be positive.");
+    Index current = index;
+    int firstKey = Math.max(1, current.keySlots);
+    List<File> runFiles = new ArrayList<>();
+    try {
+      List<byte[]> run = new ArrayList<>();
+      while (ids.hasNext()) {
+        byte[] id = ids.next().getBytes(StandardCharsets.UTF_8);
+        if (current.mightContain(id) && current.rankOf(id) != ABSENT) {
+          continue;
+        }
+        run.add(id);
+        if (run.size() >= runSize) {
+          runFiles.add(spill(sortedDistinct(run)));
+          run = new ArrayList<>();
+        }
+      }
+      List<byte[]> lastRun = sortedDistinct(run);
+      if (runFiles.isEmpty()) {
+        if (lastRun.isEmpty()) {
+          return 0;
+        }
+        Iterator<byte[]> runIterator = lastRun.iterator();
+        write(current, new SequentialEntries(() -> runIterator.hasNext() ? runIterator.next()
+            : null, firstKey), lastRun.size(), firstKey + lastRun.size());
+        return lastRun.size();
+      }
+      if (!lastRun.isEmpty()) {
+        runFiles.add(spill(lastRun));
+      }
+      File mergedFile = newRunFile();
+      long count = merge(new ArrayList<>(runFiles), mergedFile);
+      runFiles.add(mergedFile);
+      checkArgument(current.count + count <= Integer.MAX_VALUE,
+          "A dictionary can hold at most %s IRIs.", Integer.MAX_VALUE);
+      try (RunReader reader = new RunReader(mergedFile)) {
+        write(current, new SequentialEntries(reader, firstKey), (int) count,
+            firstKey + (int) count);
+      }
+      return (int) count;
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          String.format("Failed to spill the new IRIs of the dictionary '%s'. %s", file,
+              e.getMessage()), e);
+    } finally {
+      runFiles.forEach(File::delete);
+    }
+  }
+
+  /**
+   * Sorts the given IRIs and removes the duplicates.
+   */
+  private static List<byte[]> sortedDistinct(List<byte[]> ids) {
+    ids.sort(ORDER);
+    List<byte[]> distinctIds = new ArrayList<>(ids.size());
+    for (byte[] id : ids) {
+      if (distinctIds.isEmpty()
+          || ORDER.compare(distinctIds.get(distinctIds.size() - 1), id) != 0) {
+        distinctIds.add(id);
+      }
+    }
+    return distinctIds;
+  }
+
+  private File newRunFile() throws IOException {
+    File directory = file != null ? file.getParentFile() : null;
+    if (directory != null) {
+      directory.mkdirs();
+    }
+    File runFile = File.createTempFile("resources", ".run", directory);
+    runFile.deleteOnExit();
+    return runFile;
+  }
+
+  /**
+   * Writes the given sorted run of IRIs to a new temporary file.
+   */
+  private File spill(List<byte[]> run) throws IOException {
+    File runFile = newRunFile();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(runFile), 1 << 16))) {
+      for (byte[] id : run) {
+        out.writeInt(id.length);
+        out.write(id);
+      }
+    }
+    logger.debug("Spilled a run of {} new IRIs to '{}'.", run.size(), runFile);
+    return runFile;
+  }
+
+  /**
+   * Merges the given sorted runs into the given file, whereby IRIs contained in more than one run
+   * are written once.
+   *
+   * @return the number of written IRIs.
+   */
+  private static long merge(List<File> runFiles, File mergedFile) throws IOException {
+    List<RunReader> readers = new ArrayList<>();
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(mergedFile), 1 << 16))) {
+      PriorityQueue<RunReader> queue = new PriorityQueue<>(Math.max(1, runFiles.size()),
+          (a, b) -> ORDER.compare(a.head, b.head));
+      for (File runFile : runFiles) {
+        RunReader reader = new RunReader(runFile);
+        readers.add(reader);
+        if (reader.next() != null) {
+          queue.add(reader);
+        }
+      }
+      byte[] previous = null;
+      long count = 0;
+      while (!queue.isEmpty()) {
+        RunReader reader = queue.poll();
+        if (previous == null || ORDER.compare(previous, reader.head) != 0) {
+          out.writeInt(reader.head.length);
+          out.write(reader.head);
+          previous = reader.head;
+          count++;
+        }
+        if (reader.next() != null) {
+          queue.add(reader);
+        }
+      }
+      return count;
+    } finally {
+      for (RunReader reader : readers) {
+        reader.close();
+      }
+    }
+  }
+
+  /**
+   * Writes the IRIs of the given current index merged with the given number of new IRIs, and
+   * replaces the current index.
+   */
+  private void write(Index current, Entries entries, int added, int keySlots) {
+    long count = (long) current.count + added;
+    checkArgument(count <= Integer.MAX_VALUE, "A dictionary can hold at most %s IRIs.",
+        Integer.MAX_VALUE);
+    try {
+      if (file == null) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+          write(out, current, entries, (int) count, keySlots, segmentSize);
+        }
+        index = Index.of(Segments.wrap(bytes.toByteArray(), segmentSize));
+        return;
+      }
+      File tmpFile = new File(file.getPath() + ".tmp");
+      file.getParentFile().mkdirs();
+      try (FileOutputStream fileOut = new FileOutputStream(tmpFile)) {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16));
+        write(out, current, entries, (int) count, keySlots, segmentSize);
+        out.flush();
+        fileOut.getFD().sync();
+      }
+      Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      index = Index.of(Segments.map(file));
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          String.format("Failed to write the dictionary '%s'. %s", file, e.getMessage()), e);
+    }
+  }
+
+  /**
+   * Writes the IRIs of the given current index merged with the given new IRIs in sorted order.
+   * Each block is encoded in memory first, and the preceding segment is padded, if the block
+   * doesn't fit into its remainder.
+   */
+  private static void write(DataOutputStream out, Index current, Entries entries, int count,
+      int keySlots, int segmentSize) throws IOException {
+    int blockCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    long[] blockOffsets = new long[blockCount];
+    int[] keyOfRank = new int[count];
+    int[] rankOfKey = new int[keySlots];
+    Arrays.fill(rankOfKey, ABSENT);
+    long[] bloom = new long[Math.max(1,
+        (int) (((long) count * BLOOM_BITS_PER_ENTRY + Long.SIZE - 1) / Long.SIZE))];
+    Decoder currentDecoder = new Decoder(current.segments);
+    int currentRank = 0;
+    boolean hasEntry = entries.next();
+    if (current.count > 0) {
+      current.decode(currentDecoder, 0);
+    }
+    ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+    DataOutputStream blockOut = new DataOutputStream(blockBytes);
+    byte[] previous = new byte[0];
+    long position = 0;
+    for (int rank = 0; rank < count; rank++) {
+      byte[] id;
+      int key;
+      int comparison = currentRank >= current.count ? 1
+          : !hasEntry ? -1 : currentDecoder.compareTo(entries.id());
+      if (comparison == 0) {
+        throw new IllegalArgumentException(String.format(
+            "The IRI '%s' is already contained in the dictionary.", currentDecoder.toId()));
+      } else if (comparison > 0) {
+        id = entries.id();
+        key = entries.key();
+        hasEntry = entries.next();
+      } else {
+        id = currentDecoder.toBytes();
+        key = current.keyOfRank(currentRank++);
+        if (currentRank < current.count) {
+          current.decode(currentDecoder, currentRank);
+        }
+      }
+      checkArgument(rankOfKey[key] == ABSENT, "The key %s is assigned twice.", key);
+      int prefix = 0;
+      if (rank % BLOCK_SIZE != 0) {
+        int max = Math.min(previous.length, id.length);
+        while (prefix < max && previous[prefix] == id[prefix]) {
+          prefix++;
+        }
+      }
+      writeVarInt(blockOut, prefix);
+      writeVarInt(blockOut, id.length - prefix);
+      blockOut.write(id, prefix, id.length - prefix);
+      if (rank % BLOCK_SIZE == BLOCK_SIZE - 1 || rank == count - 1) {
+        if (blockBytes.size() > segmentSize) {
+          throw new IllegalArgumentException(String.format(
+              "A block of IRIs exceeds the segment size of %d bytes.", segmentSize));
+        }
+        if (position % segmentSize + blockBytes.size() > segmentSize) {
+          position = pad(out, position, segmentSize);
+        }
+        blockOffsets[rank / BLOCK_SIZE] = position;
+        blockBytes.writeTo(out);
+        position += blockBytes.size();
+        blockBytes.reset();
+      }
+      keyOfRank[rank] = key;
+      rankOfKey[key] = rank;
+      long[] hash = hash(id);
+      long bits = (long) bloom.length * Long.SIZE;
+      for (int i = 0; i < BLOOM_HASHES; i++) {
+        long bit = ((hash[0] + i * hash[1]) & Long.MAX_VALUE) % bits;
+        bloom[(int) (bit / Long.SIZE)] |= 1L << (bit % Long.SIZE);
+      }
+      previous = id;
+    }
+    long blockOffsetsPosition = pad(out, position, Long.BYTES);
+    for (long offset : blockOffsets) {
+      out.writeLong(offset);
+    }
+    for (int key : keyOfRank) {
+      out.writeInt(key);
+    }
+    for (int rank : rankOfKey) {
+      out.writeInt(rank);
+    }
+    pad(out, blockOffsetsPosition + (long) blockCount * Long.BYTES
+        + (long) (count + keySlots) * Integer.BYTES, Long.BYTES);
+    for (long word : bloom) {
+      out.writeLong(word);
+    }
+    out.writeLong(blockOffsetsPosition);
+    out.writeLong(count);
+    out.writeLong(BLOCK_SIZE);
+    out.writeLong(keySlots);
+    out.writeLong(BLOOM_HASHES);
+    out.writeLong(bloom.length);
+    out.writeLong(segmentSize);
+    out.writeLong(MAGIC);
+  }
+
+  /**
+   * Writes zeros up to the next multiple of the given alignment.
+   *
+   * @return the aligned position.
+   */
+  private static long pad(DataOutputStream out, long position, int alignment) throws IOException {
+    long aligned = (position + alignment - 1) / alignment * alignment;
+    for (long i = position; i < aligned; i++) {
+      out.writeByte(0);
+    }
+    return aligned;
+  }
+
+  private static int writeVarInt(DataOutputStream out, int value) throws IOException {
+    int n = 1;
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+      n++;
+    }
+    out.writeByte(value);
+    return n;
+  }
+
+  private static long[] hash(byte[] id) {
+    ByteBuffer hash = ByteBuffer.wrap(Hashing.murmur3_128().hashBytes(id).asBytes())
+        .order(ByteOrder.LITTLE_ENDIAN);
+    return new long[]{hash.getLong(0), hash.getLong(Long.BYTES)};
+  }
+
+  @Override
+  public String toString() {
+    return "ResourceDictionary{" +
+        "file=" + file +
+        ", size=" + size() +
+        '}';
+  }
+
+  /**
+   * A source of new IRIs with their keys in the sorted order of the IRIs.
+   */
+  private interface Entries {
+
+    /**
+     * Moves to the next entry.
+     *
+     * @return {@code true}, if there is a next entry, otherwise {@code false}.
+     */
+    boolean next() throws IOException;
+
+    byte[] id();
+
+    int key();
+  }
+
+  /**
+   * A sorted run of IRIs.
+   */
+  private interface Run {
+
+    /**
+     * Reads the next IRI of this run.
+     *
+     * @return the next IRI of this run, or {@code null}, if there is none.
+     */
+    byte[] next() throws IOException;
+  }
+
+  /**
+   * The {@link Entries} of a sorted run of distinct IRIs, which get consecutive keys.
+   */
+  private static final class SequentialEntries implements Entries {
+
+    private final Run run;
+    private byte[] id;
+    private int key;
+
+    private SequentialEntries(Run run, int firstKey) {
+      this.run = run;
+      this.key = firstKey - 1;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+      id = run.next();
+      key++;
+      return id != null;
+    }
+
+    @Override
+    public byte[] id() {
+      return id;
+    }
+
+    @Override
+    public int key() {
+      return key;
+    }
+  }
+
+  /**
+   * A reader of a sorted run, which has been spilled to a file.
+   */
+  private static final class RunReader implements Run, Closeable {
+
+    private final DataInputStream in;
+    private byte[] head;
+
+    private RunReader(File runFile) throws IOException {
+      this.in = new DataInputStream(
+          new BufferedInputStream(new FileInputStream(runFile), 1 << 16));
+    }
+
+    @Override
+    public byte[] next() throws IOException {
+      int length;
+      try {
+        length = in.readInt();
+      } catch (EOFException e) {
+        return head = null;
+      }
+      head = new byte[length];
+      in.readFully(head);
+      return head;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /**
+   * The segments of a written dictionary. All the segments have the same size, except the last
+   * one, which may be smaller. Neither a block nor a number spans two segments.
+   */
+  private static final class Segments {
+
+    private static final Segments EMPTY = new Segments(new ByteBuffer[0], Long.BYTES, 0);
+
+    private final ByteBuffer[] buffers;
+    private final int segmentSize;
+    private final long size;
+
+    private Segments(ByteBuffer[] buffers, int segmentSize, long size) {
+      this.buffers = buffers;
+      this.segmentSize = segmentSize;
+      this.size = size;
+    }
+
+    /**
+     * Maps the given file in segments of the size, which is stored in its trailer.
+     */
+    private static Segments map(File file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        long size = channel.size();
+        if (size < TRAILER_SIZE) {
+          throw new IOException("The file is not a resource dictionary.");
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        while (trailer.hasRemaining()) {
+          if (channel.read(trailer, size - TRAILER_SIZE + trailer.position()) < 0) {
+            throw new EOFException();
+          }
+        }
+        long segmentSize = trailer.getLong(6 * Long.BYTES);
+        if (trailer.getLong(7 * Long.BYTES) != MAGIC) {
+          throw new IOException("The file is not a resource dictionary.");
+        }
+        if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE
+            || segmentSize % Long.BYTES != 0) {
+          throw new IOException("The segment size of the resource dictionary is corrupted.");
+        }
+        ByteBuffer[] buffers = new ByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+        for (int i = 0; i < buffers.length; i++) {
+          long position = i * segmentSize;
+          buffers[i] = channel.map(MapMode.READ_ONLY, position,
+              Math.min(segmentSize, size - position));
+        }
+        return new Segments(buffers, (int) segmentSize, size);
+      }
+    }
+
+    /**
+     * Splits the given bytes into segments of the given size.
+     */
+    private static Segments wrap(byte[] bytes, int segmentSize) {
+      ByteBuffer[] buffers = new ByteBuffer[(bytes.length + segmentSize - 1) / segmentSize];
+      for (int i = 0; i < buffers.length; i++) {
+        int position = i * segmentSize;
+        buffers[i] = ByteBuffer.wrap(bytes, position, Math.min(segmentSize,
+            bytes.length - position)).slice();
+      }
+      return new Segments(buffers, segmentSize, bytes.length);
+    }
+
+    private ByteBuffer segmentOf(long position) {
+      return buffers[(int) (position / segmentSize)];
+    }
+
+    private int offsetOf(long position) {
+      return (int) (position % segmentSize);
+    }
+
+    private int getInt(long position) {
+      return segmentOf(position).getInt(offsetOf(position));
+    }
+
+    private long getLong(long position) {
+      return segmentOf(position).getLong(offsetOf(position));
+    }
+  }
+
+  /**
+   * An immutable view on the segments of a written dictionary, which consists of the front-coded
+   * blocks, the offsets of the blocks, the keys by position, the positions by key, the words of the
+   * Bloom filter and a trailer with the sizes of these sections.
+   */
+  private static final class Index {
+
+    private static final Index EMPTY = new Index(Segments.EMPTY, 0, 0, 0, 0, 0, 0);
+
+    private final Segments segments;
+    private final int count;
+    private final int blockSize;
+    private final int keySlots;
+    private final int bloomHashes;
+    private final int bloomWords;
+    private final long blockOffsetsPosition;
+    private final long keyOfRankPosition;
+    private final long rankOfKeyPosition;
+    private final long bloomPosition;
+
+    private Index(Segments segments, long blockOffsetsPosition, int count, int blockSize,
+        int keySlots, int bloomHashes, int bloomWords) {
+      this.segments = segments;
+      this.count = count;
+      this.blockSize = blockSize;
+      this.keySlots = keySlots;
+      this.bloomHashes = bloomHashes;
+      this.bloomWords = bloomWords;
+      this.blockOffsetsPosition = blockOffsetsPosition;
+      int blockCount = blockSize > 0 ? (count + blockSize - 1) / blockSize : 0;
+      this.keyOfRankPosition = blockOffsetsPosition + (long) blockCount * Long.BYTES;
+      this.rankOfKeyPosition = keyOfRankPosition + (long) count * Integer.BYTES;
+      long bloomEnd = rankOfKeyPosition + (long) keySlots * Integer.BYTES;
+      this.bloomPosition = (bloomEnd + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+    }
+
+    private static Index of(Segments segments) throws IOException {
+      long trailer = segments.size - TRAILER_SIZE;
+      if (trailer < 0 || segments.getLong(trailer + 7 * Long.BYTES) != MAGIC) {
+        throw new IOException("The file is not a resource dictionary.");
+      }
+      long[] fields = new long[6];
+      for (int i = 0; i < fields.length; i++) {
+        fields[i] = segments.getLong(trailer + (long) i * Long.BYTES);
+        if (fields[i] < 0 || (i > 0 && fields[i] > Integer.MAX_VALUE)) {
+          throw new IOException("The sections of the resource dictionary are corrupted.");
+        }
+      }
+      Index index = new Index(segments, fields[0], (int) fields[1], (int) fields[2],
+          (int) fields[3], (int) fields[4], (int) fields[5]);
+      if (index.blockSize <= 0 || index.bloomPosition + (long) index.bloomWords * Long.BYTES
+          != trailer) {
+        throw new IOException("The sections of the resource dictionary are corrupted.");
+      }
+      return index;
+    }
+
+    private boolean mightContain(byte[] id) {
+      if (count == 0) {
+        return false;
+      }
+      long[] hash = hash(id);
+      long bits = (long) bloomWords * Long.SIZE;
+      for (int i = 0; i < bloomHashes; i++) {
+        long bit = ((hash[0] + i * hash[1]) & Long.MAX_VALUE) % bits;
+        long word = segments.getLong(bloomPosition + bit / Long.SIZE * Long.BYTES);
+        if ((word & (1L << (bit % Long.SIZE))) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private long blockOffset(int block) {
+      return segments.getLong(blockOffsetsPosition + (long) block * Long.BYTES);
+    }
+
+    private int keyOfRank(int rank) {
+      return segments.getInt(keyOfRankPosition + (long) rank * Integer.BYTES);
+    }
+
+    private int rankOfKey(int key) {
+      if (key < 0 || key >= keySlots) {
+        return ABSENT;
+      }
+      return segments.getInt(rankOfKeyPosition + (long) key * Integer.BYTES);
+    }
+
+    /**
+     * Decodes the IRI with the given rank with the given decoder, which must have decoded the IRI
+     * with the preceding rank, if the given rank isn't the first one of a block.
+     */
+    private void decode(Decoder decoder, int rank) {
+      if (rank % blockSize == 0) {
+        decoder.seek(blockOffset(rank / blockSize));
+      }
+      decoder.next();
+    }
+
+    private int rankOf(byte[] id) {
+      int low = 0;
+      int high = (count + blockSize - 1) / blockSize - 1;
+      Decoder decoder = new Decoder(segments);
+      while (low < high) {
+        int mid = (low + high + 1) >>> 1;
+        decoder.seek(blockOffset(mid));
+        decoder.next();
+        if (decoder.compareTo(id) <= 0) {
+          low = mid;
+        } else {
+          high = mid - 1;
+        }
+      }
+      decoder.seek(blockOffset(low));
+      int end = Math.min(count, (low + 1) * blockSize);
+      for (int rank = low * blockSize; rank < end; rank++) {
+        decoder.next();
+        int comparison = decoder.compareTo(id);
+        if (comparison == 0) {
+          return rank;
+        } else if (comparison > 0) {
+          break;
+        }
+      }
+      return ABSENT;
+    }
+
+    private String idAt(int rank) {
+      Decoder decoder = new Decoder(segments);
+      decoder.seek(blockOffset(rank / blockSize));
+      for (int i = rank % blockSize; i >= 0; i--) {
+        decoder.next();
+      }
+      return decoder.toId();
+    }
+  }
+
+  /**
+   * A decoder of the front-coded IRIs, which keeps the bytes of the last decoded IRI. It must be
+   * positioned at the start of a block with {@link #seek(long)}, before decoding IRIs. Since a
+   * block never spans two segments, the IRIs of a block are decoded from a single segment.
+   */
+  private static final class Decoder {
+
+    private final Segments segments;
+    private ByteBuffer segment;
+    private int position;
+    private byte[] current = new byte[64];
+    private int length;
+
+    private Decoder(Segments segments) {
+      this.segments = segments;
+    }
+
+    private void seek(long position) {
+      this.segment = segments.segmentOf(position);
+      this.position = segments.offsetOf(position);
+      this.length = 0;
+    }
+
+    private int readVarInt() {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = segment.get(position++);
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+
+    private void next() {
+      int prefix = readVarInt();
+      int suffix = readVarInt();
+      length = prefix + suffix;
+      if (length > current.length) {
+        current = Arrays.copyOf(current, Math.max(length, current.length * 2));
+      }
+      for (int i = prefix; i < length; i++) {
+        current[i] = segment.get(position++);
+      }
+    }
+
+    private int compareTo(byte[] id) {
+      int max = Math.min(length, id.length);
+      for (int i = 0; i < max; i++) {
+        int comparison = UnsignedBytes.compare(current[i], id[i]);
+        if (comparison != 0) {
+          return comparison;
+        }
+      }
+      return Integer.compare(length, id.length);
+    }
+
+    private byte[] toBytes() {
+      return Arrays.copyOf(current, length);
+    }
+
+    private String toId() {
+      return new String(current, 0, length, StandardCharsets.UTF_8);
+    }
+  }
+
+}
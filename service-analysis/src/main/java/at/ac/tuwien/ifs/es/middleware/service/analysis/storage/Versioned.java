@@ -0,0 +1,80 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * This class is a store (e.g. a map or the columns of a metric) of an analysis service in a
+ * namespace of {@link AnalysisNamespaces}. The slot, which shall be read, is looked up at each
+ * {@link #get()}, such that readers switch to the new results, as soon as they are activated. The
+ * store of each slot is opened once and kept, and it is only cleared, when new results are written
+ * into it.
+ *
+ * @param <T> the type of the store.
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class Versioned<T> {
+
+  private final AnalysisNamespaces namespaces;
+  private final String name;
+  private final Function<String, T> opener;
+  private final Consumer<T> clearer;
+
+  private final AtomicReferenceArray<T> stores = new AtomicReferenceArray<>(2);
+
+  Versioned(AnalysisNamespaces namespaces, String name, Function<String, T> opener,
+      Consumer<T> clearer) {
+    this.namespaces = namespaces;
+    this.name = name;
+    this.opener = opener;
+    this.clearer = clearer;
+  }
+
+  private T store(int slot) {
+    T store = stores.get(slot);
+    if (store == null) {
+      synchronized (this) {
+        store = stores.get(slot);
+        if (store == null) {
+          store = opener.apply(AnalysisNamespaces.slotName(name, slot));
+          stores.set(slot, store);
+        }
+      }
+    }
+    return store;
+  }
+
+  /**
+   * Gets the store of the slot, which shall be read by the current thread.
+   *
+   * @return the store of the slot, which shall be read by the current thread.
+   */
+  public T get() {
+    return store(namespaces.resolve(name));
+  }
+
+  /**
+   * Writes the results into the inactive slot with the given writer, after it has been cleared.
+   * The slot is activated at the end of the dependency chain in the current run, or immediately,
+   * if there is no run. If the writer fails, the active slot stays untouched.
+   *
+   * @param writer that writes the results into the given cleared store. It must not be null.
+   */
+  public void write(Consumer<T> writer) {
+    namespaces.write(name, slot -> {
+      T store = store(slot);
+      clearer.accept(store);
+      writer.accept(store);
+    });
+  }
+
+  @Override
+  public String toString() {
+    return "Versioned{" +
+        "name='" + name + '\'' +
+        '}';
+  }
+}
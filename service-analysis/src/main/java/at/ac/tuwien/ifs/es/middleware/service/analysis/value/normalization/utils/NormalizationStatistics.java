@@ -0,0 +1,102 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * The min, max, mean and standard deviation of the values registered with a {@link Normalizer}.
+ * They can be persisted next to the normalized values, such that values, which haven't been
+ * registered (e.g. values computed on demand), can be normalized in the same way later.
+ *
+ * @author Kevin Haller
+ * @version 1.2
+ * @since 1.2
+ */
+public final class NormalizationStatistics implements Serializable {
+
+  private final BigDecimal min;
+  private final BigDecimal max;
+  private final BigDecimal mean;
+  private final BigDecimal standardDeviation;
+
+  public NormalizationStatistics(MinMaxPair<BigDecimal> minMaxPair,
+      StatisticsPair<BigDecimal> statisticsPair) {
+    checkArgument(minMaxPair != null, "The min-max pair must not be null.");
+    checkArgument(statisticsPair != null, "The statistics pair must not be null.");
+    this.min = minMaxPair.getMin();
+    this.max = minMaxPair.getMax();
+    this.mean = statisticsPair.getMean();
+    this.standardDeviation = statisticsPair.getStandardDeviation();
+  }
+
+  public BigDecimal getMin() {
+    return min;
+  }
+
+  public BigDecimal getMax() {
+    return max;
+  }
+
+  public BigDecimal getMean() {
+    return mean;
+  }
+
+  public BigDecimal getStandardDeviation() {
+    return standardDeviation;
+  }
+
+  /**
+   * Gets the min-max normalization for the given {@code value}.
+   *
+   * @param value for which the min, max normalization shall be computed. It must not be {@code
+   *              null}.
+   * @return the min-max normalization for the given {@code value}.
+   */
+  public BigDecimal getMinMaxNormalizedValueFor(BigDecimal value) {
+    checkArgument(value != null, "The given value must not be null.");
+    if (min.compareTo(max) == 0) {
+      return min.compareTo(BigDecimal.ZERO) != 0 ? BigDecimal.ONE : min;
+    }
+    return value.subtract(min).divide(max, MathContext.DECIMAL128);
+  }
+
+  /**
+   * Gets the z-score normalization for the given {@code value}.
+   *
+   * @param value for which the z-score normalization shall be computed. It must not be {@code
+   *              null}.
+   * @return the z-score normalization for the given {@code value}.
+   */
+  public BigDecimal getZScoreNormalizedValueFor(BigDecimal value) {
+    checkArgument(value != null, "The given value must not be null.");
+    if (standardDeviation.compareTo(BigDecimal.ZERO) != 0) {
+      return value.subtract(mean).divide(standardDeviation, MathContext.DECIMAL128);
+    }
+    return BigDecimal.ZERO;
+  }
+
+  /**
+   * Normalizes the given {@code value} with the strategies min-max and z-score.
+   *
+   * @param value that shall be normalized. It must not be {@code null}.
+   * @return the given {@code value} normalized with the strategies min-max and z-score.
+   */
+  public DecimalNormalizedAnalysisValue normalize(BigDecimal value) {
+    return new DecimalNormalizedAnalysisValue(value, getMinMaxNormalizedValueFor(value),
+        getZScoreNormalizedValueFor(value));
+  }
+
+  @Override
+  public String toString() {
+    return "NormalizationStatistics{" +
+        "min=" + min +
+        ", max=" + max +
+        ", mean=" + mean +
+        ", standardDeviation=" + standardDeviation +
+        '}';
+  }
+}
@@ -138,6 +138,22 @@ public class Normalizer<ID> {
     }
   }
 
+  /**
+   * Gets the statistics (min, max, mean and standard deviation) of the registered values, which
+   * are used for the normalization.
+   *
+   * @return the statistics of the registered values, or {@link Optional#empty()}, if no value has
+   * been registered.
+   */
+  public Optional<NormalizationStatistics> getStatistics() {
+    Optional<MinMaxPair<BigDecimal>> optMinMaxPair = getMinMaxValues();
+    Optional<StatisticsPair<BigDecimal>> optStatisticsPair = getZScoreStatistics();
+    if (!optMinMaxPair.isPresent() || !optStatisticsPair.isPresent()) {
+      return Optional.empty();
+    }
+    return Optional.of(new NormalizationStatistics(optMinMaxPair.get(), optStatisticsPair.get()));
+  }
+
   /**
    * Gets the min-max normalization for the given {@code value}.
    *
@@ -145,22 +161,7 @@ public class Normalizer<ID> {
    */
   public Optional<BigDecimal> getMinMaxNormalizedValueFor(BigDecimal value) {
     checkArgument(value != null, "The given value must not be null.");
-    Optional<MinMaxPair<BigDecimal>> optMinMaxPair = getMinMaxValues();
-    if (!optMinMaxPair.isPresent()) {
-      return Optional.empty();
-    }
-    MinMaxPair<BigDecimal> p = optMinMaxPair.get();
-    boolean isSame = p.getMin().compareTo(optMinMaxPair.get().getMax()) == 0;
-    boolean isNotZero = p.getMin().compareTo(BigDecimal.ZERO) != 0;
-    if (isSame) {
-      if (isNotZero) {
-        return Optional.of(BigDecimal.ONE);
-      } else {
-        return Optional.of(p.getMin());
-      }
-    } else {
-      return Optional.of(value.subtract(p.getMin()).divide(p.getMax(), MathContext.DECIMAL128));
-    }
+    return getStatistics().map(statistics -> statistics.getMinMaxNormalizedValueFor(value));
   }
 
   /**
@@ -187,18 +188,7 @@ public class Normalizer<ID> {
    */
   public Optional<BigDecimal> getZScoreNormalizedValueFor(BigDecimal value) {
     checkArgument(value != null, "The given value must not be null.");
-    Optional<StatisticsPair<BigDecimal>> optStatisticsPair = getZScoreStatistics();
-    if (!optStatisticsPair.isPresent()) {
-      return Optional.empty();
-    }
-    StatisticsPair<BigDecimal> statisticsPair = optStatisticsPair.get();
-    BigDecimal mean = statisticsPair.getMean();
-    BigDecimal sd = statisticsPair.getStandardDeviation();
-    if (sd.compareTo(BigDecimal.ZERO) != 0) {
-      return Optional.of(value.subtract(mean).divide(sd, MathContext.DECIMAL128));
-    } else {
-      return Optional.of(BigDecimal.ZERO);
-    }
+    return getStatistics().map(statistics -> statistics.getZScoreNormalizedValueFor(value));
   }
 
   /**
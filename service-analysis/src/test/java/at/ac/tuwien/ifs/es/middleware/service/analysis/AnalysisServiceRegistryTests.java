@@ -0,0 +1,107 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * This class tests the registration of annotated {@link AnalysisService}s with the {@link
+ * AnalysisServiceRegistry}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class AnalysisServiceRegistryTests {
+
+  /**
+   * Scans the fake analysis services with the given properties and returns whether each registered
+   * service is disabled.
+   */
+  private static Map<String, Boolean> register(Map<String, Object> properties) {
+    try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+      context.getEnvironment().getPropertySources()
+          .addFirst(new MapPropertySource("test", properties));
+      context.register(DefaultService.class, OptInService.class, ReplacingService.class);
+      context.refresh();
+      AnalysisServiceRegistry registry = new AnalysisServiceRegistry(context.getEnvironment());
+      registry.scanAndRegisterAnalysisServices(context);
+      return registry.getRegisteredAnalysisServices().stream().collect(
+          Collectors.toMap(AnalysisServiceEntry::getName, AnalysisServiceEntry::isDisabled));
+    }
+  }
+
+  @Test
+  public void servicesDisabledByAnnotation_mustNotBeRegistered() {
+    assertEquals(Collections.singletonMap("default", false), register(Collections.emptyMap()));
+  }
+
+  @Test
+  public void disablePropertySetToFalse_mustNotEnableServiceDisabledByAnnotation() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("esm.analysis.disable.opt-in", "false");
+    properties.put("esm.analysis.disable.default", "true");
+    assertEquals(Collections.singletonMap("default", true), register(properties));
+  }
+
+  @Test
+  public void enabledService_mustBeRegistered() {
+    Map<String, Boolean> expected = new HashMap<>();
+    expected.put("default", false);
+    expected.put("opt-in", false);
+    assertEquals(expected,
+        register(Collections.singletonMap("esm.analysis.enable.opt-in", "true")));
+  }
+
+  @Test
+  public void enabledReplacingService_mustDisableReplacedService() {
+    Map<String, Boolean> expected = new HashMap<>();
+    expected.put("default", true);
+    expected.put("replacing", false);
+    assertEquals(expected,
+        register(Collections.singletonMap("esm.analysis.enable.replacing", "true")));
+  }
+
+  @Test
+  public void disabledReplacingService_mustNotDisableReplacedService() {
+    Map<String, Object> properties = new HashMap<>();
+    properties.put("esm.analysis.enable.replacing", "true");
+    properties.put("esm.analysis.disable.replacing", "true");
+    Map<String, Boolean> expected = new HashMap<>();
+    expected.put("default", false);
+    expected.put("replacing", true);
+    assertEquals(expected, register(properties));
+  }
+
+  @RegisterForAnalyticalProcessing(name = "default")
+  public static class DefaultService implements AnalysisService {
+
+    @Override
+    public void compute() {
+    }
+  }
+
+  @RegisterForAnalyticalProcessing(name = "opt-in", disabled = true)
+  public static class OptInService implements AnalysisService {
+
+    @Override
+    public void compute() {
+    }
+  }
+
+  @RegisterForAnalyticalProcessing(name = "replacing", disabled = true,
+      replaces = DefaultService.class)
+  public static class ReplacingService implements AnalysisService {
+
+    @Override
+    public void compute() {
+    }
+  }
+
+}
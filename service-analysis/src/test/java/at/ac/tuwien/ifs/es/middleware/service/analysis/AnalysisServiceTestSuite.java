@@ -3,6 +3,7 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.AllClassesServiceTests;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.ClassHierarchyTests;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.DegreeCentralityMetricServiceTests;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.DegreeCentralityMetricWithSPARQLServiceTests;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.PageRankCentralityMetricServiceTests;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.PeerPressureClusteringMetricServiceTests;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.classentropy.ClassEntropyWithGremlinServiceTests;
@@ -35,7 +36,8 @@ import org.junit.runners.Suite.SuiteClasses;
     ClassEntropyWithSPARQLServiceTests.class, ClassEntropyWithGremlinServiceTests.class,
     DegreeCentralityMetricServiceTests.class, PageRankCentralityMetricServiceTests.class,
     PeerPressureClusteringMetricServiceTests.class, SameAsResourceServiceTests.class,
-    UnweightedLDSDMetricServiceTests.class, ClassResourceWithGremlinServiceTests.class})
+    UnweightedLDSDMetricServiceTests.class, ClassResourceWithGremlinServiceTests.class,
+    DegreeCentralityMetricWithSPARQLServiceTests.class})
 public class AnalysisServiceTestSuite {
 
 }
@@ -24,6 +24,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllReso
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleGremlinService;
@@ -57,7 +58,8 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     SimpleSPARQLService.class, RDF4JMemoryStoreWithLuceneSparqlDAO.class,
     ClonedInMemoryGremlinDAO.class, ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class,
     ThreadPoolConfig.class, AllClassesWithSPARQLService.class, SpringCacheConfig.class,
-    SameAsResourceWithSPARQLService.class, MapDBDummy.class, AllResourcesWithSPARQLService.class,
+    SameAsResourceWithSPARQLService.class, MapDBDummy.class,
+    AnalysisNamespaces.class, AllResourcesWithSPARQLService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
     WineOntologyDatasetResource.class, ClassHierarchyWithSPARQLService.class})
 @TestPropertySource(properties = {
@@ -2,6 +2,7 @@ package at.ac.tuwien.ifs.es.middleware.service.analysis.analysis;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.junit.Assert.assertNull;
 
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.DAODependencyGraphService;
@@ -17,6 +18,8 @@ import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.degree.DegreeCentralityMetricService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.degree.DegreeCentralityMetricWithGremlinService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleGremlinService;
@@ -45,9 +48,10 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 @ContextConfiguration(classes = {SimpleGremlinService.class, RDF4JLuceneFullTextSearchDAO.class,
     RDF4JMemoryStoreWithLuceneSparqlDAO.class, ClonedInMemoryGremlinDAO.class,
     ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class, ThreadPoolConfig.class,
-    MapDBDummy.class, WineOntologyDatasetResource.class,
+    MapDBDummy.class, AnalysisNamespaces.class, WineOntologyDatasetResource.class,
     SimpleSPARQLService.class, AllResourcesWithSPARQLService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
+    MetricColumnStore.class,
     DegreeCentralityMetricWithGremlinService.class})
 @TestPropertySource(properties = {
     "esm.db.choice=RDF4J",
@@ -85,6 +89,20 @@ public class DegreeCentralityMetricServiceTests {
         is(1L));
   }
 
+  @Test
+  public void computeDegreeMetrics_mustReturnTotalDegreeAsSumOfInAndOutDegree() {
+    Resource resource = new Resource(
+        "http://www.w3.org/TR/2003/PR-owl-guide-20031209/wine#SweetRiesling");
+    long inDegree = degreeCentralityMetricService.getInDegreeFor(resource).getValue()
+        .longValue();
+    long outDegree = degreeCentralityMetricService.getOutDegreeFor(resource).getValue()
+        .longValue();
+    assertThat(inDegree, is(2L));
+    assertThat(outDegree, greaterThan(0L));
+    assertThat(degreeCentralityMetricService.getTotalDegreeFor(resource).getValue().longValue(),
+        is(inDegree + outDegree));
+  }
+
   @Test
   public void computeDegreeMetricsAndGetForUnknownResource_mustReturnNull() {
     DecimalNormalizedAnalysisValue distanceForUnknownResource = degreeCentralityMetricService
@@ -20,6 +20,8 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank.PageR
 import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank.PageRankCentralityMetricWithGremlinService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleGremlinService;
@@ -47,8 +49,10 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 @ContextConfiguration(classes = {SimpleGremlinService.class, RDF4JLuceneFullTextSearchDAO.class,
     RDF4JMemoryStoreWithLuceneSparqlDAO.class, ClonedInMemoryGremlinDAO.class,
     ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class, ThreadPoolConfig.class,
-    AllResourcesWithSPARQLService.class, MapDBDummy.class, WineOntologyDatasetResource.class,
+    AllResourcesWithSPARQLService.class, MapDBDummy.class,
+    AnalysisNamespaces.class, WineOntologyDatasetResource.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
+    MetricColumnStore.class,
     SimpleSPARQLService.class, PageRankCentralityMetricWithGremlinService.class})
 @TestPropertySource(properties = {
     "esm.db.choice=RDF4J",
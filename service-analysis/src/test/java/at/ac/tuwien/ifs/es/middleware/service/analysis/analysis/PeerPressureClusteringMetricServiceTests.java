@@ -18,6 +18,8 @@ import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
 import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.similarity.peerpressure.PeerPressureClusteringMetricService;
@@ -50,9 +52,10 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     RDF4JLuceneFullTextSearchDAO.class, RDF4JMemoryStoreWithLuceneSparqlDAO.class,
     ClonedInMemoryGremlinDAO.class, ThreadPoolConfig.class, PrimaryKGDAOConfig.class,
     RDF4JDAOConfig.class,
-    ThreadPoolConfig.class, SpringCacheConfig.class, MapDBDummy.class,
+    ThreadPoolConfig.class, SpringCacheConfig.class, MapDBDummy.class, AnalysisNamespaces.class,
     WineOntologyDatasetResource.class, PeerPressureClusteringMetricWithGremlinService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
+    MetricColumnStore.class,
     AllResourcesWithSPARQLService.class})
 @TestPropertySource(properties = {
     "esm.db.choice=RDF4J",
@@ -19,6 +19,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllReso
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleSPARQLService;
@@ -49,7 +50,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 @ContextConfiguration(classes = {PrimaryKGDAOConfig.class, RDF4JDAOConfig.class,
     ClonedInMemoryGremlinDAO.class, RDF4JMemoryStoreWithLuceneSparqlDAO.class,
     RDF4JLuceneFullTextSearchDAO.class, ThreadPoolConfig.class,
-    SimpleSPARQLService.class, MapDBDummy.class, SpringCacheConfig.class,
+    SimpleSPARQLService.class, MapDBDummy.class, AnalysisNamespaces.class, SpringCacheConfig.class,
     WineOntologyDatasetResource.class, AllResourcesWithSPARQLService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
     ResourceClassWithSPARQLService.class})
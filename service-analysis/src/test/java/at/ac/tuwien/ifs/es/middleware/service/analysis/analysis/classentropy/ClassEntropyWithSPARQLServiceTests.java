@@ -14,6 +14,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.AllClasse
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.ClassEntropyWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleGremlinService;
@@ -38,7 +39,8 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     SimpleSPARQLService.class, RDF4JMemoryStoreWithLuceneSparqlDAO.class,
     ClonedInMemoryGremlinDAO.class, ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class,
     ThreadPoolConfig.class, AllClassesWithSPARQLService.class, SpringCacheConfig.class,
-    AllResourcesWithSPARQLService.class, MapDBDummy.class, WineOntologyDatasetResource.class,
+    AllResourcesWithSPARQLService.class, MapDBDummy.class,
+    AnalysisNamespaces.class, WineOntologyDatasetResource.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
     ClassEntropyWithSPARQLService.class})
 @TestPropertySource(properties = {
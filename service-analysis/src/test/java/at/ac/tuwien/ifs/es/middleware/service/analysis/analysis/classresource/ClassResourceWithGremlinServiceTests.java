@@ -18,6 +18,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllReso
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ClassResourceWithGremlinService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleGremlinService;
@@ -35,6 +36,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     ClonedInMemoryGremlinDAO.class, RDF4JMemoryStoreWithLuceneSparqlDAO.class,
     RDF4JLuceneFullTextSearchDAO.class, ThreadPoolConfig.class,
     SimpleSPARQLService.class, SimpleGremlinService.class, MapDBDummy.class,
+    AnalysisNamespaces.class,
     SpringCacheConfig.class,
     WineOntologyDatasetResource.class, AllResourcesWithSPARQLService.class,
     ClassHierarchyWithSPARQLService.class, AllClassesWithSPARQLService.class,
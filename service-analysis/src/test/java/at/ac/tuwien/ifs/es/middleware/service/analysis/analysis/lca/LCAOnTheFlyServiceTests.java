@@ -20,6 +20,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.Resourc
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleSPARQLService;
@@ -44,6 +45,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class, ThreadPoolConfig.class,
     SameAsResourceWithSPARQLService.class, SpringCacheConfig.class,
     AllResourcesWithSPARQLService.class, AllClassesWithSPARQLService.class, MapDBDummy.class,
+    AnalysisNamespaces.class,
     WineOntologyDatasetResource.class, ClassHierarchyWithSPARQLService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
     ResourceClassWithSPARQLService.class, LCAOnTheFlyService.class})
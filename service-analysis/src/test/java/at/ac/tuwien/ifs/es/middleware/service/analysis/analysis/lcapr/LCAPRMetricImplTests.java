@@ -14,6 +14,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.AllClasse
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.AllClassesWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidatesProvider;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.lca.LCAOnTheFlyService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
@@ -22,6 +23,8 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.Resourc
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.similarity.icpr.LCAPRMetricImpl;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.MetricColumnStore;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleGremlinService;
@@ -47,9 +50,11 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class, ThreadPoolConfig.class,
     SimpleGremlinService.class, SameAsResourceWithSPARQLService.class, SpringCacheConfig.class,
     AllResourcesWithSPARQLService.class, AllClassesWithSPARQLService.class, MapDBDummy.class,
+    AnalysisNamespaces.class, SharedAncestorCandidatesProvider.class,
     WineOntologyDatasetResource.class, ClassHierarchyWithSPARQLService.class,
     ResourceClassWithSPARQLService.class, LCAOnTheFlyService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
+    MetricColumnStore.class,
     PageRankCentralityMetricWithGremlinService.class, LCAPRMetricImpl.class})
 @TestPropertySource(properties = {
     "esm.db.choice=RDF4J",
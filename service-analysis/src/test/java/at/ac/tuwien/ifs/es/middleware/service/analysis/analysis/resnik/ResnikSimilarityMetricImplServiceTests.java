@@ -1,5 +1,9 @@
 package at.ac.tuwien.ifs.es.middleware.service.analysis.analysis.resnik;
 
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.DAODependencyGraphService;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.DAOScheduler;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.config.PrimaryKGDAOConfig;
@@ -8,12 +12,15 @@ import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.gremlin.ClonedInMemoryG
 import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.store.RDF4JDAOConfig;
 import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.store.RDF4JLuceneFullTextSearchDAO;
 import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.store.RDF4JMemoryStoreWithLuceneSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.ResourcePair;
 import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.AllClassesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.AllClassesWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.classes.ClassEntropyWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.SharedAncestorCandidatesProvider;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.lca.LCAOnTheFlyService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
@@ -21,12 +28,25 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.Resourc
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.similarity.resnik.ResnikSimilarityMetricService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.similarity.resnik.ResnikSimilarityMetricServiceImpl;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.NormalizationStrategy;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.testutil.MapDBDummy;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.testutil.WineOntologyDatasetResource;
 import org.junit.Before;
+import org.junit.Test;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
@@ -46,6 +66,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class, ThreadPoolConfig.class,
     SameAsResourceWithSPARQLService.class, SpringCacheConfig.class,
     AllResourcesWithSPARQLService.class, AllClassesWithSPARQLService.class, MapDBDummy.class,
+    AnalysisNamespaces.class, SharedAncestorCandidatesProvider.class,
     WineOntologyDatasetResource.class, ClassHierarchyWithSPARQLService.class,
     ClassEntropyWithSPARQLService.class, ResourceClassWithSPARQLService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class,
@@ -55,6 +76,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     "esm.db.sparql.choice=RDF4JMemoryStoreWithLucene",
     "esm.db.fts.choice=RDF4JLucene",
     "esm.db.gremlin.choice=ClonedInMemoryGremlin",
+    "esm.analysis.sim.topk=1",
 })
 public class ResnikSimilarityMetricImplServiceTests extends ResnikSimilarityMetricServiceTests {
 
@@ -68,6 +90,8 @@ public class ResnikSimilarityMetricImplServiceTests extends ResnikSimilarityMetr
   private ClassHierarchyService classHierarchyService;
   @Autowired
   private ResourceClassService resourceClassService;
+  @Autowired
+  private ResnikSimilarityMetricService resnikSimilarityMetricService;
 
   @Override
   @Before
@@ -80,4 +104,27 @@ public class ResnikSimilarityMetricImplServiceTests extends ResnikSimilarityMetr
     super.setUp();
   }
 
+  @Test
+  public void valuesComputedOnTheFly_mustBeNormalizedLikeStoredValues() {
+    /* only the most similar partner of a resource is stored, all the other values are computed on
+    the fly; equal values must have the same normalized values in both cases */
+    List<Resource> resources = allResourcesService.getResourceList();
+    Map<BigDecimal, Set<List<BigDecimal>>> normalizedValuesMap = new HashMap<>();
+    for (Resource resource : resources.subList(0, 5)) {
+      for (Resource partner : resources) {
+        DecimalNormalizedAnalysisValue value = resnikSimilarityMetricService
+            .getValueFor(ResourcePair.of(resource, partner));
+        assertTrue(value.getValueOfStrategy(NormalizationStrategy.MinMax).isPresent());
+        assertTrue(value.getValueOfStrategy(NormalizationStrategy.ZScore).isPresent());
+        normalizedValuesMap.computeIfAbsent(value.getValue().stripTrailingZeros(),
+            v -> new HashSet<>()).add(Arrays.asList(
+            value.getValueOfStrategy(NormalizationStrategy.MinMax).get().stripTrailingZeros(),
+            value.getValueOfStrategy(NormalizationStrategy.ZScore).get().stripTrailingZeros()));
+      }
+    }
+    for (Entry<BigDecimal, Set<List<BigDecimal>>> entry : normalizedValuesMap.entrySet()) {
+      assertThat(entry.getValue(), hasSize(1));
+    }
+  }
+
 }
@@ -0,0 +1,91 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.adjacency.CSRAdjacencyIndex;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests {@link CSRPageRank}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class CSRPageRankTests {
+
+  private static final String P = "http://example.org/p";
+
+  @Test
+  public void computeOnCycle_mustReturnUniformRanks() {
+    CSRAdjacencyIndex index = CSRAdjacencyIndex.builder().addEdge(0, P, 1).addEdge(1, P, 2)
+        .addEdge(2, P, 0).build();
+    CSRPageRank.Result result = new CSRPageRank(index, 0.85, 1e-9, 100, 2).compute();
+    assertTrue(result.isConverged());
+    for (double rank : result.getRanks()) {
+      assertEquals(1.0 / 3, rank, 1e-9);
+    }
+  }
+
+  @Test
+  public void computeWithDanglingVertex_mustSumUpToOne() {
+    CSRAdjacencyIndex index = CSRAdjacencyIndex.builder().addEdge(0, P, 2).addEdge(1, P, 2)
+        .addEdge(3, P, 2).addEdge(2, P, 4).build();
+    CSRPageRank.Result result = new CSRPageRank(index, 0.85, 1e-10, 200, 3).compute();
+    assertTrue(result.isConverged());
+    double[] ranks = result.getRanks();
+    assertEquals(1.0, Arrays.stream(ranks).sum(), 1e-9);
+    assertTrue(ranks[2] > ranks[0]);
+    assertTrue(ranks[4] > ranks[2]);
+    assertEquals(ranks[0], ranks[1], 1e-12);
+  }
+
+  @Test
+  public void computeWithKeysStartingAtOne_mustIgnoreUnusedKeys() {
+    CSRAdjacencyIndex index = CSRAdjacencyIndex.builder().addEdge(1, P, 2).addEdge(2, P, 3)
+        .addEdge(3, P, 1).addEdge(5, P, 1).build();
+    CSRPageRank.Result result = new CSRPageRank(index, 0.85, 1e-10, 200, 2).compute();
+    assertTrue(result.isConverged());
+    double[] ranks = result.getRanks();
+    assertEquals(0.0, ranks[0], 0.0);
+    assertEquals(0.0, ranks[4], 0.0);
+    assertEquals(1.0, Arrays.stream(ranks).sum(), 1e-9);
+    /* vertex 5 is only reached by teleportation among the 4 used keys */
+    assertEquals(0.15 / 4, ranks[5], 1e-9);
+  }
+
+  @Test
+  public void computeWithDifferentParallelism_mustReturnSameRanks() {
+    CSRAdjacencyIndex.Builder builder = CSRAdjacencyIndex.builder();
+    for (int v = 0; v < 100; v++) {
+      builder.addEdge(v, P, (v * 7 + 3) % 100).addEdge(v, P, (v * v) % 97);
+    }
+    CSRAdjacencyIndex index = builder.build();
+    double[] sequential = new CSRPageRank(index, 0.85, 1e-12, 500, 1).compute().getRanks();
+    double[] parallel = new CSRPageRank(index, 0.85, 1e-12, 500, 8).compute().getRanks();
+    for (int v = 0; v < sequential.length; v++) {
+      assertEquals(sequential[v], parallel[v], 1e-12);
+    }
+  }
+
+  @Test
+  public void computeWithTooFewIterations_mustNotConverge() {
+    CSRAdjacencyIndex index = CSRAdjacencyIndex.builder().addEdge(0, P, 1).addEdge(1, P, 1)
+        .build();
+    CSRPageRank.Result result = new CSRPageRank(index, 0.85, 1e-12, 1, 1).compute();
+    assertFalse(result.isConverged());
+    assertEquals(1, result.getIterations());
+  }
+
+  @Test
+  public void createWithInvalidDamping_mustThrowIllegalArgumentException() {
+    CSRAdjacencyIndex index = CSRAdjacencyIndex.builder().addEdge(0, P, 1).build();
+    assertThrows(IllegalArgumentException.class,
+        () -> new CSRPageRank(index, 1.0, 1e-6, 10, 1));
+  }
+
+}
@@ -0,0 +1,200 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ResourceClassService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+/**
+ * This class tests the generation of candidate partners with {@link SharedAncestorCandidates}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SharedAncestorCandidatesTests {
+
+  private static final Resource THING = new Resource("test://Thing");
+  private static final Resource WINE = new Resource("test://Wine");
+  private static final Resource WHITE_WINE = new Resource("test://WhiteWine");
+  private static final Resource FOOD = new Resource("test://Food");
+
+  private List<Resource> resources;
+  private AllResourcesService allResourcesService;
+  private ResourceClassService resourceClassService;
+  private ClassHierarchyService classHierarchyService;
+  private SharedAncestorCandidates candidates;
+
+  @BeforeEach
+  public void setUp() {
+    resources = Arrays.asList(new Resource("test://w1"),
+        new Resource("test://w2"), new Resource("test://w3"), new Resource("test://f1"),
+        new Resource("test://x"));
+    Map<Resource, Set<Resource>> classMap = new HashMap<>();
+    classMap.put(resources.get(0), new HashSet<>(Arrays.asList(WHITE_WINE)));
+    classMap.put(resources.get(1), new HashSet<>(Arrays.asList(WHITE_WINE)));
+    classMap.put(resources.get(2), new HashSet<>(Arrays.asList(WINE)));
+    classMap.put(resources.get(3), new HashSet<>(Arrays.asList(FOOD)));
+    Map<Resource, Set<Resource>> superClassMap = new HashMap<>();
+    superClassMap.put(WHITE_WINE, new HashSet<>(Arrays.asList(WINE, THING)));
+    superClassMap.put(WINE, new HashSet<>(Arrays.asList(THING)));
+    superClassMap.put(FOOD, new HashSet<>(Arrays.asList(THING)));
+    allResourcesService = new AllResourcesService() {
+      @Override
+      public List<Resource> getResourceList() {
+        return resources;
+      }
+
+      @Override
+      public Optional<Integer> getResourceKey(Resource resource) {
+        int index = resources.indexOf(resource);
+        return index >= 0 ? Optional.of(index + 1) : Optional.empty();
+      }
+
+      @Override
+      public Optional<String> getResourceIdFor(Integer key) {
+        return key > 0 && key <= resources.size() ? Optional.of(resources.get(key - 1).getId())
+            : Optional.empty();
+      }
+
+      @Override
+      public void compute() {
+      }
+    };
+    resourceClassService = new ResourceClassService() {
+      @Override
+      public Optional<Set<Resource>> getClassesOf(Resource instance) {
+        return Optional.ofNullable(classMap.get(instance));
+      }
+
+      @Override
+      public void compute() {
+      }
+    };
+    classHierarchyService = new ClassHierarchyService() {
+      @Override
+      public Set<Resource> getAllClasses(Set<Resource> classes) {
+        Set<Resource> allClasses = new HashSet<>(classes);
+        classes.forEach(c -> allClasses.addAll(superClassMap.get(c)));
+        return allClasses;
+      }
+
+      @Override
+      public Set<Resource> getMostSpecificClasses(Set<Resource> classes) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Set<Resource> getSuperClasses(Resource classResource) {
+        return superClassMap.get(classResource);
+      }
+
+      @Override
+      public Set<Resource> getSubClasses(Resource classResource) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Set<Resource> getLowestCommonAncestor(Resource classA, Resource classB) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public Set<Resource> getLowestCommonAncestor(Set<Resource> classAList,
+          Set<Resource> classBList) {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void compute() {
+      }
+    };
+    candidates = SharedAncestorCandidates
+        .build(allResourcesService, resourceClassService, classHierarchyService, 0);
+  }
+
+  @Test
+  public void candidates_mustBeOrderedBySharedClasses() {
+    assertArrayEquals(new int[]{1, 2, 3, 4}, candidates.getResourceKeys());
+    assertArrayEquals(new int[]{2, 3, 4}, candidates.getCandidatesFor(1, 0));
+    assertArrayEquals(new int[]{1, 2, 3}, candidates.getCandidatesFor(4, 0));
+    assertArrayEquals(new int[0], candidates.getCandidatesFor(5, 0));
+  }
+
+  @Test
+  public void limitedCandidates_mustBeTakenFromMostSpecificClasses() {
+    assertArrayEquals(new int[]{2, 3}, candidates.getCandidatesFor(1, 2));
+    assertArrayEquals(new int[]{2}, candidates.getCandidatesFor(1, 1));
+  }
+
+  @Test
+  public void limitedCandidates_mustStopWithinLargeClass() {
+    assertArrayEquals(new int[]{1}, candidates.getCandidatesFor(4, 1));
+  }
+
+  @Test
+  public void classesAboveMaxClassSize_mustBeIgnored() {
+    SharedAncestorCandidates cappedCandidates = SharedAncestorCandidates
+        .build(allResourcesService, resourceClassService, classHierarchyService, 3);
+    assertArrayEquals(new int[]{1, 2, 3, 4}, cappedCandidates.getResourceKeys());
+    assertArrayEquals(new int[]{2, 3}, cappedCandidates.getCandidatesFor(1, 0));
+    assertArrayEquals(new int[0], cappedCandidates.getCandidatesFor(4, 0));
+  }
+
+  @Test
+  public void providedCandidates_mustBeSharedWithinChain() {
+    DB db = DBMaker.memoryDB().transactionEnable().make();
+    try {
+      AnalysisNamespaces namespaces = new AnalysisNamespaces(db);
+      SharedAncestorCandidatesProvider provider = new SharedAncestorCandidatesProvider(
+          allResourcesService, resourceClassService, classHierarchyService, namespaces);
+      assertNotSame(provider.getCandidates(), provider.getCandidates());
+      namespaces.beginRun(Collections.singleton(new HashSet<>(Arrays.asList("lcs", "resnik"))));
+      List<SharedAncestorCandidates> provided = new LinkedList<>();
+      namespaces.inRun("lcs", () -> provided.add(provider.getCandidates())).run();
+      namespaces.inRun("resnik", () -> provided.add(provider.getCandidates())).run();
+      assertSame(provided.get(0), provided.get(1));
+      assertArrayEquals(new int[]{2, 3, 4}, provided.get(0).getCandidatesFor(1, 0));
+    } finally {
+      db.close();
+    }
+  }
+
+  @Test
+  public void topPairs_mustKeepMostSimilarPartners() {
+    List<String> pairs = new LinkedList<>();
+    candidates.forEachTopPair(1, 0, pair -> pair.getSecond().getId().startsWith("test://f")
+            ? null : resources.indexOf(pair.getSecond()), Integer::compare,
+        (resourceKey, partnerKey, value) -> pairs.add(resourceKey + "-" + partnerKey));
+    assertEquals(Arrays.asList("1-3", "2-3", "3-2", "4-3"),
+        pairs.stream().sorted().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void topPairsWithoutOrder_mustKeepFirstCandidates() {
+    List<String> pairs = new LinkedList<>();
+    candidates.forEachTopPair(1, 0, pair -> 1, null,
+        (resourceKey, partnerKey, value) -> pairs.add(resourceKey + "-" + partnerKey));
+    assertEquals(Arrays.asList("1-2", "2-1", "3-1", "4-1"), pairs);
+  }
+
+}
@@ -0,0 +1,162 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+/**
+ * This class tests the activation of slots in {@link AnalysisNamespaces}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class AnalysisNamespacesTests {
+
+  private DB db;
+  private AnalysisNamespaces namespaces;
+
+  @BeforeEach
+  public void setUp() {
+    db = DBMaker.memoryDB().transactionEnable().make();
+    namespaces = new AnalysisNamespaces(db);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    db.close();
+  }
+
+  private Versioned<HTreeMap<String, Integer>> versioned(AnalysisNamespaces namespaces,
+      String name) {
+    return namespaces.versioned(name,
+        slotName -> db.hashMap(slotName, Serializer.STRING, Serializer.INTEGER).createOrOpen(),
+        map -> CompactMaps.clear(db, map));
+  }
+
+  private static void put(Versioned<HTreeMap<String, Integer>> store, int value) {
+    store.write(map -> map.put("value", value));
+  }
+
+  private static int value(Versioned<HTreeMap<String, Integer>> store) {
+    return store.get().get("value");
+  }
+
+  private static Set<String> chain(String... serviceNames) {
+    return new HashSet<>(Arrays.asList(serviceNames));
+  }
+
+  @Test
+  public void writeWithoutRun_mustBeActivatedImmediatelyInOneOfTwoSlots() {
+    Versioned<HTreeMap<String, Integer>> store = versioned(namespaces, "a");
+    for (int value = 1; value <= 5; value++) {
+      put(store, value);
+      assertEquals(value, value(store));
+    }
+    assertEquals(new HashSet<>(Arrays.asList("a", AnalysisNamespaces.slotName("a", 1))),
+        StreamSupport.stream(db.getAllNames().spliterator(), false)
+            .filter(name -> name.startsWith("a")).collect(Collectors.toSet()));
+    Versioned<HTreeMap<String, Integer>> restartedStore = versioned(new AnalysisNamespaces(db),
+        "a");
+    assertEquals(5, value(restartedStore));
+  }
+
+  @Test
+  public void pendingSlots_mustOnlyBeReadByChainUntilItIsCompleted() {
+    Versioned<HTreeMap<String, Integer>> storeA = versioned(namespaces, "a");
+    Versioned<HTreeMap<String, Integer>> storeB = versioned(namespaces, "b");
+    put(storeA, 1);
+    put(storeB, 1);
+    namespaces.beginRun(Collections.singleton(chain("a", "b")));
+    namespaces.inRun("a", () -> put(storeA, 2)).run();
+    assertEquals(1, value(storeA));
+    namespaces.inRun("b", () -> put(storeB, value(storeA) + 1)).run();
+    assertEquals(2, value(storeA));
+    assertEquals(3, value(storeB));
+  }
+
+  @Test
+  public void failedWrite_mustKeepActiveSlot() {
+    Versioned<HTreeMap<String, Integer>> store = versioned(namespaces, "a");
+    put(store, 1);
+    assertThrows(IllegalStateException.class, () -> store.write(map -> {
+      map.put("value", 2);
+      throw new IllegalStateException();
+    }));
+    assertEquals(1, value(store));
+  }
+
+  @Test
+  public void failedChain_mustNotHoldBackOtherChains() {
+    Versioned<HTreeMap<String, Integer>> storeA = versioned(namespaces, "a");
+    Versioned<HTreeMap<String, Integer>> storeC = versioned(namespaces, "c");
+    put(storeA, 1);
+    put(storeC, 1);
+    namespaces.beginRun(Arrays.asList(chain("a", "b"), chain("c")));
+    namespaces.inRun("a", () -> put(storeA, 2)).run();
+    assertThrows(IllegalStateException.class, () -> namespaces.inRun("b", () -> {
+      throw new IllegalStateException();
+    }).run());
+    namespaces.inRun("c", () -> put(storeC, 2)).run();
+    assertEquals(1, value(storeA));
+    assertEquals(2, value(storeC));
+    assertEquals(Collections.singleton("a"), namespaces.abandonRun());
+    assertTrue(namespaces.abandonRun().isEmpty());
+  }
+
+  @Test
+  public void computedServicesOfUnfinishedChain_mustBeReturnedAfterRestart() {
+    Versioned<HTreeMap<String, Integer>> store = versioned(namespaces, "a");
+    put(store, 1);
+    namespaces.beginRun(Collections.singleton(chain("a", "b")));
+    namespaces.inRun("a", () -> put(store, 2)).run();
+    AnalysisNamespaces restartedNamespaces = new AnalysisNamespaces(db);
+    assertEquals(1, value(versioned(restartedNamespaces, "a")));
+    assertEquals(Collections.singleton("a"), restartedNamespaces.abandonRun());
+  }
+
+  @Test
+  public void activation_mustPublishEventWithActivatedNamespaces() {
+    List<Object> events = new ArrayList<>();
+    AnalysisNamespaces publishingNamespaces = new AnalysisNamespaces(db, events::add);
+    Versioned<HTreeMap<String, Integer>> storeA = versioned(publishingNamespaces, "a");
+    Versioned<HTreeMap<String, Integer>> storeB = versioned(publishingNamespaces, "b");
+    publishingNamespaces.beginRun(Collections.singleton(chain("a", "b")));
+    publishingNamespaces.inRun("a", () -> put(storeA, 1)).run();
+    assertTrue(events.isEmpty());
+    publishingNamespaces.inRun("b", () -> put(storeB, 1)).run();
+    assertEquals(1, events.size());
+    assertEquals(chain("a", "b"),
+        ((AnalysisResultsActivatedEvent) events.get(0)).getNamespaceNames());
+  }
+
+  @Test
+  public void writeOfSupersededRun_mustBeSkipped() {
+    Versioned<HTreeMap<String, Integer>> store = versioned(namespaces, "a");
+    put(store, 1);
+    namespaces.beginRun(Collections.singleton(chain("a")));
+    Runnable supersededComputation = namespaces.inRun("a", () -> put(store, 2));
+    namespaces.beginRun(Collections.singleton(chain("a")));
+    namespaces.inRun("a", () -> put(store, 3)).run();
+    supersededComputation.run();
+    assertEquals(3, value(store));
+    assertTrue(namespaces.abandonRun().isEmpty());
+  }
+
+}
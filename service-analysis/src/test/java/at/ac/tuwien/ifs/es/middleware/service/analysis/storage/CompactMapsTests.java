@@ -0,0 +1,85 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.NormalizationStrategy;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+/**
+ * This class tests the compact serializers and the migration of {@link CompactMaps}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class CompactMapsTests {
+
+  private DB db;
+
+  @BeforeEach
+  public void setUp() {
+    db = DBMaker.memoryDB().transactionEnable().make();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    db.close();
+  }
+
+  @Test
+  public void intPairKeys_mustBeFoundByContent() {
+    HTreeMap<int[], int[]> map = CompactMaps.openHashMap(db, "test", IntPairSerializer.INSTANCE,
+        PackedIntArraySerializer.INSTANCE, Serializer.INT_ARRAY, Serializer.INT_ARRAY);
+    map.put(new int[]{1, 2}, new int[]{3, -4, 1 << 30});
+    map.put(new int[]{-1, Integer.MAX_VALUE}, new int[0]);
+    assertArrayEquals(new int[]{3, -4, 1 << 30}, map.get(new int[]{1, 2}));
+    assertArrayEquals(new int[0], map.get(new int[]{-1, Integer.MAX_VALUE}));
+    assertFalse(map.containsKey(new int[]{2, 1}));
+  }
+
+  @Test
+  public void decimalValues_mustBeRestoredExactly() {
+    HTreeMap<Integer, DecimalNormalizedAnalysisValue> map = CompactMaps.openHashMap(db, "test",
+        Serializer.INTEGER, DecimalValueSerializer.INSTANCE, Serializer.INTEGER, Serializer.JAVA);
+    BigDecimal zScoreValue = BigDecimal.ONE.divide(BigDecimal.valueOf(3), MathContext.DECIMAL128);
+    map.put(1, new DecimalNormalizedAnalysisValue(BigDecimal.valueOf(42)));
+    map.put(2, new DecimalNormalizedAnalysisValue(BigDecimal.valueOf(0.125),
+        BigDecimal.valueOf(-7), zScoreValue));
+    assertEquals(BigDecimal.valueOf(42), map.get(1).getValue());
+    assertTrue(map.get(1).strategies().isEmpty());
+    DecimalNormalizedAnalysisValue value = map.get(2);
+    assertEquals(BigDecimal.valueOf(0.125), value.getValue());
+    assertEquals(BigDecimal.valueOf(-7),
+        value.getValueOfStrategy(NormalizationStrategy.MinMax).get());
+    assertEquals(zScoreValue, value.getValueOfStrategy(NormalizationStrategy.ZScore).get());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void openWithFormerMap_mustMigrateEntries() {
+    HTreeMap<int[], DecimalNormalizedAnalysisValue> formerMap =
+        (HTreeMap<int[], DecimalNormalizedAnalysisValue>) db
+            .hashMap("test", Serializer.INT_ARRAY, Serializer.JAVA).createOrOpen();
+    formerMap.put(new int[]{1, 2}, new DecimalNormalizedAnalysisValue(BigDecimal.valueOf(0.5)));
+    db.commit();
+    HTreeMap<int[], DecimalNormalizedAnalysisValue> map = CompactMaps.openHashMap(db, "test",
+        IntPairSerializer.INSTANCE, DecimalValueSerializer.INSTANCE, Serializer.INT_ARRAY,
+        Serializer.JAVA);
+    assertEquals(1, map.size());
+    assertEquals(BigDecimal.valueOf(0.5), map.get(new int[]{1, 2}).getValue());
+    assertTrue(formerMap.isEmpty());
+  }
+
+}
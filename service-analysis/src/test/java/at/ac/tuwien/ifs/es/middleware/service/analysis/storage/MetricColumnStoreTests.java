@@ -0,0 +1,117 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.NormalizationStrategy;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.utils.Normalizer;
+import java.io.File;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+/**
+ * This class tests the {@link DenseColumn}s of the {@link MetricColumnStore}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class MetricColumnStoreTests {
+
+  @TempDir
+  public File dataDir;
+
+  @Test
+  public void writtenColumns_mustBeMappedAgainAfterRestart() {
+    MetricColumnStore store = new MetricColumnStore(dataDir.getPath());
+    store.getDoubleColumn("test.double").write(new double[]{Double.NaN, 0.5, 2.0});
+    store.getLongColumn("test.long").write(new long[]{LongColumn.ABSENT, 7, -3});
+    MetricColumnStore restartedStore = new MetricColumnStore(dataDir.getPath());
+    DoubleColumn doubleColumn = restartedStore.getDoubleColumn("test.double");
+    assertEquals(3, doubleColumn.size());
+    assertEquals(0.5, doubleColumn.get(1));
+    assertTrue(Double.isNaN(doubleColumn.get(0)));
+    assertTrue(Double.isNaN(doubleColumn.get(3)));
+    assertArrayEquals(new long[]{-3, LongColumn.ABSENT, 7, LongColumn.ABSENT},
+        restartedStore.getLongColumn("test.long").get(new int[]{2, 0, 1, 100}));
+  }
+
+  @Test
+  public void decimalColumns_mustReturnValuesInBatch() {
+    MetricColumnStore store = new MetricColumnStore(null);
+    DecimalMetricColumns columns = store.getDecimalColumns("test");
+    assertSame(columns, store.getDecimalColumns("test"));
+    Map<Integer, DecimalNormalizedAnalysisValue> valueMap = new HashMap<>();
+    valueMap.put(1, new DecimalNormalizedAnalysisValue(BigDecimal.valueOf(4),
+        BigDecimal.ONE, BigDecimal.valueOf(1.5)));
+    valueMap.put(3, new DecimalNormalizedAnalysisValue(BigDecimal.valueOf(0.25)));
+    columns.write(valueMap);
+    DecimalNormalizedAnalysisValue[] values = columns.get(new int[]{3, 2, 1});
+    assertEquals(BigDecimal.valueOf(0.25), values[0].getValue());
+    assertTrue(values[0].strategies().isEmpty());
+    assertNull(values[1]);
+    assertEquals(BigDecimal.valueOf(4), values[2].getValue());
+    assertEquals(BigDecimal.ONE,
+        values[2].getValueOfStrategy(NormalizationStrategy.MinMax).orElse(null));
+    assertEquals(BigDecimal.valueOf(1.5),
+        values[2].getValueOfStrategy(NormalizationStrategy.ZScore).orElse(null));
+  }
+
+  @Test
+  public void normalizedColumns_mustMatchNormalizer() {
+    double[] values = new double[]{Double.NaN, 0.2, 0.5, Double.NaN, 0.3};
+    Normalizer<Integer> normalizer = new Normalizer<>();
+    for (int key = 0; key < values.length; key++) {
+      if (!Double.isNaN(values[key])) {
+        normalizer.register(key, values[key]);
+      }
+    }
+    Map<Integer, DecimalNormalizedAnalysisValue> expected = normalizer.normalize();
+    DecimalMetricColumns columns = new MetricColumnStore(null).getDecimalColumns("test");
+    columns.writeNormalized(values);
+    assertNull(columns.get(0));
+    assertNull(columns.get(3));
+    for (Map.Entry<Integer, DecimalNormalizedAnalysisValue> entry : expected.entrySet()) {
+      DecimalNormalizedAnalysisValue value = columns.get(entry.getKey());
+      assertEquals(entry.getValue().getValue().doubleValue(), value.getValue().doubleValue());
+      for (NormalizationStrategy strategy : Arrays.asList(NormalizationStrategy.MinMax,
+          NormalizationStrategy.ZScore)) {
+        assertEquals(entry.getValue().getValueOfStrategy(strategy).get().doubleValue(),
+            value.getValueOfStrategy(strategy).get().doubleValue(), 1e-12);
+      }
+    }
+  }
+
+  @Test
+  public void formerMap_mustBeMigratedIntoEmptyColumns() {
+    DB db = DBMaker.memoryDB().transactionEnable().make();
+    try {
+      HTreeMap<Integer, DecimalNormalizedAnalysisValue> map = CompactMaps.openHashMap(db, "test",
+          Serializer.INTEGER, DecimalValueSerializer.INSTANCE, Serializer.INTEGER,
+          Serializer.JAVA);
+      map.put(2, new DecimalNormalizedAnalysisValue(BigDecimal.valueOf(9)));
+      db.commit();
+      DecimalMetricColumns columns = new MetricColumnStore(dataDir.getPath())
+          .getDecimalColumns("test");
+      columns.migrateFrom(db, "test");
+      assertEquals(BigDecimal.valueOf(9), columns.get(2).getValue());
+      assertNull(columns.get(1));
+      assertTrue(map.isEmpty());
+    } finally {
+      db.close();
+    }
+  }
+
+}
@@ -0,0 +1,157 @@
+package at.ac.tuwien.ifs.es.middleware.service.analysis.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This class tests the lookups and updates of the {@link ResourceDictionary}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class ResourceDictionaryTests {
+
+  @TempDir
+  public File dataDir;
+
+  private static Map<String, Integer> entries(int from, int to) {
+    Map<String, Integer> entries = new HashMap<>();
+    for (int key = from; key <= to; key++) {
+      entries.put("http://dbpedia.org/resource/Wine_" + (key * 7919 % 1000) + "_ö", key);
+    }
+    return entries;
+  }
+
+  @Test
+  public void addedIRIs_mustBeFoundByKeyAndIRIAfterRestart() {
+    File file = new File(dataDir, "resources.dict");
+    ResourceDictionary dictionary = new ResourceDictionary(file);
+    assertTrue(dictionary.isEmpty());
+    Map<String, Integer> entries = entries(1, 100);
+    dictionary.addAll(entries);
+    ResourceDictionary restartedDictionary = new ResourceDictionary(file);
+    assertEquals(100, restartedDictionary.size());
+    assertEquals(100, restartedDictionary.getMaxKey());
+    for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+      assertEquals(entry.getValue().intValue(), restartedDictionary.getKey(entry.getKey()));
+      assertEquals(entry.getKey(), restartedDictionary.getId(entry.getValue()));
+    }
+    assertEquals(ResourceDictionary.ABSENT,
+        restartedDictionary.getKey("http://dbpedia.org/resource/Beer"));
+    assertEquals(ResourceDictionary.ABSENT, restartedDictionary.getKey(""));
+    assertNull(restartedDictionary.getId(0));
+    assertNull(restartedDictionary.getId(101));
+  }
+
+  @Test
+  public void addedIRIs_mustBeMergedInSortedOrderAndKeepKeys() {
+    ResourceDictionary dictionary = new ResourceDictionary(null);
+    dictionary.addAll(entries(1, 40));
+    dictionary.addAll(entries(41, 70));
+    Map<String, Integer> entries = entries(1, 70);
+    List<String> ids = new ArrayList<>();
+    dictionary.forEach(ids::add);
+    List<String> sortedIds = new ArrayList<>(entries.keySet());
+    Collections.sort(sortedIds);
+    assertEquals(sortedIds, ids);
+    for (Map.Entry<String, Integer> entry : entries.entrySet()) {
+      assertEquals(entry.getValue().intValue(), dictionary.getKey(entry.getKey()));
+    }
+  }
+
+  @Test
+  public void newIRIsSpilledInRuns_mustBeMergedWithConsecutiveKeys() {
+    File file = new File(dataDir, "resources.dict");
+    ResourceDictionary dictionary = new ResourceDictionary(file);
+    dictionary.addAll(entries(1, 20));
+    List<String> ids = new ArrayList<>(entries(1, 70).keySet());
+    ids.addAll(entries(30, 50).keySet());
+    Collections.shuffle(ids, new Random(42));
+    assertEquals(50, dictionary.addAllNew(ids.iterator(), 7));
+    assertEquals(70, dictionary.size());
+    assertEquals(70, dictionary.getMaxKey());
+    for (Map.Entry<String, Integer> entry : entries(1, 20).entrySet()) {
+      assertEquals(entry.getValue().intValue(), dictionary.getKey(entry.getKey()));
+    }
+    Set<Integer> newKeys = new HashSet<>();
+    for (String id : entries(21, 70).keySet()) {
+      newKeys.add(dictionary.getKey(id));
+    }
+    assertEquals(IntStream.rangeClosed(21, 70).boxed().collect(Collectors.toSet()), newKeys);
+    List<String> dictionaryIds = new ArrayList<>();
+    new ResourceDictionary(file).forEach(dictionaryIds::add);
+    List<String> sortedIds = new ArrayList<>(entries(1, 70).keySet());
+    Collections.sort(sortedIds);
+    assertEquals(sortedIds, dictionaryIds);
+    assertEquals(Collections.singletonList("resources.dict"),
+        Arrays.asList(Objects.requireNonNull(dataDir.list())));
+  }
+
+  @Test
+  public void newIRIsFittingInOneRun_mustBeAddedWithoutSpilling() {
+    ResourceDictionary dictionary = new ResourceDictionary(null);
+    assertEquals(10, dictionary.addAllNew(entries(1, 10).keySet().iterator(), 100));
+    assertEquals(0, dictionary.addAllNew(entries(1, 10).keySet().iterator(), 100));
+    assertEquals(10, dictionary.size());
+    assertEquals(10, dictionary.getMaxKey());
+  }
+
+  @Test
+  public void dictionarySpanningSegments_mustBeFoundByKeyAndIRIAfterRestart() {
+    File file = new File(dataDir, "resources.dict");
+    ResourceDictionary dictionary = new ResourceDictionary(file, 1024);
+    dictionary.addAll(entries(1, 500));
+    dictionary.addAll(entries(501, 1000));
+    assertTrue(file.length() > 4 * 1024);
+    for (ResourceDictionary restartedDictionary : Arrays.asList(new ResourceDictionary(file),
+        new ResourceDictionary(file, 2048))) {
+      assertEquals(1000, restartedDictionary.size());
+      for (Map.Entry<String, Integer> entry : entries(1, 1000).entrySet()) {
+        assertEquals(entry.getValue().intValue(), restartedDictionary.getKey(entry.getKey()));
+        assertEquals(entry.getKey(), restartedDictionary.getId(entry.getValue()));
+      }
+      List<String> ids = new ArrayList<>();
+      restartedDictionary.forEach(ids::add);
+      List<String> sortedIds = new ArrayList<>(entries(1, 1000).keySet());
+      Collections.sort(sortedIds);
+      assertEquals(sortedIds, ids);
+    }
+  }
+
+  @Test
+  public void blockLargerThanSegment_mustBeRejected() {
+    ResourceDictionary dictionary = new ResourceDictionary(null, 64);
+    assertThrows(IllegalArgumentException.class, () -> dictionary.addAll(entries(1, 20)));
+    assertTrue(dictionary.isEmpty());
+  }
+
+  @Test
+  public void containedIRIs_mustBeRejected() {
+    ResourceDictionary dictionary = new ResourceDictionary(null);
+    dictionary.addAll(entries(1, 20));
+    assertThrows(IllegalArgumentException.class, () -> dictionary.addAll(entries(5, 5)));
+    assertThrows(IllegalArgumentException.class,
+        () -> dictionary.addAll(Collections.singletonMap("http://example.org/new", 3)));
+    assertEquals(20, dictionary.size());
+  }
+
+}
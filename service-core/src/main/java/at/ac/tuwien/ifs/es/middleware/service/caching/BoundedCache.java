@@ -0,0 +1,351 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendUnavailableException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.Weigher;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * This is a {@link org.springframework.cache.Cache} that is bounded by the estimated size of its
+ * values in bytes (see {@link ResultSizeEstimator}) and optionally expires entries after a given
+ * time to live. The least recently used entries are evicted, if the bound is exceeded.
+ * <p/>
+ * The cache can be invalidated with {@link #invalidate()}, e.g. if the knowledge graph has been
+ * updated. A value that has been computed for a lookup before the invalidation, is not put into
+ * the cache afterwards, because it might be outdated.
+ * <p/>
+ * Concurrent loads of the same key with {@link #get(Object, Callable)} are coalesced (see {@link
+ * SingleFlight}), i.e. only the first caller invokes the value loader and all the others wait for
+ * its result. Methods annotated with {@code @Cacheable(sync = true)} are loaded this way.
+ * <p/>
+ * Optionally, a second level {@link CacheStore} can be given, which is asked for keys that are
+ * not in this cache, and to which all the values put into this cache are passed on.
+ * <p/>
+ * Optionally, entries that have expired or have been invalidated can be kept as stale entries up
+ * to a given size. A stale value is served by {@link #get(Object, Callable)} instead of failing, if
+ * the value loader failed, because the backend is unavailable (see {@link
+ * BackendUnavailableException}). Such values are marked in {@link StaleResults}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class BoundedCache extends AbstractValueAdaptingCache {
+
+  private final String name;
+  private final Cache<Object, Object> cache;
+  private final long maximumSize;
+  private final Duration timeToLive;
+  private final CacheStore secondLevelStore;
+  private final Cache<Object, Object> staleCache;
+
+  private final AtomicLong generation = new AtomicLong(0);
+  private final ThreadLocal<Long> lookupGeneration = new ThreadLocal<>();
+  private final SingleFlight<Object, Object> loadingFlight = new SingleFlight<>();
+
+  /**
+   * Creates a new {@link BoundedCache} with the given name.
+   *
+   * @param name        of the cache. It must not be null.
+   * @param maximumSize the maximal estimated size of all the cached values in bytes, which must be
+   *                    positive.
+   * @param timeToLive  after which an entry expires. It can be {@code null} or zero, if the entries
+   *                    shall not expire.
+   */
+  public BoundedCache(String name, long maximumSize, Duration timeToLive) {
+    this(name, maximumSize, timeToLive, null);
+  }
+
+  /**
+   * Creates a new {@link BoundedCache} with the given name and second level store.
+   *
+   * @param name             of the cache. It must not be null.
+   * @param maximumSize      the maximal estimated size of all the cached values in bytes, which
+   *                         must be positive.
+   * @param timeToLive       after which an entry expires. It can be {@code null} or zero, if the
+   *                         entries shall not expire.
+   * @param secondLevelStore which is asked for keys that are not in this cache. It can be {@code
+   *                         null}, if there shall be no second level.
+   */
+  public BoundedCache(String name, long maximumSize, Duration timeToLive,
+      CacheStore secondLevelStore) {
+    this(name, maximumSize, timeToLive, secondLevelStore, 0);
+  }
+
+  /**
+   * Creates a new {@link BoundedCache} with the given name and second level store.
+   *
+   * @param name             of the cache. It must not be null.
+   * @param maximumSize      the maximal estimated size of all the cached values in bytes, which
+   *                         must be positive.
+   * @param timeToLive       after which an entry expires. It can be {@code null} or zero, if the
+   *                         entries shall not expire.
+   * @param secondLevelStore which is asked for keys that are not in this cache. It can be {@code
+   *                         null}, if there shall be no second level.
+   * @param staleSize        the maximal estimated size of all the stale values in bytes. It can
+   *                         be zero, if no stale values shall be kept.
+   */
+  public BoundedCache(String name, long maximumSize, Duration timeToLive,
+      CacheStore secondLevelStore, long staleSize) {
+    super(true);
+    checkArgument(name != null, "The name of the cache must not be null.");
+    checkArgument(maximumSize > 0, "The maximal size of the cache must be positive.");
+    checkArgument(staleSize >= 0, "The maximal size of the stale values must not be negative.");
+    this.name = name;
+    this.maximumSize = maximumSize;
+    this.timeToLive = timeToLive;
+    this.secondLevelStore = secondLevelStore;
+    Weigher<Object, Object> weigher = (key, value) -> (int) Math.min(Integer.MAX_VALUE,
+        ResultSizeEstimator.estimate(key) + ResultSizeEstimator.estimate(value));
+    if (staleSize > 0) {
+      this.staleCache = CacheBuilder.newBuilder().maximumWeight(staleSize).weigher(weigher)
+          .build();
+    } else {
+      this.staleCache = null;
+    }
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumWeight(maximumSize)
+        .weigher(weigher).recordStats();
+    if (staleCache != null) {
+      builder.removalListener(notification -> {
+        if (notification.getCause() == RemovalCause.EXPIRED && notification.getKey() != null
+            && notification.getValue() != null) {
+          staleCache.put(notification.getKey(), notification.getValue());
+        }
+      });
+    }
+    if (timeToLive != null && !timeToLive.isZero() && !timeToLive.isNegative()) {
+      builder.expireAfterWrite(timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    this.cache = builder.build();
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return cache;
+  }
+
+  /**
+   * Gets the value for the given key from this cache or the second level store. A value found in
+   * the second level store is put into this cache.
+   */
+  private Object getIfPresent(Object key) {
+    Object value = cache.getIfPresent(key);
+    if (value == null && secondLevelStore != null) {
+      value = secondLevelStore.get(key);
+      if (value != null) {
+        cache.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Puts the given store value into this cache and the second level store.
+   */
+  private void store(Object key, Object storeValue) {
+    cache.put(key, storeValue);
+    if (staleCache != null) {
+      staleCache.invalidate(key);
+    }
+    if (secondLevelStore != null) {
+      secondLevelStore.put(key, storeValue);
+    }
+  }
+
+  @Override
+  protected Object lookup(Object key) {
+    Object value = getIfPresent(key);
+    if (value == null) {
+      lookupGeneration.set(generation.get());
+    } else {
+      lookupGeneration.remove();
+    }
+    return value;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    Object value = cache.getIfPresent(key);
+    if (value == null) {
+      try {
+        value = load(key, valueLoader);
+      } catch (ValueRetrievalException e) {
+        if (staleCache == null || !BackendUnavailableException.isCauseOf(e)) {
+          throw e;
+        }
+        cache.cleanUp();
+        Object staleValue = staleCache.getIfPresent(key);
+        if (staleValue == null) {
+          throw e;
+        }
+        StaleResults.mark();
+        value = staleValue;
+      }
+    }
+    return (T) fromStoreValue(value);
+  }
+
+  /**
+   * Loads the value for the given key with the given value loader, if no identical load is
+   * already in flight, and puts it into this cache.
+   */
+  private Object load(Object key, Callable<?> valueLoader) {
+    return loadingFlight.execute(key, () -> {
+      Object storedValue = getIfPresent(key);
+      if (storedValue != null) {
+        return storedValue;
+      }
+      long startGeneration = generation.get();
+      Object loadedValue;
+      try {
+        loadedValue = toStoreValue(valueLoader.call());
+      } catch (Exception e) {
+        throw new ValueRetrievalException(key, valueLoader, e);
+      }
+      if (startGeneration == generation.get()) {
+        Object existingValue = cache.asMap().putIfAbsent(key, loadedValue);
+        if (existingValue != null) {
+          return existingValue;
+        }
+        if (secondLevelStore != null) {
+          secondLevelStore.put(key, loadedValue);
+        }
+        if (staleCache != null) {
+          staleCache.invalidate(key);
+        }
+      }
+      return loadedValue;
+    });
+  }
+
+  /**
+   * Gets the number of loads with {@link #get(Object, Callable)} that have been served by an
+   * identical load, which was already in flight.
+   *
+   * @return the number of coalesced loads.
+   */
+  public long getCoalescedLoadCount() {
+    return loadingFlight.getCoalescedCalls();
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    Long startGeneration = lookupGeneration.get();
+    lookupGeneration.remove();
+    if (startGeneration == null || startGeneration == generation.get()) {
+      store(key, toStoreValue(value));
+    }
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    Object existingValue = cache.asMap().putIfAbsent(key, toStoreValue(value));
+    if (existingValue == null && secondLevelStore != null) {
+      secondLevelStore.put(key, toStoreValue(value));
+    }
+    return toValueWrapper(existingValue);
+  }
+
+  @Override
+  public void evict(Object key) {
+    cache.invalidate(key);
+    if (staleCache != null) {
+      staleCache.invalidate(key);
+    }
+    if (secondLevelStore != null) {
+      secondLevelStore.evict(key);
+    }
+  }
+
+  @Override
+  public void clear() {
+    cache.invalidateAll();
+    if (staleCache != null) {
+      staleCache.invalidateAll();
+    }
+    if (secondLevelStore != null) {
+      secondLevelStore.clear();
+    }
+  }
+
+  /**
+   * Invalidates all the entries of this cache, and prevents values that have been computed for
+   * lookups before this invalidation from being put into this cache. The invalidated entries are
+   * kept as stale entries, if this cache keeps stale entries.
+   *
+   * @return {@code true}, if this cache contained entries before the invalidation, otherwise {@code
+   * false}.
+   */
+  @Override
+  public boolean invalidate() {
+    generation.incrementAndGet();
+    boolean notEmpty = cache.size() > 0;
+    if (staleCache != null) {
+      staleCache.putAll(cache.asMap());
+    }
+    cache.invalidateAll();
+    if (secondLevelStore != null) {
+      secondLevelStore.clear();
+    }
+    return notEmpty;
+  }
+
+  /**
+   * Gets the statistics about hits, misses and evictions of this cache.
+   *
+   * @return the {@link CacheStats} of this cache.
+   */
+  public CacheStats getStatistics() {
+    return cache.stats();
+  }
+
+  /**
+   * Gets the number of entries in this cache.
+   *
+   * @return the number of entries in this cache.
+   */
+  public long getEntryCount() {
+    return cache.size();
+  }
+
+  /**
+   * Gets the number of stale entries kept by this cache.
+   *
+   * @return the number of stale entries kept by this cache.
+   */
+  public long getStaleEntryCount() {
+    return staleCache != null ? staleCache.size() : 0;
+  }
+
+  @Override
+  public String toString() {
+    CacheStats stats = cache.stats();
+    return "BoundedCache{" +
+        "name='" + name + '\'' +
+        ", maximumSize=" + maximumSize +
+        ", timeToLive=" + timeToLive +
+        ", entries=" + cache.size() +
+        ", staleEntries=" + getStaleEntryCount() +
+        ", hits=" + stats.hitCount() +
+        ", misses=" + stats.missCount() +
+        ", evictions=" + stats.evictionCount() +
+        ", coalescedLoads=" + loadingFlight.getCoalescedCalls() +
+        '}';
+  }
+
+}
@@ -0,0 +1,44 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+/**
+ * Instances of this interface are a second level for a {@link BoundedCache}, which is asked, if a
+ * key could not be found in the cache itself. The values passed to and returned by a store are the
+ * store values of the cache, i.e. {@code null} values are represented by {@link
+ * org.springframework.cache.support.NullValue}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public interface CacheStore {
+
+  /**
+   * Gets the value stored for the given key.
+   *
+   * @param key for which the value shall be returned.
+   * @return the value stored for the given key, or {@code null}, if there is no such value.
+   */
+  Object get(Object key);
+
+  /**
+   * Stores the given value for the given key. A store is free to ignore values, which it cannot
+   * store.
+   *
+   * @param key   for which the value shall be stored.
+   * @param value that shall be stored.
+   */
+  void put(Object key, Object value);
+
+  /**
+   * Removes the value stored for the given key.
+   *
+   * @param key for which the value shall be removed.
+   */
+  void evict(Object key);
+
+  /**
+   * Removes all the values of this store.
+   */
+  void clear();
+
+}
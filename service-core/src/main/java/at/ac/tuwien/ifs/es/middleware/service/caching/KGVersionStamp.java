@@ -0,0 +1,63 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import org.mapdb.Atomic;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class maintains a stamp for the version of the knowledge graph, which can be used to
+ * recognize results that have been persisted for another version. The stamp consists of a
+ * configured version name (e.g. the release of the dataset) and a monotonic counter of the updates
+ * of the knowledge graph, which is persisted in the given {@link DB}. Hence, the stamp is never
+ * computed on the request path, but changes of the knowledge graph that are not done through this
+ * application must be reflected by a new version name.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class KGVersionStamp {
+
+  private static final Logger logger = LoggerFactory.getLogger(KGVersionStamp.class);
+
+  private static final String UPDATE_COUNTER_NAME = "esm.cache.kg.updates";
+
+  private final Atomic.Long updateCounter;
+  private final String versionName;
+
+  private volatile String stamp;
+
+  /**
+   * Creates a new {@link KGVersionStamp}.
+   *
+   * @param db          in which the update counter is persisted. It must not be null.
+   * @param versionName the configured name of the version, which can be empty.
+   */
+  public KGVersionStamp(DB db, String versionName) {
+    checkArgument(db != null, "The MapDB must not be null.");
+    this.updateCounter = db.atomicLong(UPDATE_COUNTER_NAME).createOrOpen();
+    this.versionName = versionName != null ? versionName : "";
+    this.stamp = this.versionName + ":" + updateCounter.get();
+  }
+
+  /**
+   * Gets the stamp for the current version of the knowledge graph.
+   *
+   * @return the stamp for the current version of the knowledge graph.
+   */
+  public String get() {
+    return stamp;
+  }
+
+  /**
+   * Counts an update of the knowledge graph, which changes the stamp.
+   */
+  public synchronized void update() {
+    stamp = versionName + ":" + updateCounter.incrementAndGet();
+    logger.debug("The version stamp of the knowledge graph changed to '{}'.", stamp);
+  }
+
+}
@@ -0,0 +1,179 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import org.mapdb.Atomic;
+import org.mapdb.DB;
+import org.mapdb.DB.HashMapMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ConfigurableObjectInputStream;
+
+/**
+ * This is a {@link CacheStore} that persists the values of a cache in a MapDB {@link DB}, such
+ * that they survive a restart of the application. The values are stored together with the stamp
+ * of the knowledge graph version (see {@link KGVersionStamp}), for which they have been computed.
+ * If the stamp does not match the current version of the knowledge graph, all the stored values
+ * are dropped. Values, which are not {@link Serializable}, are not stored.
+ * <p/>
+ * The keys are stored in the form given by the key mapper, which must be stable across restarts
+ * (e.g. a fingerprint of the canonical query, see {@link
+ * SPARQLQueryKeyGenerator#persistentKeyOf(Object)}). Keys, which the mapper can't map, are not
+ * stored. By default, only {@link String} keys are stored.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class PersistentCacheStore implements CacheStore {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersistentCacheStore.class);
+
+  private final String name;
+  private final HTreeMap<String, byte[]> valueMap;
+  private final Atomic.String storedVersion;
+  private final KGVersionStamp versionStamp;
+  private final Function<Object, Optional<String>> keyMapper;
+
+  /**
+   * Creates a new {@link PersistentCacheStore} for the cache with the given name, which only stores
+   * {@link String} keys.
+   *
+   * @param db             in which the values shall be persisted. It must not be null.
+   * @param name           of the cache. It must not be null.
+   * @param maximumEntries the maximal number of values, which must be positive.
+   * @param timeToLive     after which a value expires. It can be {@code null} or zero, if the
+   *                       values shall not expire.
+   * @param versionStamp   of the knowledge graph. It must not be null.
+   */
+  public PersistentCacheStore(DB db, String name, long maximumEntries, Duration timeToLive,
+      KGVersionStamp versionStamp) {
+    this(db, name, maximumEntries, timeToLive, versionStamp,
+        key -> key instanceof String ? Optional.of((String) key) : Optional.empty());
+  }
+
+  /**
+   * Creates a new {@link PersistentCacheStore} for the cache with the given name.
+   *
+   * @param db             in which the values shall be persisted. It must not be null.
+   * @param name           of the cache. It must not be null.
+   * @param maximumEntries the maximal number of values, which must be positive.
+   * @param timeToLive     after which a value expires. It can be {@code null} or zero, if the
+   *                       values shall not expire.
+   * @param versionStamp   of the knowledge graph. It must not be null.
+   * @param keyMapper      maps a key of the cache to its stored form, or to {@link
+   *                       Optional#empty()}, if it shall not be stored. It must not be null.
+   */
+  public PersistentCacheStore(DB db, String name, long maximumEntries, Duration timeToLive,
+      KGVersionStamp versionStamp, Function<Object, Optional<String>> keyMapper) {
+    checkArgument(db != null, "The MapDB must not be null.");
+    checkArgument(name != null, "The name of the cache must not be null.");
+    checkArgument(maximumEntries > 0, "The maximal number of entries must be positive.");
+    checkArgument(versionStamp != null, "The version stamp must not be null.");
+    checkArgument(keyMapper != null, "The key mapper must not be null.");
+    this.keyMapper = keyMapper;
+    this.name = name;
+    this.versionStamp = versionStamp;
+    HashMapMaker<String, byte[]> mapMaker = db
+        .hashMap("esm.cache." + name, Serializer.STRING, Serializer.BYTE_ARRAY)
+        .expireMaxSize(maximumEntries);
+    if (timeToLive != null && !timeToLive.isZero() && !timeToLive.isNegative()) {
+      mapMaker = mapMaker.expireAfterCreate(timeToLive.toMillis());
+    } else {
+      mapMaker = mapMaker.expireAfterCreate();
+    }
+    this.valueMap = mapMaker.createOrOpen();
+    this.storedVersion = db.atomicString("esm.cache." + name + ".version").createOrOpen();
+  }
+
+  /**
+   * Checks whether the stored values belong to the current version of the knowledge graph, and
+   * drops them, if this is not the case.
+   */
+  private void checkVersion() {
+    String currentVersion = versionStamp.get();
+    if (!currentVersion.equals(storedVersion.get())) {
+      synchronized (this) {
+        if (!currentVersion.equals(storedVersion.get())) {
+          logger.info(
+              "Drops the {} persisted values of cache '{}', because the version '{}' of the knowledge graph differs from '{}'.",
+              valueMap.size(), name, currentVersion, storedVersion.get());
+          valueMap.clear();
+          storedVersion.set(currentVersion);
+        }
+      }
+    }
+  }
+
+  @Override
+  public Object get(Object key) {
+    Optional<String> keyStringOptional = keyMapper.apply(key);
+    if (!keyStringOptional.isPresent()) {
+      return null;
+    }
+    checkVersion();
+    String keyString = keyStringOptional.get();
+    byte[] data = valueMap.get(keyString);
+    if (data == null) {
+      return null;
+    }
+    try (ObjectInputStream in = new ConfigurableObjectInputStream(new ByteArrayInputStream(data),
+        getClass().getClassLoader())) {
+      return in.readObject();
+    } catch (IOException | ClassNotFoundException | RuntimeException e) {
+      logger.debug("The persisted value for '{}' in cache '{}' could not be read. {}", keyString,
+          name, e.getMessage());
+      valueMap.remove(keyString);
+      return null;
+    }
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    Optional<String> keyStringOptional = keyMapper.apply(key);
+    if (!(value instanceof Serializable) || !keyStringOptional.isPresent()) {
+      return;
+    }
+    checkVersion();
+    try (ByteArrayOutputStream data = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(data)) {
+      out.writeObject(value);
+      out.flush();
+      valueMap.put(keyStringOptional.get(), data.toByteArray());
+    } catch (IOException e) {
+      logger.trace("The value for '{}' in cache '{}' could not be persisted. {}", key, name,
+          e.getMessage());
+    }
+  }
+
+  @Override
+  public void evict(Object key) {
+    keyMapper.apply(key).ifPresent(valueMap::remove);
+  }
+
+  @Override
+  public void clear() {
+    valueMap.clear();
+  }
+
+  /**
+   * Gets the number of values in this store.
+   *
+   * @return the number of values in this store.
+   */
+  public long size() {
+    return valueMap.size();
+  }
+
+}
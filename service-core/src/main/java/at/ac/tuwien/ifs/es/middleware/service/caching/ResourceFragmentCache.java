@@ -0,0 +1,174 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+
+/**
+ * This class caches the fragments of an operator result per resource, i.e. the description or
+ * neighbourhood of each single resource computed with the given operator parameters. Operators
+ * that query the knowledge graph for a whole set of resources at once, can in this way query only
+ * the resources, whose fragment isn't cached yet, and assemble the result from the fragments.
+ * Hence, explorations with overlapping resource sets share most of their backend work.
+ * <p/>
+ * The fragments are kept in the {@code fragments} cache, and the fragments must not be modified
+ * by the callers. If there is no such cache, all the fragments are loaded for each request.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ResourceFragmentCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ResourceFragmentCache.class);
+
+  public static final String CACHE_NAME = "fragments";
+
+  private final Cache cache;
+
+  /**
+   * Creates a new {@link ResourceFragmentCache} using the {@code fragments} cache of the given
+   * {@link CacheManager}, if it is available.
+   *
+   * @param cacheManagerProvider provider of the {@link CacheManager}. It must not be null.
+   */
+  public ResourceFragmentCache(ObjectProvider<CacheManager> cacheManagerProvider) {
+    checkArgument(cacheManagerProvider != null, "The cache manager provider must not be null.");
+    CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+    this.cache = cacheManager != null ? cacheManager.getCache(CACHE_NAME) : null;
+  }
+
+  /**
+   * Gets the fragments of the given resources for the given operator and parameters. Only the
+   * fragments, which are not cached, are loaded with the given loader. Resources for which the
+   * loader returns no fragment, get the given empty fragment. Fragments that have been loaded
+   * with stale results (see {@link StaleResults}) are not cached.
+   *
+   * @param operator      the unique identifier of the operator computing the fragments. It must
+   *                      not be null.
+   * @param parameters    the canonical representation of the operator parameters, which influence
+   *                      the fragments. It must not be null.
+   * @param resources     for which the fragments shall be returned. It must not be null.
+   * @param emptyFragment the fragment of resources, for which the loader returns no fragment.
+   * @param loader        that loads the fragments of the given set of resources.
+   * @param <R>           the type of the resources, which must implement equals and hashCode.
+   * @param <F>           the type of the fragments.
+   * @return the fragments of all the given resources.
+   */
+  @SuppressWarnings("unchecked")
+  public <R, F> Map<R, F> getAll(String operator, String parameters, Collection<R> resources,
+      F emptyFragment, Function<Set<R>, Map<R, F>> loader) {
+    checkArgument(operator != null, "The operator must not be null.");
+    checkArgument(parameters != null, "The parameters must not be null.");
+    checkArgument(resources != null, "The resources must not be null.");
+    Map<R, F> fragments = new LinkedHashMap<>();
+    Set<R> missingResources = new LinkedHashSet<>();
+    for (R resource : resources) {
+      ValueWrapper fragment =
+          cache != null ? cache.get(new FragmentKey(operator, parameters, resource)) : null;
+      if (fragment != null) {
+        fragments.put(resource, (F) fragment.get());
+      } else {
+        missingResources.add(resource);
+      }
+    }
+    logger.debug("{} of {} fragments for operator '{}' are cached.", fragments.size(),
+        fragments.size() + missingResources.size(), operator);
+    if (!missingResources.isEmpty()) {
+      int staleCount = StaleResults.count();
+      Map<R, F> loadedFragments = loader.apply(missingResources);
+      boolean stale = StaleResults.count() != staleCount;
+      for (R resource : missingResources) {
+        F fragment = loadedFragments.getOrDefault(resource, emptyFragment);
+        if (cache != null && !stale) {
+          cache.put(new FragmentKey(operator, parameters, resource), fragment);
+        }
+        fragments.put(resource, fragment);
+      }
+    }
+    return fragments;
+  }
+
+  /**
+   * Groups the given rows of a query result by the value of the given variable, which is mapped to
+   * a resource with the given function. Rows without a value for the variable are ignored.
+   *
+   * @param rows        of the query result. It must not be null.
+   * @param variable    of which the value shall be used for grouping. It must not be null.
+   * @param keyFunction that maps the value of the variable to a resource.
+   * @param <R>         the type of the resources.
+   * @return the unmodifiable groups of the rows per resource.
+   */
+  public static <R> Map<R, List<Map<String, RDFTerm>>> groupRowsBy(
+      List<Map<String, RDFTerm>> rows, String variable, Function<RDFTerm, R> keyFunction) {
+    Map<R, List<Map<String, RDFTerm>>> groupMap = new HashMap<>();
+    for (Map<String, RDFTerm> row : rows) {
+      RDFTerm value = row.get(variable);
+      if (value != null) {
+        groupMap.computeIfAbsent(keyFunction.apply(value), k -> new LinkedList<>()).add(row);
+      }
+    }
+    groupMap.replaceAll((resource, group) -> Collections.unmodifiableList(group));
+    return groupMap;
+  }
+
+  /**
+   * The key of a fragment in the cache.
+   */
+  private static final class FragmentKey {
+
+    private final String operator;
+    private final String parameters;
+    private final Object resource;
+
+    private FragmentKey(String operator, String parameters, Object resource) {
+      this.operator = operator;
+      this.parameters = parameters;
+      this.resource = resource;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      FragmentKey that = (FragmentKey) o;
+      return operator.equals(that.operator) && parameters.equals(that.parameters) && Objects
+          .equals(resource, that.resource);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(operator, parameters, resource);
+    }
+
+    @Override
+    public String toString() {
+      return "FragmentKey{" +
+          "operator='" + operator + '\'' +
+          ", resource=" + resource +
+          '}';
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.AskQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.GraphQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.apache.commons.rdf.api.Graph;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.api.Triple;
+
+/**
+ * This class estimates the size of cached results in bytes. The estimation is a rough
+ * approximation of the heap footprint, which is cheap to compute. Only a sample of the elements of
+ * big collections is inspected, and the size of the remaining elements is extrapolated. The rows of
+ * a {@link SelectQueryResult} are sampled with {@link SelectQueryResult#rowIterator()}, such that
+ * the result isn't copied for the estimation.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ResultSizeEstimator {
+
+  private static final int SAMPLE_SIZE = 32;
+  private static final int MAX_DEPTH = 8;
+
+  private static final long OBJECT_SIZE = 16;
+  private static final long REFERENCE_SIZE = 8;
+  private static final long ENTRY_SIZE = 32;
+
+  private ResultSizeEstimator() {
+  }
+
+  /**
+   * Estimates the size of the given object in bytes.
+   *
+   * @param object of which the size shall be estimated.
+   * @return the estimated size of the given object in bytes.
+   */
+  public static long estimate(Object object) {
+    return estimate(object, 0);
+  }
+
+  private static long estimate(Object object, int depth) {
+    if (object == null) {
+      return REFERENCE_SIZE;
+    } else if (depth > MAX_DEPTH) {
+      return OBJECT_SIZE;
+    } else if (object instanceof String) {
+      return 40 + 2L * ((String) object).length();
+    } else if (object instanceof RDFTerm) {
+      return 64 + 2L * ((RDFTerm) object).ntriplesString().length();
+    } else if (object instanceof byte[]) {
+      return OBJECT_SIZE + ((byte[]) object).length;
+    } else if (object instanceof Number || object instanceof Boolean) {
+      return OBJECT_SIZE + 8;
+    } else if (object instanceof SelectQueryResult) {
+      SelectQueryResult result = (SelectQueryResult) object;
+      return OBJECT_SIZE + extrapolate(result.rowIterator(), result.size(), depth + 1);
+    } else if (object instanceof AskQueryResult) {
+      return OBJECT_SIZE;
+    } else if (object instanceof GraphQueryResult) {
+      return OBJECT_SIZE + estimateGraph(((GraphQueryResult) object).value(), depth + 1);
+    } else if (object instanceof Graph) {
+      return estimateGraph((Graph) object, depth + 1);
+    } else if (object instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) object;
+      return OBJECT_SIZE + extrapolate(map.entrySet().iterator(), map.size(), depth + 1);
+    } else if (object instanceof Collection) {
+      Collection<?> collection = (Collection<?>) object;
+      return OBJECT_SIZE + extrapolate(collection.iterator(), collection.size(), depth + 1);
+    } else if (object instanceof Entry) {
+      Entry<?, ?> entry = (Entry<?, ?>) object;
+      return ENTRY_SIZE + estimate(entry.getKey(), depth) + estimate(entry.getValue(), depth);
+    } else if (object instanceof Triple) {
+      Triple triple = (Triple) object;
+      return OBJECT_SIZE + estimate(triple.getSubject(), depth) + estimate(triple.getPredicate(),
+          depth) + estimate(triple.getObject(), depth);
+    }
+    return 4 * OBJECT_SIZE;
+  }
+
+  private static long estimateGraph(Graph graph, int depth) {
+    Iterator<? extends Triple> tripleIterator = graph.iterate().iterator();
+    return OBJECT_SIZE + extrapolate(tripleIterator, graph.size(), depth);
+  }
+
+  private static long extrapolate(Iterator<?> iterator, long size, int depth) {
+    long sampledSize = 0;
+    int sampled = 0;
+    while (sampled < SAMPLE_SIZE && iterator.hasNext()) {
+      sampledSize += REFERENCE_SIZE + estimate(iterator.next(), depth);
+      sampled++;
+    }
+    if (sampled == 0) {
+      return 0;
+    }
+    return sampledSize * size / sampled;
+  }
+
+}
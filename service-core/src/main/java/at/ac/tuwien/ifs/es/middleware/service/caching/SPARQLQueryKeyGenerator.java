@@ -0,0 +1,135 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.SPARQLQueryCanonicalizer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+
+/**
+ * This is a {@link KeyGenerator} for methods, whose first parameter is a SPARQL query. The query
+ * is replaced by its canonical fingerprint (see {@link SPARQLQueryCanonicalizer}) in the generated
+ * key, such that equivalent queries share the same cache entry. If the query cannot be parsed, the
+ * query string itself is used. The fingerprints of recently seen query strings are memorized, in
+ * order to not parse the same query string again. They are memorized by the SHA-256 hash of the
+ * query string, such that the memory held by them doesn't depend on the length of the queries.
+ * <p/>
+ * A {@link BoundSPARQLQuery} is replaced by its fingerprint (see {@link
+ * BoundSPARQLQuery#getFingerprint()}), such that the key neither holds its rows nor the query
+ * string, in which they are substituted.
+ * <p/>
+ * The generated keys of queries have a stable form (see {@link #persistentKeyOf(Object)}), which is
+ * the SHA-256 hash of the canonical key and the other parameters. It is used to persist them.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SPARQLQueryKeyGenerator implements KeyGenerator {
+
+  private static final String FINGERPRINT_PREFIX = "fp:";
+  private static final String BOUND_QUERY_PREFIX = "bq:";
+
+  private final Cache<HashCode, Optional<String>> fingerprintCache;
+
+  /**
+   * Creates a new {@link SPARQLQueryKeyGenerator}.
+   *
+   * @param fingerprintCacheSize the maximal number of query strings, for which the fingerprint is
+   *                             memorized.
+   */
+  public SPARQLQueryKeyGenerator(long fingerprintCacheSize) {
+    this.fingerprintCache = CacheBuilder.newBuilder().maximumSize(fingerprintCacheSize).build();
+  }
+
+  /**
+   * Gets the canonical key for the given SPARQL query.
+   *
+   * @param query SPARQL query for which the key shall be returned. It must not be null.
+   * @return the canonical key for the given SPARQL query.
+   */
+  public String canonicalKey(String query) {
+    HashCode queryHash = Hashing.sha256().hashString(query, StandardCharsets.UTF_8);
+    Optional<String> fingerprintOptional = fingerprintCache.getIfPresent(queryHash);
+    if (fingerprintOptional == null) {
+      fingerprintOptional = SPARQLQueryCanonicalizer.fingerprint(query)
+          .map(fp -> FINGERPRINT_PREFIX + fp);
+      fingerprintCache.put(queryHash, fingerprintOptional);
+    }
+    return fingerprintOptional.orElse(query);
+  }
+
+  @Override
+  public Object generate(Object target, Method method, Object... params) {
+    if (params.length > 0 && params[0] instanceof String) {
+      Object[] keyParams = Arrays.copyOf(params, params.length);
+      keyParams[0] = canonicalKey((String) params[0]);
+      return new QueryKey(keyParams);
+    } else if (params.length > 0 && params[0] instanceof BoundSPARQLQuery) {
+      Object[] keyParams = Arrays.copyOf(params, params.length);
+      keyParams[0] = BOUND_QUERY_PREFIX + ((BoundSPARQLQuery) params[0]).getFingerprint();
+      return new QueryKey(keyParams);
+    }
+    return new SimpleKey(params);
+  }
+
+  /**
+   * Gets the stable form of the given key, which has been generated by this key generator for a
+   * SPARQL query.
+   *
+   * @param key of which the stable form shall be returned.
+   * @return the stable form of the given key, or {@link Optional#empty()}, if it isn't the key of
+   * a SPARQL query.
+   */
+  public static Optional<String> persistentKeyOf(Object key) {
+    if (key instanceof QueryKey) {
+      return Optional.of(((QueryKey) key).persistentKey);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * The key of a SPARQL query, whose first parameter is the canonical key of the query.
+   */
+  private static final class QueryKey {
+
+    private final Object[] params;
+    private final int hashCode;
+    private final String persistentKey;
+
+    private QueryKey(Object[] params) {
+      this.params = params;
+      this.hashCode = Arrays.deepHashCode(params);
+      Hasher hasher = Hashing.sha256().newHasher();
+      for (Object param : params) {
+        hasher.putString(String.valueOf(param), StandardCharsets.UTF_8).putByte((byte) 0);
+      }
+      this.persistentKey = hasher.hash().toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return this == o || (o instanceof QueryKey && Arrays.deepEquals(params,
+          ((QueryKey) o).params));
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public String toString() {
+      return "QueryKey" + Arrays.toString(params);
+    }
+  }
+
+}
@@ -0,0 +1,78 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This class coalesces concurrent calls with the same key. The first caller for a key executes the
+ * call, and all callers that ask for the same key, while this call is in flight, wait for it and
+ * share its result (or exception). A call for a key is executed again, once the former call has
+ * completed, i.e. results are not cached by this class.
+ *
+ * @param <K> type of the key, which must implement {@link Object#equals(Object)} and {@link
+ *            Object#hashCode()}.
+ * @param <V> type of the result.
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlightMap = new ConcurrentHashMap<>();
+  private final AtomicLong coalescedCalls = new AtomicLong(0);
+
+  /**
+   * Executes the given call for the given key, or waits for the call with this key that is already
+   * in flight.
+   *
+   * @param key  of the call. It must not be null.
+   * @param call that shall be executed. It must not be null.
+   * @return the result of the call.
+   * @throws RuntimeException which has been thrown by the call.
+   */
+  public V execute(K key, Supplier<V> call) {
+    checkArgument(key != null, "The key of the call must not be null.");
+    checkArgument(call != null, "The call must not be null.");
+    CompletableFuture<V> future = new CompletableFuture<>();
+    CompletableFuture<V> inFlightFuture = inFlightMap.putIfAbsent(key, future);
+    if (inFlightFuture != null) {
+      coalescedCalls.incrementAndGet();
+      try {
+        return inFlightFuture.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        } else if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw e;
+      }
+    }
+    try {
+      V value = call.get();
+      future.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlightMap.remove(key, future);
+    }
+  }
+
+  /**
+   * Gets the number of calls that have been served by a call, which was already in flight.
+   *
+   * @return the number of coalesced calls.
+   */
+  public long getCoalescedCalls() {
+    return coalescedCalls.get();
+  }
+
+}
@@ -1,27 +1,163 @@
 package at.ac.tuwien.ifs.es.middleware.service.caching;
 
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGUpdatedEvent;
+import java.io.File;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.PreDestroy;
+import org.mapdb.DB;
+import org.mapdb.DBException;
+import org.mapdb.DBMaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
 
+/**
+ * This class configures the caches of this application. Each cache is a {@link BoundedCache},
+ * whose maximal size ({@code esm.cache.<name>.size}, e.g. {@code 64MB}) and time to live in
+ * seconds ({@code esm.cache.<name>.ttl}) can be configured. All caches are invalidated, if the
+ * knowledge graph has been updated. The keys of SPARQL queries are canonicalized with the {@link
+ * SPARQLQueryKeyGenerator}.
+ * <p/>
+ * Optionally ({@code esm.cache.persistent.enabled}), the caches given in {@code
+ * esm.cache.persistent.caches} are backed by a {@link PersistentCacheStore} in the data directory,
+ * such that their values survive a restart as long as the version of the knowledge graph (see
+ * {@link KGVersionStamp}) does not change. The SPARQL queries are persisted by the stable form of
+ * their canonical key, whereas the other caches only persist values with {@link String} keys.
+ * <p/>
+ * Each cache keeps expired and invalidated entries as stale entries up to the fraction {@code
+ * esm.cache.stale.fraction} of its size, which are served while the backend is unavailable.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
 @Configuration
 @EnableCaching
 public class SpringCacheConfig {
 
+  private static final Logger logger = LoggerFactory.getLogger(SpringCacheConfig.class);
+
+  private final Environment env;
+  private final List<BoundedCache> caches = new LinkedList<>();
+  private final Set<String> persistentCacheNames;
+
+  private DB persistentDB;
+  private KGVersionStamp versionStamp;
+
+  public SpringCacheConfig(Environment env) {
+    this.env = env;
+    this.persistentCacheNames = new HashSet<>(Arrays.asList(
+        env.getProperty("esm.cache.persistent.caches", String[].class,
+            new String[]{"sparql"})));
+  }
+
+  private BoundedCache createCache(String name, String defaultSize, long defaultTTL) {
+    DataSize size = DataSize
+        .parse(env.getProperty(String.format("esm.cache.%s.size", name), defaultSize));
+    long ttl = env.getProperty(String.format("esm.cache.%s.ttl", name), Long.class, defaultTTL);
+    CacheStore secondLevelStore = null;
+    if (persistentCacheNames.contains(name)) {
+      DB db = getPersistentDB();
+      long entries = env.getProperty("esm.cache.persistent.entries", Long.class, 100000L);
+      if (db != null && "sparql".equals(name)) {
+        secondLevelStore = new PersistentCacheStore(db, name, entries, Duration.ofSeconds(ttl),
+            versionStamp, SPARQLQueryKeyGenerator::persistentKeyOf);
+      } else if (db != null) {
+        secondLevelStore = new PersistentCacheStore(db, name, entries, Duration.ofSeconds(ttl),
+            versionStamp);
+      }
+    }
+    double staleFraction = env.getProperty("esm.cache.stale.fraction", Double.class, 0.25);
+    BoundedCache cache = new BoundedCache(name, size.toBytes(), Duration.ofSeconds(ttl),
+        secondLevelStore, (long) Math.max(0, size.toBytes() * staleFraction));
+    caches.add(cache);
+    return cache;
+  }
+
+  /**
+   * Gets the MapDB {@link DB} in which the persistent caches are stored, or {@code null}, if
+   * persistent caches are disabled. A store that has not been closed properly, is discarded.
+   */
+  private DB getPersistentDB() {
+    if (persistentDB == null && env.getProperty("esm.cache.persistent.enabled", Boolean.class,
+        false)) {
+      String dataDir = env.getProperty("esm.db.data.dir");
+      if (dataDir == null) {
+        logger.warn("Persistent caches are disabled, because no data directory is specified.");
+        return null;
+      }
+      File cacheDir = new File(dataDir, "cache");
+      if (!cacheDir.exists()) {
+        cacheDir.mkdirs();
+      }
+      File cacheFile = new File(cacheDir, "cache.db");
+      try {
+        persistentDB = openPersistentDB(cacheFile);
+      } catch (DBException e) {
+        logger.warn("The persistent caches in '{}' are discarded, because they are corrupted. {}",
+            cacheFile, e.getMessage());
+        cacheFile.delete();
+        persistentDB = openPersistentDB(cacheFile);
+      }
+      versionStamp = new KGVersionStamp(persistentDB,
+          env.getProperty("esm.cache.persistent.version", ""));
+    }
+    return persistentDB;
+  }
+
+  private static DB openPersistentDB(File cacheFile) {
+    return DBMaker.fileDB(cacheFile).fileMmapEnableIfSupported().closeOnJvmShutdown().make();
+  }
+
   @Bean
   public CacheManager cacheManager() {
     SimpleCacheManager cacheManager = new SimpleCacheManager();
     cacheManager.setCaches(Arrays.asList(
-        new ConcurrentMapCache("sparql"),
-        new ConcurrentMapCache("fts"),
-        new ConcurrentMapCache("gremlin"),
-        new ConcurrentMapCache("classes-cache"),
-        new ConcurrentMapCache("class-hierarchy-cache")));
+        createCache("sparql", "128MB", 3600),
+        createCache("fts", "32MB", 3600),
+        createCache("fts-window", "32MB", 3600),
+        createCache("gremlin", "32MB", 3600),
+        createCache(ResourceFragmentCache.CACHE_NAME, "64MB", 3600),
+        createCache("flow", "64MB", 3600),
+        createCache("classes-cache", "16MB", 0),
+        createCache("class-hierarchy-cache", "32MB", 0)));
     return cacheManager;
   }
 
+  @Bean
+  public SPARQLQueryKeyGenerator sparqlQueryKeyGenerator() {
+    return new SPARQLQueryKeyGenerator(
+        env.getProperty("esm.cache.sparql.fingerprints", Long.class, 10000L));
+  }
+
+  @EventListener
+  public void onKnowledgeGraphUpdated(KGUpdatedEvent updatedEvent) {
+    for (BoundedCache cache : caches) {
+      logger.info("Invalidates {} because of an update of the knowledge graph.", cache);
+      cache.invalidate();
+    }
+    if (versionStamp != null) {
+      versionStamp.update();
+    }
+  }
+
+  @PreDestroy
+  public void closeDown() {
+    if (persistentDB != null) {
+      persistentDB.close();
+    }
+  }
+
 }
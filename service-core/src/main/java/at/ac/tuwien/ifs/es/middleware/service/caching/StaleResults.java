@@ -0,0 +1,55 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+/**
+ * This class keeps track of the stale values, which have been served by a {@link BoundedCache} to
+ * the current thread, because the backend was unavailable (see {@link
+ * at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendUnavailableException}). Results
+ * that have been computed with stale values, shall be marked as stale and must not be cached.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class StaleResults {
+
+  private static final ThreadLocal<int[]> staleCount = ThreadLocal.withInitial(() -> new int[1]);
+
+  private StaleResults() {
+  }
+
+  /**
+   * Marks that a stale value has been served to the current thread.
+   */
+  static void mark() {
+    staleCount.get()[0]++;
+  }
+
+  /**
+   * Gets the number of stale values that have been served to the current thread since the last
+   * {@link #reset()}. Callers can compare the number before and after a computation to check
+   * whether the computation used stale values.
+   *
+   * @return the number of stale values that have been served to the current thread.
+   */
+  public static int count() {
+    return staleCount.get()[0];
+  }
+
+  /**
+   * Checks whether stale values have been served to the current thread since the last {@link
+   * #reset()}.
+   *
+   * @return {@code true}, if stale values have been served, otherwise {@code false}.
+   */
+  public static boolean isStale() {
+    return count() > 0;
+  }
+
+  /**
+   * Resets the number of stale values that have been served to the current thread, e.g. at the
+   * beginning and end of a request.
+   */
+  public static void reset() {
+    staleCount.remove();
+  }
+}
@@ -0,0 +1,165 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.event.KGUpdatedEvent;
+import at.ac.tuwien.ifs.es.middleware.scheduler.ScheduleTask;
+import at.ac.tuwien.ifs.es.middleware.scheduler.SchedulerPipeline;
+import at.ac.tuwien.ifs.es.middleware.scheduler.TaskStatus;
+import at.ac.tuwien.ifs.es.middleware.scheduler.TaskStatus.VALUE;
+import at.ac.tuwien.ifs.es.middleware.scheduler.behaviour.NRetryBehaviour;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.FullTextSearchService;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.DiscardOldestPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class schedules the warming of the caches at startup and after each update of the
+ * knowledge graph. The most frequent requests of the {@link RequestLog} are replayed in the
+ * background by the {@link RequestReplayer} of their type, with an optional pause between the
+ * requests. The replayed requests aren't guarded by the circuit breakers of the request path (see
+ * {@link BackendCircuitBreakers#inBackground(Runnable)}).
+ * <p/>
+ * The warming at startup waits until the knowledge graph services have been set up successfully,
+ * the warming after an update until the services have been updated. The {@link
+ * SchedulerPipeline} only waits for these requirements, the requests are replayed by a dedicated
+ * thread with low priority such that the warming never occupies the shared task executor of the
+ * analysis services. At most one warming is waiting, while another one is running. A waiting
+ * warming is superseded by a newer one.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class CacheWarmingScheduler {
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheWarmingScheduler.class);
+
+  private static final String TASK_ID = "esm.cache.warming";
+  private static final Set<String> SERVICE_REQUIREMENTS = new HashSet<>(
+      Arrays.asList(SPARQLService.class.getName(), FullTextSearchService.class.getName()));
+
+  private final SchedulerPipeline schedulerPipeline;
+  private final RequestLog requestLog;
+  private final ObjectProvider<RequestReplayer> replayerProvider;
+  private final ThreadPoolExecutor warmingExecutor = new ThreadPoolExecutor(1, 1, 0L,
+      TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+      new ThreadFactoryBuilder().setNameFormat("esm-cache-warming-%d").setDaemon(true)
+          .setPriority(Thread.MIN_PRIORITY).build(), new DiscardOldestPolicy());
+
+  @Value("${esm.cache.warming.top:#{100}}")
+  private int topN;
+  @Value("${esm.cache.warming.pause:#{0}}")
+  private long pauseInMs;
+
+  @Autowired
+  public CacheWarmingScheduler(SchedulerPipeline schedulerPipeline, RequestLog requestLog,
+      ObjectProvider<RequestReplayer> replayerProvider) {
+    this.schedulerPipeline = schedulerPipeline;
+    this.requestLog = requestLog;
+    this.replayerProvider = replayerProvider;
+  }
+
+  @EventListener
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    if (requestLog.isEnabled()) {
+      schedulerPipeline.pushTasks(Collections.singletonList(
+          new ScheduleTask(TASK_ID, Instant.now().toEpochMilli(),
+              this::warmUpWhenReady,
+              Collections.emptySet(), Collections.emptySet(), NRetryBehaviour.of(30))));
+    }
+  }
+
+  @EventListener
+  public void onKnowledgeGraphUpdated(KGUpdatedEvent updatedEvent) {
+    if (requestLog.isEnabled()) {
+      schedulerPipeline.pushTasks(Collections.singletonList(
+          new ScheduleTask(TASK_ID, updatedEvent.getTimestamp(),
+              this::submitWarmUp,
+              SERVICE_REQUIREMENTS, Collections.emptySet(), NRetryBehaviour.of(3))));
+    }
+  }
+
+  /**
+   * Submits the warming of the caches, if the knowledge graph services have been set up
+   * successfully. Otherwise, an exception is thrown such that the warming is retried later.
+   */
+  private void warmUpWhenReady() {
+    for (String requirement : SERVICE_REQUIREMENTS) {
+      Optional<TaskStatus> statusOptional = schedulerPipeline.getTaskStatus(requirement);
+      if (!statusOptional.isPresent() || !VALUE.OK.equals(statusOptional.get().getStatus())) {
+        throw new IllegalStateException(
+            String.format("The service '%s' is not ready for warming up the caches.",
+                requirement));
+      }
+    }
+    submitWarmUp();
+  }
+
+  /**
+   * Submits the warming of the caches to the dedicated warming thread.
+   */
+  private void submitWarmUp() {
+    warmingExecutor.execute(BackendCircuitBreakers.inBackground(this::warmUp));
+  }
+
+  /**
+   * Replays the most frequent requests of the {@link RequestLog}.
+   */
+  private void warmUp() {
+    Map<String, RequestReplayer> replayerMap = replayerProvider.stream()
+        .collect(Collectors.toMap(RequestReplayer::getType, Function.identity(), (a, b) -> a));
+    List<RecordedRequest> requests = requestLog.getTopRequests(topN);
+    logger.info("Starts to warm up the caches with {} recorded requests.", requests.size());
+    int replayed = 0;
+    try {
+      for (RecordedRequest request : requests) {
+        RequestReplayer replayer = replayerMap.get(request.getType());
+        if (replayer == null) {
+          continue;
+        }
+        try {
+          requestLog.replay(() -> replayer.replay(request));
+          replayed++;
+        } catch (RuntimeException e) {
+          logger.debug("Replay of {} failed. {}", request, e.getMessage());
+        }
+        if (pauseInMs > 0) {
+          Thread.sleep(pauseInMs);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    logger.info("Warmed up the caches by replaying {} of {} recorded requests.", replayed,
+        requests.size());
+  }
+
+  @PreDestroy
+  public void closeDown() {
+    warmingExecutor.shutdownNow();
+  }
+
+}
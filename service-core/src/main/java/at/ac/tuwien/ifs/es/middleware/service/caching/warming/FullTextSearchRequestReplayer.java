@@ -0,0 +1,94 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.FullTextSearchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * This {@link RequestReplayer} replays full-text-searches for a keyword and optionally a list of
+ * classes with the {@link FullTextSearchService}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class FullTextSearchRequestReplayer implements RequestReplayer {
+
+  static final String TYPE = "fts";
+
+  private static final String KEYWORD_ONLY = "keyword";
+  private static final String WITH_CLASSES = "classes";
+
+  private static final RDF valueFactory = new SimpleRDF();
+
+  private final FullTextSearchService fullTextSearchService;
+
+  @Autowired
+  public FullTextSearchRequestReplayer(@Lazy FullTextSearchService fullTextSearchService) {
+    this.fullTextSearchService = fullTextSearchService;
+  }
+
+  /**
+   * Creates the {@link RecordedRequest} for a full-text-search with the given keyword.
+   *
+   * @param keyword of the full-text-search. It must not be null.
+   * @return the {@link RecordedRequest} for the full-text-search.
+   */
+  static RecordedRequest request(String keyword) {
+    List<String> arguments = new ArrayList<>();
+    arguments.add(KEYWORD_ONLY);
+    arguments.add(keyword);
+    return new RecordedRequest(TYPE, arguments);
+  }
+
+  /**
+   * Creates the {@link RecordedRequest} for a full-text-search with the given keyword and
+   * classes.
+   *
+   * @param keyword of the full-text-search. It must not be null.
+   * @param classes of the full-text-search. It must not be null.
+   * @return the {@link RecordedRequest} for the full-text-search, or {@link Optional#empty()}, if
+   * the classes contain blank nodes, which cannot be replayed.
+   */
+  static Optional<RecordedRequest> request(String keyword, List<BlankNodeOrIRI> classes) {
+    List<String> arguments = new ArrayList<>();
+    arguments.add(WITH_CLASSES);
+    arguments.add(keyword);
+    for (BlankNodeOrIRI clazz : classes) {
+      if (!(clazz instanceof IRI)) {
+        return Optional.empty();
+      }
+      arguments.add(((IRI) clazz).getIRIString());
+    }
+    return Optional.of(new RecordedRequest(TYPE, arguments));
+  }
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public void replay(RecordedRequest request) {
+    List<String> arguments = request.getArguments();
+    if (KEYWORD_ONLY.equals(arguments.get(0))) {
+      fullTextSearchService.searchFullText(arguments.get(1));
+    } else {
+      List<BlankNodeOrIRI> classes = new ArrayList<>();
+      for (String clazz : arguments.subList(2, arguments.size())) {
+        classes.add(valueFactory.createIRI(clazz));
+      }
+      fullTextSearchService.searchFullText(arguments.get(1), classes);
+    }
+  }
+
+}
@@ -0,0 +1,59 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+import java.util.List;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * This aspect records the cached requests to the SPARQL and full-text-search service in the {@link
+ * RequestLog}. SPARQL queries longer than {@code esm.cache.warming.log.query-length} characters
+ * aren't recorded. They are typically generated for a single request (e.g. with a large {@code
+ * VALUES} block) and unlikely to be repeated, but would be kept in memory and in the log file.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Aspect
+@Component
+@Profile("aop")
+public class KnowledgeGraphRequestRecordingAspect {
+
+  private final RequestLog requestLog;
+  private final int maximumQueryLength;
+
+  @Autowired
+  public KnowledgeGraphRequestRecordingAspect(RequestLog requestLog,
+      @Value("${esm.cache.warming.log.query-length:#{4096}}") int maximumQueryLength) {
+    this.requestLog = requestLog;
+    this.maximumQueryLength = maximumQueryLength;
+  }
+
+  @Before(value = "execution(* at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService.query(String, boolean)) && args(query, includeInference)", argNames = "query,includeInference")
+  public void recordSPARQLQuery(String query, boolean includeInference) {
+    if (requestLog.isEnabled() && query != null && !query.isEmpty()
+        && query.length() <= maximumQueryLength) {
+      requestLog.record(SPARQLRequestReplayer.request(query, includeInference));
+    }
+  }
+
+  @Before(value = "execution(* at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.FullTextSearchService.searchFullText(String)) && args(keyword)", argNames = "keyword")
+  public void recordFullTextSearch(String keyword) {
+    if (requestLog.isEnabled() && keyword != null) {
+      requestLog.record(FullTextSearchRequestReplayer.request(keyword));
+    }
+  }
+
+  @Before(value = "execution(* at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.FullTextSearchService.searchFullText(String, java.util.List)) && args(keyword, classes)", argNames = "keyword,classes")
+  public void recordFullTextSearch(String keyword, List<BlankNodeOrIRI> classes) {
+    if (requestLog.isEnabled() && keyword != null && classes != null) {
+      FullTextSearchRequestReplayer.request(keyword, classes).ifPresent(requestLog::record);
+    }
+  }
+
+}
@@ -0,0 +1,103 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class represents a request to the knowledge graph services, which has been recorded by the
+ * {@link RequestLog} and can be replayed by a {@link RequestReplayer} of the same type.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class RecordedRequest {
+
+  private final String type;
+  private final List<String> arguments;
+
+  /**
+   * Creates a new {@link RecordedRequest} of the given type with the given arguments.
+   *
+   * @param type      of the request, which identifies the {@link RequestReplayer}. It must not be
+   *                  null, empty or contain whitespaces.
+   * @param arguments of the request. It must not be null and no argument must be null.
+   */
+  public RecordedRequest(String type, List<String> arguments) {
+    checkArgument(type != null && !type.isEmpty() && !type.matches(".*\\s.*"),
+        "The type must not be null, empty or contain whitespaces.");
+    checkArgument(arguments != null && !arguments.contains(null),
+        "The arguments must not be null.");
+    this.type = type;
+    this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public List<String> getArguments() {
+    return arguments;
+  }
+
+  /**
+   * Encodes this request into a single line, which can be decoded with {@link #decode(String)}.
+   *
+   * @return the line representing this request.
+   */
+  String encode() {
+    StringBuilder line = new StringBuilder(type);
+    for (String argument : arguments) {
+      line.append('\t').append(Base64.getEncoder()
+          .encodeToString(argument.getBytes(StandardCharsets.UTF_8)));
+    }
+    return line.toString();
+  }
+
+  /**
+   * Decodes the given line into a {@link RecordedRequest}.
+   *
+   * @param line that has been encoded with {@link #encode()}.
+   * @return the decoded {@link RecordedRequest}.
+   * @throws IllegalArgumentException if the given line is malformed.
+   */
+  static RecordedRequest decode(String line) {
+    String[] parts = line.split("\t", -1);
+    List<String> arguments = new ArrayList<>(parts.length - 1);
+    for (int i = 1; i < parts.length; i++) {
+      arguments.add(new String(Base64.getDecoder().decode(parts[i]), StandardCharsets.UTF_8));
+    }
+    return new RecordedRequest(parts[0], arguments);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RecordedRequest that = (RecordedRequest) o;
+    return type.equals(that.type) && arguments.equals(that.arguments);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, arguments);
+  }
+
+  @Override
+  public String toString() {
+    return "RecordedRequest{" +
+        "type='" + type + '\'' +
+        ", arguments=" + arguments +
+        '}';
+  }
+}
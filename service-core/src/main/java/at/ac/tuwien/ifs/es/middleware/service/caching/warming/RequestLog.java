@@ -0,0 +1,198 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class records a sample of the requests to the knowledge graph services and exploration
+ * flows together with their frequency, such that the most frequent requests can be replayed to
+ * warm up the caches (see {@link CacheWarmingScheduler}). The log is periodically written to the
+ * file {@code cache/requests.log} in the data directory, and read again at startup.
+ * <p/>
+ * The log keeps at most twice the configured number of distinct requests, the least frequent ones
+ * are dropped, if this bound is exceeded. Requests issued while replaying or by background tasks
+ * (e.g. the analysis services, see {@link BackendCircuitBreakers#inBackground(Runnable)}) are not
+ * recorded, because they aren't on the request path and would only crowd out the requests of the
+ * users.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class RequestLog {
+
+  private static final Logger logger = LoggerFactory.getLogger(RequestLog.class);
+
+  private final boolean enabled;
+  private final double samplingRate;
+  private final int maximumEntries;
+  private final File logFile;
+
+  private final ConcurrentMap<RecordedRequest, LongAdder> countMap = new ConcurrentHashMap<>();
+  private final ThreadLocal<Boolean> replaying = new ThreadLocal<>();
+
+  @Autowired
+  public RequestLog(@Value("${esm.cache.warming.enabled:#{false}}") boolean enabled,
+      @Value("${esm.cache.warming.sampling:#{1.0}}") double samplingRate,
+      @Value("${esm.cache.warming.log.entries:#{1000}}") int maximumEntries,
+      @Value("${esm.db.data.dir:#{null}}") String dataDir) {
+    checkArgument(samplingRate >= 0 && samplingRate <= 1,
+        "The sampling rate must be in the range [0,1].");
+    checkArgument(maximumEntries > 0, "The maximal number of entries must be positive.");
+    this.enabled = enabled;
+    this.samplingRate = samplingRate;
+    this.maximumEntries = maximumEntries;
+    this.logFile = dataDir != null ? new File(new File(dataDir, "cache"), "requests.log") : null;
+    if (enabled) {
+      load();
+    }
+  }
+
+  /**
+   * Checks whether requests shall be recorded and replayed.
+   *
+   * @return {@code true}, if requests shall be recorded and replayed, otherwise {@code false}.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Records the given request, if it is sampled and neither issued while replaying nor by a
+   * background task.
+   *
+   * @param request that shall be recorded. It must not be null.
+   */
+  public void record(RecordedRequest request) {
+    if (!enabled || Boolean.TRUE.equals(replaying.get())
+        || BackendCircuitBreakers.isInBackground()) {
+      return;
+    }
+    if (samplingRate < 1 && ThreadLocalRandom.current().nextDouble() >= samplingRate) {
+      return;
+    }
+    countMap.computeIfAbsent(request, r -> new LongAdder()).increment();
+    if (countMap.size() > 2 * maximumEntries) {
+      prune();
+    }
+  }
+
+  /**
+   * Runs the given replay, such that the requests issued by it are not recorded.
+   *
+   * @param replay that shall be run. It must not be null.
+   */
+  public void replay(Runnable replay) {
+    replaying.set(true);
+    try {
+      replay.run();
+    } finally {
+      replaying.remove();
+    }
+  }
+
+  /**
+   * Gets the given number of the most frequent requests.
+   *
+   * @param n the maximal number of requests that shall be returned.
+   * @return the {@code n} most frequent requests, ordered by their frequency.
+   */
+  public List<RecordedRequest> getTopRequests(int n) {
+    return countMap.entrySet().stream()
+        .sorted(Comparator.comparingLong((Entry<RecordedRequest, LongAdder> e) -> e.getValue()
+            .sum()).reversed()).limit(n).map(Entry::getKey).collect(Collectors.toList());
+  }
+
+  /**
+   * Drops the least frequent requests, such that only the configured number of requests is kept.
+   */
+  private synchronized void prune() {
+    if (countMap.size() > maximumEntries) {
+      List<RecordedRequest> topRequests = getTopRequests(maximumEntries);
+      countMap.keySet().retainAll(topRequests);
+    }
+  }
+
+  /**
+   * Reads the log file, if it exists.
+   */
+  private void load() {
+    if (logFile == null || !logFile.exists()) {
+      return;
+    }
+    try (BufferedReader reader = Files.newBufferedReader(logFile.toPath(),
+        StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        int separator = line.indexOf('\t');
+        try {
+          LongAdder count = new LongAdder();
+          count.add(Long.parseLong(line.substring(0, separator)));
+          countMap.put(RecordedRequest.decode(line.substring(separator + 1)), count);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+          logger.debug("Skips malformed line in the request log '{}'. {}", logFile,
+              e.getMessage());
+        }
+      }
+      logger.info("Read {} recorded requests from '{}'.", countMap.size(), logFile);
+    } catch (IOException e) {
+      logger.warn("The request log '{}' could not be read. {}", logFile, e.getMessage());
+    }
+  }
+
+  /**
+   * Writes the recorded requests with their frequency to the log file.
+   */
+  @Scheduled(fixedDelayString = "${esm.cache.warming.log.flush:#{60000}}")
+  public synchronized void flush() {
+    if (!enabled || logFile == null) {
+      return;
+    }
+    try {
+      Files.createDirectories(logFile.getParentFile().toPath());
+      Path tempFile = new File(logFile.getParentFile(), logFile.getName() + ".tmp").toPath();
+      try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        for (Map.Entry<RecordedRequest, LongAdder> entry : countMap.entrySet()) {
+          writer.write(entry.getValue().sum() + "\t" + entry.getKey().encode());
+          writer.newLine();
+        }
+      }
+      Files.move(tempFile, logFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      logger.warn("The request log '{}' could not be written. {}", logFile, e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void closeDown() {
+    flush();
+  }
+
+}
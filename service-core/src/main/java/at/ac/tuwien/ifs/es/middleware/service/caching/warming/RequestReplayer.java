@@ -0,0 +1,27 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+/**
+ * Instances of this interface replay {@link RecordedRequest}s of a certain type in order to warm
+ * up the caches, which are involved in answering such requests.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public interface RequestReplayer {
+
+  /**
+   * Gets the type of {@link RecordedRequest}s, which can be replayed by this replayer.
+   *
+   * @return the type of {@link RecordedRequest}s, which can be replayed by this replayer.
+   */
+  String getType();
+
+  /**
+   * Replays the given request.
+   *
+   * @param request that shall be replayed. It is of the type of this replayer.
+   */
+  void replay(RecordedRequest request);
+
+}
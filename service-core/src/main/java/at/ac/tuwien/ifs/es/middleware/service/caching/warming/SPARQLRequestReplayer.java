@@ -0,0 +1,50 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import java.util.Arrays;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * This {@link RequestReplayer} replays SPARQL queries with the {@link SPARQLService}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class SPARQLRequestReplayer implements RequestReplayer {
+
+  static final String TYPE = "sparql";
+
+  private final SPARQLService sparqlService;
+
+  @Autowired
+  public SPARQLRequestReplayer(@Lazy SPARQLService sparqlService) {
+    this.sparqlService = sparqlService;
+  }
+
+  /**
+   * Creates the {@link RecordedRequest} for the given SPARQL query.
+   *
+   * @param query            the SPARQL query. It must not be null.
+   * @param includeInference {@code true}, if inferred statements shall be considered.
+   * @return the {@link RecordedRequest} for the given SPARQL query.
+   */
+  static RecordedRequest request(String query, boolean includeInference) {
+    return new RecordedRequest(TYPE, Arrays.asList(query, Boolean.toString(includeInference)));
+  }
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public void replay(RecordedRequest request) {
+    sparqlService.query(request.getArguments().get(0),
+        Boolean.parseBoolean(request.getArguments().get(1)));
+  }
+
+}
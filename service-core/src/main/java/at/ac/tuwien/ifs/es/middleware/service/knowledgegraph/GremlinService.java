@@ -62,6 +62,19 @@ public interface GremlinService {
    */
   void unlock();
 
+  /**
+   * Acquires a shared lock for read-only access to the backend. Several threads can hold this lock
+   * at the same time, which allows independent traversals to run concurrently. If the gremlin
+   * backend supports transactions, a new transaction is started for the current thread.
+   */
+  void readLock();
+
+  /**
+   * Releases the shared lock that has been acquired with {@link #readLock()}. If the gremlin backend
+   * supports transactions, the open transaction will be closed without committing any changes.
+   */
+  void readUnlock();
+
   /**
    * Gets the property graph schema for representing the RDF data. The returned schema must not be
    * null.
@@ -1,8 +1,11 @@
 package at.ac.tuwien.ifs.es.middleware.service.knowledgegraph;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.StreamingQueryResult;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceExecutionException;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceIllegalArgumentException;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
 
 /**
  * This service provides methods for executing SPARQL queries and updates.
@@ -30,6 +33,90 @@ public interface SPARQLService {
   <T extends QueryResult> T query(String query, boolean includeInference)
       throws SPARQLServiceExecutionException, SPARQLServiceIllegalArgumentException;
 
+  /**
+   * Queries the knowledge graph using the given {@link BoundSPARQLQuery} and returns the result.
+   * The template of the query is parsed only once, and the bound rows of its {@code VALUES}
+   * clauses are not substituted into the query string, if the knowledge graph is able to evaluate
+   * the parsed query.
+   *
+   * @param query which shall be executed.
+   * @param includeInference {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link QueryResult} get the SPARQL query.
+   * @throws SPARQLServiceExecutionException will be thrown, if servicing the SPARQL query failed
+   * (because of server).
+   * @throws SPARQLServiceIllegalArgumentException will be thrown, if the given {@code query} is
+   * malformed.
+   */
+  <T extends QueryResult> T query(BoundSPARQLQuery query, boolean includeInference)
+      throws SPARQLServiceExecutionException, SPARQLServiceIllegalArgumentException;
+
+  /**
+   * Queries the knowledge graph using the given SELECT SPARQL {@code query} and streams the result
+   * row by row. The result is neither cached nor materialized, which is why this method should be
+   * used for loading large parts of the knowledge graph. The returned {@link
+   * SelectQueryResultCursor} must be closed by the caller.
+   *
+   * @param query SELECT query which shall be executed.
+   * @param includeInference {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link SelectQueryResultCursor} over the rows of the result.
+   * @throws SPARQLServiceExecutionException will be thrown, if servicing the SPARQL query failed
+   * (because of server).
+   * @throws SPARQLServiceIllegalArgumentException will be thrown, if the given {@code query} is
+   * malformed.
+   */
+  SelectQueryResultCursor select(String query, boolean includeInference)
+      throws SPARQLServiceExecutionException, SPARQLServiceIllegalArgumentException;
+
+  /**
+   * Queries the knowledge graph using the given SELECT {@link BoundSPARQLQuery} and streams the
+   * result row by row. The result is neither cached nor materialized. The returned {@link
+   * SelectQueryResultCursor} must be closed by the caller.
+   *
+   * @param query SELECT query which shall be executed.
+   * @param includeInference {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link SelectQueryResultCursor} over the rows of the result.
+   * @throws SPARQLServiceExecutionException will be thrown, if servicing the SPARQL query failed
+   * (because of server).
+   * @throws SPARQLServiceIllegalArgumentException will be thrown, if the given {@code query} is
+   * malformed.
+   */
+  SelectQueryResultCursor select(BoundSPARQLQuery query, boolean includeInference)
+      throws SPARQLServiceExecutionException, SPARQLServiceIllegalArgumentException;
+
+  /**
+   * Validates the given SPARQL {@code query} and returns a {@link StreamingQueryResult}, which
+   * writes the result into an output stream. A result that is cached, is served from the cache,
+   * whereas a result that is too large to be cached is evaluated and written straight into the
+   * output stream, without being materialized. Hence, this method should be used for serving
+   * results to clients. Supported are the constructs {@code ASK}, {@code SELECT}, {@code CONSTRUCT}
+   * and {@code DESCRIBE}. The returned result must be closed by the caller, if it is never written.
+   * <p/>
+   * If the knowledge graph isn't able to stream results (see {@link #isStreamingSupported()}), the
+   * result is materialized anyways, and {@link #query(String, boolean)} should be preferred.
+   *
+   * @param query which shall be executed.
+   * @param includeInference {@code true}, if entailed statements should be considered, otherwise
+   * {@code false}.
+   * @return {@link StreamingQueryResult} for the SPARQL query.
+   * @throws SPARQLServiceExecutionException will be thrown, if servicing the SPARQL query failed
+   * (because of server).
+   * @throws SPARQLServiceIllegalArgumentException will be thrown, if the given {@code query} is
+   * malformed.
+   */
+  StreamingQueryResult stream(String query, boolean includeInference)
+      throws SPARQLServiceExecutionException, SPARQLServiceIllegalArgumentException;
+
+  /**
+   * Tells whether the results of {@link #stream(String, boolean)} are streamed from the knowledge
+   * graph, or whether they are materialized.
+   *
+   * @return {@code true}, if the results are streamed, otherwise {@code false}.
+   */
+  boolean isStreamingSupported();
+
   /**
    * Executes the given SPARQL {@code query}.
    *
@@ -1,13 +1,26 @@
 package at.ac.tuwien.ifs.es.middleware.service.knowledgegraph;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGFullTextSearchDAO;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.facet.FacetFilter;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendObserverService;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.RDFTerm;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Primary;
@@ -15,7 +28,16 @@ import org.springframework.stereotype.Service;
 
 /**
  * This class is an implementation get {@link FullTextSearchService} that caches the full-text-search
- * result.
+ * result. Concurrent requests for the same uncached search are coalesced into a single request to
+ * the backend.
+ * <p/>
+ * Paged requests (with a limit) are served from a window of ranked hits, which is {@code
+ * esm.cache.fts-window.factor} times larger than the limit. The window is fetched once per keyword,
+ * classes and facets, and is kept in the {@code fts-window} cache, such that following pages can be
+ * served without asking the backend again, until the window runs out.
+ * <p/>
+ * The calls to the backend are guarded by the {@link BackendCircuitBreakers}, if they are
+ * available, such that calls are rejected fast while the backend is unavailable.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -26,36 +48,141 @@ import org.springframework.stereotype.Service;
 @Service("SimpleFullTextSearchService")
 public class SimpleFullTextSearchService implements FullTextSearchService {
 
+  private static final String WINDOW_CACHE_NAME = "fts-window";
+
   private KGFullTextSearchDAO fullTextSearchDAO;
+  private Cache windowCache;
+  private int windowFactor;
+  private BackendCircuitBreakers circuitBreakers;
 
   @Autowired
   public SimpleFullTextSearchService(
-      @Qualifier("getFullTextSearchDAO") KGFullTextSearchDAO fullTextSearchDAO) {
+      @Qualifier("getFullTextSearchDAO") KGFullTextSearchDAO fullTextSearchDAO,
+      ObjectProvider<CacheManager> cacheManagerProvider,
+      ObjectProvider<BackendCircuitBreakers> circuitBreakersProvider,
+      @Value("${esm.cache.fts-window.factor:10}") int windowFactor) {
+    checkArgument(windowFactor > 0, "The factor of the window must be positive.");
     this.fullTextSearchDAO = fullTextSearchDAO;
+    this.windowFactor = windowFactor;
+    CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+    this.windowCache = cacheManager != null ? cacheManager.getCache(WINDOW_CACHE_NAME) : null;
+    this.circuitBreakers = circuitBreakersProvider.getIfAvailable();
+  }
+
+  private <T> T callBackend(Supplier<T> call) {
+    return BackendCircuitBreakers.call(circuitBreakers, BackendObserverService.FULLTEXTSEARCH_DAO,
+        call);
   }
 
-  @Cacheable({"fts"})
+  @Cacheable(cacheNames = "fts", sync = true)
   @Override
   public List<Map<String, RDFTerm>> searchFullText(String keyword) {
-    return fullTextSearchDAO.searchFullText(keyword);
+    return callBackend(() -> fullTextSearchDAO.searchFullText(keyword));
   }
 
-  @Cacheable({"fts"})
+  @Cacheable(cacheNames = "fts", sync = true)
   @Override
   public List<Map<String, RDFTerm>> searchFullText(String keyword, List<BlankNodeOrIRI> classes) {
-    return fullTextSearchDAO.searchFullText(keyword, classes);
+    return callBackend(() -> fullTextSearchDAO.searchFullText(keyword, classes));
   }
 
-  @Cacheable({"fts"})
   @Override
   public List<Map<String, RDFTerm>> searchFullText(String keyword, List<BlankNodeOrIRI> classes,
       Integer offset, Integer limit) {
-    return fullTextSearchDAO.searchFullText(keyword, classes, offset, limit);
+    return searchFullText(keyword, classes, offset, limit, Collections.emptyList());
   }
 
   @Override
   public List<Map<String, RDFTerm>> searchFullText(String keyword, List<BlankNodeOrIRI> classes,
       Integer offset, Integer limit, List<FacetFilter> facetFilters) {
-    return fullTextSearchDAO.searchFullText(keyword, classes, offset, limit, facetFilters);
+    if (windowCache == null || limit == null || limit <= 0) {
+      return callBackend(() -> fullTextSearchDAO
+          .searchFullText(keyword, classes, offset, limit, facetFilters));
+    }
+    long start = offset != null ? Math.max(offset, 0) : 0;
+    long end = start + limit;
+    int windowSize = (int) Math.min(Integer.MAX_VALUE, (long) limit * windowFactor);
+    List<Map<String, RDFTerm>> page = new ArrayList<>(limit);
+    for (long windowStart = (start / windowSize) * windowSize; windowStart < end;
+        windowStart += windowSize) {
+      List<Map<String, RDFTerm>> window = getWindow(new SearchWindowKey(keyword, classes,
+          facetFilters, windowStart, windowSize));
+      int from = (int) Math.max(start - windowStart, 0);
+      int to = (int) Math.min(end - windowStart, window.size());
+      if (from < to) {
+        page.addAll(window.subList(from, to));
+      }
+      if (window.size() < windowSize) {
+        break;
+      }
+    }
+    return page;
+  }
+
+  /**
+   * Gets the window for the given key from the cache, or fetches it from the backend.
+   */
+  private List<Map<String, RDFTerm>> getWindow(SearchWindowKey key) {
+    try {
+      return windowCache.get(key, () -> Collections.unmodifiableList(new ArrayList<>(
+          callBackend(() -> fullTextSearchDAO.searchFullText(key.keyword, key.classes,
+              (int) key.windowStart, key.windowSize, key.facetFilters)))));
+    } catch (ValueRetrievalException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * The key of a window of ranked hits for a full-text-search.
+   */
+  private static final class SearchWindowKey {
+
+    private final String keyword;
+    private final List<BlankNodeOrIRI> classes;
+    private final List<FacetFilter> facetFilters;
+    private final long windowStart;
+    private final int windowSize;
+
+    private SearchWindowKey(String keyword, List<BlankNodeOrIRI> classes,
+        List<FacetFilter> facetFilters, long windowStart, int windowSize) {
+      this.keyword = keyword;
+      this.classes = classes != null ? classes : Collections.emptyList();
+      this.facetFilters = facetFilters != null ? facetFilters : Collections.emptyList();
+      this.windowStart = windowStart;
+      this.windowSize = windowSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      SearchWindowKey that = (SearchWindowKey) o;
+      return windowStart == that.windowStart && windowSize == that.windowSize && Objects
+          .equals(keyword, that.keyword) && classes.equals(that.classes) && facetFilters
+          .equals(that.facetFilters);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(keyword, classes, facetFilters, windowStart, windowSize);
+    }
+
+    @Override
+    public String toString() {
+      return "SearchWindowKey{" +
+          "keyword='" + keyword + '\'' +
+          ", classes=" + classes +
+          ", facetFilters=" + facetFilters +
+          ", windowStart=" + windowStart +
+          ", windowSize=" + windowSize +
+          '}';
+    }
   }
 }
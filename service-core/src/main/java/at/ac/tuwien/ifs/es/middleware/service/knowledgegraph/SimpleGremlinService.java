@@ -64,6 +64,16 @@ public class SimpleGremlinService implements GremlinService {
     gremlinDAO.unlock();
   }
 
+  @Override
+  public void readLock() {
+    gremlinDAO.readLock();
+  }
+
+  @Override
+  public void readUnlock() {
+    gremlinDAO.readUnlock();
+  }
+
   @Override
   public PGS getPropertyGraphSchema() {
     return gremlinDAO.getPropertyGraphSchema();
@@ -3,18 +3,55 @@ package at.ac.tuwien.ifs.es.middleware.service.knowledgegraph;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGMalformedSPARQLQueryException;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPARQLException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.MaterializedStreamingQueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.StreamingQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultSerializationException;
+import at.ac.tuwien.ifs.es.middleware.service.caching.SPARQLQueryKeyGenerator;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceExecutionException;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceIllegalArgumentException;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendObserverService;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import com.google.common.cache.CacheBuilder;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueRetrievalException;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
 /**
- * This is an implementation get {@link SPARQLService} that caches the query requests.
+ * This is an implementation get {@link SPARQLService} that caches the query requests. Equivalent
+ * queries share the same cache entry, because the cache key is a canonical fingerprint of the
+ * query. Concurrent requests for the same uncached query are coalesced into a single request to
+ * the backend.
+ * <p/>
+ * The calls to the backend are guarded by the {@link BackendCircuitBreakers}, if they are
+ * available, such that calls are rejected fast while the backend is unavailable. The results of
+ * {@link #select(String, boolean)}, {@link #select(BoundSPARQLQuery, boolean)} and {@link
+ * #stream(String, boolean)} are evaluated lazily, and
+ * a failure during their iteration counts as failure of the backend as well. Updates are not
+ * counted as slow calls, because bulk updates take long by nature.
+ * <p/>
+ * {@link #stream(String, boolean)} serves the result from the {@code sparql} cache, if it is
+ * cached. Otherwise, the result is evaluated and put into the cache like by {@link #query(String,
+ * boolean)}. Only the results, which have turned out to be too large for the cache, are streamed
+ * from the backend for later requests.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -25,14 +62,32 @@ import org.springframework.stereotype.Service;
 @Service("SimpleSPARQLService")
 public class SimpleSPARQLService implements SPARQLService {
 
+  private static final String SPARQL_CACHE_NAME = "sparql";
+  private static final long MAX_OVERSIZED_RESULT_KEYS = 10000;
+
   private KGSparqlDAO sparqlDAO;
+  private BackendCircuitBreakers circuitBreakers;
+  private Cache sparqlCache;
+  private SPARQLQueryKeyGenerator keyGenerator;
+  private final Set<Object> oversizedResultKeys = Collections.newSetFromMap(
+      CacheBuilder.newBuilder().maximumSize(MAX_OVERSIZED_RESULT_KEYS).<Object, Boolean>build()
+          .asMap());
 
   @Autowired
-  public SimpleSPARQLService(@Qualifier("getSparqlDAO") KGSparqlDAO sparqlDAO) {
+  public SimpleSPARQLService(@Qualifier("getSparqlDAO") KGSparqlDAO sparqlDAO,
+      ObjectProvider<BackendCircuitBreakers> circuitBreakersProvider,
+      ObjectProvider<CacheManager> cacheManagerProvider,
+      ObjectProvider<SPARQLQueryKeyGenerator> keyGeneratorProvider) {
     this.sparqlDAO = sparqlDAO;
+    this.circuitBreakers = circuitBreakersProvider.getIfAvailable();
+    CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+    this.keyGenerator = keyGeneratorProvider.getIfAvailable();
+    if (cacheManager != null && keyGenerator != null) {
+      this.sparqlCache = cacheManager.getCache(SPARQL_CACHE_NAME);
+    }
   }
 
-  @Cacheable({"sparql"})
+  @Cacheable(cacheNames = SPARQL_CACHE_NAME, keyGenerator = "sparqlQueryKeyGenerator", sync = true)
   @Override
   public <T extends QueryResult> T query(String query, boolean includeInference)
       throws KGSPARQLException {
@@ -40,8 +95,104 @@ public class SimpleSPARQLService implements SPARQLService {
       throw new SPARQLServiceIllegalArgumentException(
           "The given query string must not be null or empty.");
     }
+    return evaluate(query, includeInference);
+  }
+
+  /**
+   * Evaluates the given {@code query} with the backend and materializes the result.
+   */
+  private <T extends QueryResult> T evaluate(String query, boolean includeInference) {
+    try {
+      return BackendCircuitBreakers.call(circuitBreakers, BackendObserverService.SPARQL_DAO,
+          () -> sparqlDAO.query(query, includeInference));
+    } catch (KGMalformedSPARQLQueryException mf) {
+      throw new SPARQLServiceIllegalArgumentException(mf);
+    } catch (KGSPARQLException e) {
+      throw new SPARQLServiceExecutionException(e);
+    }
+  }
+
+  @Cacheable(cacheNames = SPARQL_CACHE_NAME, keyGenerator = "sparqlQueryKeyGenerator", sync = true)
+  @Override
+  public <T extends QueryResult> T query(BoundSPARQLQuery query, boolean includeInference)
+      throws KGSPARQLException {
+    if (query == null) {
+      throw new SPARQLServiceIllegalArgumentException("The given query must not be null.");
+    }
+    try {
+      return BackendCircuitBreakers.call(circuitBreakers, BackendObserverService.SPARQL_DAO,
+          () -> sparqlDAO.query(query, includeInference));
+    } catch (KGMalformedSPARQLQueryException mf) {
+      throw new SPARQLServiceIllegalArgumentException(mf);
+    } catch (KGSPARQLException e) {
+      throw new SPARQLServiceExecutionException(e);
+    }
+  }
+
+  @Override
+  public SelectQueryResultCursor select(String query, boolean includeInference)
+      throws KGSPARQLException {
+    if (query == null || query.isEmpty()) {
+      throw new SPARQLServiceIllegalArgumentException(
+          "The given query string must not be null or empty.");
+    }
+    try {
+      return new GuardedSelectQueryResultCursor(
+          BackendCircuitBreakers.callLazily(circuitBreakers, BackendObserverService.SPARQL_DAO,
+              () -> sparqlDAO.select(query, includeInference)));
+    } catch (KGMalformedSPARQLQueryException mf) {
+      throw new SPARQLServiceIllegalArgumentException(mf);
+    } catch (KGSPARQLException e) {
+      throw new SPARQLServiceExecutionException(e);
+    }
+  }
+
+  @Override
+  public SelectQueryResultCursor select(BoundSPARQLQuery query, boolean includeInference)
+      throws KGSPARQLException {
+    if (query == null) {
+      throw new SPARQLServiceIllegalArgumentException("The given query must not be null.");
+    }
+    try {
+      return new GuardedSelectQueryResultCursor(
+          BackendCircuitBreakers.callLazily(circuitBreakers, BackendObserverService.SPARQL_DAO,
+              () -> sparqlDAO.select(query, includeInference)));
+    } catch (KGMalformedSPARQLQueryException mf) {
+      throw new SPARQLServiceIllegalArgumentException(mf);
+    } catch (KGSPARQLException e) {
+      throw new SPARQLServiceExecutionException(e);
+    }
+  }
+
+  @Override
+  public StreamingQueryResult stream(String query, boolean includeInference)
+      throws KGSPARQLException {
+    if (query == null || query.isEmpty()) {
+      throw new SPARQLServiceIllegalArgumentException(
+          "The given query string must not be null or empty.");
+    }
+    if (sparqlCache != null) {
+      Object key = keyGenerator.generate(this, null, query, includeInference);
+      if (!sparqlDAO.isStreamingSupported() || !oversizedResultKeys.contains(key)) {
+        QueryResult result;
+        try {
+          result = sparqlCache.get(key, () -> evaluate(query, includeInference));
+        } catch (ValueRetrievalException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw e;
+        }
+        if (sparqlDAO.isStreamingSupported() && sparqlCache.get(key) == null) {
+          oversizedResultKeys.add(key);
+        }
+        return new MaterializedStreamingQueryResult(result);
+      }
+    }
     try {
-      return sparqlDAO.query(query, includeInference);
+      return new GuardedStreamingQueryResult(
+          BackendCircuitBreakers.callLazily(circuitBreakers, BackendObserverService.SPARQL_DAO,
+              () -> sparqlDAO.stream(query, includeInference)));
     } catch (KGMalformedSPARQLQueryException mf) {
       throw new SPARQLServiceIllegalArgumentException(mf);
     } catch (KGSPARQLException e) {
@@ -49,6 +200,11 @@ public class SimpleSPARQLService implements SPARQLService {
     }
   }
 
+  @Override
+  public boolean isStreamingSupported() {
+    return sparqlDAO.isStreamingSupported();
+  }
+
   @Override
   public void update(String query) throws KGSPARQLException {
     if (query == null || query.isEmpty()) {
@@ -56,11 +212,123 @@ public class SimpleSPARQLService implements SPARQLService {
           "The given query string must not be null or empty.");
     }
     try {
-      sparqlDAO.update(query);
+      BackendCircuitBreakers.call(circuitBreakers, BackendObserverService.SPARQL_DAO, () -> {
+        sparqlDAO.update(query);
+        return null;
+      }, false);
     } catch (KGMalformedSPARQLQueryException mf) {
       throw new SPARQLServiceIllegalArgumentException(mf);
     } catch (KGSPARQLException e) {
       throw new SPARQLServiceExecutionException(e);
     }
   }
+
+  /**
+   * A {@link SelectQueryResultCursor}, whose iteration is observed by the circuit breaker. Failures
+   * of the backend in the middle of the iteration are translated into the exceptions of this
+   * service.
+   */
+  private class GuardedSelectQueryResultCursor implements SelectQueryResultCursor {
+
+    private final SelectQueryResultCursor cursor;
+
+    private GuardedSelectQueryResultCursor(SelectQueryResultCursor cursor) {
+      this.cursor = cursor;
+    }
+
+    @Override
+    public List<String> getBindingNames() {
+      return cursor.getBindingNames();
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        return BackendCircuitBreakers.observe(circuitBreakers, BackendObserverService.SPARQL_DAO,
+            cursor, cursor::hasNext, hasNext -> !hasNext);
+      } catch (KGMalformedSPARQLQueryException mf) {
+        throw new SPARQLServiceIllegalArgumentException(mf);
+      } catch (KGSPARQLException e) {
+        throw new SPARQLServiceExecutionException(e);
+      }
+    }
+
+    @Override
+    public Map<String, RDFTerm> next() {
+      try {
+        return BackendCircuitBreakers.observe(circuitBreakers, BackendObserverService.SPARQL_DAO,
+            cursor, cursor::next, row -> false);
+      } catch (KGMalformedSPARQLQueryException mf) {
+        throw new SPARQLServiceIllegalArgumentException(mf);
+      } catch (KGSPARQLException e) {
+        throw new SPARQLServiceExecutionException(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      try {
+        cursor.close();
+      } finally {
+        BackendCircuitBreakers.release(circuitBreakers, BackendObserverService.SPARQL_DAO, cursor);
+      }
+    }
+  }
+
+  /**
+   * A {@link StreamingQueryResult}, whose evaluation is observed by the circuit breaker. Failed
+   * serializations (e.g. an aborted response) aren't counted as failures of the backend. Failures
+   * of the evaluation are translated into the exceptions of this service.
+   */
+  private class GuardedStreamingQueryResult implements StreamingQueryResult {
+
+    private final StreamingQueryResult result;
+
+    private GuardedStreamingQueryResult(StreamingQueryResult result) {
+      this.result = result;
+    }
+
+    @Override
+    public Optional<String> matchMimeType(List<String> mimeTypes) {
+      return result.matchMimeType(mimeTypes);
+    }
+
+    @Override
+    public Supplier<KGSPARQLResultFormatException> getMimeTypeException(List<String> mimeTypes) {
+      return result.getMimeTypeException(mimeTypes);
+    }
+
+    @Override
+    public void writeTo(String mimeType, OutputStream out)
+        throws KGSPARQLResultFormatException, KGSPARQLResultSerializationException {
+      RuntimeException serializationException;
+      try {
+        serializationException = BackendCircuitBreakers
+            .observe(circuitBreakers, BackendObserverService.SPARQL_DAO, result, () -> {
+              try {
+                result.writeTo(mimeType, out);
+                return null;
+              } catch (KGSPARQLResultFormatException | KGSPARQLResultSerializationException e) {
+                return e;
+              }
+            }, e -> e == null);
+      } catch (KGMalformedSPARQLQueryException mf) {
+        throw new SPARQLServiceIllegalArgumentException(mf);
+      } catch (KGSPARQLException e) {
+        throw new SPARQLServiceExecutionException(e);
+      }
+      if (serializationException != null) {
+        throw serializationException;
+      }
+    }
+
+    @Override
+    public void close() {
+      try {
+        result.close();
+      } finally {
+        BackendCircuitBreakers.release(circuitBreakers, BackendObserverService.SPARQL_DAO, result);
+      }
+    }
+  }
 }
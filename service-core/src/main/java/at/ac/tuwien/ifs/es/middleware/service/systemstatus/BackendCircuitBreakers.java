@@ -0,0 +1,267 @@
+package at.ac.tuwien.ifs.es.middleware.service.systemstatus;
+
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.CircuitBreaker.State;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * This class manages a {@link CircuitBreaker} for each backend, which guards the calls of the
+ * services to the SPARQL and full-text-search DAOs. The circuit breakers can be disabled with
+ * {@code esm.backend.circuit.enabled}, and then all calls are passed on to the DAOs.
+ * <p/>
+ * The circuit breakers protect the request path. Calls of background tasks (e.g. the analysis
+ * services or the warming of caches) are long-running by nature and shall neither be rejected nor
+ * open the circuit for requests. Hence, they are passed on without guard, if they are run with
+ * {@link #inBackground(Runnable)}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class BackendCircuitBreakers {
+
+  private static final ThreadLocal<Boolean> background = ThreadLocal.withInitial(() -> false);
+
+  private final boolean enabled;
+  private final Map<String, CircuitBreaker> circuitBreakerMap;
+
+  public BackendCircuitBreakers(
+      @Value("${esm.backend.circuit.enabled:#{true}}") boolean enabled,
+      @Value("${esm.backend.circuit.failure-threshold:#{5}}") int failureThreshold,
+      @Value("${esm.backend.circuit.slow-call:#{10000}}") long slowCallDurationInMs,
+      @Value("${esm.backend.circuit.open-duration:#{30000}}") long openDurationInMs,
+      @Value("${esm.backend.circuit.max-concurrent:#{16}}") int maximalConcurrentCalls) {
+    this.enabled = enabled;
+    Map<String, CircuitBreaker> circuitBreakerMap = new LinkedHashMap<>();
+    for (String backend : new String[]{BackendObserverService.SPARQL_DAO,
+        BackendObserverService.FULLTEXTSEARCH_DAO}) {
+      circuitBreakerMap.put(backend, new CircuitBreaker(backend, failureThreshold,
+          slowCallDurationInMs, openDurationInMs, maximalConcurrentCalls));
+    }
+    this.circuitBreakerMap = Collections.unmodifiableMap(circuitBreakerMap);
+  }
+
+  /**
+   * Passes the given call on to the given backend, if its circuit permits it.
+   *
+   * @param backend the name of the backend (e.g. {@link BackendObserverService#SPARQL_DAO}).
+   * @param call    to the backend. It must not be null.
+   * @param <T>     the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public <T> T call(String backend, Supplier<T> call) {
+    return call(backend, call, true);
+  }
+
+  /**
+   * Passes the given call on to the given backend, if its circuit permits it.
+   *
+   * @param backend      the name of the backend (e.g. {@link BackendObserverService#SPARQL_DAO}).
+   * @param call         to the backend. It must not be null.
+   * @param slowCallRule {@code true}, if the call shall count as failure, when it is slow.
+   * @param <T>          the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public <T> T call(String backend, Supplier<T> call, boolean slowCallRule) {
+    CircuitBreaker circuitBreaker = getGuardingCircuitBreaker(backend);
+    if (circuitBreaker == null) {
+      return call.get();
+    }
+    return circuitBreaker.call(call, slowCallRule);
+  }
+
+  /**
+   * Passes the given call, which opens a lazily evaluated result (e.g. a cursor), on to the given
+   * backend, if its circuit permits it (see {@link CircuitBreaker#callLazily(Supplier)}).
+   *
+   * @param backend the name of the backend (e.g. {@link BackendObserverService#SPARQL_DAO}).
+   * @param call    to the backend. It must not be null.
+   * @param <T>     the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public <T> T callLazily(String backend, Supplier<T> call) {
+    CircuitBreaker circuitBreaker = getGuardingCircuitBreaker(backend);
+    if (circuitBreaker == null) {
+      return call.get();
+    }
+    return circuitBreaker.callLazily(call);
+  }
+
+  /**
+   * Observes the given step of the evaluation of a lazily opened result of the given backend (see
+   * {@link CircuitBreaker#observe(Object, Supplier, Predicate)}).
+   *
+   * @param backend   the name of the backend (e.g. {@link BackendObserverService#SPARQL_DAO}).
+   * @param result    the lazily opened result, whose evaluation is observed. It must not be null.
+   * @param step      of the evaluation of a lazily opened result. It must not be null.
+   * @param completed tests whether the given result of the step completes the evaluation. It must
+   *                  not be null.
+   * @param <T>       the type of the result of the step.
+   * @return the result of the step.
+   */
+  public <T> T observe(String backend, Object result, Supplier<T> step, Predicate<T> completed) {
+    CircuitBreaker circuitBreaker = getGuardingCircuitBreaker(backend);
+    if (circuitBreaker == null) {
+      return step.get();
+    }
+    return circuitBreaker.observe(result, step, completed);
+  }
+
+  /**
+   * Releases the given lazily opened result of the given backend (see {@link
+   * CircuitBreaker#release(Object)}). A pending probe must be given up in any case, hence the
+   * result is released even in the background.
+   *
+   * @param backend the name of the backend (e.g. {@link BackendObserverService#SPARQL_DAO}).
+   * @param result  the lazily opened result, which is released. It must not be null.
+   */
+  public void release(String backend, Object result) {
+    CircuitBreaker circuitBreaker = enabled ? circuitBreakerMap.get(backend) : null;
+    if (circuitBreaker != null) {
+      circuitBreaker.release(result);
+    }
+  }
+
+  private CircuitBreaker getGuardingCircuitBreaker(String backend) {
+    if (!enabled || background.get()) {
+      return null;
+    }
+    return circuitBreakerMap.get(backend);
+  }
+
+  /**
+   * Passes the given call on to the given backend, if the given provider has circuit breakers
+   * available. Otherwise, the call is passed on without guard.
+   *
+   * @param circuitBreakers the circuit breakers, or {@code null}, if there are none.
+   * @param backend         the name of the backend.
+   * @param call            to the backend. It must not be null.
+   * @param <T>             the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public static <T> T call(BackendCircuitBreakers circuitBreakers, String backend,
+      Supplier<T> call) {
+    return circuitBreakers != null ? circuitBreakers.call(backend, call) : call.get();
+  }
+
+  /**
+   * Passes the given call on to the given backend, if the given provider has circuit breakers
+   * available. Otherwise, the call is passed on without guard.
+   *
+   * @param circuitBreakers the circuit breakers, or {@code null}, if there are none.
+   * @param backend         the name of the backend.
+   * @param call            to the backend. It must not be null.
+   * @param slowCallRule    {@code true}, if the call shall count as failure, when it is slow.
+   * @param <T>             the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public static <T> T call(BackendCircuitBreakers circuitBreakers, String backend,
+      Supplier<T> call, boolean slowCallRule) {
+    return circuitBreakers != null ? circuitBreakers.call(backend, call, slowCallRule)
+        : call.get();
+  }
+
+  /**
+   * Passes the given call, which opens a lazily evaluated result, on to the given backend, if the
+   * given provider has circuit breakers available (see {@link #callLazily(String, Supplier)}).
+   *
+   * @param circuitBreakers the circuit breakers, or {@code null}, if there are none.
+   * @param backend         the name of the backend.
+   * @param call            to the backend. It must not be null.
+   * @param <T>             the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public static <T> T callLazily(BackendCircuitBreakers circuitBreakers, String backend,
+      Supplier<T> call) {
+    return circuitBreakers != null ? circuitBreakers.callLazily(backend, call) : call.get();
+  }
+
+  /**
+   * Observes the given step of the evaluation of a lazily opened result of the given backend, if
+   * the given provider has circuit breakers available (see {@link #observe(String, Object,
+   * Supplier, Predicate)}).
+   *
+   * @param circuitBreakers the circuit breakers, or {@code null}, if there are none.
+   * @param backend         the name of the backend.
+   * @param result          the lazily opened result, whose evaluation is observed. It must not be
+   *                        null.
+   * @param step            of the evaluation of a lazily opened result. It must not be null.
+   * @param completed       tests whether the given result of the step completes the evaluation.
+   *                        It must not be null.
+   * @param <T>             the type of the result of the step.
+   * @return the result of the step.
+   */
+  public static <T> T observe(BackendCircuitBreakers circuitBreakers, String backend,
+      Object result, Supplier<T> step, Predicate<T> completed) {
+    return circuitBreakers != null ? circuitBreakers.observe(backend, result, step, completed)
+        : step.get();
+  }
+
+  /**
+   * Releases the given lazily opened result of the given backend, if the given provider has
+   * circuit breakers available (see {@link #release(String, Object)}).
+   *
+   * @param circuitBreakers the circuit breakers, or {@code null}, if there are none.
+   * @param backend         the name of the backend.
+   * @param result          the lazily opened result, which is released. It must not be null.
+   */
+  public static void release(BackendCircuitBreakers circuitBreakers, String backend,
+      Object result) {
+    if (circuitBreakers != null) {
+      circuitBreakers.release(backend, result);
+    }
+  }
+
+  /**
+   * Wraps the given background task such that its calls to the backends are passed on without
+   * guard. They are neither rejected nor counted by the circuit breakers of the request path.
+   *
+   * @param task that shall be run in the background. It must not be null.
+   * @return the wrapped task.
+   */
+  public static Runnable inBackground(Runnable task) {
+    return () -> {
+      boolean formerlyInBackground = background.get();
+      background.set(true);
+      try {
+        task.run();
+      } finally {
+        background.set(formerlyInBackground);
+      }
+    };
+  }
+
+  /**
+   * Checks whether the current thread runs a background task (see {@link
+   * #inBackground(Runnable)}).
+   *
+   * @return {@code true}, if the current thread runs a background task, otherwise {@code false}.
+   */
+  public static boolean isInBackground() {
+    return background.get();
+  }
+
+  /**
+   * Gets the current state of the circuit of each backend.
+   *
+   * @return the current state of the circuit of each backend.
+   */
+  public Map<String, State> getStateMap() {
+    Map<String, State> stateMap = new LinkedHashMap<>();
+    circuitBreakerMap.forEach((backend, circuitBreaker) -> stateMap
+        .put(backend, enabled ? circuitBreaker.getState() : State.CLOSED));
+    return stateMap;
+  }
+}
@@ -4,10 +4,13 @@ import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.status.KGDAOStatus;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGFullTextSearchDAO;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGGremlinDAO;
 import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.CircuitBreaker.State;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -35,14 +38,17 @@ public class BackendObserverService {
   private KGSparqlDAO sparqlDAO;
   private KGFullTextSearchDAO fullTextSearchDAO;
   private KGGremlinDAO gremlinDAO;
+  private ObjectProvider<BackendCircuitBreakers> circuitBreakersProvider;
 
   @Autowired
   public BackendObserverService(@Qualifier("getSparqlDAO") KGSparqlDAO sparqlDAO,
       @Qualifier("getFullTextSearchDAO") KGFullTextSearchDAO fullTextSearchDAO,
-      @Qualifier("getGremlinDAO") KGGremlinDAO gremlinDAO) {
+      @Qualifier("getGremlinDAO") KGGremlinDAO gremlinDAO,
+      ObjectProvider<BackendCircuitBreakers> circuitBreakersProvider) {
     this.sparqlDAO = sparqlDAO;
     this.fullTextSearchDAO = fullTextSearchDAO;
     this.gremlinDAO = gremlinDAO;
+    this.circuitBreakersProvider = circuitBreakersProvider;
   }
 
   /**
@@ -57,4 +63,15 @@ public class BackendObserverService {
  //   backendServiceStatusMap.put(Gremlin_DAO, gremlinDAO.getStatus());
     return backendServiceStatusMap;
   }
+
+  /**
+   * Returns the current state of the circuit of each guarded DAO (see {@link
+   * BackendCircuitBreakers}) in form of a map.
+   *
+   * @return the current state of the circuit of each guarded DAO in form of a map.
+   */
+  public Map<String, State> getCircuitStateMap() {
+    BackendCircuitBreakers circuitBreakers = circuitBreakersProvider.getIfAvailable();
+    return circuitBreakers != null ? circuitBreakers.getStateMap() : Collections.emptyMap();
+  }
 }
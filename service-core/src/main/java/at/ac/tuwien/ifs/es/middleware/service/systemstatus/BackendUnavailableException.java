@@ -0,0 +1,49 @@
+package at.ac.tuwien.ifs.es.middleware.service.systemstatus;
+
+/**
+ * This exception is thrown, if a call to the backend is rejected by its {@link CircuitBreaker},
+ * because the backend is considered to be unavailable or is already busy with the maximal number
+ * of calls. The call has not been passed on to the backend.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class BackendUnavailableException extends RuntimeException {
+
+  private final long retryAfterInSeconds;
+
+  public BackendUnavailableException(String message, long retryAfterInSeconds) {
+    super(message);
+    this.retryAfterInSeconds = retryAfterInSeconds;
+  }
+
+  /**
+   * Gets the number of seconds after which the call might be accepted again.
+   *
+   * @return the number of seconds after which the call might be accepted again.
+   */
+  public long getRetryAfterInSeconds() {
+    return retryAfterInSeconds;
+  }
+
+  /**
+   * Checks whether the given exception or one of its causes is a {@link
+   * BackendUnavailableException}.
+   *
+   * @param throwable that shall be checked. It can be {@code null}.
+   * @return {@code true}, if the given exception has been caused by a rejected call, otherwise
+   * {@code false}.
+   */
+  public static boolean isCauseOf(Throwable throwable) {
+    for (Throwable t = throwable; t != null; t = t.getCause()) {
+      if (t instanceof BackendUnavailableException) {
+        return true;
+      }
+      if (t.getCause() == t) {
+        break;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,307 @@
+package at.ac.tuwien.ifs.es.middleware.service.systemstatus;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGMalformedSPARQLQueryException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class guards the calls to a backend, such that an unavailable or slow backend doesn't block
+ * all the threads of this application. The circuit is opened after the given number of
+ * consecutive failed or slow calls. While the circuit is open, all calls are rejected with a
+ * {@link BackendUnavailableException} without being passed on to the backend. After the given
+ * duration, the circuit is half-open, and a single probe call is passed on to the backend. The
+ * circuit is closed again, if the probe succeeds, and opened again otherwise.
+ * <p/>
+ * Moreover, the number of concurrent calls is limited, and calls exceeding this limit are rejected
+ * immediately instead of waiting for the backend. Malformed queries are not counted as failures,
+ * because the backend has answered them.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class CircuitBreaker {
+
+  private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+  public enum State {CLOSED, OPEN, HALF_OPEN}
+
+  private final String name;
+  private final int failureThreshold;
+  private final long slowCallDurationInNanos;
+  private final long openDurationInNanos;
+  private final int maximalConcurrentCalls;
+  private final LongSupplier nanoClock;
+
+  private final AtomicInteger concurrentCalls = new AtomicInteger(0);
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures = 0;
+  private long openedAt;
+  private boolean probeInFlight = false;
+  private Object lazyProbeResult;
+
+  /**
+   * Creates a new {@link CircuitBreaker} for the backend with the given name.
+   *
+   * @param name                   of the guarded backend. It must not be null.
+   * @param failureThreshold       the number of consecutive failed or slow calls, after which the
+   *                               circuit is opened. It must be positive.
+   * @param slowCallDurationInMs   the duration in milliseconds, after which a call is considered
+   *                               to be slow. It must be positive.
+   * @param openDurationInMs       the duration in milliseconds, for which the circuit stays open
+   *                               before a probe call is passed on.
+   * @param maximalConcurrentCalls the maximal number of concurrent calls. It must be positive.
+   */
+  public CircuitBreaker(String name, int failureThreshold, long slowCallDurationInMs,
+      long openDurationInMs, int maximalConcurrentCalls) {
+    this(name, failureThreshold, slowCallDurationInMs, openDurationInMs, maximalConcurrentCalls,
+        System::nanoTime);
+  }
+
+  CircuitBreaker(String name, int failureThreshold, long slowCallDurationInMs,
+      long openDurationInMs, int maximalConcurrentCalls, LongSupplier nanoClock) {
+    checkArgument(name != null, "The name of the backend must not be null.");
+    checkArgument(failureThreshold > 0, "The failure threshold must be positive.");
+    checkArgument(slowCallDurationInMs > 0, "The duration of slow calls must be positive.");
+    checkArgument(openDurationInMs >= 0, "The open duration must not be negative.");
+    checkArgument(maximalConcurrentCalls > 0, "The maximal number of calls must be positive.");
+    this.name = name;
+    this.failureThreshold = failureThreshold;
+    this.slowCallDurationInNanos = TimeUnit.MILLISECONDS.toNanos(slowCallDurationInMs);
+    this.openDurationInNanos = TimeUnit.MILLISECONDS.toNanos(openDurationInMs);
+    this.maximalConcurrentCalls = maximalConcurrentCalls;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Passes the given call on to the backend, if the circuit permits it.
+   *
+   * @param call to the backend. It must not be null.
+   * @param <T>  the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public <T> T call(Supplier<T> call) {
+    return call(call, true);
+  }
+
+  /**
+   * Passes the given call on to the backend, if the circuit permits it. Calls that are expected to
+   * take long (e.g. bulk updates) can be excluded from counting as slow calls.
+   *
+   * @param call         to the backend. It must not be null.
+   * @param slowCallRule {@code true}, if the call shall count as failure, when it is slow.
+   * @param <T>          the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public <T> T call(Supplier<T> call, boolean slowCallRule) {
+    boolean probe = acquirePermission();
+    long start = nanoClock.getAsLong();
+    try {
+      T result = call.get();
+      onCompletion(probe,
+          !slowCallRule || nanoClock.getAsLong() - start < slowCallDurationInNanos);
+      return result;
+    } catch (KGMalformedSPARQLQueryException | IllegalArgumentException e) {
+      onCompletion(probe, true);
+      throw e;
+    } catch (RuntimeException | Error e) {
+      onCompletion(probe, false);
+      throw e;
+    } finally {
+      concurrentCalls.decrementAndGet();
+    }
+  }
+
+  /**
+   * Passes the given call on to the backend, if the circuit permits it. The call opens a lazily
+   * evaluated result (e.g. a cursor), which may still fail during its evaluation. Hence, a
+   * successfully opened result isn't counted as success, until its evaluation has been completed
+   * (see {@link #observe(Object, Supplier, Predicate)}), and it isn't counted as slow call. If the
+   * call is the probe of a half-open circuit, the probe stays in flight until the evaluation of
+   * the opened result has been completed, has failed or has been released (see {@link
+   * #release(Object)}).
+   *
+   * @param call to the backend, which opens a lazily evaluated result. It must not be null.
+   * @param <T>  the type of the result of the call.
+   * @return the result of the call.
+   * @throws BackendUnavailableException if the call has been rejected.
+   */
+  public <T> T callLazily(Supplier<T> call) {
+    boolean probe = acquirePermission();
+    try {
+      T result = call.get();
+      if (probe) {
+        if (result != null) {
+          holdLazyProbe(result);
+        } else {
+          onCompletion(true, true);
+        }
+      }
+      return result;
+    } catch (KGMalformedSPARQLQueryException | IllegalArgumentException e) {
+      onCompletion(probe, true);
+      throw e;
+    } catch (RuntimeException | Error e) {
+      onCompletion(probe, false);
+      throw e;
+    } finally {
+      concurrentCalls.decrementAndGet();
+    }
+  }
+
+  /**
+   * Observes the given step of the evaluation of the given lazily opened result (see {@link
+   * #callLazily(Supplier)}). The step is never rejected, and it neither counts as concurrent call
+   * nor as slow call, because its duration depends on the consumer. A failed step counts as
+   * failure of the backend, and the completion of the evaluation as success. If the result has been
+   * opened by the probe of a half-open circuit, the outcome of the evaluation decides the probe.
+   *
+   * @param result    the lazily opened result, whose evaluation is observed. It must not be null.
+   * @param step      of the evaluation of a lazily opened result. It must not be null.
+   * @param completed tests whether the given result of the step completes the evaluation. It must
+   *                  not be null.
+   * @param <T>       the type of the result of the step.
+   * @return the result of the step.
+   */
+  public <T> T observe(Object result, Supplier<T> step, Predicate<T> completed) {
+    T stepResult;
+    try {
+      stepResult = step.get();
+    } catch (KGMalformedSPARQLQueryException | IllegalArgumentException e) {
+      throw e;
+    } catch (RuntimeException | Error e) {
+      onCompletion(takeLazyProbe(result), false);
+      throw e;
+    }
+    if (completed.test(stepResult)) {
+      onCompletion(takeLazyProbe(result), true);
+    }
+    return stepResult;
+  }
+
+  /**
+   * Releases the given lazily opened result (e.g. when the cursor is closed). If the result has
+   * been opened by the probe of a half-open circuit, and its evaluation has neither been completed
+   * nor failed, the probe is given up without a decision, such that the next call becomes the
+   * probe.
+   *
+   * @param result the lazily opened result, which is released. It must not be null.
+   */
+  public synchronized void release(Object result) {
+    if (takeLazyProbe(result)) {
+      probeInFlight = false;
+    }
+  }
+
+  private synchronized void holdLazyProbe(Object result) {
+    lazyProbeResult = result;
+  }
+
+  /**
+   * Returns {@code true}, if the given result has been opened by the pending probe, which is then
+   * no longer pending.
+   */
+  private synchronized boolean takeLazyProbe(Object result) {
+    if (result != null && result == lazyProbeResult) {
+      lazyProbeResult = null;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Acquires the permission for a call, and returns {@code true}, if the call is the probe of a
+   * half-open circuit.
+   */
+  private synchronized boolean acquirePermission() {
+    boolean probe = false;
+    if (state == State.OPEN) {
+      long openSince = nanoClock.getAsLong() - openedAt;
+      if (openSince < openDurationInNanos) {
+        throw new BackendUnavailableException(String
+            .format("The circuit of backend '%s' is open, because it failed repeatedly.", name),
+            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(openDurationInNanos - openSince)));
+      }
+      logger.info("The circuit of backend '{}' is half-open, a probe call is passed on.", name);
+      state = State.HALF_OPEN;
+    }
+    if (state == State.HALF_OPEN) {
+      if (probeInFlight) {
+        throw new BackendUnavailableException(String
+            .format("The circuit of backend '%s' is half-open and waits for a probe call.", name),
+            1);
+      }
+      probeInFlight = true;
+      probe = true;
+    } else if (concurrentCalls.get() >= maximalConcurrentCalls) {
+      throw new BackendUnavailableException(String
+          .format("The backend '%s' is busy with the maximal number of %d calls.", name,
+              maximalConcurrentCalls), 1);
+    }
+    concurrentCalls.incrementAndGet();
+    return probe;
+  }
+
+  /**
+   * Records the completion of a call, which has been either successful and fast, or not.
+   */
+  private synchronized void onCompletion(boolean probe, boolean success) {
+    if (probe) {
+      probeInFlight = false;
+    }
+    if (success) {
+      if (probe) {
+        logger.info("The circuit of backend '{}' is closed, because the probe succeeded.", name);
+        state = State.CLOSED;
+      }
+      if (state == State.CLOSED) {
+        consecutiveFailures = 0;
+      }
+    } else {
+      consecutiveFailures++;
+      if (probe || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+        logger.warn("The circuit of backend '{}' is opened after {} failed or slow calls.", name,
+            consecutiveFailures);
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+      }
+    }
+  }
+
+  /**
+   * Gets the name of the guarded backend.
+   *
+   * @return the name of the guarded backend.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the current state of the circuit.
+   *
+   * @return the current state of the circuit.
+   */
+  public synchronized State getState() {
+    return state;
+  }
+
+  @Override
+  public String toString() {
+    return "CircuitBreaker{" +
+        "name='" + name + '\'' +
+        ", state=" + getState() +
+        ", concurrentCalls=" + concurrentCalls.get() +
+        '}';
+  }
+}
@@ -0,0 +1,147 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendUnavailableException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache.ValueRetrievalException;
+
+/**
+ * This class tests {@link BoundedCache}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class BoundedCacheTests {
+
+  @Test
+  public void putAndGet_mustReturnCachedValue() {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ZERO);
+    assertNull(cache.get("a"));
+    cache.put("a", "value");
+    assertNotNull(cache.get("a"));
+    assertEquals("value", cache.get("a").get());
+    assertEquals(2, cache.getStatistics().hitCount());
+    assertEquals(1, cache.getStatistics().missCount());
+  }
+
+  @Test
+  public void putNullValue_mustBeCached() {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ZERO);
+    cache.put("a", null);
+    assertNotNull(cache.get("a"));
+    assertNull(cache.get("a").get());
+  }
+
+  @Test
+  public void putMoreThanMaximumSize_mustEvictEntries() {
+    BoundedCache cache = new BoundedCache("test", 64 * 1024, Duration.ZERO);
+    for (int i = 0; i < 100; i++) {
+      cache.put("key" + i, StringUtils.repeat('x', 1024));
+    }
+    assertTrue(cache.getEntryCount() < 100);
+    assertTrue(cache.getStatistics().evictionCount() > 0);
+  }
+
+  @Test
+  public void invalidateAfterLookup_mustNotCacheOutdatedValue() {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ZERO);
+    assertNull(cache.get("a"));
+    cache.invalidate();
+    cache.put("a", "outdated");
+    assertNull(cache.get("a"));
+    cache.put("a", "value");
+    assertEquals("value", cache.get("a").get());
+  }
+
+  @Test
+  public void getWithValueLoader_mustLoadOnlyOnce() {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ofHours(1));
+    assertEquals("value", cache.get("a", () -> "value"));
+    assertEquals("value", cache.get("a", () -> "other"));
+  }
+
+  @Test
+  public void concurrentGetWithValueLoader_mustLoadOnlyOnce() throws Exception {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ZERO);
+    AtomicInteger loads = new AtomicInteger(0);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(executorService.submit(() -> cache.get("a", () -> {
+          loads.incrementAndGet();
+          release.await(10, TimeUnit.SECONDS);
+          return "value";
+        })));
+      }
+      while (loads.get() + cache.getCoalescedLoadCount() < 4) {
+        Thread.sleep(10);
+      }
+      release.countDown();
+      for (Future<String> future : futures) {
+        assertEquals("value", future.get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(1, loads.get());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void getWithFailingValueLoader_mustThrowValueRetrievalException() {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ZERO);
+    assertThrows(ValueRetrievalException.class, () -> cache.get("a", () -> {
+      throw new IOException();
+    }));
+    assertNull(cache.get("a"));
+  }
+
+  @Test
+  public void getWithUnavailableBackend_mustServeInvalidatedValueAsStale() {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ZERO, null, 1024 * 1024);
+    StaleResults.reset();
+    assertEquals("value", cache.get("a", () -> "value"));
+    cache.invalidate();
+    assertEquals(1, cache.getStaleEntryCount());
+    assertEquals("value", cache.get("a", () -> {
+      throw new BackendUnavailableException("The backend is unavailable.", 1);
+    }));
+    assertTrue(StaleResults.isStale());
+    assertNull(cache.get("a"));
+    StaleResults.reset();
+  }
+
+  @Test
+  public void getWithFailingBackend_mustNotServeStaleValue() {
+    BoundedCache cache = new BoundedCache("test", 1024 * 1024, Duration.ZERO, null, 1024 * 1024);
+    StaleResults.reset();
+    cache.get("a", () -> "value");
+    cache.invalidate();
+    assertThrows(ValueRetrievalException.class, () -> cache.get("a", () -> {
+      throw new IllegalStateException("The query failed.");
+    }));
+    assertEquals("new", cache.get("a", () -> "new"));
+    assertEquals(0, cache.getStaleEntryCount());
+    assertFalse(StaleResults.isStale());
+  }
+
+}
@@ -0,0 +1,161 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import at.ac.tuwien.ifs.es.middleware.dao.rdf4j.util.RDF4JSelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import java.io.File;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+
+/**
+ * This class tests {@link PersistentCacheStore} as second level of a {@link BoundedCache}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class PersistentCacheStoreTests {
+
+  private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+  @TempDir
+  public File tempDir;
+
+  private static SelectQueryResult result(String bindingName, String value) {
+    List<String> bindingNames = Collections.singletonList(bindingName);
+    List<BindingSet> bindingSets = Collections.singletonList(new ListBindingSet(bindingNames,
+        valueFactory.createIRI(value)));
+    return new RDF4JSelectQueryResult(bindingNames, bindingSets);
+  }
+
+  private static KGVersionStamp stamp(DB db) {
+    return new KGVersionStamp(db, "test");
+  }
+
+  private BoundedCache openCache(DB db, KGVersionStamp versionStamp) {
+    return new BoundedCache("sparql", 1024 * 1024, Duration.ZERO,
+        new PersistentCacheStore(db, "sparql", 100, Duration.ZERO, versionStamp));
+  }
+
+  private DB openDB() {
+    return DBMaker.fileDB(new File(tempDir, "cache.db")).make();
+  }
+
+  @Test
+  public void reopenWithSameVersion_mustServePersistedValue() {
+    DB db = openDB();
+    openCache(db, stamp(db)).put("a", result("s", "http://example.org/a"));
+    db.close();
+    db = openDB();
+    try {
+      BoundedCache cache = openCache(db, stamp(db));
+      assertNotNull(cache.get("a"));
+      SelectQueryResult result = (SelectQueryResult) cache.get("a").get();
+      assertEquals(result("s", "http://example.org/a").value(), result.value());
+    } finally {
+      db.close();
+    }
+  }
+
+  @Test
+  public void reopenWithOtherVersionName_mustDropPersistedValue() {
+    DB db = openDB();
+    openCache(db, stamp(db)).put("a", result("s", "http://example.org/a"));
+    db.close();
+    db = openDB();
+    try {
+      assertNull(openCache(db, new KGVersionStamp(db, "other")).get("a"));
+    } finally {
+      db.close();
+    }
+  }
+
+  @Test
+  public void update_mustDropPersistedValueAlsoAfterReopen() {
+    DB db = openDB();
+    KGVersionStamp versionStamp = stamp(db);
+    openCache(db, versionStamp).put("a", result("s", "http://example.org/a"));
+    versionStamp.update();
+    db.close();
+    db = openDB();
+    try {
+      assertNull(openCache(db, stamp(db)).get("a"));
+    } finally {
+      db.close();
+    }
+  }
+
+  @Test
+  public void equivalentQueries_mustSharePersistedValue() {
+    DB db = openDB();
+    SPARQLQueryKeyGenerator keyGenerator = new SPARQLQueryKeyGenerator(100);
+    PersistentCacheStore store = new PersistentCacheStore(db, "sparql", 100, Duration.ZERO,
+        stamp(db), SPARQLQueryKeyGenerator::persistentKeyOf);
+    store.put(keyGenerator.generate(null, null, "SELECT ?s WHERE { ?s ?p ?o }", true),
+        result("s", "http://example.org/a"));
+    db.close();
+    db = openDB();
+    try {
+      store = new PersistentCacheStore(db, "sparql", 100, Duration.ZERO, stamp(db),
+          SPARQLQueryKeyGenerator::persistentKeyOf);
+      assertNotNull(store.get(new SPARQLQueryKeyGenerator(100)
+          .generate(null, null, "SELECT ?s WHERE { ?s ?x ?y . }", true)));
+      assertNull(store.get(new SPARQLQueryKeyGenerator(100)
+          .generate(null, null, "SELECT ?s WHERE { ?s ?x ?y . }", false)));
+    } finally {
+      db.close();
+    }
+  }
+
+  @Test
+  public void invalidate_mustDropPersistedValue() {
+    DB db = openDB();
+    try {
+      BoundedCache cache = openCache(db, stamp(db));
+      cache.put("a", result("s", "http://example.org/a"));
+      cache.invalidate();
+      assertNull(openCache(db, stamp(db)).get("a"));
+    } finally {
+      db.close();
+    }
+  }
+
+  @Test
+  public void nonStringKey_mustNotBePersistedByDefault() {
+    DB db = DBMaker.memoryDB().make();
+    try {
+      PersistentCacheStore store = new PersistentCacheStore(db, "fts", 100, Duration.ZERO,
+          stamp(db));
+      store.put(Collections.singletonList("a"), result("s", "http://example.org/a"));
+      assertEquals(0, store.size());
+    } finally {
+      db.close();
+    }
+  }
+
+  @Test
+  public void nonSerializableValue_mustNotBePersisted() {
+    DB db = DBMaker.memoryDB().make();
+    try {
+      PersistentCacheStore store = new PersistentCacheStore(db, "sparql", 100, Duration.ZERO,
+          stamp(db));
+      store.put("a", new Object());
+      assertEquals(0, store.size());
+    } finally {
+      db.close();
+    }
+  }
+
+}
@@ -0,0 +1,103 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+/**
+ * This class tests the {@link ResourceFragmentCache}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class ResourceFragmentCacheTests {
+
+  private ResourceFragmentCache fragmentCache;
+  private List<Set<String>> loadedResources;
+
+  @BeforeEach
+  public void setUp() {
+    SimpleCacheManager cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(Collections.singletonList(
+        new BoundedCache(ResourceFragmentCache.CACHE_NAME, 1024 * 1024, Duration.ZERO)));
+    cacheManager.initializeCaches();
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+        Collections.singletonMap("cacheManager", cacheManager));
+    fragmentCache = new ResourceFragmentCache(beanFactory.getBeanProvider(CacheManager.class));
+    loadedResources = new LinkedList<>();
+  }
+
+  /**
+   * Loads the upper case of the resource as fragment, except for resources starting with 'x'.
+   */
+  private Function<Set<String>, Map<String, String>> loader() {
+    return resources -> {
+      loadedResources.add(resources);
+      Map<String, String> fragments = new HashMap<>();
+      for (String resource : resources) {
+        if (!resource.startsWith("x")) {
+          fragments.put(resource, resource.toUpperCase());
+        }
+      }
+      return fragments;
+    };
+  }
+
+  @Test
+  public void overlappingResources_mustOnlyLoadUncachedResources() {
+    fragmentCache.getAll("op", "", Arrays.asList("a", "b", "c"), "", loader());
+    Map<String, String> fragments = fragmentCache
+        .getAll("op", "", Arrays.asList("b", "c", "d"), "", loader());
+    assertEquals(2, loadedResources.size());
+    assertEquals(Collections.singleton("d"), loadedResources.get(1));
+    assertEquals("B", fragments.get("b"));
+    assertEquals("D", fragments.get("d"));
+    assertEquals(3, fragments.size());
+  }
+
+  @Test
+  public void resourceWithoutFragment_mustGetCachedEmptyFragment() {
+    fragmentCache.getAll("op", "", Arrays.asList("a", "x"), "-", loader());
+    Map<String, String> fragments = fragmentCache
+        .getAll("op", "", Collections.singletonList("x"), "-", loader());
+    assertEquals(1, loadedResources.size());
+    assertEquals("-", fragments.get("x"));
+  }
+
+  @Test
+  public void otherParameters_mustLoadFragmentsAgain() {
+    fragmentCache.getAll("op", "p1", Arrays.asList("a", "b"), "", loader());
+    fragmentCache.getAll("op", "p2", Arrays.asList("a", "b"), "", loader());
+    fragmentCache.getAll("other", "p1", Arrays.asList("a", "b"), "", loader());
+    assertEquals(3, loadedResources.size());
+    assertEquals(new HashSet<>(Arrays.asList("a", "b")), loadedResources.get(2));
+  }
+
+  @Test
+  public void noCacheManager_mustLoadAllResources() {
+    ResourceFragmentCache uncachedFragments = new ResourceFragmentCache(
+        new StaticListableBeanFactory().getBeanProvider(CacheManager.class));
+    uncachedFragments.getAll("op", "", Arrays.asList("a", "b"), "", loader());
+    Map<String, String> fragments = uncachedFragments
+        .getAll("op", "", Arrays.asList("a", "b"), "", loader());
+    assertEquals(2, loadedResources.size());
+    assertTrue(fragments.containsKey("a") && fragments.containsKey("b"));
+  }
+
+}
@@ -0,0 +1,96 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.exception.KGSPARQLResultFormatException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests {@link ResultSizeEstimator}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class ResultSizeEstimatorTests {
+
+  private static final SimpleRDF valueFactory = new SimpleRDF();
+
+  @Test
+  public void selectQueryResult_mustBeEstimatedFromSampleOfRows() {
+    RowCountingSelectQueryResult result = new RowCountingSelectQueryResult(100000);
+    long size = ResultSizeEstimator.estimate(result);
+    assertTrue(size > 100000 * 64L, "The size must be extrapolated from the sample.");
+    assertTrue(result.iteratedRows <= 32, "Only a sample of the rows must be inspected.");
+  }
+
+  /**
+   * A {@link SelectQueryResult} with the given number of identical rows, which counts the rows
+   * that have been iterated. Copying the rows with {@link #value()} is not supported.
+   */
+  private static class RowCountingSelectQueryResult implements SelectQueryResult {
+
+    private final int rows;
+    private int iteratedRows = 0;
+
+    private RowCountingSelectQueryResult(int rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public List<Map<String, RDFTerm>> value() {
+      throw new UnsupportedOperationException("The rows must not be copied.");
+    }
+
+    @Override
+    public int size() {
+      return rows;
+    }
+
+    @Override
+    public Iterator<Map<String, RDFTerm>> rowIterator() {
+      return new Iterator<Map<String, RDFTerm>>() {
+        @Override
+        public boolean hasNext() {
+          return iteratedRows < rows;
+        }
+
+        @Override
+        public Map<String, RDFTerm> next() {
+          iteratedRows++;
+          return Collections.singletonMap("s", valueFactory.createIRI("http://example.org/a"));
+        }
+      };
+    }
+
+    @Override
+    public Optional<String> matchMimeType(List<String> mimeTypes) {
+      return Optional.empty();
+    }
+
+    @Override
+    public Supplier<KGSPARQLResultFormatException> getMimeTypeException(List<String> mimeTypes) {
+      return () -> new KGSPARQLResultFormatException(mimeTypes + " are not supported.");
+    }
+
+    @Override
+    public byte[] transform(String mimeType) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public byte[] transform(List<String> mimeTypes) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+}
@@ -0,0 +1,115 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests {@link SPARQLQueryKeyGenerator}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SPARQLQueryKeyGeneratorTests {
+
+  private SPARQLQueryKeyGenerator keyGenerator;
+
+  @BeforeEach
+  public void setUp() {
+    keyGenerator = new SPARQLQueryKeyGenerator(100);
+  }
+
+  @Test
+  public void queriesDifferingInWhitespaceAndPrefixes_mustHaveSameKey() {
+    assertEquals(
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s a <http://example.org/A> . }"),
+        keyGenerator.canonicalKey("PREFIX ex: <http://example.org/>\n"
+            + "SELECT ?s\nWHERE {\n    ?s a ex:A\n}"));
+  }
+
+  @Test
+  public void queriesDifferingInInternalVariables_mustHaveSameKey() {
+    assertEquals(
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p ?o . FILTER(?o > 5) }"),
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?x ?y . FILTER(?y > 5) }"));
+  }
+
+  @Test
+  public void queriesDifferingInResultVariables_mustHaveDifferentKeys() {
+    assertNotEquals(
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p ?o }"),
+        keyGenerator.canonicalKey("SELECT ?x WHERE { ?x ?p ?o }"));
+  }
+
+  @Test
+  public void queriesDifferingInOrderOfValues_mustHaveSameKey() {
+    assertEquals(
+        keyGenerator.canonicalKey("SELECT ?s ?o WHERE { VALUES ?s { <http://example.org/a> "
+            + "<http://example.org/b> } ?s ?p ?o }"),
+        keyGenerator.canonicalKey("SELECT ?s ?o WHERE { VALUES ?s { <http://example.org/b> "
+            + "<http://example.org/a> } ?s ?p ?o }"));
+  }
+
+  @Test
+  public void queriesDifferingInValues_mustHaveDifferentKeys() {
+    assertNotEquals(
+        keyGenerator.canonicalKey("SELECT ?s ?o WHERE { VALUES ?s { <http://example.org/a> } "
+            + "?s ?p ?o }"),
+        keyGenerator.canonicalKey("SELECT ?s ?o WHERE { VALUES ?s { <http://example.org/b> } "
+            + "?s ?p ?o }"));
+  }
+
+  @Test
+  public void queriesDifferingInConstantsOrModifiers_mustHaveDifferentKeys() {
+    assertNotEquals(
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p \"a\" }"),
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p \"b\" }"));
+    assertNotEquals(
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p ?o } LIMIT 10"),
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p ?o } LIMIT 20"));
+    assertNotEquals(
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p ?o } ORDER BY ASC(?o)"),
+        keyGenerator.canonicalKey("SELECT ?s WHERE { ?s ?p ?o } ORDER BY DESC(?o)"));
+  }
+
+  @Test
+  public void malformedQuery_mustUseQueryStringAsKey() {
+    assertEquals("SELECT ?s WHERE {", keyGenerator.canonicalKey("SELECT ?s WHERE {"));
+  }
+
+  @Test
+  public void memorizedFingerprints_mustBeReturnedForRepeatedQueries() {
+    String query = "SELECT ?s WHERE { ?s ?p ?o }";
+    String key = keyGenerator.canonicalKey(query);
+    assertEquals(key, keyGenerator.canonicalKey(query));
+    assertEquals("SELECT ?s WHERE {", keyGenerator.canonicalKey("SELECT ?s WHERE {"));
+    assertEquals("SELECT ?s WHERE {", keyGenerator.canonicalKey("SELECT ?s WHERE {"));
+  }
+
+  private static BoundSPARQLQuery boundQuery(String... resources) {
+    return PreparedSPARQLQuery.of("SELECT ?s ?o WHERE { VALUES ?s { ${resources} } ?s ?p ?o }")
+        .bind().resources("resources",
+            Arrays.stream(resources).map(Resource::new).collect(Collectors.toList())).build();
+  }
+
+  @Test
+  public void boundQueries_mustBeKeyedByFingerprint() {
+    Object key = keyGenerator.generate(null, null, boundQuery("http://example.org/a"), true);
+    assertEquals(key, keyGenerator.generate(null, null, boundQuery("http://example.org/a"), true));
+    assertNotEquals(key,
+        keyGenerator.generate(null, null, boundQuery("http://example.org/b"), true));
+    assertNotEquals(key,
+        keyGenerator.generate(null, null, boundQuery("http://example.org/a"), false));
+    assertFalse(key.toString().contains("http://example.org/a"));
+  }
+
+}
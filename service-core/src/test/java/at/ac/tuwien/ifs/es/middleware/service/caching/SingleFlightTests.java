@@ -0,0 +1,87 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests {@link SingleFlight}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SingleFlightTests {
+
+  private static final int CALLERS = 8;
+
+  private ExecutorService executorService;
+
+  @BeforeEach
+  public void setUp() {
+    executorService = Executors.newFixedThreadPool(CALLERS);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void concurrentCallsWithSameKey_mustBeExecutedOnce() throws Exception {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    AtomicInteger executions = new AtomicInteger(0);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Future<String>> futures = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      futures.add(executorService.submit(() -> singleFlight.execute("a", () -> {
+        executions.incrementAndGet();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "value";
+      })));
+    }
+    while (executions.get() + singleFlight.getCoalescedCalls() < CALLERS) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+    for (Future<String> future : futures) {
+      assertEquals("value", future.get(10, TimeUnit.SECONDS));
+    }
+    assertEquals(1, executions.get());
+    assertEquals(CALLERS - 1, singleFlight.getCoalescedCalls());
+  }
+
+  @Test
+  public void consecutiveCallsWithSameKey_mustBeExecutedAgain() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    AtomicInteger executions = new AtomicInteger(0);
+    assertEquals(1, (int) singleFlight.execute("a", executions::incrementAndGet));
+    assertEquals(2, (int) singleFlight.execute("a", executions::incrementAndGet));
+    assertEquals(0, singleFlight.getCoalescedCalls());
+  }
+
+  @Test
+  public void failingCall_mustThrowExceptionAndNotBlockLaterCalls() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    assertThrows(IllegalStateException.class, () -> singleFlight.execute("a", () -> {
+      throw new IllegalStateException();
+    }));
+    assertEquals("value", singleFlight.execute("a", () -> "value"));
+  }
+
+}
@@ -0,0 +1,110 @@
+package at.ac.tuwien.ifs.es.middleware.service.caching.warming;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * This class tests the recording of requests with the {@link RequestLog}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class RequestLogTests {
+
+  @TempDir
+  public File tempDir;
+
+  private RequestLog openLog() {
+    return new RequestLog(true, 1.0, 2, tempDir.getAbsolutePath());
+  }
+
+  @Test
+  public void recordRequests_mustBeOrderedByFrequency() {
+    RequestLog requestLog = openLog();
+    RecordedRequest a = SPARQLRequestReplayer.request("SELECT * {?s ?p ?o}", true);
+    RecordedRequest b = FullTextSearchRequestReplayer.request("Pablo Picasso");
+    requestLog.record(a);
+    requestLog.record(b);
+    requestLog.record(b);
+    assertEquals(Arrays.asList(b, a), requestLog.getTopRequests(10));
+    assertEquals(Collections.singletonList(b), requestLog.getTopRequests(1));
+  }
+
+  @Test
+  public void recordWhileReplaying_mustBeIgnored() {
+    RequestLog requestLog = openLog();
+    requestLog.replay(() -> requestLog.record(FullTextSearchRequestReplayer.request("Picasso")));
+    assertTrue(requestLog.getTopRequests(10).isEmpty());
+  }
+
+  @Test
+  public void recordInBackground_mustBeIgnored() {
+    RequestLog requestLog = openLog();
+    BackendCircuitBreakers.inBackground(
+        () -> requestLog.record(FullTextSearchRequestReplayer.request("Picasso"))).run();
+    assertTrue(requestLog.getTopRequests(10).isEmpty());
+  }
+
+  @Test
+  public void recordLongQuery_mustBeIgnored() {
+    RequestLog requestLog = openLog();
+    KnowledgeGraphRequestRecordingAspect aspect = new KnowledgeGraphRequestRecordingAspect(
+        requestLog, 24);
+    aspect.recordSPARQLQuery("SELECT * {?s ?p ?o}", true);
+    aspect.recordSPARQLQuery("SELECT * {?s ?p ?o . ?o ?p ?s}", true);
+    assertEquals(Collections.singletonList(SPARQLRequestReplayer.request("SELECT * {?s ?p ?o}",
+        true)), requestLog.getTopRequests(10));
+  }
+
+  @Test
+  public void recordWhenDisabled_mustBeIgnored() {
+    RequestLog requestLog = new RequestLog(false, 1.0, 2, tempDir.getAbsolutePath());
+    requestLog.record(FullTextSearchRequestReplayer.request("Picasso"));
+    assertTrue(requestLog.getTopRequests(10).isEmpty());
+  }
+
+  @Test
+  public void encodeAndDecode_mustReturnEqualRequest() {
+    RecordedRequest request = SPARQLRequestReplayer
+        .request("SELECT * {\n\t?s rdfs:label \"Ä\"\n}", false);
+    assertEquals(request, RecordedRequest.decode(request.encode()));
+  }
+
+  @Test
+  public void flushAndReopen_mustRestoreRecordedRequests() {
+    RequestLog requestLog = openLog();
+    RecordedRequest a = SPARQLRequestReplayer.request("SELECT * {?s ?p ?o}", true);
+    RecordedRequest b = FullTextSearchRequestReplayer.request("Pablo Picasso");
+    requestLog.record(a);
+    requestLog.record(b);
+    requestLog.record(b);
+    requestLog.flush();
+    List<RecordedRequest> topRequests = openLog().getTopRequests(10);
+    assertEquals(Arrays.asList(b, a), topRequests);
+  }
+
+  @Test
+  public void exceedingEntries_mustDropLeastFrequentRequests() {
+    RequestLog requestLog = openLog();
+    RecordedRequest a = FullTextSearchRequestReplayer.request("a");
+    for (int i = 0; i < 3; i++) {
+      requestLog.record(a);
+    }
+    for (int i = 0; i < 5; i++) {
+      requestLog.record(FullTextSearchRequestReplayer.request("k" + i));
+    }
+    List<RecordedRequest> topRequests = requestLog.getTopRequests(10);
+    assertTrue(topRequests.size() <= 4);
+    assertEquals(a, topRequests.get(0));
+  }
+
+}
@@ -0,0 +1,134 @@
+package at.ac.tuwien.ifs.es.middleware.service.knowledgegraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGFullTextSearchDAO;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.facet.FacetFilter;
+import at.ac.tuwien.ifs.es.middleware.service.caching.BoundedCache;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+/**
+ * This class tests the window of ranked hits of {@link SimpleFullTextSearchService}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SimpleFullTextSearchServiceWindowTests {
+
+  private static final SimpleRDF valueFactory = new SimpleRDF();
+
+  private RankedFullTextSearchDAO fullTextSearchDAO;
+  private SimpleFullTextSearchService fullTextSearchService;
+
+  @BeforeEach
+  public void setUp() {
+    SimpleCacheManager cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(Collections.singletonList(
+        new BoundedCache("fts-window", 1024 * 1024, Duration.ZERO)));
+    cacheManager.initializeCaches();
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+        Collections.singletonMap("cacheManager", cacheManager));
+    fullTextSearchDAO = new RankedFullTextSearchDAO(95);
+    fullTextSearchService = new SimpleFullTextSearchService(fullTextSearchDAO,
+        beanFactory.getBeanProvider(CacheManager.class),
+        beanFactory.getBeanProvider(BackendCircuitBreakers.class), 10);
+  }
+
+  private static List<String> resources(List<Map<String, RDFTerm>> result) {
+    return result.stream().map(row -> ((IRI) row.get("resource")).getIRIString())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void pagingThroughWindow_mustFetchWindowOnlyOnce() {
+    for (int offset = 0; offset < 50; offset += 5) {
+      assertEquals(resources(fullTextSearchDAO.hits(offset, 5)), resources(
+          fullTextSearchService.searchFullText("test", Collections.emptyList(), offset, 5)));
+    }
+    assertEquals(1, fullTextSearchDAO.calls);
+  }
+
+  @Test
+  public void pageSpanningTwoWindows_mustBeMergedFromBothWindows() {
+    List<Map<String, RDFTerm>> page = fullTextSearchService
+        .searchFullText("test", Collections.emptyList(), 38, 4);
+    assertEquals(resources(fullTextSearchDAO.hits(38, 4)), resources(page));
+    assertEquals(2, fullTextSearchDAO.calls);
+  }
+
+  @Test
+  public void pageBeyondLastHit_mustReturnRemainingHits() {
+    assertEquals(resources(fullTextSearchDAO.hits(90, 5)), resources(
+        fullTextSearchService.searchFullText("test", Collections.emptyList(), 90, 10)));
+    assertEquals(Collections.emptyList(),
+        fullTextSearchService.searchFullText("test", Collections.emptyList(), 100, 10));
+  }
+
+  @Test
+  public void differentKeywords_mustNotShareWindow() {
+    fullTextSearchService.searchFullText("a", Collections.emptyList(), 0, 5);
+    fullTextSearchService.searchFullText("b", Collections.emptyList(), 0, 5);
+    assertEquals(2, fullTextSearchDAO.calls);
+  }
+
+  /**
+   * A full-text-search DAO that returns a fixed number of ranked hits for every keyword.
+   */
+  private static class RankedFullTextSearchDAO implements KGFullTextSearchDAO {
+
+    private final int size;
+    private int calls = 0;
+
+    private RankedFullTextSearchDAO(int size) {
+      this.size = size;
+    }
+
+    private List<Map<String, RDFTerm>> hits(int offset, int limit) {
+      List<Map<String, RDFTerm>> result = new ArrayList<>();
+      for (int i = offset; i < Math.min(offset + limit, size); i++) {
+        result.add(Collections.singletonMap("resource",
+            valueFactory.createIRI("http://example.org/resource/" + i)));
+      }
+      return result;
+    }
+
+    @Override
+    public List<Map<String, RDFTerm>> searchFullText(String keyword,
+        List<BlankNodeOrIRI> classes, Integer offset, Integer limit) {
+      return searchFullText(keyword, classes, offset, limit, null);
+    }
+
+    @Override
+    public List<Map<String, RDFTerm>> searchFullText(String keyword,
+        List<BlankNodeOrIRI> classes, Integer offset, Integer limit,
+        List<FacetFilter> facets) {
+      calls++;
+      return hits(offset != null ? offset : 0, limit != null ? limit : size);
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void update(long timestamp) {
+    }
+  }
+
+}
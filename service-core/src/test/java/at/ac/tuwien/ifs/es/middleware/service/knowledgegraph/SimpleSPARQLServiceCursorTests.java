@@ -0,0 +1,148 @@
+package at.ac.tuwien.ifs.es.middleware.service.knowledgegraph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.KGSparqlDAO;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGMalformedSPARQLQueryException;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPARQLException;
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGSPARQLExecutionException;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.QueryResult;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResultCursor;
+import at.ac.tuwien.ifs.es.middleware.service.caching.SPARQLQueryKeyGenerator;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceExecutionException;
+import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.exception.SPARQLServiceIllegalArgumentException;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendCircuitBreakers;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.apache.commons.rdf.simple.SimpleRDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+
+/**
+ * This class tests the translation of backend failures in the middle of the iteration over the
+ * cursor returned by {@link SimpleSPARQLService#select(String, boolean)}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class SimpleSPARQLServiceCursorTests {
+
+  private static final SimpleRDF valueFactory = new SimpleRDF();
+  private static final String QUERY = "SELECT ?s WHERE { ?s ?p ?o . }";
+
+  private FailingSparqlDAO sparqlDAO;
+  private SimpleSPARQLService sparqlService;
+
+  @BeforeEach
+  public void setUp() {
+    sparqlDAO = new FailingSparqlDAO();
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+    sparqlService = new SimpleSPARQLService(sparqlDAO,
+        beanFactory.getBeanProvider(BackendCircuitBreakers.class),
+        beanFactory.getBeanProvider(CacheManager.class),
+        beanFactory.getBeanProvider(SPARQLQueryKeyGenerator.class));
+  }
+
+  @Test
+  public void failingHasNextInMiddleOfStream_mustBeTranslatedToExecutionException() {
+    sparqlDAO.failure = () -> new KGSPARQLExecutionException("The backend failed.");
+    try (SelectQueryResultCursor cursor = sparqlService.select(QUERY, false)) {
+      assertTrue(cursor.hasNext());
+      assertEquals(Collections.singleton("s"), cursor.next().keySet());
+      assertThrows(SPARQLServiceExecutionException.class, cursor::hasNext);
+    }
+    assertTrue(sparqlDAO.closed);
+  }
+
+  @Test
+  public void failingNextInMiddleOfStream_mustBeTranslatedToExecutionException() {
+    sparqlDAO.failure = () -> new KGSPARQLExecutionException("The backend failed.");
+    sparqlDAO.failOnNext = true;
+    try (SelectQueryResultCursor cursor = sparqlService.select(QUERY, false)) {
+      cursor.next();
+      assertTrue(cursor.hasNext());
+      assertThrows(SPARQLServiceExecutionException.class, cursor::next);
+    }
+  }
+
+  @Test
+  public void malformedQueryDetectedWhileStreaming_mustBeTranslatedToIllegalArgumentException() {
+    sparqlDAO.failure = () -> new KGMalformedSPARQLQueryException("The query is malformed.");
+    try (SelectQueryResultCursor cursor = sparqlService.select(QUERY, false)) {
+      cursor.next();
+      assertThrows(SPARQLServiceIllegalArgumentException.class, cursor::hasNext);
+    }
+  }
+
+  /**
+   * A SPARQL DAO, whose cursor returns one row and then fails with the given exception.
+   */
+  private static class FailingSparqlDAO implements KGSparqlDAO {
+
+    private Supplier<KGSPARQLException> failure;
+    private boolean failOnNext = false;
+    private boolean closed = false;
+
+    @Override
+    public <T extends QueryResult> T query(String query, boolean includeInferred) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SelectQueryResultCursor select(String query, boolean includeInferred) {
+      return new SelectQueryResultCursor() {
+
+        private int row = 0;
+
+        @Override
+        public List<String> getBindingNames() {
+          return Collections.singletonList("s");
+        }
+
+        @Override
+        public boolean hasNext() {
+          if (row > 0 && !failOnNext) {
+            throw failure.get();
+          }
+          return true;
+        }
+
+        @Override
+        public Map<String, RDFTerm> next() {
+          if (row > 0) {
+            throw failure.get();
+          }
+          row++;
+          return Collections.singletonMap("s", valueFactory.createIRI("http://example.org/a"));
+        }
+
+        @Override
+        public void close() {
+          closed = true;
+        }
+      };
+    }
+
+    @Override
+    public void update(String query) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setup() {
+    }
+
+    @Override
+    public void update(long timestamp) {
+    }
+  }
+
+}
@@ -0,0 +1,205 @@
+package at.ac.tuwien.ifs.es.middleware.service.systemstatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import at.ac.tuwien.ifs.es.middleware.dao.knowledgegraph.exception.sparql.KGMalformedSPARQLQueryException;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.CircuitBreaker.State;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests {@link CircuitBreaker}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class CircuitBreakerTests {
+
+  private AtomicLong clock;
+  private AtomicInteger backendCalls;
+  private CircuitBreaker circuitBreaker;
+
+  @BeforeEach
+  public void setUp() {
+    clock = new AtomicLong(0);
+    backendCalls = new AtomicInteger(0);
+    circuitBreaker = new CircuitBreaker("test", 3, 1000, 5000, 2, clock::get);
+  }
+
+  private Supplier<String> failingCall() {
+    return () -> {
+      backendCalls.incrementAndGet();
+      throw new IllegalStateException("The backend failed.");
+    };
+  }
+
+  private Supplier<String> successfulCall(long durationInMs) {
+    return () -> {
+      backendCalls.incrementAndGet();
+      clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(durationInMs));
+      return "result";
+    };
+  }
+
+  private void failRepeatedly(int times) {
+    for (int i = 0; i < times; i++) {
+      assertThrows(IllegalStateException.class, () -> circuitBreaker.call(failingCall()));
+    }
+  }
+
+  @Test
+  public void consecutiveFailures_mustOpenCircuitAndRejectCalls() {
+    failRepeatedly(3);
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    BackendUnavailableException ex = assertThrows(BackendUnavailableException.class,
+        () -> circuitBreaker.call(successfulCall(0)));
+    assertEquals(5, ex.getRetryAfterInSeconds());
+    assertEquals(3, backendCalls.get());
+  }
+
+  @Test
+  public void successBetweenFailures_mustKeepCircuitClosed() {
+    failRepeatedly(2);
+    assertEquals("result", circuitBreaker.call(successfulCall(0)));
+    failRepeatedly(2);
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void slowCalls_mustOpenCircuit() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals("result", circuitBreaker.call(successfulCall(2000)));
+    }
+    assertEquals(State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  public void malformedQueries_mustNotOpenCircuit() {
+    for (int i = 0; i < 5; i++) {
+      assertThrows(KGMalformedSPARQLQueryException.class, () -> circuitBreaker.call(() -> {
+        throw new KGMalformedSPARQLQueryException("The query is malformed.");
+      }));
+    }
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void successfulProbeAfterOpenDuration_mustCloseCircuit() {
+    failRepeatedly(3);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5000));
+    assertEquals("result", circuitBreaker.call(successfulCall(0)));
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void failedProbeAfterOpenDuration_mustOpenCircuitAgain() {
+    failRepeatedly(3);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5000));
+    failRepeatedly(1);
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    assertThrows(BackendUnavailableException.class, () -> circuitBreaker.call(successfulCall(0)));
+  }
+
+  @Test
+  public void callsDuringProbe_mustBeRejected() {
+    failRepeatedly(3);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5000));
+    assertEquals("result", circuitBreaker.call(() -> {
+      assertThrows(BackendUnavailableException.class,
+          () -> circuitBreaker.call(successfulCall(0)));
+      return "result";
+    }));
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+    assertEquals(3, backendCalls.get());
+  }
+
+  @Test
+  public void callsExceedingConcurrencyLimit_mustBeRejected() {
+    assertEquals("result", circuitBreaker.call(() -> circuitBreaker.call(() -> {
+      assertThrows(BackendUnavailableException.class,
+          () -> circuitBreaker.call(successfulCall(0)));
+      return "result";
+    })));
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void slowCallsWithoutSlowCallRule_mustNotOpenCircuit() {
+    for (int i = 0; i < 3; i++) {
+      assertEquals("result", circuitBreaker.call(successfulCall(2000), false));
+    }
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void failedEvaluationsOfLazyResults_mustOpenCircuit() {
+    for (int i = 0; i < 3; i++) {
+      String lazyResult = circuitBreaker.callLazily(successfulCall(2000));
+      assertThrows(IllegalStateException.class,
+          () -> circuitBreaker.observe(lazyResult, failingCall(), result -> true));
+    }
+    assertEquals(State.OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  public void completedEvaluationsOfLazyResults_mustResetFailures() {
+    failRepeatedly(2);
+    String lazyResult = circuitBreaker.callLazily(successfulCall(0));
+    assertEquals("result", circuitBreaker.observe(lazyResult, successfulCall(0), result -> true));
+    failRepeatedly(2);
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void lazyProbe_mustBeDecidedByEvaluationOfItsResult() {
+    failRepeatedly(3);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5000));
+    String lazyResult = circuitBreaker.callLazily(successfulCall(0));
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    assertThrows(BackendUnavailableException.class, () -> circuitBreaker.call(successfulCall(0)));
+    assertThrows(IllegalStateException.class,
+        () -> circuitBreaker.observe(lazyResult, failingCall(), result -> true));
+    assertEquals(State.OPEN, circuitBreaker.getState());
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5000));
+    String nextLazyResult = circuitBreaker.callLazily(successfulCall(0));
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    assertEquals("result",
+        circuitBreaker.observe(nextLazyResult, successfulCall(0), result -> true));
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void releasedLazyProbe_mustLetNextCallProbe() {
+    failRepeatedly(3);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(5000));
+    String lazyResult = circuitBreaker.callLazily(successfulCall(0));
+    circuitBreaker.release(lazyResult);
+    assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+    assertEquals("result", circuitBreaker.call(successfulCall(0)));
+    assertEquals(State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  public void backgroundCalls_mustNotBeGuarded() {
+    BackendCircuitBreakers circuitBreakers = new BackendCircuitBreakers(true, 1, 1000, 5000, 1);
+    BackendCircuitBreakers.inBackground(() -> {
+      for (int i = 0; i < 3; i++) {
+        assertThrows(IllegalStateException.class, () -> circuitBreakers
+            .call(BackendObserverService.SPARQL_DAO, failingCall()));
+      }
+    }).run();
+    assertEquals(State.CLOSED,
+        circuitBreakers.getStateMap().get(BackendObserverService.SPARQL_DAO));
+    assertThrows(IllegalStateException.class,
+        () -> circuitBreakers.call(BackendObserverService.SPARQL_DAO, failingCall()));
+    assertEquals(State.OPEN,
+        circuitBreakers.getStateMap().get(BackendObserverService.SPARQL_DAO));
+  }
+
+}
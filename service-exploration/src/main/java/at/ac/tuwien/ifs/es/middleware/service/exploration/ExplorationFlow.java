@@ -1,16 +1,27 @@
 package at.ac.tuwien.ifs.es.middleware.service.exploration;
 
+import at.ac.tuwien.ifs.es.middleware.service.caching.StaleResults;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.ExplorationContext;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.exception.ExplorationFlowServiceExecutionException;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.exception.ExplorationFlowSpecificationException;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aquisition.AcquisitionSource;
+import at.ac.tuwien.ifs.es.middleware.service.systemstatus.BackendUnavailableException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Optional;
 import org.javatuples.Pair;
 
 /**
  * This class represents an exploration flow that is composed get one or more {@link
  * ExplorationFlowStep}s.
+ * <p/>
+ * If an {@link ExplorationFlowCache} is given and the parameters of all steps are known, the flow
+ * resumes from the longest prefix of steps, whose resulting context has been cached. Contexts that
+ * have been computed with stale results (see {@link StaleResults}) are not cached. Neither are the
+ * contexts from the first {@link NondeterministicOperator} on, and the context before it is
+ * always cached.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -20,6 +31,9 @@ public class ExplorationFlow {
 
   private ExplorationContext initialContext;
   private List<Pair<ExplorationFlowStep, ExplorationFlowStepPayload>> steps;
+  private ExplorationFlowCache flowCache;
+  private List<String> fingerprints = new LinkedList<>();
+  private boolean deterministic = true;
 
   public ExplorationFlow() {
     this(null);
@@ -27,14 +41,20 @@ public class ExplorationFlow {
 
   public ExplorationFlow(
       ExplorationContext initialContext) {
-    this(initialContext, new LinkedList<>());
+    this(initialContext, new ArrayList<>(), null);
+  }
+
+  public ExplorationFlow(ExplorationContext initialContext, ExplorationFlowCache flowCache) {
+    this(initialContext, new ArrayList<>(), flowCache);
   }
 
   private ExplorationFlow(
       ExplorationContext initialContext,
-      List<Pair<ExplorationFlowStep, ExplorationFlowStepPayload>> steps) {
+      List<Pair<ExplorationFlowStep, ExplorationFlowStepPayload>> steps,
+      ExplorationFlowCache flowCache) {
     this.initialContext = initialContext;
     this.steps = steps;
+    this.flowCache = flowCache;
   }
 
   /**
@@ -45,6 +65,11 @@ public class ExplorationFlow {
    * @param payload specifying parameters for the given {@link ExplorationFlowStep} in this flow.
    */
   public void appendFlowStep(ExplorationFlowStep step, ExplorationFlowStepPayload payload) {
+    addFlowStep(step, payload);
+    this.fingerprints = null;
+  }
+
+  private void addFlowStep(ExplorationFlowStep step, ExplorationFlowStepPayload payload) {
     if (steps.isEmpty() && initialContext == null && !(step instanceof AcquisitionSource)) {
       throw new ExplorationFlowSpecificationException(
           "The first step of the flow must be an acquisition source.");
@@ -52,6 +77,53 @@ public class ExplorationFlow {
     this.steps.add(new Pair<>(step, payload));
   }
 
+  /**
+   * Appends the given {@code step} to the exploration flow and pack it together with the given
+   * {@code parameters} for this step. The given JSON parameters, from which the payload has been
+   * read, identify the step for caching the resulting context.
+   *
+   * @param step {@link ExplorationFlowStep} that shall be appended to the flow.
+   * @param payload specifying parameters for the given {@link ExplorationFlowStep} in this flow.
+   * @param parameters the JSON parameters from which the payload has been read.
+   */
+  public void appendFlowStep(ExplorationFlowStep step, ExplorationFlowStepPayload payload,
+      JsonNode parameters) {
+    appendFlowStep(step, payload, parameters, !(step instanceof NondeterministicOperator));
+  }
+
+  /**
+   * Appends the given {@code step} to the exploration flow and pack it together with the given
+   * {@code parameters} for this step. The given JSON parameters, from which the payload has been
+   * read, identify the step for caching the resulting context. Contexts are only cached, until the
+   * first step is appended, which isn't deterministic.
+   *
+   * @param step {@link ExplorationFlowStep} that shall be appended to the flow.
+   * @param payload specifying parameters for the given {@link ExplorationFlowStep} in this flow.
+   * @param parameters the JSON parameters from which the payload has been read.
+   * @param deterministic {@code true}, if the step with the given payload always computes the
+   * same context for the same input, otherwise {@code false}.
+   */
+  public void appendFlowStep(ExplorationFlowStep step, ExplorationFlowStepPayload payload,
+      JsonNode parameters, boolean deterministic) {
+    addFlowStep(step, payload);
+    this.deterministic = this.deterministic && deterministic;
+    if (fingerprints != null && this.deterministic) {
+      fingerprints.add(ExplorationFlowCache.fingerprint(
+          fingerprints.isEmpty() ? null : fingerprints.get(fingerprints.size() - 1),
+          step.getUID(), parameters));
+    }
+  }
+
+  /**
+   * Checks whether the contexts of this flow can be cached, i.e. a cache is given, the flow
+   * starts without an initial context, the parameters of all steps are known, and the first step
+   * is deterministic.
+   */
+  private boolean isCacheable() {
+    return flowCache != null && flowCache.isEnabled() && initialContext == null
+        && fingerprints != null && !fingerprints.isEmpty();
+  }
+
   /**
    * Gets a {@link List} get {@link ExplorationFlowStep} with their parameters.
    *
@@ -69,16 +141,38 @@ public class ExplorationFlow {
    */
   @SuppressWarnings("unchecked")
   public ExplorationContext execute() {
+    boolean cacheable = isCacheable();
     ExplorationContext context = initialContext;
-    for (Pair<ExplorationFlowStep, ExplorationFlowStepPayload> step : steps) {
+    int start = 0;
+    int cacheableSteps = cacheable ? fingerprints.size() : 0;
+    if (cacheable) {
+      for (int n = cacheableSteps - 1; n >= 0; n--) {
+        Optional<ExplorationContext> cachedContext = flowCache.get(fingerprints.get(n));
+        if (cachedContext.isPresent()) {
+          context = cachedContext.get();
+          start = n + 1;
+          break;
+        }
+      }
+    }
+    int staleCount = StaleResults.count();
+    for (int n = start; n < steps.size(); n++) {
+      Pair<ExplorationFlowStep, ExplorationFlowStepPayload> step = steps.get(n);
+      long startTime = System.currentTimeMillis();
       try {
         context = step.getValue0().apply(context, step.getValue1());
       } catch (ClassCastException c) {
         throw new ExplorationFlowSpecificationException(
             String.format("The payload for a flow step is invalid. %s", c.getMessage()));
+      } catch (BackendUnavailableException b) {
+        throw b;
       } catch (Exception e){
         throw new ExplorationFlowServiceExecutionException(e);
       }
+      if (n < cacheableSteps && StaleResults.count() == staleCount) {
+        flowCache.put(fingerprints.get(n), context, System.currentTimeMillis() - startTime,
+            n == cacheableSteps - 1);
+      }
     }
     return context;
   }
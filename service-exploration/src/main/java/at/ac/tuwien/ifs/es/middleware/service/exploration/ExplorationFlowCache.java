@@ -0,0 +1,208 @@
+package at.ac.tuwien.ifs.es.middleware.service.exploration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.service.exploration.context.ExplorationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.Cache.ValueWrapper;
+import org.springframework.cache.CacheManager;
+
+/**
+ * This class caches the intermediate {@link ExplorationContext}s of {@link ExplorationFlow}s, such
+ * that repeated or overlapping flows can resume from the longest cached prefix of their steps.
+ * Each prefix is identified by a fingerprint, which chains the fingerprint of the previous prefix
+ * with the unique identifier of the step and its canonicalized JSON parameters.
+ * <p/>
+ * Contexts are only cached after steps that took at least the given minimal duration, and after
+ * the last step of a flow. They are kept as JSON in the {@code flow} cache, and are only cached,
+ * if they can be read again into an equal context. The {@code flow} cache is bounded and is
+ * invalidated, if the knowledge graph has been updated or new analysis results have been
+ * activated.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ExplorationFlowCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExplorationFlowCache.class);
+
+  public static final String CACHE_NAME = "flow";
+
+  private final Cache cache;
+  private final ObjectMapper objectMapper;
+  private final long minimalDurationInMs;
+
+  /**
+   * Creates a new {@link ExplorationFlowCache} using the {@code flow} cache of the given {@link
+   * CacheManager}, if it is available.
+   *
+   * @param cacheManagerProvider provider of the {@link CacheManager}. It must not be null.
+   * @param objectMapper         that is used to write and read the cached contexts. It must not
+   *                             be null.
+   * @param minimalDurationInMs  the minimal duration of a step in milliseconds, after which the
+   *                             context shall be cached.
+   */
+  public ExplorationFlowCache(ObjectProvider<CacheManager> cacheManagerProvider,
+      ObjectMapper objectMapper, long minimalDurationInMs) {
+    checkArgument(cacheManagerProvider != null, "The cache manager provider must not be null.");
+    checkArgument(objectMapper != null, "The object mapper must not be null.");
+    CacheManager cacheManager = cacheManagerProvider.getIfAvailable();
+    this.cache = cacheManager != null ? cacheManager.getCache(CACHE_NAME) : null;
+    this.objectMapper = objectMapper;
+    this.minimalDurationInMs = minimalDurationInMs;
+  }
+
+  /**
+   * Checks whether contexts can be cached.
+   *
+   * @return {@code true}, if contexts can be cached, otherwise {@code false}.
+   */
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Invalidates all the cached contexts.
+   */
+  public void invalidate() {
+    if (cache != null) {
+      cache.invalidate();
+    }
+  }
+
+  /**
+   * Computes the fingerprint of the flow prefix that ends with the given step.
+   *
+   * @param previousFingerprint the fingerprint of the prefix before the step, or {@code null}, if
+   *                            it is the first step.
+   * @param stepUID             the unique identifier of the step. It must not be null.
+   * @param parameters          the JSON parameters of the step. It must not be null.
+   * @return the fingerprint of the flow prefix that ends with the given step.
+   */
+  public static String fingerprint(String previousFingerprint, String stepUID,
+      JsonNode parameters) {
+    checkArgument(stepUID != null, "The unique identifier of the step must not be null.");
+    checkArgument(parameters != null, "The parameters of the step must not be null.");
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String part : Arrays
+        .asList(previousFingerprint != null ? previousFingerprint : "", stepUID,
+            canonicalize(parameters).toString())) {
+      hasher.putInt(part.length()).putString(part, StandardCharsets.UTF_8);
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Returns a copy of the given JSON node, in which the fields of all objects are sorted by their
+   * name.
+   */
+  private static JsonNode canonicalize(JsonNode node) {
+    if (node.isObject()) {
+      Map<String, JsonNode> fieldMap = new TreeMap<>();
+      Iterator<Map.Entry<String, JsonNode>> fieldIterator = node.fields();
+      while (fieldIterator.hasNext()) {
+        Map.Entry<String, JsonNode> field = fieldIterator.next();
+        fieldMap.put(field.getKey(), canonicalize(field.getValue()));
+      }
+      ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
+      objectNode.setAll(fieldMap);
+      return objectNode;
+    } else if (node.isArray()) {
+      ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
+      for (JsonNode element : node) {
+        arrayNode.add(canonicalize(element));
+      }
+      return arrayNode;
+    }
+    return node;
+  }
+
+  /**
+   * Gets a copy of the context cached for the flow prefix with the given fingerprint.
+   *
+   * @param fingerprint of the flow prefix. It must not be null.
+   * @return a copy of the cached context, or {@link Optional#empty()}, if no context is cached.
+   */
+  @SuppressWarnings("unchecked")
+  public Optional<ExplorationContext> get(String fingerprint) {
+    if (cache == null) {
+      return Optional.empty();
+    }
+    ValueWrapper valueWrapper = cache.get(fingerprint);
+    if (valueWrapper == null) {
+      return Optional.empty();
+    }
+    SimpleImmutableEntry<Class<?>, byte[]> cachedContext =
+        (SimpleImmutableEntry<Class<?>, byte[]>) valueWrapper.get();
+    try {
+      return Optional.of(readContext(cachedContext.getValue(), cachedContext.getKey()));
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Cached context for flow prefix '{}' could not be read. {}", fingerprint,
+          e.getMessage());
+      cache.evict(fingerprint);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Reads the context of the given type from the given JSON. Properties that are only written
+   * (e.g. the size of a context) are ignored.
+   */
+  private ExplorationContext readContext(byte[] contextJson, Class<?> contextClass)
+      throws IOException {
+    return objectMapper.readerFor(contextClass)
+        .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).readValue(contextJson);
+  }
+
+  /**
+   * Caches a copy of the given context for the flow prefix with the given fingerprint, if the
+   * step ending this prefix took at least the minimal duration, or if it is the last cacheable
+   * step.
+   *
+   * @param fingerprint  of the flow prefix. It must not be null.
+   * @param context      that is the result of the flow prefix. It must not be null.
+   * @param durationInMs the duration of the step ending this prefix in milliseconds.
+   * @param lastStep     {@code true}, if the step ending this prefix is the last cacheable step
+   *                     of the flow.
+   */
+  public void put(String fingerprint, ExplorationContext context, long durationInMs,
+      boolean lastStep) {
+    if (cache == null || context == null || (!lastStep && durationInMs < minimalDurationInMs)) {
+      return;
+    }
+    try {
+      byte[] contextJson = objectMapper.writeValueAsBytes(context);
+      ExplorationContext copiedContext = readContext(contextJson, context.getClass());
+      if (Arrays.equals(contextJson, objectMapper.writeValueAsBytes(copiedContext))) {
+        cache.put(fingerprint, new SimpleImmutableEntry<>(context.getClass(), contextJson));
+      } else {
+        logger.debug("Context of type {} is not cached, because it cannot be copied exactly.",
+            context.getClass().getSimpleName());
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.debug("Context of type {} is not cached, because it cannot be copied. {}",
+          context.getClass().getSimpleName(), e.getMessage());
+    }
+  }
+
+}
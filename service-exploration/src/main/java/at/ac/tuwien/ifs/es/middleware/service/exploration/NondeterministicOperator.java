@@ -0,0 +1,15 @@
+package at.ac.tuwien.ifs.es.middleware.service.exploration;
+
+/**
+ * This is a marker interface for {@link ExplorationFlowStep}s, whose resulting context isn't
+ * determined by the input context and the payload (e.g. random samples). The contexts of an
+ * {@link ExplorationFlow} aren't cached from the first such step on, and a flow with such a step
+ * never resumes from a cached context after it.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public interface NondeterministicOperator {
+
+}
@@ -0,0 +1,52 @@
+package at.ac.tuwien.ifs.es.middleware.service.exploration.aspects;
+
+import at.ac.tuwien.ifs.es.middleware.service.caching.warming.RequestLog;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.factory.ExplorationFlowRequestReplayer;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.request.DynamicExplorationFlowRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * This aspect records the dynamic exploration flows requested by clients in the {@link
+ * RequestLog}, such that the most frequent flows can be replayed to warm up the caches.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Aspect
+@Component
+@Profile("aop")
+public class ExplorationFlowRequestRecordingAspect {
+
+  private static final Logger logger = LoggerFactory
+      .getLogger(ExplorationFlowRequestRecordingAspect.class);
+
+  private final RequestLog requestLog;
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public ExplorationFlowRequestRecordingAspect(RequestLog requestLog, ObjectMapper objectMapper) {
+    this.requestLog = requestLog;
+    this.objectMapper = objectMapper;
+  }
+
+  @Before(value = "execution(* at.ac.tuwien.ifs.es.middleware.service.exploration.factory.DynamicExplorationFlowFactory.constructFlow(..)) && args(request)", argNames = "request")
+  public void recordFlowRequest(DynamicExplorationFlowRequest request) {
+    if (requestLog.isEnabled() && request != null) {
+      try {
+        requestLog.record(ExplorationFlowRequestReplayer.request(objectMapper, request));
+      } catch (JsonProcessingException e) {
+        logger.debug("The flow request {} could not be recorded. {}", request, e.getMessage());
+      }
+    }
+  }
+
+}
@@ -1,10 +1,15 @@
 package at.ac.tuwien.ifs.es.middleware.service.exploration.factory;
 
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisResultsActivatedEvent;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.NondeterministicOperator;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.ParallelOperator;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.ExplorationContext;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.ParallelPayload;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.request.DynamicExplorationFlowRequest;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.request.ExplorationFlowStepRequest;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.exception.ExplorationFlowSpecificationException;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.ExplorationFlow;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.ExplorationFlowCache;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.ExplorationFlowStep;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.ExplorationFlowStepPayload;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.registry.ExplorationFlowRegistry;
@@ -14,13 +19,22 @@ import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 /**
  * This factory makes use of the central {@link DynamicExplorationFlowFactory} to read requests from
  * clients and constructs the corresponding {@link ExplorationFlow}.
+ * <p/>
+ * The constructed flows cache their intermediate contexts in the {@link ExplorationFlowCache}
+ * after steps that took at least {@code esm.cache.flow.min-duration} milliseconds, until the first
+ * step that isn't deterministic (see {@link NondeterministicOperator}). The cache is invalidated,
+ * if new analysis results have been activated.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -34,13 +48,18 @@ public class DynamicExplorationFlowFactory {
   private ApplicationContext context;
   private ExplorationFlowRegistry registry;
   private ObjectMapper payloadMapper;
+  private ExplorationFlowCache flowCache;
 
   @Autowired
   public DynamicExplorationFlowFactory(ApplicationContext context,
-      ExplorationFlowRegistry registry, ObjectMapper payloadMapper) {
+      ExplorationFlowRegistry registry, ObjectMapper payloadMapper,
+      ObjectProvider<CacheManager> cacheManagerProvider,
+      @Value("${esm.cache.flow.min-duration:#{100}}") long minimalStepDurationInMs) {
     this.context = context;
     this.registry = registry;
     this.payloadMapper = payloadMapper;
+    this.flowCache = new ExplorationFlowCache(cacheManagerProvider, payloadMapper,
+        minimalStepDurationInMs);
   }
 
   /**
@@ -77,14 +96,16 @@ public class DynamicExplorationFlowFactory {
   public ExplorationFlow constructFlow(ExplorationContext initialContext,
       List<ExplorationFlowStepRequest> steps) {
     logger.debug("Start to dynamically construct the flow with steps '{}'.", steps);
-    ExplorationFlow flow = new ExplorationFlow(initialContext);
+    ExplorationFlow flow = new ExplorationFlow(initialContext, flowCache);
     for (ExplorationFlowStepRequest step : steps) {
       Optional<Class<? extends ExplorationFlowStep>> optionalClass = registry.get(step.getName());
       if (optionalClass.isPresent()) {
         try {
           ExplorationFlowStep stepObject = context.getBean(optionalClass.get());
-          flow.appendFlowStep(stepObject, (ExplorationFlowStepPayload) payloadMapper
-              .treeToValue(step.getParameterPayload(), stepObject.getPayloadClass()));
+          ExplorationFlowStepPayload payload = (ExplorationFlowStepPayload) payloadMapper
+              .treeToValue(step.getParameterPayload(), stepObject.getPayloadClass());
+          flow.appendFlowStep(stepObject, payload, step.getParameterPayload(),
+              isDeterministic(stepObject, payload));
         } catch (JsonProcessingException j) {
           throw new ExplorationFlowSpecificationException(String
               .format("The payload for exploration flow step '%s' is invalid. %s", step.getName(),
@@ -99,4 +120,44 @@ public class DynamicExplorationFlowFactory {
     return flow;
   }
 
+  /**
+   * Checks whether the given step with the given payload is deterministic. A parallel step is
+   * only deterministic, if all the steps of its flows are deterministic.
+   */
+  private boolean isDeterministic(ExplorationFlowStep step, ExplorationFlowStepPayload payload) {
+    if (step instanceof NondeterministicOperator) {
+      return false;
+    }
+    if (payload instanceof ParallelPayload && ((ParallelPayload) payload).getFlows() != null) {
+      for (List<ExplorationFlowStepRequest> flow : ((ParallelPayload) payload).getFlows()) {
+        for (ExplorationFlowStepRequest flowStep : flow) {
+          Optional<Class<? extends ExplorationFlowStep>> optionalClass = registry
+              .get(flowStep.getName());
+          if (!optionalClass.isPresent()
+              || NondeterministicOperator.class.isAssignableFrom(optionalClass.get())) {
+            return false;
+          }
+          if (ParallelOperator.class.isAssignableFrom(optionalClass.get())) {
+            try {
+              if (!isDeterministic(context.getBean(optionalClass.get()), payloadMapper
+                  .treeToValue(flowStep.getParameterPayload(), ParallelPayload.class))) {
+                return false;
+              }
+            } catch (JsonProcessingException e) {
+              return false;
+            }
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  @EventListener
+  public void onAnalysisResultsActivated(AnalysisResultsActivatedEvent activatedEvent) {
+    logger.info("Invalidates the cached exploration flows, because the results of {} changed.",
+        activatedEvent.getNamespaceNames());
+    flowCache.invalidate();
+  }
+
 }
@@ -0,0 +1,80 @@
+package at.ac.tuwien.ifs.es.middleware.service.exploration.factory;
+
+import at.ac.tuwien.ifs.es.middleware.service.caching.warming.RecordedRequest;
+import at.ac.tuwien.ifs.es.middleware.service.caching.warming.RequestReplayer;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.request.DynamicExplorationFlowRequest;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.request.ExplorationFlowStepRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * This {@link RequestReplayer} replays recorded {@link DynamicExplorationFlowRequest}s, which
+ * warms up the caches of the knowledge graph services as well as of the analysis services used by
+ * the operators of the flow.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class ExplorationFlowRequestReplayer implements RequestReplayer {
+
+  static final String TYPE = "flow";
+
+  private final DynamicExplorationFlowFactory flowFactory;
+  private final ObjectMapper objectMapper;
+
+  @Autowired
+  public ExplorationFlowRequestReplayer(@Lazy DynamicExplorationFlowFactory flowFactory,
+      ObjectMapper objectMapper) {
+    this.flowFactory = flowFactory;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Creates the {@link RecordedRequest} for the given {@link DynamicExplorationFlowRequest}, where
+   * the steps are stored in the JSON format of the request.
+   *
+   * @param objectMapper that shall be used to write the JSON. It must not be null.
+   * @param request      that shall be recorded. It must not be null.
+   * @return the {@link RecordedRequest} for the given flow request.
+   * @throws JsonProcessingException if the request could not be written as JSON.
+   */
+  public static RecordedRequest request(ObjectMapper objectMapper,
+      DynamicExplorationFlowRequest request) throws JsonProcessingException {
+    ObjectNode flowNode = objectMapper.createObjectNode();
+    ArrayNode stepsNode = flowNode.putArray("steps");
+    for (ExplorationFlowStepRequest step : request.getSteps()) {
+      ObjectNode stepNode = stepsNode.addObject();
+      stepNode.put("name", step.getName());
+      stepNode.set("param", step.getParameterPayload());
+    }
+    return new RecordedRequest(TYPE,
+        Collections.singletonList(objectMapper.writeValueAsString(flowNode)));
+  }
+
+  @Override
+  public String getType() {
+    return TYPE;
+  }
+
+  @Override
+  public void replay(RecordedRequest request) {
+    try {
+      flowFactory.constructFlow(objectMapper
+          .readValue(request.getArguments().get(0), DynamicExplorationFlowRequest.class))
+          .execute();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+}
@@ -1,6 +1,7 @@
 package at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aggregation;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Identifiable;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.NondeterministicOperator;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.ResultCollectionContext;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.aggregation.SamplePayload;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
@@ -18,6 +19,7 @@ import org.springframework.stereotype.Component;
  * This is an implementation get {@link AggregationOperator} that draws {@code n} random samples,
  * where {@code n} is specified in the passed {@link SamplePayload}. This operator will be
  * registered as {@code esm.aggregate.sample} at the {@link at.ac.tuwien.ifs.es.middleware.service.exploration.registry.ExplorationFlowRegistry}.
+ * The samples differ from call to call, hence it is a {@link NondeterministicOperator}.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -26,7 +28,8 @@ import org.springframework.stereotype.Component;
 @Lazy
 @Component
 @RegisterForExplorationFlow(Sample.OID)
-public class Sample implements AggregationOperator<ResultCollectionContext, ResultCollectionContext, SamplePayload> {
+public class Sample implements AggregationOperator<ResultCollectionContext, ResultCollectionContext, SamplePayload>,
+    NondeterministicOperator {
 
   public static final String OID = "esm.aggregate.sample";
 
@@ -1,6 +1,7 @@
 package at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aquisition;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.RDFValueTerm;
+import at.ac.tuwien.ifs.es.middleware.service.caching.ResourceFragmentCache;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.IterableResourcesContext;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.neighbourhood.Neighbourhood;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.resources.ResourceCollection;
@@ -11,6 +12,9 @@ import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitation
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.acquisition.NeighbourhoodOpPayload;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -18,14 +22,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.text.StringSubstitutor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 /**
  * This operator generates the neighbourhood of {@link Resource}s that are passed on by the result
  * of the previous result. Thus, the previous step must return a {@link IterableResourcesContext}.
+ * <p/>
+ * The neighbourhood of each resource is cached separately in the {@link ResourceFragmentCache},
+ * such that only resources, whose neighbourhood with the given property restrictions isn't cached,
+ * are queried.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -61,10 +72,13 @@ public class NeighbourhoodOperator implements
       + "}";
 
   private final SPARQLService sparqlService;
+  private final ResourceFragmentCache fragmentCache;
 
   @Autowired
-  public NeighbourhoodOperator(SPARQLService sparqlService) {
+  public NeighbourhoodOperator(SPARQLService sparqlService,
+      ObjectProvider<CacheManager> cacheManagerProvider) {
     this.sparqlService = sparqlService;
+    this.fragmentCache = new ResourceFragmentCache(cacheManagerProvider);
   }
 
   @Override
@@ -91,8 +105,6 @@ public class NeighbourhoodOperator implements
   public Neighbourhood apply(ResourceCollection source, NeighbourhoodOpPayload payload) {
     /* construct query */
     Map<String, String> valueMap = new HashMap<>();
-    valueMap.put("resourceList", source.asResourceSet().stream().map(
-        RDFTermJsonUtil::stringForSPARQLResourceOf).collect(Collectors.joining("\n")));
     // deal with included properties
     List<Resource> includedProperties = payload.getIncludedProperties();
     if (includedProperties != null && !includedProperties.isEmpty()) {
@@ -113,12 +125,18 @@ public class NeighbourhoodOperator implements
     } else {
       valueMap.put("propertyExclusion", "");
     }
-    /* query and unpack results */
-    List<Map<String, org.apache.commons.rdf.api.RDFTerm>> valueSet = sparqlService.<SelectQueryResult>query(
-        new StringSubstitutor(valueMap).replace(QUERY), true)
-        .value();
+    /* query uncached resources and unpack results */
+    String propertyRestriction =
+        valueMap.get("propertyInclusion") + "\n" + valueMap.get("propertyExclusion");
+    Map<Resource, List<Map<String, RDFTerm>>> fragments = fragmentCache
+        .<Resource, List<Map<String, RDFTerm>>>getAll(OID, propertyRestriction,
+            source.asResourceSet(), Collections.emptyList(),
+            resources -> ResourceFragmentCache.groupRowsBy(sparqlService.<SelectQueryResult>query(
+                computeQuery(resources, valueMap), true).value(), "s",
+                s -> new Resource((BlankNodeOrIRI) s)));
     Map<Resource, Map<Resource, List<RDFValueTerm>>> nMap = new HashMap<>();
-    for (Map<String, org.apache.commons.rdf.api.RDFTerm> row : valueSet) {
+    for (Map<String, RDFTerm> row : fragments.values().stream().flatMap(List::stream)
+        .collect(Collectors.toList())) {
       Resource subject = new Resource((BlankNodeOrIRI) row.get("s"));
       Resource property = new Resource((BlankNodeOrIRI) row.get("p"));
       RDFValueTerm object = RDFValueTerm.of(row.get("o"));
@@ -139,4 +157,19 @@ public class NeighbourhoodOperator implements
     neighbourhood.values().merge(source.values());
     return neighbourhood;
   }
+
+  /**
+   * Computes the neighbourhood query for the given resources considering the given property
+   * restrictions. The template with the property restrictions is prepared only once, and the
+   * resources are bound to its {@code VALUES} clause.
+   *
+   * @param resources for which the neighbourhood shall be queried.
+   * @param valueMap  the property inclusion and exclusion sections of the query.
+   * @return the computed neighbourhood query.
+   */
+  private BoundSPARQLQuery computeQuery(Collection<Resource> resources,
+      Map<String, String> valueMap) {
+    return PreparedSPARQLQuery.of(new StringSubstitutor(valueMap).replace(QUERY)).bind()
+        .resources("resourceList", resources).build();
+  }
 }
@@ -3,24 +3,21 @@ package at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitatio
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.IterableResourcesContext;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.hierarchy.classes.ClassHierarchyService;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.VoidPayload;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Collectors;
-import org.apache.commons.lang3.text.StrSubstitutor;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.RDFTerm;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -85,12 +82,9 @@ public class ClassDescriber implements
       int start = n * LOAD_SIZE;
       int end = start + LOAD_SIZE;
       List<Map<String, RDFTerm>> resourceClassResponse = sparqlService.<SelectQueryResult>query(
-          new StrSubstitutor(
-              Collections.singletonMap("resourceList",
-                  allResources.subList(start, end <= total ? end : total).stream().map(
-                      RDFTermJsonUtil::stringForSPARQLResourceOf)
-                      .collect(Collectors.joining("\n"))))
-              .replace(CLASS_QUERY), true).value();
+          PreparedSPARQLQuery.of(CLASS_QUERY).bind()
+              .resources("resourceList", allResources.subList(start, end <= total ? end : total))
+              .build(), true).value();
       for (Map<String, RDFTerm> row : resourceClassResponse) {
         Resource resource = new Resource((BlankNodeOrIRI) row.get("resource"));
         Set<Resource> classList = classMap.get(resource);
@@ -3,24 +3,21 @@ package at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitatio
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.IterableResourcesContext;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.resources.ResourceCollection;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
-import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.VoidPayload;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.exception.ExplorationFlowSpecificationException;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.registry.ExplorationFlowRegistry;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import org.apache.commons.lang3.text.StrSubstitutor;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDFTerm;
@@ -96,9 +93,8 @@ public class ClassDistributionMetaAnalysis implements
         resourceSet.add(resourceIterator.next());
       }
       List<Map<String, RDFTerm>> results = sparqlService.<SelectQueryResult>query(
-          new StrSubstitutor(Collections.singletonMap("resources", resourceSet.stream()
-              .map(RDFTermJsonUtil::stringForSPARQLResourceOf)
-              .collect(Collectors.joining("\n")))).replace(CLASS_DIST_QUERY), true).value();
+          PreparedSPARQLQuery.of(CLASS_DIST_QUERY).bind().resources("resources", resourceSet)
+              .build(), true).value();
       for (Map<String, RDFTerm> row : results) {
         Resource classResource = new Resource((BlankNodeOrIRI) row.get("class"));
         Long classNumberValue = classDistributionMap.getOrDefault(classResource, 0L) + Long
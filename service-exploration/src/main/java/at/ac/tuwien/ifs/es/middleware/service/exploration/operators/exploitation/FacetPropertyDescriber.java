@@ -1,30 +1,46 @@
 package at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitation;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.RDFValueTerm;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.service.caching.ResourceFragmentCache;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.resources.ResourceCollection;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.sparql.SelectQueryResult;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.FacetPropertyPayload;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.text.StrSubstitutor;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDFTerm;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 /**
+ * This exploitation operator computes the facets of the given properties for the resources in a
+ * {@link ResourceCollection}, i.e. the values of these properties and the number of resources
+ * having this value. It will be registered under the name {@code esm.exploit.facet.property}.
+ * <p/>
+ * The property values of each resource are cached separately in the {@link
+ * ResourceFragmentCache}, such that only resources, whose values aren't cached, are queried. The
+ * facets are then counted from the values of all resources.
+ *
  * @author Kevin Haller
  * @version 1.0
  * @since 1.0
@@ -38,7 +54,7 @@ public class FacetPropertyDescriber implements
   public static final String OID = "esm.exploit.facet.property";
 
   private static final String FACET_PROP_QUERY =
-      "SELECT ?p ?v (count(DISTINCT ?s) as ?cnt) WHERE {\n"
+      "SELECT DISTINCT ?s ?p ?v WHERE {\n"
           + "    VALUES ?s {\n"
           + "       ${resourceList} \n"
           + "    }\n"
@@ -47,15 +63,18 @@ public class FacetPropertyDescriber implements
           + "    }\n"
           + "    ?s ?p ?v .\n"
           + "    FILTER(isIRI(?v) || isLiteral(?v))\n"
-          + "} GROUP BY ?p ?v";
+          + "}";
 
   private final SPARQLService sparqlService;
   private final ObjectMapper objectMapper;
+  private final ResourceFragmentCache fragmentCache;
 
   @Autowired
-  public FacetPropertyDescriber(SPARQLService sparqlService, ObjectMapper objectMapper) {
+  public FacetPropertyDescriber(SPARQLService sparqlService, ObjectMapper objectMapper,
+      ObjectProvider<CacheManager> cacheManagerProvider) {
     this.sparqlService = sparqlService;
     this.objectMapper = objectMapper;
+    this.fragmentCache = new ResourceFragmentCache(cacheManagerProvider);
   }
 
   @Override
@@ -80,39 +99,34 @@ public class FacetPropertyDescriber implements
 
   @Override
   public ResourceCollection apply(ResourceCollection context, FacetPropertyPayload payload) {
-    Map<String, String> valueMap = new HashMap<>();
-    valueMap
-        .put("resourceList", context.asResourceSet().stream().map(
-            RDFTermJsonUtil::stringForSPARQLResourceOf).collect(Collectors.joining("\n")));
-    valueMap
-        .put("propertyList", payload.getProperties().stream().map(
-            RDFTermJsonUtil::stringForSPARQLResourceOf).collect(Collectors.joining("\n")));
-    List<Map<String, RDFTerm>> result = sparqlService.<SelectQueryResult>query(
-        new StrSubstitutor(valueMap).replace(FACET_PROP_QUERY), true).value();
+    String propertyList = payload.getProperties().stream().map(
+        RDFTermJsonUtil::stringForSPARQLResourceOf).collect(Collectors.joining("\n"));
+    Map<Resource, List<Map<String, RDFTerm>>> fragments = fragmentCache
+        .<Resource, List<Map<String, RDFTerm>>>getAll(OID, propertyList,
+            context.asResourceSet(), Collections.emptyList(),
+            resources -> ResourceFragmentCache.groupRowsBy(sparqlService.<SelectQueryResult>query(
+                computeFacetQuery(resources, payload.getProperties()), true).value(), "s",
+                s -> new Resource((BlankNodeOrIRI) s)));
+    /* count the distinct resources per property value */
+    Map<RDFTerm, Map<RDFTerm, Integer>> countMap = new LinkedHashMap<>();
+    for (List<Map<String, RDFTerm>> fragment : fragments.values()) {
+      for (Map<String, RDFTerm> row : fragment) {
+        if (row.containsKey("p") && row.containsKey("v")) {
+          countMap.computeIfAbsent(row.get("p"), k -> new LinkedHashMap<>())
+              .merge(row.get("v"), 1, Integer::sum);
+        }
+      }
+    }
 
     /* process the result */
     Map<String, ArrayNode> facetMap = new HashMap<>();
-    for (Map<String, RDFTerm> row : result.stream()
-        .filter(r -> r.containsKey("p") && r.containsKey("v") && r.containsKey("cnt"))
-        .collect(Collectors.toList())) {
-      ArrayNode propertyValueArrayNode = facetMap
-          .compute(RDFTermJsonUtil.stringValue((BlankNodeOrIRI) row.get("p")),
-              (s, propertyNode1) -> propertyNode1 != null ? propertyNode1
-                  : JsonNodeFactory.instance.arrayNode());
-      /* create value node for the rdf term (literal or IRI) */
-      ObjectNode valueNode = JsonNodeFactory.instance.objectNode();
-      RDFTerm valueTerm = row.get("v");
-      Integer totalNumber = Integer.parseInt(((Literal) row.get("cnt")).getLexicalForm());
-      if (valueTerm instanceof Literal) {
-        valueNode.set("type", JsonNodeFactory.instance.textNode("literal"));
-        valueNode.set("literal", objectMapper.valueToTree(RDFValueTerm.of(valueTerm)));
-        valueNode.set("total", JsonNodeFactory.instance.numberNode(totalNumber));
-      } else {
-        valueNode.set("type", JsonNodeFactory.instance.textNode("iri"));
-        valueNode.set("iri", objectMapper.valueToTree(RDFValueTerm.of(valueTerm)));
-        valueNode.set("total", JsonNodeFactory.instance.numberNode(totalNumber));
+    for (Entry<RDFTerm, Map<RDFTerm, Integer>> propertyEntry : countMap.entrySet()) {
+      for (Entry<RDFTerm, Integer> valueEntry : propertyEntry.getValue().entrySet()) {
+        facetMap.computeIfAbsent(
+            RDFTermJsonUtil.stringValue((BlankNodeOrIRI) propertyEntry.getKey()),
+            k -> JsonNodeFactory.instance.arrayNode())
+            .add(createValueNode(valueEntry.getKey(), valueEntry.getValue()));
       }
-      propertyValueArrayNode.add(valueNode);
     }
     /* add processed result to context */
     ObjectNode facetNode = JsonNodeFactory.instance.objectNode();
@@ -122,4 +136,39 @@ public class FacetPropertyDescriber implements
     context.metadata().put("facet", facetNode);
     return context;
   }
+
+  /**
+   * Computes the facet query for the given resources and properties, which are bound to the
+   * {@code VALUES} clauses of the prepared facet query.
+   *
+   * @param resources  for which the property values shall be queried.
+   * @param properties the properties of the facets.
+   * @return the computed facet query.
+   */
+  private BoundSPARQLQuery computeFacetQuery(Collection<Resource> resources,
+      List<Resource> properties) {
+    return PreparedSPARQLQuery.of(FACET_PROP_QUERY).bind().resources("resourceList", resources)
+        .resources("propertyList", properties).build();
+  }
+
+  /**
+   * Creates the value node for the given rdf term (literal or IRI) of a facet.
+   *
+   * @param valueTerm   the value of the facet.
+   * @param totalNumber the number of resources having this value.
+   * @return the value node for the facet.
+   */
+  private ObjectNode createValueNode(RDFTerm valueTerm, Integer totalNumber) {
+    ObjectNode valueNode = JsonNodeFactory.instance.objectNode();
+    if (valueTerm instanceof Literal) {
+      valueNode.set("type", JsonNodeFactory.instance.textNode("literal"));
+      valueNode.set("literal", objectMapper.valueToTree(RDFValueTerm.of(valueTerm)));
+      valueNode.set("total", JsonNodeFactory.instance.numberNode(totalNumber));
+    } else {
+      valueNode.set("type", JsonNodeFactory.instance.textNode("iri"));
+      valueNode.set("iri", objectMapper.valueToTree(RDFValueTerm.of(valueTerm)));
+      valueNode.set("total", JsonNodeFactory.instance.numberNode(totalNumber));
+    }
+    return valueNode;
+  }
 }
@@ -1,6 +1,7 @@
 package at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitation;
 
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.RDFValueTerm;
+import at.ac.tuwien.ifs.es.middleware.service.caching.ResourceFragmentCache;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.neighbourhood.Neighbourhood;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.result.RHood;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
@@ -13,20 +14,36 @@ import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.rdf.api.BlankNodeOrIRI;
 import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDF;
+import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.rdf.simple.SimpleRDF;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 /**
+ * This exploitation operator adds the provenance to the statements of a {@link Neighbourhood},
+ * i.e. the named graphs in which the statements are located. It will be registered under the name
+ * {@code esm.exploit.neighbourhood.provenance}.
+ * <p/>
+ * The named graphs of each statement are cached separately in the {@link ResourceFragmentCache},
+ * such that only statements, whose named graphs aren't cached, are queried.
+ *
  * @author Kevin Haller
  * @version 1.0
  * @since 1.0
@@ -48,11 +65,16 @@ public class NeighbourhoodProvenance implements
 
   private static final JsonPointer namespacesPath = JsonPointer.compile("/provenance/namespaces");
 
+  private static final RDF rdfFactory = new SimpleRDF();
+
   private final SPARQLService sparqlService;
+  private final ResourceFragmentCache fragmentCache;
 
   @Autowired
-  public NeighbourhoodProvenance(SPARQLService sparqlService) {
+  public NeighbourhoodProvenance(SPARQLService sparqlService,
+      ObjectProvider<CacheManager> cacheManagerProvider) {
     this.sparqlService = sparqlService;
+    this.fragmentCache = new ResourceFragmentCache(cacheManagerProvider);
   }
 
   @Override
@@ -87,29 +109,50 @@ public class NeighbourhoodProvenance implements
         }
       }
     });
-    /* construct query */
-    String query = String.format(PROV_SPARQL_QUERY,
-        statementList.stream().map(Statement::toTuple).collect(Collectors.joining("\n")));
-    /* compute and process query */
-    sparqlService.<SelectQueryResult>query(query, true).value().stream().forEach((row) -> {
-      String id = ((Literal) row.get("id")).getLexicalForm();
-      Optional<JsonNode> provenanceNamespacesNodeOpt = context.values().get(id, namespacesPath);
-      if (!provenanceNamespacesNodeOpt.isPresent()) {
-        ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
-        arrayNode.add(RDFTermJsonUtil.stringValue((BlankNodeOrIRI) row.get("n")));
-        context.values().put(id, namespacesPath, arrayNode);
-      } else {
-        Optional<JsonNode> arrayNodeOpt = context.values().get(id, namespacesPath);
-        arrayNodeOpt.ifPresent(jsonNode -> ((ArrayNode) jsonNode)
-            .add(RDFTermJsonUtil.stringValue((BlankNodeOrIRI) row.get("n"))));
+    /* get the named graphs of the statements, query only the uncached ones */
+    Map<String, List<String>> fragments = fragmentCache.<String, List<String>>getAll(OID, "",
+        statementList.stream().map(Statement::toTerms).collect(Collectors.toList()),
+        Collections.emptyList(), this::queryNamedGraphs);
+    /* add the named graphs to the context */
+    for (Statement statement : statementList) {
+      String id = statement.object.getId();
+      for (String namedGraph : fragments.get(statement.toTerms())) {
+        Optional<JsonNode> provenanceNamespacesNodeOpt = context.values().get(id, namespacesPath);
+        if (!provenanceNamespacesNodeOpt.isPresent()) {
+          ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
+          arrayNode.add(namedGraph);
+          context.values().put(id, namespacesPath, arrayNode);
+        } else {
+          ((ArrayNode) provenanceNamespacesNodeOpt.get()).add(namedGraph);
+        }
       }
-    });
+    }
     return context;
   }
 
-  private static class Statement {
+  /**
+   * Queries the named graphs in which the given statements are located.
+   *
+   * @param statementTerms the terms of the statements in the SPARQL format (see {@link
+   *                       Statement#toTerms()}).
+   * @return the named graphs of the statements that are located in a named graph.
+   */
+  private Map<String, List<String>> queryNamedGraphs(Set<String> statementTerms) {
+    List<String> terms = new ArrayList<>(statementTerms);
+    String query = String.format(PROV_SPARQL_QUERY, IntStream.range(0, terms.size())
+        .mapToObj(i -> String.format("(%s %s)", terms.get(i), rdfFactory.createLiteral(
+            String.valueOf(i)))).collect(Collectors.joining("\n")));
+    Map<String, List<String>> namedGraphMap = new HashMap<>();
+    for (Map<String, RDFTerm> row : sparqlService.<SelectQueryResult>query(query, true).value()) {
+      int id = Integer.parseInt(((Literal) row.get("id")).getLexicalForm());
+      namedGraphMap.computeIfAbsent(terms.get(id), k -> new LinkedList<>())
+          .add(RDFTermJsonUtil.stringValue((BlankNodeOrIRI) row.get("n")));
+    }
+    namedGraphMap.replaceAll((statement, namedGraphs) -> Collections.unmodifiableList(namedGraphs));
+    return namedGraphMap;
+  }
 
-    private static final RDF rdfFactory = new SimpleRDF();
+  private static class Statement {
 
     private Resource subject;
     private Resource predicate;
@@ -121,10 +164,10 @@ public class NeighbourhoodProvenance implements
       this.object = object;
     }
 
-    public String toTuple() {
-      return String.format("(%s %s %s %s)", RDFTermJsonUtil.stringForSPARQLResourceOf(subject),
+    public String toTerms() {
+      return String.format("%s %s %s", RDFTermJsonUtil.stringForSPARQLResourceOf(subject),
           RDFTermJsonUtil.stringForSPARQLResourceOf(predicate),
-          RDFTermJsonUtil.stringForSPARQLRDFTermOf(object), rdfFactory.createLiteral(object.getId()));
+          RDFTermJsonUtil.stringForSPARQLRDFTermOf(object));
     }
 
     @Override
@@ -1,5 +1,6 @@
 package at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitation;
 
+import at.ac.tuwien.ifs.es.middleware.service.caching.ResourceFragmentCache;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.context.IterableResourcesContext;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
 import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
@@ -12,11 +13,15 @@ import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.expl
 import at.ac.tuwien.ifs.es.middleware.service.exploration.registry.ExplorationFlowRegistry;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SPARQLService;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.BoundSPARQLQuery;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -31,7 +36,9 @@ import org.apache.commons.rdf.api.IRI;
 import org.apache.commons.rdf.api.Literal;
 import org.apache.commons.rdf.api.RDFTerm;
 import org.apache.commons.text.StringSubstitutor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
@@ -45,6 +52,9 @@ import org.springframework.stereotype.Component;
  * payload can be empty, or specify the content that shall be returned. Each content has a name, a
  * type and list get properties that hold this content. e.g. content might be {@code 'label'}, which
  * is get type {@code text} and has the property list {@code ["http://www.w3.org/2000/01/rdf-schema#label"]}.
+ * <p/>
+ * The description of each resource is cached separately in the {@link ResourceFragmentCache}, such
+ * that only resources, whose description with the given content isn't cached, are queried.
  *
  * @author Kevin Haller
  * @version 1.0
@@ -75,10 +85,13 @@ public class ResourceDescriber implements
           + "}";
 
   private final SPARQLService sparqlService;
+  private final ResourceFragmentCache fragmentCache;
 
   @Autowired
-  public ResourceDescriber(SPARQLService sparqlService) {
+  public ResourceDescriber(SPARQLService sparqlService,
+      ObjectProvider<CacheManager> cacheManagerProvider) {
     this.sparqlService = sparqlService;
+    this.fragmentCache = new ResourceFragmentCache(cacheManagerProvider);
   }
 
   @Override
@@ -102,22 +115,32 @@ public class ResourceDescriber implements
   }
 
   /**
-   * Computes the 'describe' query for the given {@code resourceSet} considering given {@code
-   * payload} specifying the arguments for this step.
+   * Computes the content section of the 'describe' query considering given {@code payload}
+   * specifying the arguments for this step.
    *
-   * @param resourceSet a set get {@link Resource}s that shall be described.
    * @param payload specifying the arguments for the describer.
-   * @return the computed 'describe' query.
+   * @return the computed content section of the 'describe' query.
    */
-  private String computeDescribeQuery(Set<Resource> resourceSet, DescriberPayload payload) {
-    Map<String, String> valueMap = new HashMap<>();
-    valueMap.put("resourceList", resourceSet.stream().map(
-        RDFTermJsonUtil::stringForSPARQLResourceOf).collect(Collectors.joining("\n")));
+  private String computeContentSection(DescriberPayload payload) {
     Map<String, PropertyPayload> content = payload.getContent();
-    valueMap.put("content",
-        content.entrySet().stream().map(e -> prepareContentSection(e.getKey(), e.getValue()))
-            .collect(Collectors.joining("\nUNION\n")));
-    return new StringSubstitutor(valueMap).replace(DESCRIBER_QUERY);
+    return content.entrySet().stream().map(e -> prepareContentSection(e.getKey(), e.getValue()))
+        .collect(Collectors.joining("\nUNION\n"));
+  }
+
+  /**
+   * Computes the 'describe' query for the given {@code resourceSet} considering the given content
+   * section. The template with the content section is prepared only once, and the resources are
+   * bound to its {@code VALUES} clause.
+   *
+   * @param resourceSet    a set get {@link Resource}s that shall be described.
+   * @param contentSection the content section computed for the arguments of this step.
+   * @return the computed 'describe' query.
+   */
+  private BoundSPARQLQuery computeDescribeQuery(Collection<Resource> resourceSet,
+      String contentSection) {
+    String template = new StringSubstitutor(Collections.singletonMap("content", contentSection))
+        .replace(DESCRIBER_QUERY);
+    return PreparedSPARQLQuery.of(template).bind().resources("resourceList", resourceSet).build();
   }
 
   /**
@@ -178,11 +201,16 @@ public class ResourceDescriber implements
   @Override
   public IterableResourcesContext apply(IterableResourcesContext context,
       DescriberPayload payload) {
-    List<Map<String, RDFTerm>> resultTable = (sparqlService.<SelectQueryResult>query(
-        computeDescribeQuery(context.asResourceSet(), payload),
-        false)).value();
+    String contentSection = computeContentSection(payload);
+    Map<Resource, List<Map<String, RDFTerm>>> fragments = fragmentCache
+        .<Resource, List<Map<String, RDFTerm>>>getAll(OID, contentSection,
+            context.asResourceSet(), Collections.emptyList(),
+            resources -> ResourceFragmentCache.groupRowsBy(sparqlService.<SelectQueryResult>query(
+                computeDescribeQuery(resources, contentSection), false).value(), "s",
+                s -> new Resource((BlankNodeOrIRI) s)));
     Map<String, Map<String, DescribeTerm>> responseMap = new HashMap<>();
-    for (Map<String, RDFTerm> row : resultTable) {
+    for (Map<String, RDFTerm> row : fragments.values().stream().flatMap(List::stream)
+        .collect(Collectors.toList())) {
       Map<String, DescribeTerm> contentMap = responseMap
           .computeIfAbsent(((IRI) (row.get("s"))).getIRIString(), k -> new HashMap<>());
       String varName = ((Literal) row.get("var")).getLexicalForm();
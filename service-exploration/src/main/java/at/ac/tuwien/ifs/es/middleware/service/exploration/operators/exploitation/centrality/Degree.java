@@ -8,8 +8,11 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.degree.DegreeC
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitation.ExploitationOperator;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.registry.ExplorationFlowRegistry;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
@@ -65,9 +68,12 @@ public class Degree implements
 
   @Override
   public ResourceCollection apply(ResourceCollection context, VoidPayload payload) {
-    for (Resource resource : context.asResourceSet()) {
+    Set<Resource> resources = context.asResourceSet();
+    Map<Resource, DecimalNormalizedAnalysisValue> valueMap = degreeCentralityMetricService
+        .getValuesFor(resources);
+    for (Resource resource : resources) {
       context.values().put(resource.getId(), VALUES_PTR,
-          objectMapper.valueToTree(degreeCentralityMetricService.getValueFor(resource)));
+          objectMapper.valueToTree(valueMap.get(resource)));
     }
     return context;
   }
@@ -8,8 +8,11 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.centrality.pagerank.PageR
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.exploitation.ExploitationOperator;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.registry.ExplorationFlowRegistry;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.RegisterForExplorationFlow;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.value.normalization.DecimalNormalizedAnalysisValue;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
@@ -70,9 +73,12 @@ public class PageRank implements
 
   @Override
   public ResourceCollection apply(ResourceCollection context, VoidPayload payload) {
-    for (Resource resource : context.asResourceSet()) {
-      context.values().put(resource.getId(), VALUES_PTR, objectMapper
-          .valueToTree(pageRankCentralityMetricService.getValueFor(resource)));
+    Set<Resource> resources = context.asResourceSet();
+    Map<Resource, DecimalNormalizedAnalysisValue> valueMap = pageRankCentralityMetricService
+        .getValuesFor(resources);
+    for (Resource resource : resources) {
+      context.values().put(resource.getId(), VALUES_PTR,
+          objectMapper.valueToTree(valueMap.get(resource)));
     }
     return context;
   }
@@ -0,0 +1,202 @@
+package at.ac.tuwien.ifs.es.middleware.service.exploration.explorationflow;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.ResourceDeserializer;
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.ResourceSerializer;
+import at.ac.tuwien.ifs.es.middleware.service.caching.BoundedCache;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.ExplorationFlow;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.ExplorationFlowCache;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.ExplorationFlowStep;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.NondeterministicOperator;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.context.ExplorationContext;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.context.resources.ResourceList;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aggregation.Limit;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aquisition.AcquisitionSource;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.VoidPayload;
+import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.aggregation.LimitPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+
+/**
+ * This class tests the caching of intermediate contexts of an {@link ExplorationFlow} with the
+ * {@link ExplorationFlowCache}.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExplorationFlowCacheTests {
+
+  private static final List<Resource> resources = Arrays
+      .asList(new Resource("http://dbpedia.org/resource/Violin"),
+          new Resource("http://dbpedia.org/resource/Harp"),
+          new Resource("http://dbpedia.org/resource/Ukulele"));
+
+  private BoundedCache cache;
+  private ExplorationFlowCache flowCache;
+  private CountingSource source;
+
+  @Before
+  public void setUp() {
+    cache = new BoundedCache(ExplorationFlowCache.CACHE_NAME, 1024 * 1024, Duration.ZERO);
+    SimpleCacheManager cacheManager = new SimpleCacheManager();
+    cacheManager.setCaches(Collections.singletonList(cache));
+    cacheManager.initializeCaches();
+    StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+        Collections.singletonMap("cacheManager", cacheManager));
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(
+        new SimpleModule().addSerializer(Resource.class, new ResourceSerializer())
+            .addDeserializer(Resource.class, new ResourceDeserializer()));
+    flowCache = new ExplorationFlowCache(beanFactory.getBeanProvider(CacheManager.class),
+        objectMapper, 0);
+    source = new CountingSource();
+  }
+
+  private ExplorationFlow flow(long limit) {
+    ExplorationFlow flow = new ExplorationFlow(null, flowCache);
+    flow.appendFlowStep(source, new VoidPayload(), JsonNodeFactory.instance.objectNode());
+    ObjectNode limitParameters = JsonNodeFactory.instance.objectNode();
+    limitParameters.put("number", limit);
+    flow.appendFlowStep(new Limit(), new LimitPayload(limit), limitParameters);
+    return flow;
+  }
+
+  @Test
+  public void repeatedFlow_mustBeServedFromCache() {
+    flow(2).execute();
+    ExplorationContext context = flow(2).execute();
+    assertEquals(1, source.calls);
+    assertThat(((ResourceList) context).asResourceList(), hasSize(2));
+  }
+
+  @Test
+  public void flowWithSamePrefix_mustResumeFromCachedPrefix() {
+    flow(2).execute();
+    ExplorationContext context = flow(1).execute();
+    assertEquals(1, source.calls);
+    assertThat(((ResourceList) context).asResourceList(), contains(resources.get(0)));
+  }
+
+  @Test
+  public void invalidatedCache_mustExecuteFlowAgain() {
+    flow(2).execute();
+    cache.invalidate();
+    flow(2).execute();
+    assertEquals(2, source.calls);
+  }
+
+  @Test
+  public void flowWithoutParameters_mustNotBeCached() {
+    for (int i = 0; i < 2; i++) {
+      ExplorationFlow flow = new ExplorationFlow(null, flowCache);
+      flow.appendFlowStep(source, new VoidPayload());
+      flow.execute();
+    }
+    assertEquals(2, source.calls);
+  }
+
+  @Test
+  public void flowWithNondeterministicStep_mustOnlyCachePrefixBeforeIt() {
+    CountingSample sample = new CountingSample();
+    for (int i = 0; i < 2; i++) {
+      ExplorationFlow flow = new ExplorationFlow(null, flowCache);
+      flow.appendFlowStep(source, new VoidPayload(), JsonNodeFactory.instance.objectNode());
+      flow.appendFlowStep(sample, new VoidPayload(), JsonNodeFactory.instance.objectNode());
+      ObjectNode limitParameters = JsonNodeFactory.instance.objectNode();
+      limitParameters.put("number", 1);
+      flow.appendFlowStep(new Limit(), new LimitPayload(1L), limitParameters);
+      flow.execute();
+    }
+    assertEquals(1, source.calls);
+    assertEquals(2, sample.calls);
+  }
+
+  @Test
+  public void invalidatedFlowCache_mustExecuteFlowAgain() {
+    flow(2).execute();
+    flowCache.invalidate();
+    flow(2).execute();
+    assertEquals(2, source.calls);
+  }
+
+  /**
+   * A nondeterministic step that passes the context on and counts its calls.
+   */
+  private static class CountingSample implements
+      ExplorationFlowStep<ResourceList, ResourceList, VoidPayload>, NondeterministicOperator {
+
+    private int calls = 0;
+
+    @Override
+    public ResourceList apply(ResourceList context, VoidPayload payload) {
+      calls++;
+      return context;
+    }
+
+    @Override
+    public String getUID() {
+      return "esm.test.sample";
+    }
+
+    @Override
+    public Class<ResourceList> getExplorationContextInputClass() {
+      return ResourceList.class;
+    }
+
+    @Override
+    public Class<ResourceList> getExplorationContextOutputClass() {
+      return ResourceList.class;
+    }
+
+    @Override
+    public Class<VoidPayload> getPayloadClass() {
+      return VoidPayload.class;
+    }
+  }
+
+  /**
+   * An acquisition source that returns a fixed list of resources and counts its calls.
+   */
+  private static class CountingSource implements AcquisitionSource<ResourceList, VoidPayload> {
+
+    private int calls = 0;
+
+    @Override
+    public ResourceList apply(VoidPayload payload) {
+      calls++;
+      return new ResourceList(resources);
+    }
+
+    @Override
+    public String getUID() {
+      return "esm.test.source";
+    }
+
+    @Override
+    public Class<ResourceList> getExplorationContextOutputClass() {
+      return ResourceList.class;
+    }
+
+    @Override
+    public Class<VoidPayload> getPayloadClass() {
+      return VoidPayload.class;
+    }
+  }
+
+}
@@ -32,6 +32,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ClassRe
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.ClassResourceWithGremlinService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aquisition.AllResources;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.payload.acquisition.AllResourcesPayload;
 import at.ac.tuwien.ifs.es.middleware.service.knowledgegraph.SimpleGremlinService;
@@ -64,6 +65,7 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     RDF4JMemoryStoreWithLuceneSparqlDAO.class, ClonedInMemoryGremlinDAO.class,
     ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class, AllResources.class,
     MusicPintaInstrumentsResource.class, AllResourcesWithSPARQLService.class, MapDBDummy.class,
+    AnalysisNamespaces.class,
     ClassResourceWithGremlinService.class, ClassHierarchyWithSPARQLService.class,
     SameAsResourceWithSPARQLService.class, AllClassesWithSPARQLService.class,
     DAOScheduler.class, SchedulerPipeline.class, DAODependencyGraphService.class,
@@ -22,6 +22,7 @@ import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllReso
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.AllResourcesWithSPARQLService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceService;
 import at.ac.tuwien.ifs.es.middleware.service.analysis.dataset.resources.SameAsResourceWithSPARQLService;
+import at.ac.tuwien.ifs.es.middleware.service.analysis.storage.AnalysisNamespaces;
 import at.ac.tuwien.ifs.es.middleware.service.caching.SpringCacheConfig;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aggregation.Distinct;
 import at.ac.tuwien.ifs.es.middleware.service.exploration.operators.aggregation.Limit;
@@ -54,7 +55,8 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
     RDF4JMemoryStoreWithLuceneSparqlDAO.class, ClonedInMemoryGremlinDAO.class,
     ThreadPoolConfig.class, PrimaryKGDAOConfig.class, RDF4JDAOConfig.class, Distinct.class,
     SameAsResourceWithSPARQLService.class, SpringCacheConfig.class,
-    MapDBDummy.class, MusicPintaInstrumentsResource.class, AllResourcesWithSPARQLService.class,
+    MapDBDummy.class, AnalysisNamespaces.class, MusicPintaInstrumentsResource.class,
+    AllResourcesWithSPARQLService.class,
     DAOScheduler.class, SchedulerPipeline.class, MapDBDummy.class, DAODependencyGraphService.class})
 @TestPropertySource(properties = {
     "esm.db.choice=RDF4J",
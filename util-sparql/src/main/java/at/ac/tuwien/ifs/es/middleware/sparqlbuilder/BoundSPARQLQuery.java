@@ -0,0 +1,251 @@
+package at.ac.tuwien.ifs.es.middleware.sparqlbuilder;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.serializer.RDFTermJsonUtil;
+import at.ac.tuwien.ifs.es.middleware.sparqlbuilder.PreparedSPARQLQuery.Placeholder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.commons.rdf.api.BlankNode;
+import org.apache.commons.rdf.api.BlankNodeOrIRI;
+import org.apache.commons.rdf.api.IRI;
+import org.apache.commons.rdf.api.Literal;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+
+/**
+ * This class represents a {@link PreparedSPARQLQuery}, of which all placeholders have been bound
+ * to rows. The query is available as algebra with the rows bound in its {@code VALUES} clauses,
+ * such that backends supporting the RDF4J algebra can evaluate it without parsing. For all other
+ * backends, the rows are substituted into the query string.
+ * <p/>
+ * Bound queries are equal, if they have the same template and rows. Caches should key them by
+ * their {@link #getFingerprint()} instead of the query itself, which holds all the rows. The string
+ * representation is the query string.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class BoundSPARQLQuery {
+
+  private static final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+  private final PreparedSPARQLQuery preparedQuery;
+  private final Map<String, List<List<RDFTerm>>> bindingMap;
+  private volatile String queryString;
+
+  BoundSPARQLQuery(PreparedSPARQLQuery preparedQuery, Map<String, List<List<RDFTerm>>> bindingMap) {
+    this.preparedQuery = preparedQuery;
+    this.bindingMap = bindingMap;
+  }
+
+  /**
+   * Gets the template of this query.
+   *
+   * @return the template of this query.
+   */
+  public String getTemplate() {
+    return preparedQuery.getTemplate();
+  }
+
+  /**
+   * Gets the query string, in which the placeholders of the template have been substituted with
+   * the bound rows.
+   *
+   * @return the query string with the bound rows.
+   */
+  public String getQueryString() {
+    String queryString = this.queryString;
+    if (queryString == null) {
+      StringBuilder queryBuilder = new StringBuilder(preparedQuery.getTemplate().length());
+      for (Object segment : preparedQuery.getSegments()) {
+        if (segment instanceof Placeholder) {
+          appendRows(queryBuilder, ((Placeholder) segment).getName());
+        } else {
+          queryBuilder.append((String) segment);
+        }
+      }
+      this.queryString = queryString = queryBuilder.toString();
+    }
+    return queryString;
+  }
+
+  private void appendRows(StringBuilder queryBuilder, String name) {
+    boolean singleVariable = preparedQuery.getPlaceholderMap().get(name).size() == 1;
+    for (List<RDFTerm> row : bindingMap.get(name)) {
+      if (!singleVariable) {
+        queryBuilder.append('(');
+      }
+      for (int i = 0; i < row.size(); i++) {
+        if (i > 0) {
+          queryBuilder.append(' ');
+        }
+        RDFTerm term = row.get(i);
+        if (term == null) {
+          queryBuilder.append("UNDEF");
+        } else if (term instanceof BlankNodeOrIRI) {
+          queryBuilder.append(RDFTermJsonUtil.stringForSPARQLResourceOf((BlankNodeOrIRI) term));
+        } else {
+          queryBuilder.append(term.ntriplesString());
+        }
+      }
+      queryBuilder.append(singleVariable ? "\n" : ")\n");
+    }
+  }
+
+  /**
+   * Gets a fingerprint of this query, which is the SHA-256 hash of the template and the bound rows.
+   * Bound queries, which are equal, have the same fingerprint.
+   *
+   * @return the fingerprint of this query.
+   */
+  public String getFingerprint() {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putString(getTemplate(), StandardCharsets.UTF_8);
+    for (Entry<String, List<List<RDFTerm>>> entry : bindingMap.entrySet()) {
+      hasher.putByte((byte) 0).putString(entry.getKey(), StandardCharsets.UTF_8)
+          .putInt(entry.getValue().size());
+      for (List<RDFTerm> row : entry.getValue()) {
+        for (RDFTerm term : row) {
+          hasher.putByte((byte) 0);
+          if (term != null) {
+            hasher.putString(term.ntriplesString(), StandardCharsets.UTF_8);
+          }
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Gets a new copy of the parsed query, in which the bound rows are assigned to the {@code
+   * VALUES} clauses.
+   *
+   * @return a new copy of the parsed query with the bound rows, or {@link Optional#empty()}, if the
+   * template could not be parsed.
+   */
+  public Optional<ParsedQuery> getParsedQuery() {
+    ParsedQuery templateQuery = preparedQuery.getParsedQuery();
+    if (templateQuery == null) {
+      return Optional.empty();
+    }
+    TupleExpr tupleExpr = templateQuery.getTupleExpr().clone();
+    tupleExpr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+      @Override
+      public void meet(BindingSetAssignment node) {
+        String name = placeholderOf(node);
+        if (name != null) {
+          node.setBindingSets(bindingSetsOf(name));
+        }
+        super.meet(node);
+      }
+    });
+    ParsedQuery boundQuery;
+    if (templateQuery instanceof ParsedTupleQuery) {
+      boundQuery = new ParsedTupleQuery(tupleExpr);
+    } else if (templateQuery instanceof ParsedBooleanQuery) {
+      boundQuery = new ParsedBooleanQuery(tupleExpr);
+    } else if (templateQuery instanceof ParsedGraphQuery) {
+      boundQuery = new ParsedGraphQuery(tupleExpr,
+          ((ParsedGraphQuery) templateQuery).getQueryNamespaces());
+    } else {
+      return Optional.empty();
+    }
+    boundQuery.setDataset(templateQuery.getDataset());
+    return Optional.of(boundQuery);
+  }
+
+  /**
+   * Returns the name of the placeholder marked in the given {@code VALUES} clause, or {@code
+   * null}, if it isn't marked.
+   */
+  private static String placeholderOf(BindingSetAssignment node) {
+    for (BindingSet bindingSet : node.getBindingSets()) {
+      for (String bindingName : bindingSet.getBindingNames()) {
+        Value value = bindingSet.getValue(bindingName);
+        if (value instanceof org.eclipse.rdf4j.model.IRI && value.stringValue()
+            .startsWith(PreparedSPARQLQuery.PLACEHOLDER_MARKER)) {
+          return value.stringValue().substring(PreparedSPARQLQuery.PLACEHOLDER_MARKER.length());
+        }
+      }
+    }
+    return null;
+  }
+
+  private List<BindingSet> bindingSetsOf(String name) {
+    List<String> variables = preparedQuery.getPlaceholderMap().get(name);
+    List<List<RDFTerm>> rows = bindingMap.get(name);
+    List<BindingSet> bindingSets = new ArrayList<>(rows.size());
+    for (List<RDFTerm> row : rows) {
+      Value[] values = new Value[row.size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = valueOf(row.get(i));
+      }
+      bindingSets.add(new ListBindingSet(variables, values));
+    }
+    return bindingSets;
+  }
+
+  /**
+   * Converts the given {@link RDFTerm} into a RDF4J {@link Value}. Blank nodes are converted in
+   * the same way as in query strings, i.e. into an IRI with the {@code _:} prefix.
+   */
+  private static Value valueOf(RDFTerm term) {
+    if (term == null) {
+      return null;
+    } else if (term instanceof IRI) {
+      return valueFactory.createIRI(((IRI) term).getIRIString());
+    } else if (term instanceof BlankNode) {
+      return valueFactory.createIRI("_:" + ((BlankNode) term).uniqueReference());
+    } else if (term instanceof Literal) {
+      Literal literal = (Literal) term;
+      if (literal.getLanguageTag().isPresent()) {
+        return valueFactory
+            .createLiteral(literal.getLexicalForm(), literal.getLanguageTag().get());
+      }
+      return valueFactory.createLiteral(literal.getLexicalForm(),
+          valueFactory.createIRI(literal.getDatatype().getIRIString()));
+    }
+    throw new IllegalArgumentException(
+        String.format("Could not bind the given term (%s).", term.getClass().getName()));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BoundSPARQLQuery that = (BoundSPARQLQuery) o;
+    return getTemplate().equals(that.getTemplate()) && bindingMap.equals(that.bindingMap);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(getTemplate(), bindingMap);
+  }
+
+  @Override
+  public String toString() {
+    return getQueryString();
+  }
+}
@@ -0,0 +1,277 @@
+package at.ac.tuwien.ifs.es.middleware.sparqlbuilder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import at.ac.tuwien.ifs.es.middleware.kg.abstraction.rdf.Resource;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.rdf.api.RDFTerm;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class represents a SPARQL query template, which is parsed only once into the RDF4J algebra.
+ * The rows of {@code VALUES} clauses can then be bound directly in the algebra, instead of being
+ * substituted into the query string, which has then to be parsed again. Placeholders must be the
+ * only content of a {@code VALUES} clause, e.g. {@code VALUES ?s { ${resources} }} or {@code
+ * VALUES (?p ?o) { ${pairs} }}. Other parts of the template are kept as they are.
+ * <p/>
+ * Prepared queries are kept in a bounded cache, such that {@link #of(String)} returns the same
+ * prepared query for the same template. Templates, which cannot be parsed, can still be bound, but
+ * the {@link BoundSPARQLQuery} has then only a query string.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class PreparedSPARQLQuery {
+
+  private static final Logger logger = LoggerFactory.getLogger(PreparedSPARQLQuery.class);
+
+  static final String PLACEHOLDER_MARKER = "urn:esm:placeholder:";
+
+  private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile(
+      "(VALUES\\s*(\\?\\w+|\\(\\s*(?:\\?\\w+\\s*)+\\))\\s*\\{)\\s*\\$\\{(\\w+)\\}\\s*(\\})",
+      Pattern.CASE_INSENSITIVE);
+  private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\?(\\w+)");
+
+  private static final Cache<String, PreparedSPARQLQuery> preparedQueryCache = CacheBuilder
+      .newBuilder().maximumSize(512).build();
+
+  private final String template;
+  private final List<Object> segments;
+  private final Map<String, List<String>> placeholderMap;
+  private final ParsedQuery parsedQuery;
+
+  private PreparedSPARQLQuery(String template) {
+    this.template = template;
+    List<Object> segments = new LinkedList<>();
+    Map<String, List<String>> placeholderMap = new LinkedHashMap<>();
+    StringBuilder markedTemplate = new StringBuilder();
+    Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
+    int position = 0;
+    while (matcher.find()) {
+      String name = matcher.group(3);
+      List<String> variables = new LinkedList<>();
+      Matcher variableMatcher = VARIABLE_PATTERN.matcher(matcher.group(2));
+      while (variableMatcher.find()) {
+        variables.add(variableMatcher.group(1));
+      }
+      checkArgument(!placeholderMap.containsKey(name),
+          "The placeholder '%s' must only be used once in the template.", name);
+      placeholderMap.put(name, Collections.unmodifiableList(new ArrayList<>(variables)));
+      segments.add(template.substring(position, matcher.end(1)) + "\n");
+      segments.add(new Placeholder(name));
+      segments.add("\n" + template.substring(matcher.start(4), matcher.end()));
+      markedTemplate.append(template, position, matcher.end(1)).append(' ')
+          .append(markerRow(name, variables.size())).append(' ')
+          .append(template, matcher.start(4), matcher.end());
+      position = matcher.end();
+    }
+    segments.add(template.substring(position));
+    markedTemplate.append(template.substring(position));
+    this.segments = Collections.unmodifiableList(new ArrayList<>(segments));
+    this.placeholderMap = Collections.unmodifiableMap(placeholderMap);
+    this.parsedQuery = parse(markedTemplate.toString());
+  }
+
+  /**
+   * Gets the prepared query for the given SPARQL query template.
+   *
+   * @param template the SPARQL query template with placeholders in {@code VALUES} clauses. It must
+   *                 not be null.
+   * @return the prepared query for the given template.
+   * @throws IllegalArgumentException if the same placeholder is used twice.
+   */
+  public static PreparedSPARQLQuery of(String template) {
+    checkArgument(template != null, "The given template must not be null.");
+    try {
+      return preparedQueryCache.get(template, () -> new PreparedSPARQLQuery(template));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof IllegalArgumentException) {
+        throw (IllegalArgumentException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  /**
+   * Returns the marker row for the placeholder with the given name, which is parsed in place of
+   * the bound rows.
+   */
+  private static String markerRow(String name, int width) {
+    String marker = "<" + PLACEHOLDER_MARKER + name + ">";
+    if (width == 1) {
+      return marker;
+    }
+    String[] row = new String[width];
+    Arrays.fill(row, "UNDEF");
+    row[0] = marker;
+    return "(" + String.join(" ", row) + ")";
+  }
+
+  /**
+   * Parses the given template into the RDF4J algebra, or returns {@code null}, if the template
+   * cannot be parsed.
+   */
+  private static ParsedQuery parse(String markedTemplate) {
+    try {
+      return new SPARQLParser().parseQuery(markedTemplate, null);
+    } catch (RuntimeException e) {
+      logger.debug("Template could not be parsed, it is bound as string instead. {}",
+          e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Gets the template of this prepared query.
+   *
+   * @return the template of this prepared query.
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * Returns a new {@link Binder} for binding the placeholders of this prepared query.
+   *
+   * @return a new {@link Binder} for this prepared query.
+   */
+  public Binder bind() {
+    return new Binder(this);
+  }
+
+  List<Object> getSegments() {
+    return segments;
+  }
+
+  Map<String, List<String>> getPlaceholderMap() {
+    return placeholderMap;
+  }
+
+  ParsedQuery getParsedQuery() {
+    return parsedQuery;
+  }
+
+  /**
+   * A placeholder in the segments of the template.
+   */
+  static final class Placeholder {
+
+    private final String name;
+
+    private Placeholder(String name) {
+      this.name = name;
+    }
+
+    String getName() {
+      return name;
+    }
+  }
+
+  /**
+   * This class binds the rows of all the placeholders of a {@link PreparedSPARQLQuery}.
+   */
+  public static final class Binder {
+
+    private final PreparedSPARQLQuery preparedQuery;
+    private final Map<String, List<List<RDFTerm>>> bindingMap = new LinkedHashMap<>();
+
+    private Binder(PreparedSPARQLQuery preparedQuery) {
+      this.preparedQuery = preparedQuery;
+    }
+
+    private List<String> variablesOf(String name) {
+      List<String> variables = preparedQuery.placeholderMap.get(name);
+      checkArgument(variables != null, "The template has no placeholder with name '%s'.", name);
+      return variables;
+    }
+
+    /**
+     * Binds the given values to the placeholder with the given name, which must be in a {@code
+     * VALUES} clause with a single variable.
+     *
+     * @param name   of the placeholder. It must not be null.
+     * @param values that shall be bound. It must not be null.
+     * @return this binder.
+     */
+    public Binder values(String name, Collection<? extends RDFTerm> values) {
+      checkArgument(values != null, "The values must not be null.");
+      checkArgument(variablesOf(name).size() == 1,
+          "The placeholder '%s' must be in a VALUES clause with a single variable.", name);
+      List<List<RDFTerm>> rows = new ArrayList<>(values.size());
+      for (RDFTerm value : values) {
+        rows.add(Collections.singletonList(value));
+      }
+      bindingMap.put(name, Collections.unmodifiableList(rows));
+      return this;
+    }
+
+    /**
+     * Binds the given resources to the placeholder with the given name, which must be in a {@code
+     * VALUES} clause with a single variable.
+     *
+     * @param name      of the placeholder. It must not be null.
+     * @param resources that shall be bound. It must not be null.
+     * @return this binder.
+     */
+    public Binder resources(String name, Collection<Resource> resources) {
+      checkArgument(resources != null, "The resources must not be null.");
+      List<RDFTerm> values = new ArrayList<>(resources.size());
+      for (Resource resource : resources) {
+        values.add(resource.value());
+      }
+      return values(name, values);
+    }
+
+    /**
+     * Binds the given rows to the placeholder with the given name. Each row must have a value for
+     * each variable of the {@code VALUES} clause, whereas {@code null} stands for {@code UNDEF}.
+     *
+     * @param name of the placeholder. It must not be null.
+     * @param rows that shall be bound. It must not be null.
+     * @return this binder.
+     */
+    public Binder rows(String name, List<? extends List<? extends RDFTerm>> rows) {
+      checkArgument(rows != null, "The rows must not be null.");
+      int width = variablesOf(name).size();
+      List<List<RDFTerm>> boundRows = new ArrayList<>(rows.size());
+      for (List<? extends RDFTerm> row : rows) {
+        checkArgument(row.size() == width,
+            "Each row of placeholder '%s' must have %s values, but was %s.", name, width, row);
+        boundRows.add(Collections.unmodifiableList(new ArrayList<RDFTerm>(row)));
+      }
+      bindingMap.put(name, Collections.unmodifiableList(boundRows));
+      return this;
+    }
+
+    /**
+     * Builds the {@link BoundSPARQLQuery}, for which all placeholders must have been bound.
+     *
+     * @return the {@link BoundSPARQLQuery} with the bound rows.
+     */
+    public BoundSPARQLQuery build() {
+      for (String name : preparedQuery.placeholderMap.keySet()) {
+        checkArgument(bindingMap.containsKey(name), "The placeholder '%s' must be bound.", name);
+      }
+      return new BoundSPARQLQuery(preparedQuery,
+          Collections.unmodifiableMap(new LinkedHashMap<>(bindingMap)));
+    }
+  }
+
+}
@@ -0,0 +1,189 @@
+package at.ac.tuwien.ifs.es.middleware.sparqlbuilder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.ExtensionElem;
+import org.eclipse.rdf4j.query.algebra.Group;
+import org.eclipse.rdf4j.query.algebra.GroupElem;
+import org.eclipse.rdf4j.query.algebra.MultiProjection;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.ProjectionElem;
+import org.eclipse.rdf4j.query.algebra.QueryModelNode;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
+
+/**
+ * This class computes a canonical fingerprint of SPARQL queries, which is equal for queries that
+ * only differ in whitespace, prefix declarations, names of variables that are not part of the
+ * result, or the order of the rows in {@code VALUES} clauses. The query is parsed into the RDF4J
+ * algebra, the internal variables are renamed in the order of their first occurrence, and the rows
+ * of {@code VALUES} clauses are sorted. The names of the variables in the result are kept, because
+ * the bindings of the result are accessed by them.
+ *
+ * @author Kevin Haller
+ * @version 1.0
+ * @since 1.0
+ */
+public final class SPARQLQueryCanonicalizer {
+
+  private SPARQLQueryCanonicalizer() {
+  }
+
+  /**
+   * Computes the canonical fingerprint of the given SPARQL query.
+   *
+   * @param query SPARQL query for which the fingerprint shall be computed. It must not be null.
+   * @return the canonical fingerprint of the given query, or {@link Optional#empty()}, if the query
+   * could not be parsed.
+   */
+  public static Optional<String> fingerprint(String query) {
+    checkArgument(query != null, "The given query must not be null.");
+    ParsedQuery parsedQuery;
+    try {
+      parsedQuery = new SPARQLParser().parseQuery(query, null);
+    } catch (RuntimeException e) {
+      return Optional.empty();
+    }
+    TupleExpr tupleExpr = parsedQuery.getTupleExpr();
+    tupleExpr.visit(new CanonicalVisitor(findRootProjection(tupleExpr)));
+    String canonicalForm = parsedQuery.getClass().getSimpleName() + "\n" + parsedQuery
+        .getDataset() + "\n" + tupleExpr;
+    return Optional
+        .of(Hashing.sha256().hashString(canonicalForm, StandardCharsets.UTF_8).toString());
+  }
+
+  /**
+   * Finds the outermost projection of the given algebra, which determines the result bindings.
+   */
+  private static QueryModelNode findRootProjection(TupleExpr tupleExpr) {
+    QueryModelNode[] root = new QueryModelNode[1];
+    tupleExpr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+      @Override
+      public void meet(Projection node) {
+        if (root[0] == null) {
+          root[0] = node;
+        }
+      }
+
+      @Override
+      public void meet(MultiProjection node) {
+        if (root[0] == null) {
+          root[0] = node;
+        }
+      }
+    });
+    return root[0];
+  }
+
+  /**
+   * This visitor renames all variables in the order of their first occurrence, but keeps the
+   * names of the result bindings. Moreover, it sorts the rows of {@code VALUES} clauses.
+   */
+  private static class CanonicalVisitor extends AbstractQueryModelVisitor<RuntimeException> {
+
+    private final QueryModelNode rootProjection;
+    private final Map<String, String> nameMap = new HashMap<>();
+
+    private CanonicalVisitor(QueryModelNode rootProjection) {
+      this.rootProjection = rootProjection;
+    }
+
+    private String rename(String name) {
+      if (name == null) {
+        return null;
+      }
+      return nameMap.computeIfAbsent(name, n -> "v" + nameMap.size());
+    }
+
+    private boolean isPartOfRootProjection(QueryModelNode node) {
+      for (QueryModelNode n = node; n != null; n = n.getParentNode()) {
+        if (n == rootProjection) {
+          return true;
+        } else if (n instanceof Projection || n instanceof MultiProjection) {
+          return false;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void meet(Var node) {
+      node.setName(rename(node.getName()));
+      super.meet(node);
+    }
+
+    @Override
+    public void meet(ProjectionElem node) {
+      node.setSourceName(rename(node.getSourceName()));
+      if (!isPartOfRootProjection(node)) {
+        node.setTargetName(rename(node.getTargetName()));
+      }
+      super.meet(node);
+    }
+
+    @Override
+    public void meet(ExtensionElem node) {
+      node.setName(rename(node.getName()));
+      super.meet(node);
+    }
+
+    @Override
+    public void meet(GroupElem node) {
+      node.setName(rename(node.getName()));
+      super.meet(node);
+    }
+
+    @Override
+    public void meet(Group node) {
+      Set<String> groupBindingNames = new TreeSet<>();
+      for (String name : node.getGroupBindingNames()) {
+        groupBindingNames.add(rename(name));
+      }
+      node.setGroupBindingNames(groupBindingNames);
+      super.meet(node);
+    }
+
+    @Override
+    public void meet(BindingSetAssignment node) {
+      Set<String> bindingNames = new TreeSet<>();
+      for (String name : node.getBindingNames()) {
+        bindingNames.add(rename(name));
+      }
+      List<BindingSet> bindingSets = new ArrayList<>();
+      for (BindingSet bindingSet : node.getBindingSets()) {
+        Map<String, Value> renamedBindings = new TreeMap<>();
+        for (Binding binding : bindingSet) {
+          renamedBindings.put(rename(binding.getName()), binding.getValue());
+        }
+        MapBindingSet renamedBindingSet = new MapBindingSet();
+        renamedBindings.forEach(renamedBindingSet::addBinding);
+        bindingSets.add(renamedBindingSet);
+      }
+      bindingSets.sort(Comparator.comparing(Object::toString));
+      node.setBindingNames(new LinkedHashSet<>(bindingNames));
+      node.setBindingSets(bindingSets);
+      super.meet(node);
+    }
+  }
+
+}